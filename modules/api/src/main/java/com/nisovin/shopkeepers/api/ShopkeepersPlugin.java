@@ -77,6 +77,11 @@ public interface ShopkeepersPlugin extends Plugin {
 	 */
 	public static final String LIST_ADMIN_PERMISSION = "shopkeeper.list.admin";
 
+	/**
+	 * The <code>shopkeeper.trades</code> permission.
+	 */
+	public static final String TRADES_PERMISSION = "shopkeeper.trades";
+
 	/**
 	 * The <code>shopkeeper.remove.own</code> permission.
 	 */
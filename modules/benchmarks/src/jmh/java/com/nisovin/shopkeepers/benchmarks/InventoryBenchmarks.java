@@ -0,0 +1,84 @@
+package com.nisovin.shopkeepers.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Material;
+import org.bukkit.craftbukkit.v1_16_R3.inventory.CraftItemStack;
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.util.TestItemStacks;
+import com.nisovin.shopkeepers.util.inventory.InventoryUtils;
+import com.nisovin.shopkeepers.util.inventory.ItemUtils;
+
+/**
+ * Benchmarks the searching and removal of items in the contents of a player inventory.
+ * <p>
+ * The contents contain various other items, and the searched item is only found in the last few
+ * slots, which resembles the worst case of a full inventory.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InventoryBenchmarks extends AbstractBukkitTest {
+
+	private static final int INVENTORY_SIZE = 36;
+	private static final int MATCHING_SLOTS = 4;
+
+	private @Nullable ItemStack[] contents;
+	private @Nullable ItemStack[] workingContents;
+	private ItemStack searchedItem;
+
+	@Setup
+	public void setup() {
+		contents = new @Nullable ItemStack[INVENTORY_SIZE];
+		int otherSlots = INVENTORY_SIZE - MATCHING_SLOTS;
+		for (int slot = 0; slot < otherSlots; slot++) {
+			if (slot % 2 == 0) {
+				contents[slot] = CraftItemStack.asCraftCopy(TestItemStacks.createItemStackDisplayName());
+			} else {
+				contents[slot] = CraftItemStack.asCraftCopy(new ItemStack(Material.COBBLESTONE, 64));
+			}
+		}
+
+		ItemStack item = TestItemStacks.createItemStackComplete();
+		item.setAmount(16);
+		for (int slot = otherSlots; slot < INVENTORY_SIZE; slot++) {
+			contents[slot] = CraftItemStack.asCraftCopy(item);
+		}
+
+		searchedItem = TestItemStacks.createItemStackComplete();
+		workingContents = new @Nullable ItemStack[INVENTORY_SIZE];
+	}
+
+	@Setup(Level.Invocation)
+	public void resetWorkingContents() {
+		// Removing items replaces the affected item stacks inside the array with modified copies:
+		System.arraycopy(contents, 0, workingContents, 0, INVENTORY_SIZE);
+	}
+
+	@Benchmark
+	public boolean containsAtLeast() {
+		return InventoryUtils.containsAtLeast(contents, searchedItem, 48);
+	}
+
+	@Benchmark
+	public boolean containsAtLeastMissing() {
+		return InventoryUtils.containsAtLeast(contents, searchedItem, 100);
+	}
+
+	@Benchmark
+	public int removeItems() {
+		return InventoryUtils.removeItems(
+				workingContents,
+				ItemUtils.similarItems(searchedItem),
+				48
+		);
+	}
+}
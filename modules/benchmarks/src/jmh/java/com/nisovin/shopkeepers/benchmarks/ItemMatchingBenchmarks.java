@@ -0,0 +1,106 @@
+package com.nisovin.shopkeepers.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.craftbukkit.v1_16_R3.inventory.CraftItemStack;
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.util.TestItemStacks;
+import com.nisovin.shopkeepers.util.inventory.ItemData;
+import com.nisovin.shopkeepers.util.inventory.ItemSerialization;
+import com.nisovin.shopkeepers.util.inventory.ItemUtils;
+
+/**
+ * Benchmarks the comparison of item stacks.
+ * <p>
+ * The compared item stacks are {@link CraftItemStack}s, since this matches the item stacks that we
+ * usually deal with when comparing the contents of inventories.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemMatchingBenchmarks extends AbstractBukkitTest {
+
+	private ItemStack completeItem;
+	private ItemStack completeItemCopy;
+	private ItemStack basicItem;
+	private ItemStack differentNameItem;
+	private ItemData completeItemData;
+	private ItemData basicItemData;
+	// The serialized metadata of the complete item data, for comparisons with the matching of the
+	// serialized item data:
+	private Map<? extends @NonNull String, @NonNull ?> completeItemMetaData;
+
+	@Setup
+	public void setup() {
+		completeItem = CraftItemStack.asCraftCopy(TestItemStacks.createItemStackComplete());
+		completeItemCopy = CraftItemStack.asCraftCopy(TestItemStacks.createItemStackComplete());
+		basicItem = CraftItemStack.asCraftCopy(TestItemStacks.createItemStackBasic());
+		completeItemData = new ItemData(TestItemStacks.createItemStackComplete());
+		basicItemData = new ItemData(TestItemStacks.createItemStackBasic());
+		differentNameItem = CraftItemStack.asCraftCopy(ItemUtils.setDisplayName(
+				TestItemStacks.createItemStackComplete(),
+				"different name"
+		));
+		completeItemMetaData = ItemSerialization.serializeItemMetaOrEmpty(
+				completeItemData.getItemMeta()
+		);
+	}
+
+	@Benchmark
+	public boolean isSimilarComplete() {
+		return ItemUtils.isSimilar(completeItem, completeItemCopy);
+	}
+
+	@Benchmark
+	public boolean isSimilarDifferentType() {
+		return ItemUtils.isSimilar(completeItem, basicItem);
+	}
+
+	@Benchmark
+	public boolean matchesDataComplete() {
+		return ItemUtils.matchesData(completeItem, completeItemCopy);
+	}
+
+	@Benchmark
+	public boolean itemDataMatchesComplete() {
+		return completeItemData.matches(completeItemCopy);
+	}
+
+	@Benchmark
+	public boolean itemDataMatchesBasic() {
+		return basicItemData.matches(completeItem);
+	}
+
+	@Benchmark
+	public boolean itemDataMatchesCompleteSerialized() {
+		return ItemUtils.matchesData(
+				completeItemCopy,
+				completeItemData.getType(),
+				completeItemMetaData,
+				false
+		);
+	}
+
+	@Benchmark
+	public boolean itemDataMatchesDifferentName() {
+		return completeItemData.matches(differentNameItem);
+	}
+
+	@Benchmark
+	public boolean itemDataMatchesDifferentNameSerialized() {
+		return ItemUtils.matchesData(
+				differentNameItem,
+				completeItemData.getType(),
+				completeItemMetaData,
+				false
+		);
+	}
+}
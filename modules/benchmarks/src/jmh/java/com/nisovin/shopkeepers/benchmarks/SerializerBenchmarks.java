@@ -0,0 +1,72 @@
+package com.nisovin.shopkeepers.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.util.TestItemStacks;
+import com.nisovin.shopkeepers.util.bukkit.ConfigUtils;
+import com.nisovin.shopkeepers.util.json.JsonUtils;
+import com.nisovin.shopkeepers.util.yaml.YamlUtils;
+
+/**
+ * Benchmarks the YAML and Json serialization of item stacks.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializerBenchmarks extends AbstractBukkitTest {
+
+	private ItemStack itemStack;
+	private Map<@NonNull String, @NonNull Object> serializedItemStack;
+	private String yaml;
+	private String json;
+	private String configYaml;
+
+	@Setup
+	public void setup() {
+		itemStack = TestItemStacks.createItemStackComplete();
+		serializedItemStack = ConfigUtils.serializeDeeply(itemStack);
+		yaml = YamlUtils.toCompactYaml(serializedItemStack);
+		json = JsonUtils.toJson(itemStack);
+		configYaml = ConfigUtils.toConfigYaml("item", itemStack);
+	}
+
+	@Benchmark
+	public String toCompactYaml() {
+		return YamlUtils.toCompactYaml(serializedItemStack);
+	}
+
+	@Benchmark
+	public @Nullable Object fromYaml() {
+		return YamlUtils.fromYaml(yaml);
+	}
+
+	@Benchmark
+	public String toJson() {
+		return JsonUtils.toJson(itemStack);
+	}
+
+	@Benchmark
+	public @Nullable Object fromJson() {
+		return JsonUtils.fromJson(json);
+	}
+
+	@Benchmark
+	public String toConfigYaml() {
+		return ConfigUtils.toConfigYaml("item", itemStack);
+	}
+
+	@Benchmark
+	public @Nullable Object fromConfigYaml() {
+		return ConfigUtils.fromConfigYaml(configYaml, "item");
+	}
+}
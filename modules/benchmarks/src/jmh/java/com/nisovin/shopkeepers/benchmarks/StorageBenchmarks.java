@@ -0,0 +1,100 @@
+package com.nisovin.shopkeepers.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.util.TestItemStacks;
+import com.nisovin.shopkeepers.util.data.persistence.DataStore;
+import com.nisovin.shopkeepers.util.data.persistence.InvalidDataFormatException;
+import com.nisovin.shopkeepers.util.data.persistence.bukkit.BukkitConfigDataStore;
+
+/**
+ * Benchmarks the serialization and deserialization of the save data of a number of shopkeepers.
+ * <p>
+ * The shopkeeper storage stores the data of all shopkeepers inside a single YAML based data store.
+ * This benchmark uses the same kind of data store, filled with data that resembles the data of
+ * typical player shopkeepers.
+ * <p>
+ * Only the round trip through the data store is measured. The preparation of the save data by the
+ * shopkeeper storage (i.e. the saving of the individual shopkeepers into the data store), the
+ * loading of the shopkeepers from the loaded data, and file IO are not included.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmarks extends AbstractBukkitTest {
+
+	private static final int OFFERS_PER_SHOPKEEPER = 10;
+
+	@Param({ "100", "1000" })
+	public int shopkeeperCount;
+
+	private DataStore dataStore;
+	private String saveData;
+
+	@Setup
+	public void setup() {
+		dataStore = BukkitConfigDataStore.ofNewYamlConfig();
+		dataStore.set("data-version", "3|2730");
+		for (int id = 1; id <= shopkeeperCount; id++) {
+			dataStore.set(String.valueOf(id), createShopkeeperData(id));
+		}
+		saveData = dataStore.saveToString();
+	}
+
+	private static Map<@NonNull String, @NonNull Object> createShopkeeperData(int id) {
+		Map<@NonNull String, @NonNull Object> data = new LinkedHashMap<>();
+		data.put("uniqueId", "00000000-0000-0000-0000-" + String.format("%012d", id));
+		data.put("name", "Shop " + id);
+		data.put("type", "sell");
+		data.put("world", "world");
+		data.put("x", id);
+		data.put("y", 64);
+		data.put("z", -id);
+		data.put("yaw", 0.0F);
+		data.put("owner uuid", "00000000-0000-0000-0000-000000000001");
+		data.put("owner", "Owner");
+
+		Map<@NonNull String, @NonNull Object> object = new LinkedHashMap<>();
+		object.put("type", "villager");
+		data.put("object", object);
+
+		List<@NonNull Map<@NonNull String, @NonNull Object>> offers = new ArrayList<>();
+		for (int i = 0; i < OFFERS_PER_SHOPKEEPER; i++) {
+			Map<@NonNull String, @NonNull Object> offer = new LinkedHashMap<>();
+			ItemStack item = (i % 2 == 0)
+					? TestItemStacks.createItemStackComplete()
+					: new ItemStack(Material.DIAMOND_SWORD);
+			offer.put("item", item);
+			offer.put("price", 10 + i);
+			offers.add(offer);
+		}
+		data.put("offers", offers);
+		return data;
+	}
+
+	@Benchmark
+	public String save() {
+		return dataStore.saveToString();
+	}
+
+	@Benchmark
+	public DataStore load() throws InvalidDataFormatException {
+		DataStore loadedDataStore = BukkitConfigDataStore.ofNewYamlConfig();
+		loadedDataStore.loadFromString(saveData);
+		return loadedDataStore;
+	}
+}
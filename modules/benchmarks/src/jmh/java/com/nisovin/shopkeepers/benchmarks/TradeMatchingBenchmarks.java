@@ -0,0 +1,109 @@
+package com.nisovin.shopkeepers.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Material;
+import org.bukkit.craftbukkit.v1_16_R3.inventory.CraftItemStack;
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.nisovin.shopkeepers.api.ShopkeepersAPI;
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.compat.FailedHandler;
+import com.nisovin.shopkeepers.compat.NMSManager;
+import com.nisovin.shopkeepers.shopkeeper.SKTradingRecipe;
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.util.TestItemStacks;
+import com.nisovin.shopkeepers.util.inventory.ItemUtils;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * Benchmarks the matching of the items offered by a player against the items required by a trading
+ * recipe.
+ * <p>
+ * This performs the same checks as the trading handler for every trade attempt: It compares the
+ * item amounts and then uses the trading recipe's item matching to compare the items, in both
+ * possible item orders. For comparison, {@link #matchTradeUncached()} uses the NMS provider's item
+ * matching directly, as it is used for trading recipes that are not provided by the Shopkeepers
+ * plugin.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TradeMatchingBenchmarks extends AbstractBukkitTest {
+
+	private SKTradingRecipe tradingRecipe;
+	private ItemStack offeredItem1;
+	private @Nullable ItemStack offeredItem2;
+
+	@Setup
+	public void setup() throws Exception {
+		if (!NMSManager.hasProvider()) {
+			NMSManager.load(ShopkeepersAPI.getPlugin());
+		}
+		Validate.State.isTrue(!(NMSManager.getProvider() instanceof FailedHandler),
+				"The NMS provider for this server version could not be set up!");
+
+		tradingRecipe = new SKTradingRecipe(
+				new ItemStack(Material.DIAMOND),
+				CraftItemStack.asCraftCopy(TestItemStacks.createItemStackComplete()),
+				CraftItemStack.asCraftCopy(new ItemStack(Material.EMERALD, 10))
+		);
+		// The required items are offered in swapped order:
+		offeredItem1 = CraftItemStack.asCraftCopy(new ItemStack(Material.EMERALD, 32));
+		offeredItem2 = CraftItemStack.asCraftCopy(TestItemStacks.createItemStackComplete());
+	}
+
+	private static boolean matchesAmounts(
+			@Nullable ItemStack offeredItem1,
+			@Nullable ItemStack offeredItem2,
+			SKTradingRecipe tradingRecipe
+	) {
+		return ItemUtils.getItemStackAmount(offeredItem1)
+				>= ItemUtils.getItemStackAmount(tradingRecipe.getItem1())
+				&& ItemUtils.getItemStackAmount(offeredItem2)
+						>= ItemUtils.getItemStackAmount(tradingRecipe.getItem2());
+	}
+
+	private static boolean matches(
+			@Nullable ItemStack offeredItem1,
+			@Nullable ItemStack offeredItem2,
+			SKTradingRecipe tradingRecipe
+	) {
+		return matchesAmounts(offeredItem1, offeredItem2, tradingRecipe)
+				&& tradingRecipe.matchesItem1(offeredItem1)
+				&& tradingRecipe.matchesItem2(offeredItem2);
+	}
+
+	private static boolean matchesUncached(
+			@Nullable ItemStack offeredItem1,
+			@Nullable ItemStack offeredItem2,
+			SKTradingRecipe tradingRecipe
+	) {
+		UnmodifiableItemStack requiredItem1 = tradingRecipe.getItem1();
+		UnmodifiableItemStack requiredItem2 = tradingRecipe.getItem2();
+		return matchesAmounts(offeredItem1, offeredItem2, tradingRecipe)
+				&& NMSManager.getProvider().matches(offeredItem1, requiredItem1)
+				&& NMSManager.getProvider().matches(offeredItem2, requiredItem2);
+	}
+
+	@Benchmark
+	public boolean matchTrade() {
+		if (matches(offeredItem1, offeredItem2, tradingRecipe)) {
+			return true;
+		}
+		return matches(offeredItem2, offeredItem1, tradingRecipe);
+	}
+
+	@Benchmark
+	public boolean matchTradeUncached() {
+		if (matchesUncached(offeredItem1, offeredItem2, tradingRecipe)) {
+			return true;
+		}
+		return matchesUncached(offeredItem2, offeredItem1, tradingRecipe);
+	}
+}
@@ -695,6 +695,12 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		return playerShops;
 	}
 
+	// TRADE LOGGING
+
+	public TradeLoggers getTradeLoggers() {
+		return tradeLoggers;
+	}
+
 	// TRADE NOTIFICATIONS
 
 	public TradeNotifications getTradeNotifications() {
@@ -1,22 +1,19 @@
 package com.nisovin.shopkeepers.commands.arguments;
 
 import java.util.Collections;
-import java.util.Locale;
-import java.util.Objects;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
-import org.checkerframework.checker.nullness.qual.Nullable;
 
-import com.nisovin.shopkeepers.api.ShopkeepersAPI;
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
-import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
 import com.nisovin.shopkeepers.commands.lib.CommandInput;
 import com.nisovin.shopkeepers.commands.lib.argument.filter.ArgumentFilter;
 import com.nisovin.shopkeepers.commands.lib.arguments.ObjectNameArgument;
 import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
+import com.nisovin.shopkeepers.shopkeeper.registry.ShopkeeperNameIndex;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
 import com.nisovin.shopkeepers.util.java.PredicateUtils;
 import com.nisovin.shopkeepers.util.java.StringUtils;
@@ -81,24 +78,21 @@ public class ShopkeeperNameArgument extends ObjectNameArgument {
 		}
 
 		// Strips color, normalizes whitespace, converts to lowercase:
-		String normalizedNamePrefix = StringUtils.normalize(TextUtils.stripColor(namePrefix));
-		// TODO Improve by using a TreeMap for the prefix matching?
-		ShopkeeperRegistry shopkeeperRegistry = ShopkeepersAPI.getShopkeeperRegistry();
+		String normalizedNamePrefix = ShopkeeperNameIndex.normalize(namePrefix);
+		// The name index only provides the shopkeepers with matching names. The returned stream is
+		// lazily evaluated, so only the shopkeepers for the actually requested suggestions are
+		// looked up.
+		ShopkeeperNameIndex nameIndex = SKShopkeepersPlugin.getInstance().getShopkeeperRegistry()
+				.getNameIndex();
 		// TODO CheckerFramework complains when using a wildcard Stream here.
-		Stream<@NonNull Shopkeeper> shopkeepers = Unsafe.castNonNull(shopkeeperRegistry.getAllShopkeepers().stream());
+		Stream<@NonNull Shopkeeper> shopkeepers = Unsafe.castNonNull(
+				nameIndex.getShopkeepersByNormalizedNamePrefix(normalizedNamePrefix)
+		);
 		Iterable<@NonNull String> suggestions = shopkeepers
 				.filter(shopkeeperFilter)
-				.<@Nullable String>map(shopkeeper -> {
-					String name = TextUtils.stripColor(shopkeeper.getName());
-					if (name.isEmpty()) return null;
-					String normalizedWithCase = StringUtils.normalizeKeepCase(name);
-					String normalized = normalizedWithCase.toLowerCase(Locale.ROOT);
-					if (normalized.startsWith(normalizedNamePrefix)) {
-						return normalizedWithCase;
-					}
-					return null; // No match
-				}).filter(Objects::nonNull)
-				.<@NonNull String>map(Unsafe::assertNonNull)::iterator;
+				.map(shopkeeper -> StringUtils.normalizeKeepCase(
+						TextUtils.stripColor(shopkeeper.getName())
+				))::iterator;
 		return suggestions;
 	}
 
@@ -0,0 +1,81 @@
+package com.nisovin.shopkeepers.commands.lib;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.util.java.Pair;
+
+/**
+ * A trie of the normalized command aliases of a {@link CommandRegistry}.
+ * <p>
+ * Each node of the trie stores the alias completions for its prefix: For each command with an
+ * alias that starts with the prefix, the first such alias (in the order of the registry's
+ * aliases). Looking up the completions for a prefix therefore only requires to walk the characters
+ * of the prefix, instead of comparing the prefix with all aliases of the registry.
+ * <p>
+ * The trie is immutable and needs to be recreated when the registry's aliases change.
+ */
+final class AliasTrie {
+
+	private static final class Node {
+
+		private final Map<@NonNull Character, @NonNull Node> children = new HashMap<>(4);
+		private final List<@NonNull Pair<@NonNull String, @NonNull Command>> completions
+				= new ArrayList<>(4);
+
+		void addCompletion(String alias, Command command) {
+			// All aliases for the same command are provided in succession: We only keep the first
+			// alias of each command.
+			if (!completions.isEmpty()) {
+				Command lastCommand = completions.get(completions.size() - 1).getSecond();
+				if (lastCommand == command) return;
+			}
+			completions.add(Pair.of(alias, command));
+		}
+	}
+
+	private final Node root = new Node();
+
+	/**
+	 * Creates a new {@link AliasTrie}.
+	 * 
+	 * @param commandsByAlias
+	 *            the normalized aliases and the commands they are mapped to, with all aliases for
+	 *            the same command in succession, not <code>null</code>
+	 */
+	AliasTrie(Map<? extends @NonNull String, ? extends @NonNull Command> commandsByAlias) {
+		commandsByAlias.forEach((alias, command) -> {
+			Node node = root;
+			node.addCompletion(alias, command);
+			for (int i = 0; i < alias.length(); i++) {
+				node = node.children.computeIfAbsent(alias.charAt(i), c -> new Node());
+				node.addCompletion(alias, command);
+			}
+		});
+	}
+
+	/**
+	 * Gets the alias completions for the given prefix.
+	 * 
+	 * @param prefix
+	 *            the normalized prefix, not <code>null</code>
+	 * @return an unmodifiable view on the pairs of the first matching alias and the corresponding
+	 *         command, for each command with an alias that starts with the given prefix, not
+	 *         <code>null</code>
+	 */
+	List<? extends @NonNull Pair<@NonNull String, @NonNull Command>> getCompletions(String prefix) {
+		Node node = root;
+		for (int i = 0; i < prefix.length(); i++) {
+			@Nullable Node child = node.children.get(prefix.charAt(i));
+			if (child == null) return Collections.emptyList();
+			node = child;
+		}
+		return Collections.unmodifiableList(node.completions);
+	}
+}
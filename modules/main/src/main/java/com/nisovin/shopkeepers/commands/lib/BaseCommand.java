@@ -1,7 +1,12 @@
 package com.nisovin.shopkeepers.commands.lib;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -21,6 +26,37 @@ import com.nisovin.shopkeepers.util.java.Validate;
  */
 public abstract class BaseCommand extends Command implements CommandExecutor, TabCompleter {
 
+	// Clients request tab completions repeatedly for the same input, for example when the player
+	// moves the cursor. We therefore reuse the last completions of each command sender for the same
+	// input within a short time span.
+	private static final long TAB_COMPLETIONS_CACHE_DURATION_NANOS
+			= TimeUnit.MILLISECONDS.toNanos(500L);
+
+	private static final class CachedTabCompletions {
+
+		private final String commandAlias;
+		private final @NonNull String[] args;
+		// Unmodifiable:
+		private final List<? extends @NonNull String> completions;
+		private final long timestamp; // In nanoseconds
+
+		CachedTabCompletions(
+				String commandAlias,
+				@NonNull String[] args,
+				List<? extends @NonNull String> completions
+		) {
+			this.commandAlias = commandAlias;
+			this.args = args.clone();
+			this.completions = Collections.unmodifiableList(new ArrayList<>(completions));
+			this.timestamp = System.nanoTime();
+		}
+
+		boolean isValid(String commandAlias, @NonNull String[] args) {
+			if (System.nanoTime() - timestamp > TAB_COMPLETIONS_CACHE_DURATION_NANOS) return false;
+			return this.commandAlias.equals(commandAlias) && Arrays.equals(this.args, args);
+		}
+	}
+
 	private static PluginCommand getPluginCommand(JavaPlugin plugin, String commandName) {
 		Validate.notNull(plugin, "plugin is null");
 		Validate.notEmpty(commandName, "commandName is null or empty");
@@ -37,6 +73,11 @@ public abstract class BaseCommand extends Command implements CommandExecutor, Ta
 		return new ArrayList<>(Unsafe.cast(aliases));
 	}
 
+	// Weak keys: Does not keep the command senders (e.g. players that left the server) alive.
+	// Synchronized: Some servers request tab completions asynchronously.
+	private final Map<@NonNull CommandSender, @NonNull CachedTabCompletions> tabCompletionsCache
+			= Collections.synchronizedMap(new WeakHashMap<>());
+
 	/**
 	 * Creates a new {@link BaseCommand} that configures and binds itself to the specified
 	 * {@link PluginCommand}.
@@ -88,6 +129,9 @@ public abstract class BaseCommand extends Command implements CommandExecutor, Ta
 			String commandAlias,
 			@NonNull String[] args
 	) {
+		// The command might change the completions, e.g. by creating a shopkeeper:
+		tabCompletionsCache.remove(sender);
+
 		CommandInput input = new CommandInput(sender, this, commandAlias, args);
 		this.handleCommand(input);
 		// We completely handle the command, including printing usage or help on syntax failure:
@@ -101,7 +145,17 @@ public abstract class BaseCommand extends Command implements CommandExecutor, Ta
 			String commandAlias,
 			@NonNull String[] args
 	) {
+		// We return a copy of the cached completions, since the caller might modify the list (e.g.
+		// sort or filter it):
+		CachedTabCompletions cached = tabCompletionsCache.get(sender);
+		if (cached != null && cached.isValid(commandAlias, args)) {
+			return new ArrayList<>(cached.completions);
+		}
+
 		CommandInput input = new CommandInput(sender, this, commandAlias, args);
-		return Unsafe.cast(this.handleTabCompletion(input));
+		List<? extends @NonNull String> completions = this.handleTabCompletion(input);
+		cached = new CachedTabCompletions(commandAlias, args, completions);
+		tabCompletionsCache.put(sender, cached);
+		return new ArrayList<>(cached.completions);
 	}
 }
@@ -6,7 +6,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.function.Supplier;
 
 import org.bukkit.ChatColor;
@@ -31,6 +30,7 @@ import com.nisovin.shopkeepers.text.Text;
 import com.nisovin.shopkeepers.util.bukkit.PermissionUtils;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
 import com.nisovin.shopkeepers.util.java.MapUtils;
+import com.nisovin.shopkeepers.util.java.Pair;
 import com.nisovin.shopkeepers.util.java.StringUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.logging.Log;
@@ -1157,33 +1157,21 @@ public abstract class Command {
 		if (argsReader.getRemainingSize() == 1) {
 			String finalArgument = CommandUtils.normalize(argsReader.peek());
 			// Include matching child-command aliases (max one per command):
-			// Asserts that the aliases-map provides all aliases for the same command in succession.
-			Command lastMatchingCommand = null;
-			for (Entry<? extends @NonNull String, ? extends @NonNull Command> aliasEntry : this.getChildCommands().getAliasesMap().entrySet()) {
-				String alias = aliasEntry.getKey(); // Normalized
-				Command aliasCommand = aliasEntry.getValue();
-				if (lastMatchingCommand != null && lastMatchingCommand == aliasCommand) {
-					// We have already included a suggestion for this child command, skip:
+			List<? extends @NonNull Pair<@NonNull String, @NonNull Command>> aliasCompletions
+					= this.getChildCommands().getAliasCompletions(finalArgument);
+			for (Pair<@NonNull String, @NonNull Command> aliasCompletion : aliasCompletions) {
+				String alias = aliasCompletion.getFirst(); // Normalized
+				Command aliasCommand = aliasCompletion.getSecond();
+
+				// Check if recipient even has required permission for this command:
+				if (!aliasCommand.testPermission(sender)) {
+					// Missing permission for this command, skip:
 					continue;
 				}
-				// We have reached an alias for a new child command:
-				lastMatchingCommand = null;
-
-				// Does the alias match the input?
-				if (alias.startsWith(finalArgument)) {
-					// Exclude further aliases for this command:
-					lastMatchingCommand = aliasCommand;
-
-					// Check if recipient even has required permission for this command:
-					if (!aliasCommand.testPermission(sender)) {
-						// Missing permission for this command, skip:
-						continue;
-					}
-
-					// Add this alias to the suggestions:
-					// TODO Maybe use the original alias here, and not the normalized one?
-					suggestions.add(alias);
-				}
+
+				// Add this alias to the suggestions:
+				// TODO Maybe use the original alias here, and not the normalized one?
+				suggestions.add(alias);
 			}
 		}
 
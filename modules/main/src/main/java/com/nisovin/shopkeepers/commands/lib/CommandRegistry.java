@@ -15,6 +15,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.util.java.Pair;
 import com.nisovin.shopkeepers.util.java.Validate;
 
 public class CommandRegistry {
@@ -29,6 +30,8 @@ public class CommandRegistry {
 	// succession.
 	private final Map<@NonNull String, @NonNull Command> commandsByAlias = new LinkedHashMap<>();
 	private final Map<@NonNull String, @NonNull Command> commandsByAliasView = Collections.unmodifiableMap(commandsByAlias);
+	// Lazily set up, and reset whenever the aliases change:
+	private @Nullable AliasTrie aliasTrie = null;
 
 	public CommandRegistry(@UnknownInitialization Command parent) {
 		Validate.notNull(parent, "parent is null");
@@ -59,6 +62,7 @@ public class CommandRegistry {
 
 		// Register command:
 		commands.add(command);
+		aliasTrie = null;
 
 		// Set parent command:
 		command.setParent(parent);
@@ -87,6 +91,7 @@ public class CommandRegistry {
 
 		// Unregister command:
 		commands.remove(command);
+		aliasTrie = null;
 
 		// Unset parent command:
 		command.setParent(null);
@@ -134,6 +139,31 @@ public class CommandRegistry {
 		return commandsByAliasView;
 	}
 
+	/**
+	 * Gets the registered command aliases that start with the given prefix, with at most one alias
+	 * per command.
+	 * <p>
+	 * For each command with an alias that starts with the given prefix, this returns the first
+	 * such alias, in the order of {@link #getAliases()}. The aliases are looked up in a trie of the
+	 * registered aliases.
+	 * 
+	 * @param prefix
+	 *            the prefix, not <code>null</code>
+	 * @return an unmodifiable view on the pairs of matching {@link CommandUtils#normalize(String)
+	 *         normalized} aliases and the commands they are mapped to, not <code>null</code>
+	 */
+	public List<? extends @NonNull Pair<@NonNull String, @NonNull Command>> getAliasCompletions(
+			String prefix
+	) {
+		Validate.notNull(prefix, "prefix is null");
+		AliasTrie aliasTrie = this.aliasTrie;
+		if (aliasTrie == null) {
+			aliasTrie = new AliasTrie(commandsByAlias);
+			this.aliasTrie = aliasTrie;
+		}
+		return aliasTrie.getCompletions(CommandUtils.normalize(prefix));
+	}
+
 	/**
 	 * Gets all registered aliases that are mapped to the specified command.
 	 * 
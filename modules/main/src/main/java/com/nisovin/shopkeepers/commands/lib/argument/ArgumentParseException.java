@@ -30,6 +30,17 @@ public class ArgumentParseException extends CommandException {
 		this.argument = argument;
 	}
 
+	/**
+	 * Argument parse exceptions are part of the regular control flow of command parsing and tab
+	 * completion (e.g. when multiple alternative arguments are tried one after the other), and their
+	 * stack traces are not used. We therefore skip the comparably costly capturing of the stack
+	 * trace.
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+
 	/**
 	 * Gets the {@link CommandArgument} that created this exception.
 	 * 
@@ -0,0 +1,143 @@
+package com.nisovin.shopkeepers.commands.lib.arguments;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.commands.lib.CommandInput;
+import com.nisovin.shopkeepers.commands.lib.argument.ArgumentParseException;
+import com.nisovin.shopkeepers.commands.lib.argument.ArgumentsReader;
+import com.nisovin.shopkeepers.commands.lib.argument.CommandArgument;
+import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
+
+/**
+ * Parses a point in time.
+ * <p>
+ * The time can either be specified relative to the current time, as a number followed by one of
+ * the units <code>s</code> (seconds), <code>m</code> (minutes), <code>h</code> (hours),
+ * <code>d</code> (days), or <code>w</code> (weeks), e.g. <code>7d</code> for seven days ago, or as
+ * a date (<code>2023-03-20</code>) or date and time (<code>2023-03-20T18:30</code>) in the server's
+ * time zone. Dates without time refer to the start of the day.
+ * <p>
+ * Provides completions for some common relative times.
+ */
+public class TimestampArgument extends CommandArgument<@NonNull Instant> {
+
+	private static final List<? extends @NonNull String> SUGGESTIONS = Collections.unmodifiableList(
+			Arrays.asList("1h", "12h", "1d", "7d", "30d")
+	);
+
+	public TimestampArgument(String name) {
+		super(name);
+	}
+
+	@Override
+	public Instant parseValue(
+			CommandInput input,
+			CommandContextView context,
+			ArgumentsReader argsReader
+	) throws ArgumentParseException {
+		if (!argsReader.hasNext()) {
+			throw this.missingArgumentError();
+		}
+		String argument = argsReader.next();
+		Instant timestamp = parseTimestamp(
+				argument,
+				Instant.now(),
+				Unsafe.assertNonNull(ZoneId.systemDefault())
+		);
+		if (timestamp == null) {
+			throw this.invalidArgumentError(argument);
+		}
+		return timestamp;
+	}
+
+	/**
+	 * Parses the given point in time.
+	 * 
+	 * @param input
+	 *            the input, not <code>null</code>
+	 * @param now
+	 *            the current time, not <code>null</code>
+	 * @param zone
+	 *            the time zone of dates, not <code>null</code>
+	 * @return the point in time, or <code>null</code> if the input is invalid
+	 */
+	public static @Nullable Instant parseTimestamp(String input, Instant now, ZoneId zone) {
+		String value = input.trim().toLowerCase(Locale.ROOT);
+		if (value.isEmpty()) return null;
+
+		try {
+			Duration duration = parseRelativeTime(value);
+			if (duration != null) {
+				return now.minus(duration);
+			} else if (value.indexOf('t') >= 0) {
+				return LocalDateTime.parse(value.toUpperCase(Locale.ROOT)).atZone(zone).toInstant();
+			} else {
+				return LocalDate.parse(value).atStartOfDay(zone).toInstant();
+			}
+		} catch (DateTimeException | ArithmeticException e) {
+			return null; // Invalid or out of range
+		}
+	}
+
+	private static @Nullable Duration parseRelativeTime(String value) {
+		int unitIndex = value.length() - 1;
+		if (unitIndex <= 0) return null;
+		long amount;
+		try {
+			amount = Long.parseLong(value.substring(0, unitIndex));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		if (amount < 0) return null;
+
+		switch (value.charAt(unitIndex)) {
+		case 's':
+			return Duration.ofSeconds(amount);
+		case 'm':
+			return Duration.ofMinutes(amount);
+		case 'h':
+			return Duration.ofHours(amount);
+		case 'd':
+			return Duration.ofDays(amount);
+		case 'w':
+			return Duration.ofDays(Math.multiplyExact(amount, 7L));
+		default:
+			return null;
+		}
+	}
+
+	@Override
+	public List<? extends @NonNull String> complete(
+			CommandInput input,
+			CommandContextView context,
+			ArgumentsReader argsReader
+	) {
+		if (argsReader.getRemainingSize() != 1) {
+			return Collections.emptyList();
+		}
+
+		List<@NonNull String> suggestions = new ArrayList<>();
+		String partialArg = argsReader.next().toLowerCase(Locale.ROOT);
+		for (String suggestion : SUGGESTIONS) {
+			if (suggestions.size() >= MAX_SUGGESTIONS) break;
+			if (suggestion.startsWith(partialArg)) {
+				suggestions.add(suggestion);
+			}
+		}
+		return Collections.unmodifiableList(suggestions);
+	}
+}
@@ -33,9 +33,14 @@ import com.nisovin.shopkeepers.shopkeeper.activation.ShopkeeperChunkActivator;
 import com.nisovin.shopkeepers.shopkeeper.registry.SKShopkeeperRegistry;
 import com.nisovin.shopkeepers.shopkeeper.spawning.ShopkeeperSpawner;
 import com.nisovin.shopkeepers.shopobjects.living.LivingEntityAI;
+import com.nisovin.shopkeepers.storage.SKShopkeeperStorage;
 import com.nisovin.shopkeepers.text.Text;
+import com.nisovin.shopkeepers.ui.trading.TradingHandler;
+import com.nisovin.shopkeepers.user.SKUser;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.java.WeakInternTable;
 import com.nisovin.shopkeepers.util.taskqueue.TaskQueueStatistics;
+import com.nisovin.shopkeepers.util.timer.LatencyHistogram;
 import com.nisovin.shopkeepers.util.timer.Timings;
 
 class CommandCheck extends Command {
@@ -90,6 +95,8 @@ class CommandCheck extends Command {
 		sender.sendMessage(ChatColor.YELLOW + "All shopkeepers:");
 		sender.sendMessage("  Total: " + shopkeeperRegistry.getAllShopkeepers().size()
 				+ "    (Virtual: " + shopkeeperRegistry.getVirtualShopkeepers().size() + ")");
+		sender.sendMessage("  Not loaded (world not loaded): "
+				+ plugin.getShopkeeperStorage().getDeferredShopkeepersCount());
 		sender.sendMessage("  Unsaved dirty | deleted | dirty storage: "
 				+ plugin.getShopkeeperStorage().getUnsavedDirtyShopkeepersCount()
 				+ " | " + plugin.getShopkeeperStorage().getUnsavedDeletedShopkeepersCount()
@@ -102,9 +109,19 @@ class CommandCheck extends Command {
 		sender.sendMessage("    With active AI: " + livingEntityAI.getActiveAIEntityCount());
 		sender.sendMessage("    With active gravity: " + livingEntityAI.getActiveGravityEntityCount());
 
+		WeakInternTable<?, ?> userInternTable = SKUser.getInternTable();
+		sender.sendMessage("  Interned users | hits | misses | evicted: " + userInternTable.size()
+				+ " | " + userInternTable.getHitCount()
+				+ " | " + userInternTable.getMissCount()
+				+ " | " + userInternTable.getEvictionCount());
+
 		TaskQueueStatistics spawnQueueStatistics = shopkeeperSpawner.getSpawnQueueStatistics();
 		sender.sendMessage("  Pending shopkeeper spawns | max: " + spawnQueueStatistics.getPendingCount()
 				+ " | " + spawnQueueStatistics.getMaxPendingCount());
+		sender.sendMessage("    Spawns per execution | avg spawn time: "
+				+ spawnQueueStatistics.getWorkUnitsPerExecution()
+				+ " | " + TextUtils.format(spawnQueueStatistics.getAverageWorkUnitTimeMillis()) + " ms");
+		sendRecentTimings(sender, "    ", spawnQueueStatistics.getExecutionTimings());
 
 		Timings chunkActivationTimings = chunkActivator.getChunkActivationTimings();
 		double avgChunkActivationTimings = chunkActivationTimings.getAverageTimeMillis();
@@ -113,6 +130,7 @@ class CommandCheck extends Command {
 				+ TextUtils.format(avgChunkActivationTimings) + " ms"
 				+ " | " + TextUtils.format(maxChunkActivationTimings) + " ms"
 				+ " | " + chunkActivationTimings.getCounter());
+		sendRecentTimings(sender, "    ", chunkActivationTimings);
 
 		double avgTotalAITimings = livingEntityAI.getTotalTimings().getAverageTimeMillis();
 		double maxTotalAITiming = livingEntityAI.getTotalTimings().getMaxTimeMillis();
@@ -120,6 +138,7 @@ class CommandCheck extends Command {
 				+ " ticks) (avg | max): "
 				+ TextUtils.format(avgTotalAITimings) + " ms"
 				+ " | " + TextUtils.format(maxTotalAITiming) + " ms");
+		sendRecentTimings(sender, "    ", livingEntityAI.getTotalTimings());
 
 		// Note: These are per activation, which happens only every 20 ticks (not per tick).
 		double avgAIActivationTimings = livingEntityAI.getActivationTimings().getAverageTimeMillis();
@@ -128,6 +147,7 @@ class CommandCheck extends Command {
 				+ LivingEntityAI.AI_ACTIVATION_TICK_RATE + " ticks) (avg | max): "
 				+ TextUtils.format(avgAIActivationTimings) + " ms"
 				+ " | " + TextUtils.format(maxAIActivationTiming) + " ms");
+		sendRecentTimings(sender, "      ", livingEntityAI.getActivationTimings());
 
 		double avgGravityTimings = livingEntityAI.getGravityTimings().getAverageTimeMillis();
 		double maxGravityTiming = livingEntityAI.getGravityTimings().getMaxTimeMillis();
@@ -135,6 +155,7 @@ class CommandCheck extends Command {
 				+ " ticks) (avg | max): "
 				+ TextUtils.format(avgGravityTimings) + " ms"
 				+ " | " + TextUtils.format(maxGravityTiming) + " ms");
+		sendRecentTimings(sender, "      ", livingEntityAI.getGravityTimings());
 
 		double avgAITimings = livingEntityAI.getAITimings().getAverageTimeMillis();
 		double maxAITiming = livingEntityAI.getAITimings().getMaxTimeMillis();
@@ -142,6 +163,14 @@ class CommandCheck extends Command {
 				+ " ticks) (avg | max): "
 				+ TextUtils.format(avgAITimings) + " ms"
 				+ " | " + TextUtils.format(maxAITiming) + " ms");
+		sendRecentTimings(sender, "      ", livingEntityAI.getAITimings());
+
+		SKShopkeeperStorage shopkeeperStorage = plugin.getShopkeeperStorage();
+		sendTimings(sender, "  ", "Save timings", shopkeeperStorage.getSaveTotalTimings());
+		sendTimings(sender, "    ", "Preparation", shopkeeperStorage.getSavePreparationTimings());
+		sendTimings(sender, "    ", "Execution", shopkeeperStorage.getSaveExecutionTimings());
+
+		sendTimings(sender, "  ", "Trade timings", TradingHandler.getTradeTimings());
 
 		for (World world : Bukkit.getWorlds()) {
 			String worldName = world.getName();
@@ -237,4 +266,28 @@ class CommandCheck extends Command {
 			sender.sendMessage("More information is printed when the command is run from console.");
 		}
 	}
+
+	private static void sendTimings(
+			CommandSender sender,
+			String indent,
+			String label,
+			Timings timings
+	) {
+		sender.sendMessage(indent + label + " (avg | max | cnt): "
+				+ TextUtils.format(timings.getAverageTimeMillis()) + " ms"
+				+ " | " + TextUtils.format(timings.getMaxTimeMillis()) + " ms"
+				+ " | " + timings.getCounter());
+		sendRecentTimings(sender, indent + "  ", timings);
+	}
+
+	// Sends the percentiles of the recent timings:
+	private static void sendRecentTimings(CommandSender sender, String indent, Timings timings) {
+		sender.sendMessage(indent + "Last " + LatencyHistogram.WINDOW_SECONDS + " s"
+				+ " (p50 | p95 | p99 | p99.9 | cnt): "
+				+ TextUtils.format(timings.getPercentileTimeMillis(50.0D)) + " ms"
+				+ " | " + TextUtils.format(timings.getPercentileTimeMillis(95.0D)) + " ms"
+				+ " | " + TextUtils.format(timings.getPercentileTimeMillis(99.0D)) + " ms"
+				+ " | " + TextUtils.format(timings.getPercentileTimeMillis(99.9D)) + " ms"
+				+ " | " + timings.getRecentCounter());
+	}
 }
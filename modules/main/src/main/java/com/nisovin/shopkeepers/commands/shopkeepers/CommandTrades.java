@@ -0,0 +1,220 @@
+package com.nisovin.shopkeepers.commands.shopkeepers;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.commands.arguments.ShopkeeperArgument;
+import com.nisovin.shopkeepers.commands.lib.Command;
+import com.nisovin.shopkeepers.commands.lib.CommandException;
+import com.nisovin.shopkeepers.commands.lib.CommandInput;
+import com.nisovin.shopkeepers.commands.lib.arguments.FirstOfArgument;
+import com.nisovin.shopkeepers.commands.lib.arguments.LiteralArgument;
+import com.nisovin.shopkeepers.commands.lib.arguments.NamedArgument;
+import com.nisovin.shopkeepers.commands.lib.arguments.PlayerByNameArgument;
+import com.nisovin.shopkeepers.commands.lib.arguments.PlayerUUIDArgument;
+import com.nisovin.shopkeepers.commands.lib.arguments.PositiveIntegerArgument;
+import com.nisovin.shopkeepers.commands.lib.arguments.TimestampArgument;
+import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
+import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.text.Text;
+import com.nisovin.shopkeepers.tradelog.binary.BinaryTradeLogger;
+import com.nisovin.shopkeepers.tradelog.binary.LoggedItem;
+import com.nisovin.shopkeepers.tradelog.binary.LoggedTrade;
+import com.nisovin.shopkeepers.tradelog.binary.TradeLogQuery;
+import com.nisovin.shopkeepers.util.bukkit.SchedulerUtils;
+import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+class CommandTrades extends Command {
+
+	private static final String ARGUMENT_ALL = "all";
+	private static final String ARGUMENT_SHOPKEEPER = "shopkeeper";
+	private static final String ARGUMENT_PLAYER = "player";
+	private static final String ARGUMENT_PLAYER_UUID = "player:uuid";
+	private static final String ARGUMENT_SINCE = "since";
+	private static final String ARGUMENT_UNTIL = "until";
+	private static final String ARGUMENT_PAGE = "page";
+
+	private static final int ENTRIES_PER_PAGE = 10;
+
+	private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+			.withZone(Unsafe.assertNonNull(ZoneId.systemDefault()));
+
+	private final SKShopkeepersPlugin plugin;
+
+	CommandTrades(SKShopkeepersPlugin plugin) {
+		super("trades");
+		this.plugin = plugin;
+
+		// Set permission:
+		this.setPermission(ShopkeepersPlugin.TRADES_PERMISSION);
+
+		// Set description:
+		this.setDescription(Messages.commandDescriptionTrades);
+
+		// Arguments:
+		this.addArgument(new FirstOfArgument("target", Arrays.asList(
+				new LiteralArgument(ARGUMENT_ALL),
+				new ShopkeeperArgument(ARGUMENT_SHOPKEEPER),
+				new PlayerByNameArgument(ARGUMENT_PLAYER), // Online players
+				// Any other uuid is assumed to be the uuid of a (possibly offline) player:
+				new PlayerUUIDArgument(ARGUMENT_PLAYER_UUID)
+		), true, true)); // Join and reverse formats
+		// The time range has to be specified by name, e.g. "since=7d":
+		this.addArgument(new NamedArgument<>(new TimestampArgument(ARGUMENT_SINCE)).optional());
+		this.addArgument(new NamedArgument<>(new TimestampArgument(ARGUMENT_UNTIL)).optional());
+		this.addArgument(new PositiveIntegerArgument(ARGUMENT_PAGE).orDefaultValue(1));
+	}
+
+	@Override
+	protected void execute(CommandInput input, CommandContextView context) throws CommandException {
+		CommandSender sender = input.getSender();
+		int page = context.get(ARGUMENT_PAGE);
+		Shopkeeper shopkeeper = context.getOrNull(ARGUMENT_SHOPKEEPER);
+		Player player = context.getOrNull(ARGUMENT_PLAYER);
+		UUID playerUUID = context.getOrNull(ARGUMENT_PLAYER_UUID);
+		Instant since = context.getOrNull(ARGUMENT_SINCE);
+		Instant until = context.getOrNull(ARGUMENT_UNTIL);
+
+		BinaryTradeLogger tradeLogger = plugin.getTradeLoggers().getBinaryTradeLogger();
+		if (tradeLogger == null) {
+			TextUtils.sendMessage(sender, Messages.tradeLogDisabled);
+			return;
+		}
+
+		TradeLogQuery query;
+		Text header;
+		@NonNull Object[] headerArguments;
+		if (shopkeeper != null) {
+			String shopName = shopkeeper.getName();
+			query = TradeLogQuery.shop(shopkeeper.getUniqueId());
+			header = Messages.tradesShopHeader;
+			headerArguments = new @NonNull Object[] {
+					"shop", shopName.isEmpty() ? shopkeeper.getUniqueId().toString() : shopName,
+					"page", page
+			};
+		} else if (player != null || playerUUID != null) {
+			String playerName = null;
+			if (player != null) {
+				playerUUID = player.getUniqueId();
+				playerName = player.getName();
+			}
+			query = TradeLogQuery.player(Unsafe.assertNonNull(playerUUID));
+			header = Messages.tradesPlayerHeader;
+			headerArguments = new @NonNull Object[] {
+					"player", TextUtils.getPlayerText(playerName, playerUUID),
+					"page", page
+			};
+		} else {
+			assert context.has(ARGUMENT_ALL);
+			query = TradeLogQuery.all();
+			header = Messages.tradesAllHeader;
+			headerArguments = new @NonNull Object[] { "page", page };
+		}
+		if (since != null || until != null) {
+			query = query.withTimeRange(since, until);
+		}
+
+		// The trade log is read asynchronously. Since the results are streamed, we only read the
+		// trades up to the requested page.
+		int skip = (page - 1) * ENTRIES_PER_PAGE;
+		SchedulerUtils.runAsyncTaskOrOmit(plugin, () -> {
+			List<@NonNull LoggedTrade> trades = new ArrayList<>(ENTRIES_PER_PAGE);
+			boolean failed = false;
+			try {
+				int[] skipped = new int[] { 0 };
+				tradeLogger.query(query, trade -> {
+					if (skipped[0] < skip) {
+						skipped[0]++;
+						return true;
+					}
+					trades.add(trade);
+					return trades.size() < ENTRIES_PER_PAGE;
+				});
+			} catch (IOException e) {
+				Log.severe("Failed to query the trade log: " + query, e);
+				failed = true;
+			}
+
+			boolean queryFailed = failed;
+			SchedulerUtils.runTaskOrOmit(plugin, () -> {
+				sendResults(sender, header, headerArguments, trades, queryFailed);
+			});
+		});
+	}
+
+	private static void sendResults(
+			CommandSender sender,
+			Text header,
+			@NonNull Object[] headerArguments,
+			List<? extends @NonNull LoggedTrade> trades,
+			boolean queryFailed
+	) {
+		if (sender instanceof Player && !((Player) sender).isOnline()) return;
+
+		if (queryFailed) {
+			TextUtils.sendMessage(sender, Messages.tradesQueryFailed);
+			return;
+		}
+
+		TextUtils.sendMessage(sender, header, headerArguments);
+		if (trades.isEmpty()) {
+			TextUtils.sendMessage(sender, Messages.tradesNoneFound);
+			return;
+		}
+
+		for (LoggedTrade trade : trades) {
+			String shopName = trade.getShop().getName();
+			String shop = shopName.isEmpty() ? trade.getShop().getUniqueId().toString() : shopName;
+			int tradeCount = trade.getTradeCount();
+			Text tradeCountText = Text.EMPTY;
+			if (tradeCount > 1) {
+				tradeCountText = Messages.tradeNotificationTradeCount;
+				tradeCountText.setPlaceholderArguments("count", tradeCount);
+			}
+
+			LoggedItem resultItem = trade.getResultItem();
+			LoggedItem item1 = trade.getItem1();
+			LoggedItem item2 = trade.getItem2();
+			if (item2 == null) {
+				TextUtils.sendMessage(sender, Messages.tradesEntryOneItem,
+						"time", TIME_FORMAT.format(trade.getTimestamp()),
+						"player", trade.getPlayer().getName(),
+						"item1Amount", item1.getAmount(),
+						"item1", item1.getType(),
+						"resultItemAmount", resultItem.getAmount(),
+						"resultItem", resultItem.getType(),
+						"shop", shop,
+						"trade_count", tradeCountText
+				);
+			} else {
+				TextUtils.sendMessage(sender, Messages.tradesEntryTwoItems,
+						"time", TIME_FORMAT.format(trade.getTimestamp()),
+						"player", trade.getPlayer().getName(),
+						"item1Amount", item1.getAmount(),
+						"item1", item1.getType(),
+						"item2Amount", item2.getAmount(),
+						"item2", item2.getType(),
+						"resultItemAmount", resultItem.getAmount(),
+						"resultItem", resultItem.getType(),
+						"shop", shop,
+						"trade_count", tradeCountText
+				);
+			}
+		}
+	}
+}
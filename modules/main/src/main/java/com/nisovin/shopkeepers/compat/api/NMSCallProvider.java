@@ -82,6 +82,44 @@ public interface NMSCallProvider {
 			@ReadOnly @Nullable ItemStack required
 	);
 
+	/**
+	 * Creates version-specific data for the given required item stack that can be passed to
+	 * {@link #matches(ItemStack, ItemStack, Object)} to speed up subsequent matches against this
+	 * item stack.
+	 * <p>
+	 * The caller is responsible for only reusing the data for as long as the given item stack is
+	 * not modified.
+	 * 
+	 * @param required
+	 *            the required item stack, not <code>null</code>
+	 * @return the match data, or <code>null</code> if not supported
+	 */
+	public default @Nullable Object createMatchData(@ReadOnly ItemStack required) {
+		return null;
+	}
+
+	/**
+	 * Checks if the <code>provided</code> item stack fulfills the requirements of a trading recipe
+	 * requiring the given <code>required</code> item stack, reusing the given data that has been
+	 * {@link #createMatchData(ItemStack) created} for the required item stack.
+	 * 
+	 * @param provided
+	 *            the provided item stack
+	 * @param required
+	 *            the required item stack, this may be an unmodifiable item stack
+	 * @param requiredMatchData
+	 *            the match data of the required item stack, or <code>null</code>
+	 * @return <code>true</code> if the provided item stack matches the required item stack
+	 * @see #matches(ItemStack, ItemStack)
+	 */
+	public default boolean matches(
+			@ReadOnly @Nullable ItemStack provided,
+			@ReadOnly @Nullable ItemStack required,
+			@Nullable Object requiredMatchData
+	) {
+		return this.matches(provided, required);
+	}
+
 	// Note: It is not safe to reduce the number of trading recipes! Reducing the size below the
 	// selected index can crash the client. It's left to the caller to ensure that the number of
 	// recipes does not get reduced, for example by inserting dummy entries.
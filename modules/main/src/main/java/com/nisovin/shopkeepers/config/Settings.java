@@ -36,6 +36,7 @@ import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.playershops.MaxShopsPermission;
 import com.nisovin.shopkeepers.playershops.PlayerShopsLimit;
 import com.nisovin.shopkeepers.shopkeeper.TradingRecipeDraft;
+import com.nisovin.shopkeepers.storage.SaveFormat;
 import com.nisovin.shopkeepers.util.bukkit.EntityUtils;
 import com.nisovin.shopkeepers.util.bukkit.SoundEffect;
 import com.nisovin.shopkeepers.util.inventory.ItemData;
@@ -65,6 +66,10 @@ public class Settings extends Config {
 	 */
 	public static String fileEncoding = "UTF-8";
 	public static boolean saveInstantly = true;
+	public static boolean saveJournal = false;
+	public static int saveJournalCompactionThreshold = 1000;
+	public static SaveFormat saveFormat = SaveFormat.YAML;
+	public static boolean lazyLoadUnloadedWorlds = false;
 
 	public static boolean convertPlayerItems = false;
 	public static boolean convertAllPlayerItems = true;
@@ -339,6 +344,8 @@ public class Settings extends Config {
 	public static int tradeLogNextMergeTimeoutTicks = 100; // 5 seconds
 
 	public static boolean logTradesToCsv = false;
+	public static int csvTradeLogGroupCommitTicks = 0;
+	public static boolean logTradesToBinary = false;
 
 	public static boolean logItemMetadata = false;
 
@@ -836,6 +843,11 @@ public class Settings extends Config {
 			taxRate = 100;
 		}
 
+		if (saveJournalCompactionThreshold < 1) {
+			Log.warning(this.getLogPrefix() + "'save-journal-compaction-threshold' has to be positive.");
+			saveJournalCompactionThreshold = 1;
+		}
+
 		if (tradeLogMergeDurationTicks < 0) {
 			Log.warning(this.getLogPrefix() + "'trade-log-merge-duration-ticks' cannot be negative.");
 			tradeLogMergeDurationTicks = 0;
@@ -844,6 +856,10 @@ public class Settings extends Config {
 			Log.warning(this.getLogPrefix() + "'trade-log-next-merge-timeout-ticks' cannot be negative.");
 			tradeLogNextMergeTimeoutTicks = 0;
 		}
+		if (csvTradeLogGroupCommitTicks < 0) {
+			Log.warning(this.getLogPrefix() + "'csv-trade-log-group-commit-ticks' cannot be negative.");
+			csvTradeLogGroupCommitTicks = 0;
+		}
 		// Note: If tradeLogNextMergeTimeoutTicks is greater than or equal to
 		// tradeLogMergeDurationTicks, it has no effect. However, we do not print a warning in this
 		// case to allow tradeLogMergeDurationTicks to be easily adjusted inside the config without
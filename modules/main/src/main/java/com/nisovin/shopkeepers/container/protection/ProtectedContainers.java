@@ -21,12 +21,16 @@ import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
+import com.nisovin.shopkeepers.api.util.ChunkCoords;
 import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.container.ShopContainers;
 import com.nisovin.shopkeepers.util.bukkit.BlockLocation;
+import com.nisovin.shopkeepers.util.bukkit.ChunkKeys;
 import com.nisovin.shopkeepers.util.bukkit.MutableBlockLocation;
 import com.nisovin.shopkeepers.util.bukkit.PermissionUtils;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
+import com.nisovin.shopkeepers.util.java.LongHashMap;
+import com.nisovin.shopkeepers.util.java.MutableLong;
 import com.nisovin.shopkeepers.util.java.Validate;
 
 /**
@@ -73,6 +77,9 @@ public class ProtectedContainers {
 	private final ContainerProtectionListener containerProtectionListener = new ContainerProtectionListener(Unsafe.initialized(this));
 	private final InventoryMoveItemListener inventoryMoveItemListener = new InventoryMoveItemListener(Unsafe.initialized(this));
 	private final Map<@NonNull BlockLocation, @NonNull List<@NonNull PlayerShopkeeper>> protectedContainers = new HashMap<>();
+	// World name -> chunk key -> number of protected container entries that (might) affect blocks in
+	// this chunk. Used to quickly skip the lookup of blocks in chunks without protected containers.
+	private final Map<@NonNull String, @NonNull LongHashMap<@NonNull MutableLong>> protectedChunks = new HashMap<>();
 
 	public ProtectedContainers(SKShopkeepersPlugin plugin) {
 		this.plugin = plugin;
@@ -92,6 +99,7 @@ public class ProtectedContainers {
 		HandlerList.unregisterAll(containerProtectionListener);
 		HandlerList.unregisterAll(inventoryMoveItemListener);
 		protectedContainers.clear();
+		protectedChunks.clear();
 	}
 
 	private BlockLocation getSharedKey(String worldName, int x, int y, int z) {
@@ -108,6 +116,7 @@ public class ProtectedContainers {
 		);
 		assert shopkeepers != null;
 		shopkeepers.add(shopkeeper);
+		this.updateProtectedChunks(location, 1);
 	}
 
 	public void removeContainer(BlockLocation location, PlayerShopkeeper shopkeeper) {
@@ -117,7 +126,9 @@ public class ProtectedContainers {
 		// a new entry for the passed key. We can therefore safely use the given location, without
 		// first creating an immutable copy of it.
 		protectedContainers.computeIfPresent(location, (key, shopkeepers) -> {
-			shopkeepers.remove(shopkeeper);
+			if (shopkeepers.remove(shopkeeper)) {
+				this.updateProtectedChunks(location, -1);
+			}
 			if (shopkeepers.isEmpty()) {
 				// TODO Requires uncheckedNull due to Checker Framework limitation
 				return Unsafe.uncheckedNull(); // Removes the mapping
@@ -127,6 +138,80 @@ public class ProtectedContainers {
 		});
 	}
 
+	// A chest that is connected to a protected chest, as well as the location of a double chest
+	// inventory, can be located in an adjacent chunk if the protected container is located at the
+	// border of its chunk. We therefore also mark the adjacent chunks in these cases.
+	private void updateProtectedChunks(BlockLocation location, int delta) {
+		// Containers without world are never matched by any block:
+		String worldName = location.getWorldName();
+		if (worldName == null) return;
+
+		LongHashMap<@NonNull MutableLong> worldChunks = protectedChunks.computeIfAbsent(
+				worldName,
+				key -> new LongHashMap<>()
+		);
+		assert worldChunks != null;
+		int blockX = location.getX();
+		int blockZ = location.getZ();
+		int chunkX = ChunkCoords.fromBlock(blockX);
+		int chunkZ = ChunkCoords.fromBlock(blockZ);
+		updateProtectedChunk(worldChunks, chunkX, chunkZ, delta);
+
+		int chunkBlockX = blockX & 15;
+		if (chunkBlockX == 0) {
+			updateProtectedChunk(worldChunks, chunkX - 1, chunkZ, delta);
+		} else if (chunkBlockX == 15) {
+			updateProtectedChunk(worldChunks, chunkX + 1, chunkZ, delta);
+		}
+		int chunkBlockZ = blockZ & 15;
+		if (chunkBlockZ == 0) {
+			updateProtectedChunk(worldChunks, chunkX, chunkZ - 1, delta);
+		} else if (chunkBlockZ == 15) {
+			updateProtectedChunk(worldChunks, chunkX, chunkZ + 1, delta);
+		}
+
+		if (worldChunks.isEmpty()) {
+			protectedChunks.remove(worldName);
+		}
+	}
+
+	private static void updateProtectedChunk(
+			LongHashMap<@NonNull MutableLong> worldChunks,
+			int chunkX,
+			int chunkZ,
+			int delta
+	) {
+		long chunkKey = ChunkKeys.of(chunkX, chunkZ);
+		MutableLong count = worldChunks.computeIfAbsent(chunkKey, key -> new MutableLong());
+		count.increment(delta);
+		assert count.getValue() >= 0;
+		if (count.getValue() <= 0) {
+			worldChunks.remove(chunkKey);
+		}
+	}
+
+	/**
+	 * Quickly checks if the specified block might be a protected container, or a chest that is
+	 * connected to a protected container.
+	 * <p>
+	 * This only checks if there are any protected containers in or near the chunk of the specified
+	 * block, without looking up the block itself. If this returns <code>false</code>, the block is
+	 * guaranteed to not be protected.
+	 * 
+	 * @param worldName
+	 *            the world name
+	 * @param blockX
+	 *            the block's x coordinate
+	 * @param blockZ
+	 *            the block's z coordinate
+	 * @return <code>true</code> if the block might be protected
+	 */
+	public boolean mightBeProtected(String worldName, int blockX, int blockZ) {
+		LongHashMap<@NonNull MutableLong> worldChunks = protectedChunks.get(worldName);
+		if (worldChunks == null) return false;
+		return worldChunks.containsKey(ChunkKeys.fromBlock(blockX, blockZ));
+	}
+
 	// Gets the shopkeepers that are directly using the container at the specified location:
 	private @Nullable List<? extends @NonNull PlayerShopkeeper> _getShopkeepers(
 			String worldName,
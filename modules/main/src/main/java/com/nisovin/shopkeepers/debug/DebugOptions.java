@@ -37,6 +37,9 @@ public final class DebugOptions {
 	// Logs detailed item information for the selected trade and the items in the input slots
 	// whenever a player clicks an empty trading result slot.
 	public static final String emptyTrades = add("empty-trades");
+	// Verifies the stock that is looked up in the container stock index of player shops against a
+	// full scan of the container contents, and logs any mismatches.
+	public static final String containerStockIndex = add("container-stock-index");
 
 	private static String add(String debugOption) {
 		allOptions.add(debugOption);
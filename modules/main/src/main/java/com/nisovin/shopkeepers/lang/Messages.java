@@ -659,6 +659,15 @@ public class Messages extends Config {
 	public static Text listPlayerShopsHeader = Text.parse("&9Player '&e{player}&9' has &e{shopsCount} &9shops: &e(Page {page} of {maxPage})");
 	public static Text listShopsEntry = Text.parse("  &e{shopId}) &7{shopName}&r&8at &7({location})&8, type: &7{shopType}&8, object: &7{objectType}");
 
+	public static Text tradeLogDisabled = Text.parse("&7Trades are not logged to the binary trade log.");
+	public static Text tradesQueryFailed = Text.parse("&cFailed to query the trade log! Check the server log for details.");
+	public static Text tradesAllHeader = Text.parse("&9Logged trades: &e(Page {page})");
+	public static Text tradesShopHeader = Text.parse("&9Logged trades of shop '&e{shop}&9': &e(Page {page})");
+	public static Text tradesPlayerHeader = Text.parse("&9Logged trades of player '&e{player}&9': &e(Page {page})");
+	public static Text tradesEntryOneItem = Text.parse("  &8{time} &e{player}&7 [&6{item1Amount}x &a{item1}&7] \u279e [&6{resultItemAmount}x &a{resultItem}&7] &e{shop}{trade_count}");
+	public static Text tradesEntryTwoItems = Text.parse("  &8{time} &e{player}&7 [&6{item1Amount}x &a{item1}&7] [&6{item2Amount}x &a{item2}&7] \u279e [&6{resultItemAmount}x &a{resultItem}&7] &e{shop}{trade_count}");
+	public static Text tradesNoneFound = Text.parse("&7No logged trades found.");
+
 	public static Text shopRemoved = Text.parse("&aThe shopkeeper has been removed.");
 	public static Text shopAlreadyRemoved = Text.parse("&7The shopkeeper has already been removed.");
 	public static Text shopNoLongerExists = Text.parse("&7The shopkeeper no longer exists.");
@@ -746,6 +755,7 @@ public class Messages extends Config {
 	public static Text commandDescriptionDebug = Text.parse("Toggles debug mode on and off.");
 	public static Text commandDescriptionNotify = Text.parse("Turns trade notifications for you on or off.");
 	public static Text commandDescriptionList = Text.parse("Lists all shops of a specific player, or all admin shops.");
+	public static Text commandDescriptionTrades = Text.parse("Lists the logged trades of a specific shop or player, or of all shops.");
 	public static Text commandDescriptionRemove = Text.parse("Removes a specific shop.");
 	public static Text commandDescriptionRemoveAll = Text.parse("Removes all shops of a specific player, all players, or all admin shops.");
 	public static Text commandDescriptionGive = Text.parse("Gives shop creation item(s) to the specified player.");
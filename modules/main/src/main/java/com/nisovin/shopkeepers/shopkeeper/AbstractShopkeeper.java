@@ -27,6 +27,7 @@ import com.nisovin.shopkeepers.api.events.ShopkeeperRemoveEvent;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopCreationData;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopType;
+import com.nisovin.shopkeepers.api.shopkeeper.ShopTypesRegistry;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperCreateException;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperLoadException;
@@ -86,7 +87,9 @@ import com.nisovin.shopkeepers.util.text.MessageArguments;
  * <ul>
  * <li>Make sure to follow the initialization instructions outlined in the constructor description.
  * <li>Make sure to call {@link #markDirty()} on every change of data that might need to be
- * persisted.
+ * persisted. For changes of properties that are saved via
+ * {@link #saveCachedProperty(ShopkeeperData, Property, Object, boolean)}, such as the offers and
+ * snapshots, call {@link #markDirty(Property)} for the changed property instead.
  * </ul>
  */
 public abstract class AbstractShopkeeper implements Shopkeeper {
@@ -161,6 +164,10 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	// of. A value of 'false' only indicates that the storage is aware of the latest data of the
 	// shopkeeper, not that it has actually persisted the data to disk yet.
 	private boolean dirty = false;
+	// The saved data of properties that are saved via #saveCachedProperty, by property. This data
+	// is reused by subsequent saves until the property is marked dirty.
+	private final Map<@NonNull Property<?>, @NonNull DataContainer> savedPropertyData
+			= new HashMap<>();
 	// Is currently registered:
 	private boolean valid = false;
 	private boolean active = false;
@@ -451,6 +458,9 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		ShopType<?> shopType = this.getAndValidateShopType(shopkeeperData);
 		assert shopType != null;
 
+		// Any previously saved property data is outdated now:
+		savedPropertyData.clear();
+
 		this._setName(shopkeeperData.get(NAME));
 
 		// Optional shop object data:
@@ -507,7 +517,7 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		this.saveDynamicState(shopkeeperData, saveAll);
 
 		// Snapshots:
-		this.saveSnapshots(shopkeeperData);
+		this.saveSnapshots(shopkeeperData, saveAll);
 	}
 
 	/**
@@ -548,15 +558,63 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		shopkeeperData.set(SHOP_OBJECT_DATA, shopObjectData);
 	}
 
+	/**
+	 * Saves the given property value to the given {@link ShopkeeperData}, reusing the data that was
+	 * saved for the property by a previous save if the property has not been
+	 * {@link #markDirty(Property) marked dirty} since then.
+	 * <p>
+	 * This is meant for properties whose values are comparably costly to save, such as the
+	 * shopkeeper's offers, and that usually remain unchanged across many saves of the shopkeeper.
+	 * Every change of the property's value has to be accompanied by a call to
+	 * {@link #markDirty(Property)} for the property. Since the saved data is shared between
+	 * subsequent saves, it must not be modified after it has been saved.
+	 * <p>
+	 * If {@code saveAll} is <code>true</code> (e.g. when a snapshot is created), the property value
+	 * is always freshly saved: The resulting data is stored independently of the shopkeeper's
+	 * regular data and shall therefore not share any data with it.
+	 * 
+	 * @param <T>
+	 *            the type of the property value
+	 * @param shopkeeperData
+	 *            the shopkeeper data, not <code>null</code>
+	 * @param property
+	 *            the property, not <code>null</code>
+	 * @param value
+	 *            the property value, can be <code>null</code>
+	 * @param saveAll
+	 *            the {@code saveAll} argument of the current save
+	 */
+	protected final <T> void saveCachedProperty(
+			ShopkeeperData shopkeeperData,
+			Property<T> property,
+			@Nullable T value,
+			boolean saveAll
+	) {
+		Validate.notNull(shopkeeperData, "shopkeeperData is null");
+		Validate.notNull(property, "property is null");
+		if (saveAll) {
+			shopkeeperData.set(property, value);
+			return;
+		}
+
+		@Nullable DataContainer propertyData = savedPropertyData.get(property);
+		if (propertyData == null) {
+			propertyData = DataContainer.create();
+			property.save(propertyData, value);
+			savedPropertyData.put(property, propertyData);
+		}
+		shopkeeperData.setAll(propertyData.getValues());
+	}
+
 	@Override
 	public final void save() {
-		this.markDirty();
+		this.setDirty();
 		ShopkeepersPlugin.getInstance().getShopkeeperStorage().save();
 	}
 
 	@Override
 	public final void saveDelayed() {
-		this.markDirty();
+		this.setDirty();
 		ShopkeepersPlugin.getInstance().getShopkeeperStorage().saveDelayed();
 	}
 
@@ -571,8 +629,34 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	 * saved with the next successful save of the {@link ShopkeeperStorage}. If the shopkeeper has
 	 * already been deleted or unloaded, invoking this method will have no effect on the data that
 	 * is stored by the storage.
+	 * <p>
+	 * Changes to properties that are saved via
+	 * {@link #saveCachedProperty(ShopkeeperData, Property, Object, boolean)} have to be indicated
+	 * via {@link #markDirty(Property)} instead.
 	 */
 	public final void markDirty() {
+		this.setDirty();
+	}
+
+	/**
+	 * Marks this shopkeeper as {@link #markDirty() dirty} due to a change of the specified
+	 * property.
+	 * <p>
+	 * If the property is saved via
+	 * {@link #saveCachedProperty(ShopkeeperData, Property, Object, boolean)}, this discards the
+	 * previously saved data of the property so that the property is freshly saved with the next
+	 * save.
+	 * 
+	 * @param property
+	 *            the changed property, not <code>null</code>
+	 */
+	public final void markDirty(Property<?> property) {
+		Validate.notNull(property, "property is null");
+		savedPropertyData.remove(property);
+		this.setDirty();
+	}
+
+	private void setDirty() {
 		dirty = true;
 		// Inform the storage that the shopkeeper is dirty:
 		if (this.isValid()) {
@@ -744,12 +828,13 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 				@Override
 				public AbstractShopType<?> deserialize(Object data) throws InvalidDataException {
 					String shopTypeId = StringSerializers.STRICT_NON_EMPTY.deserialize(data);
-					SKShopTypesRegistry shopTypeRegistry = SKShopkeepersPlugin.getInstance().getShopTypeRegistry();
-					AbstractShopType<?> shopType = shopTypeRegistry.get(shopTypeId);
+					ShopTypesRegistry<?> shopTypeRegistry = ShopkeepersPlugin.getInstance()
+							.getShopTypeRegistry();
+					ShopType<?> shopType = shopTypeRegistry.get(shopTypeId);
 					if (shopType == null) {
 						throw new InvalidDataException("Unknown shop type: " + shopTypeId);
 					}
-					return shopType;
+					return (AbstractShopType<?>) shopType;
 				}
 			})
 			.build();
@@ -1154,6 +1239,11 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		String preparedName = this.prepareName(newName);
 		this.name = preparedName;
 
+		// Inform the shopkeeper registry, so that it can update its name index:
+		if (this.isValid()) {
+			SKShopkeepersPlugin.getInstance().getShopkeeperRegistry().onShopkeeperRenamed(this);
+		}
+
 		// Update the name of the shop object:
 		shopObject.setName(preparedName);
 	}
@@ -1269,9 +1359,9 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		}
 	}
 
-	private void saveSnapshots(ShopkeeperData shopkeeperData) {
+	private void saveSnapshots(ShopkeeperData shopkeeperData, boolean saveAll) {
 		assert shopkeeperData != null;
-		shopkeeperData.set(SNAPSHOTS, snapshotsView);
+		this.saveCachedProperty(shopkeeperData, SNAPSHOTS, snapshotsView, saveAll);
 	}
 
 	@Override
@@ -1317,7 +1407,7 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	public final void addSnapshot(ShopkeeperSnapshot snapshot) {
 		this._addSnapshot(snapshot);
 		this.checkSnapshotsCountLimit();
-		this.markDirty();
+		this.markDirty(SNAPSHOTS);
 	}
 
 	private void _addSnapshot(ShopkeeperSnapshot snapshot) {
@@ -1343,14 +1433,14 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	@Override
 	public final ShopkeeperSnapshot removeSnapshot(int index) {
 		ShopkeeperSnapshot snapshot = snapshots.remove(index);
-		this.markDirty();
+		this.markDirty(SNAPSHOTS);
 		return snapshot;
 	}
 
 	@Override
 	public final void removeAllSnapshots() {
 		snapshots.clear();
-		this.markDirty();
+		this.markDirty(SNAPSHOTS);
 	}
 
 	@Override
@@ -1359,7 +1449,7 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		// Note: The given snapshot is not necessarily stored by or based on this shopkeeper. Its
 		// application may fail if it is not compatible with this shopkeeper.
 		// TODO Inform players.
-		SKShopkeepersPlugin.getInstance().getUIRegistry().abortUISessions(this);
+		ShopkeepersPlugin.getInstance().getUIRegistry().abortUISessions(this);
 		try {
 			this.loadDynamicState(((SKShopkeeperSnapshot) snapshot).getShopkeeperData());
 		} catch (InvalidDataException e) {
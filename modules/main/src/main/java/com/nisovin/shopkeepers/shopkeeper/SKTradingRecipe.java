@@ -7,6 +7,8 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.shopkeeper.TradingRecipe;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.compat.NMSManager;
+import com.nisovin.shopkeepers.compat.api.NMSCallProvider;
 import com.nisovin.shopkeepers.util.annotations.ReadOnly;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
@@ -15,6 +17,11 @@ import com.nisovin.shopkeepers.util.java.Validate;
 public class SKTradingRecipe extends TradingRecipeDraft implements TradingRecipe {
 
 	private final boolean outOfStock;
+	// Version-specific data that is lazily derived from the required items and then reused when
+	// matching offered items against them. Since the items of the trading recipe are immutable,
+	// this data remains valid. Not included in equals and hashCode.
+	private volatile @Nullable Object item1MatchData = null;
+	private volatile @Nullable Object item2MatchData = null;
 
 	/**
 	 * Creates a {@link SKTradingRecipe}.
@@ -145,6 +152,50 @@ public class SKTradingRecipe extends TradingRecipeDraft implements TradingRecipe
 		return outOfStock;
 	}
 
+	/**
+	 * Checks if the given item stack fulfills the requirements of the {@link #getItem1() first
+	 * item} of this trading recipe.
+	 * <p>
+	 * This uses the same item comparison as {@link NMSCallProvider#matches(ItemStack, ItemStack)},
+	 * but reuses the data that is derived from the required item across invocations.
+	 * 
+	 * @param provided
+	 *            the provided item stack
+	 * @return <code>true</code> if the provided item stack matches the first item
+	 */
+	public final boolean matchesItem1(@ReadOnly @Nullable ItemStack provided) {
+		UnmodifiableItemStack required = this.getItem1();
+		@Nullable Object matchData = item1MatchData;
+		if (matchData == null) {
+			matchData = NMSManager.getProvider().createMatchData(required.asItemStack());
+			item1MatchData = matchData;
+		}
+		return NMSManager.getProvider().matches(provided, required.asItemStack(), matchData);
+	}
+
+	/**
+	 * Checks if the given item stack fulfills the requirements of the {@link #getItem2() second
+	 * item} of this trading recipe.
+	 * <p>
+	 * If this trading recipe has no second item, the given item stack has to be empty.
+	 * 
+	 * @param provided
+	 *            the provided item stack
+	 * @return <code>true</code> if the provided item stack matches the second item
+	 * @see #matchesItem1(ItemStack)
+	 */
+	public final boolean matchesItem2(@ReadOnly @Nullable ItemStack provided) {
+		UnmodifiableItemStack required = this.getItem2();
+		if (required == null) return ItemUtils.isEmpty(provided);
+
+		@Nullable Object matchData = item2MatchData;
+		if (matchData == null) {
+			matchData = NMSManager.getProvider().createMatchData(required.asItemStack());
+			item2MatchData = matchData;
+		}
+		return NMSManager.getProvider().matches(provided, required.asItemStack(), matchData);
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder builder = new StringBuilder();
@@ -28,8 +28,9 @@ import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.registry.SKShopkeeperRegistry;
 import com.nisovin.shopkeepers.shopkeeper.spawning.ShopkeeperSpawner;
 import com.nisovin.shopkeepers.shopkeeper.ticking.ShopkeeperTicker;
-import com.nisovin.shopkeepers.util.bukkit.MutableChunkCoords;
+import com.nisovin.shopkeepers.util.bukkit.ChunkKeys;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.java.LongHashMap;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.logging.Log;
 import com.nisovin.shopkeepers.util.timer.Timer;
@@ -61,7 +62,6 @@ public class ShopkeeperChunkActivator {
 	private static final Predicate<@NonNull AbstractShopkeeper> SHOPKEEPER_IS_INACTIVE = Unsafe.assertNonNull(SHOPKEEPER_IS_ACTIVE.negate());
 
 	private static final Location sharedLocation = new Location(null, 0, 0, 0);
-	private static final MutableChunkCoords sharedChunkCoords = new MutableChunkCoords();
 
 	private final SKShopkeepersPlugin plugin;
 	private final SKShopkeeperRegistry shopkeeperRegistry;
@@ -69,7 +69,11 @@ public class ShopkeeperChunkActivator {
 	private final ShopkeeperSpawner shopkeeperSpawner;
 	private final ChunkActivationListener listener = new ChunkActivationListener(Unsafe.initialized(this));
 
-	private final Map<@NonNull ChunkCoords, @NonNull ChunkData> chunks = new HashMap<>();
+	// World name -> chunk key -> chunk data:
+	// The chunks are keyed by their packed chunk coordinates, so that chunk lookups do not allocate,
+	// and so that the world only needs to be looked up once when querying several chunks of the
+	// same world. Worlds without any chunk entries are removed.
+	private final Map<@NonNull String, @NonNull LongHashMap<@NonNull ChunkData>> chunksByWorld = new HashMap<>();
 
 	private boolean chunkActivationInProgress = false;
 	// This does not consider pending delayed chunk activation tasks, but only tracks actual
@@ -114,9 +118,9 @@ public class ShopkeeperChunkActivator {
 	}
 
 	private void ensureEmpty() {
-		if (!chunks.isEmpty()) {
+		if (!chunksByWorld.isEmpty()) {
 			Log.warning("Some chunk entries were not properly removed from the chunk activator!");
-			chunks.clear();
+			chunksByWorld.clear();
 		}
 		if (!deferredChunkActivations.isEmpty()) {
 			Log.warning("Some deferred chunk activations were not properly removed from the chunk activator!");
@@ -126,34 +130,56 @@ public class ShopkeeperChunkActivator {
 
 	// DATA
 
-	private @Nullable ChunkData getChunkData(Chunk chunk) {
-		assert chunk != null;
-		sharedChunkCoords.set(chunk);
-		return this.getChunkData(sharedChunkCoords);
+	// Returns null if there is no data for any chunk of the specified world, i.e. if there are no
+	// shopkeepers in this world.
+	private @Nullable LongHashMap<@NonNull ChunkData> getWorldChunks(String worldName) {
+		assert worldName != null;
+		return chunksByWorld.get(worldName);
 	}
 
-	private @Nullable ChunkData getChunkData(String worldName, int chunkX, int chunkZ) {
-		sharedChunkCoords.set(worldName, chunkX, chunkZ);
-		return this.getChunkData(sharedChunkCoords);
+	private @Nullable ChunkData getChunkData(Chunk chunk) {
+		assert chunk != null;
+		String worldName = chunk.getWorld().getName();
+		LongHashMap<@NonNull ChunkData> worldChunks = this.getWorldChunks(worldName);
+		if (worldChunks == null) return null;
+		return worldChunks.get(ChunkKeys.of(chunk.getX(), chunk.getZ()));
 	}
 
 	// Returns null if there is no data for the specified chunk, i.e. if there are no shopkeepers in
 	// this chunk.
 	private @Nullable ChunkData getChunkData(ChunkCoords chunkCoords) {
 		assert chunkCoords != null;
-		return chunks.get(chunkCoords);
+		String worldName = chunkCoords.getWorldName();
+		LongHashMap<@NonNull ChunkData> worldChunks = this.getWorldChunks(worldName);
+		if (worldChunks == null) return null;
+		return worldChunks.get(ChunkKeys.of(chunkCoords.getChunkX(), chunkCoords.getChunkZ()));
 	}
 
 	private ChunkData getOrCreateChunkData(ChunkCoords chunkCoords) {
 		assert chunkCoords != null;
-		ChunkData chunkData = chunks.computeIfAbsent(chunkCoords, ChunkData::new);
-		assert chunkData != null;
-		return chunkData;
+		LongHashMap<@NonNull ChunkData> worldChunks = chunksByWorld.computeIfAbsent(
+				chunkCoords.getWorldName(),
+				worldName -> new LongHashMap<>()
+		);
+		assert worldChunks != null;
+		return worldChunks.computeIfAbsent(
+				ChunkKeys.of(chunkCoords.getChunkX(), chunkCoords.getChunkZ()),
+				chunkKey -> new ChunkData(chunkCoords)
+		);
 	}
 
 	private @Nullable ChunkData removeChunkData(ChunkCoords chunkCoords) {
 		assert chunkCoords != null;
-		ChunkData chunkData = chunks.remove(chunkCoords);
+		String worldName = chunkCoords.getWorldName();
+		LongHashMap<@NonNull ChunkData> worldChunks = this.getWorldChunks(worldName);
+		if (worldChunks == null) return null;
+
+		ChunkData chunkData = worldChunks.remove(
+				ChunkKeys.of(chunkCoords.getChunkX(), chunkCoords.getChunkZ())
+		);
+		if (worldChunks.isEmpty()) {
+			chunksByWorld.remove(worldName);
+		}
 		if (chunkData != null) {
 			this.cancelDeferredActivation(chunkData);
 			chunkData.cleanUp();
@@ -251,6 +277,10 @@ public class ShopkeeperChunkActivator {
 		this.checkShopkeeperActivation(shopkeeper);
 		boolean activationStateChanged = (shopkeeper.isActive() != oldActivationState);
 
+		// If the shopkeeper is still ticking, the ticker may need to move it to the ticking
+		// partition of its new region section:
+		shopkeeperTicker.onShopkeeperMoved(shopkeeper);
+
 		// Inform spawner:
 		shopkeeperSpawner.onShopkeeperMoved(shopkeeper, oldChunkCoords, activationStateChanged);
 	}
@@ -359,14 +389,16 @@ public class ShopkeeperChunkActivator {
 			int chunkRadius
 	) {
 		assert world != null && chunkRadius >= 0;
-		String worldName = world.getName();
+		LongHashMap<@NonNull ChunkData> worldChunks = this.getWorldChunks(world.getName());
+		if (worldChunks == null) return; // There are no shopkeepers in this world
+
 		int minChunkX = centerChunkX - chunkRadius;
 		int maxChunkX = centerChunkX + chunkRadius;
 		int minChunkZ = centerChunkZ - chunkRadius;
 		int maxChunkZ = centerChunkZ + chunkRadius;
 		for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
 			for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
-				ChunkData chunkData = this.getChunkData(worldName, chunkX, chunkZ);
+				ChunkData chunkData = worldChunks.get(ChunkKeys.of(chunkX, chunkZ));
 				if (chunkData == null) continue;
 
 				// Activate the chunk if it is currently pending a delayed activation:
@@ -53,6 +53,11 @@ public abstract class AbstractAdminShopkeeper
 			}
 			return true;
 		}
+
+		@Override
+		protected long getTradingRecipesVersion(Player player) {
+			return this.getShopkeeper().getTradingRecipesVersion();
+		}
 	}
 
 	// Null if no additional trading permission is required. Not empty.
@@ -95,6 +100,21 @@ public abstract class AbstractAdminShopkeeper
 		this.saveTradePermission(shopkeeperData);
 	}
 
+	// TRADING RECIPES
+
+	/**
+	 * Gets the current version of this shopkeeper's trading recipes.
+	 * <p>
+	 * The trading recipes of admin shopkeepers are usually the same for all players. If the trading
+	 * recipes only change together with this version, the trading handler reuses the merchant
+	 * recipes that it previously created for the same version.
+	 * 
+	 * @return the non-negative version, or <code>-1</code> if the trading recipes are not versioned
+	 */
+	public long getTradingRecipesVersion() {
+		return -1L; // Not versioned by default
+	}
+
 	// TRADE PERMISSION
 
 	public static final Property<@Nullable String> TRADE_PERMISSION = new BasicProperty<@Nullable String>()
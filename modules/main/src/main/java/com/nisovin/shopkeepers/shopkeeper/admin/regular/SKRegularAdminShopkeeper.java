@@ -32,6 +32,8 @@ public class SKRegularAdminShopkeeper
 	// There can be multiple different offers for the same kind of item:
 	private final List<@NonNull SKTradeOffer> offers = new ArrayList<>();
 	private final List<? extends @NonNull SKTradeOffer> offersView = Collections.unmodifiableList(offers);
+	// Incremented whenever the offers change:
+	private long offersVersion = 0L;
 
 	/**
 	 * Creates a not yet initialized {@link SKRegularAdminShopkeeper}.
@@ -58,7 +60,7 @@ public class SKRegularAdminShopkeeper
 	@Override
 	public void saveDynamicState(ShopkeeperData shopkeeperData, boolean saveAll) {
 		super.saveDynamicState(shopkeeperData, saveAll);
-		this.saveOffers(shopkeeperData);
+		this.saveOffers(shopkeeperData, saveAll);
 	}
 
 	@Override
@@ -79,6 +81,12 @@ public class SKRegularAdminShopkeeper
 		return offersView;
 	}
 
+	@Override
+	public long getTradingRecipesVersion() {
+		// The trading recipes are the same for all players and only depend on the offers:
+		return offersVersion;
+	}
+
 	// OFFERS
 
 	private static final String DATA_KEY_OFFERS = "recipes";
@@ -112,9 +120,9 @@ public class SKRegularAdminShopkeeper
 		this._setOffers(shopkeeperData.get(OFFERS));
 	}
 
-	private void saveOffers(ShopkeeperData shopkeeperData) {
+	private void saveOffers(ShopkeeperData shopkeeperData, boolean saveAll) {
 		assert shopkeeperData != null;
-		shopkeeperData.set(OFFERS, this.getOffers());
+		this.saveCachedProperty(shopkeeperData, OFFERS, this.getOffers(), saveAll);
 	}
 
 	@Override
@@ -125,11 +133,12 @@ public class SKRegularAdminShopkeeper
 	@Override
 	public void clearOffers() {
 		this._clearOffers();
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _clearOffers() {
 		offers.clear();
+		offersVersion++;
 	}
 
 	@Override
@@ -137,7 +146,7 @@ public class SKRegularAdminShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._setOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _setOffers(List<? extends @NonNull TradeOffer> offers) {
@@ -150,7 +159,7 @@ public class SKRegularAdminShopkeeper
 	public void addOffer(TradeOffer offer) {
 		Validate.notNull(offer, "offer is null");
 		this._addOffer(offer);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffer(TradeOffer offer) {
@@ -160,6 +169,7 @@ public class SKRegularAdminShopkeeper
 
 		// Add the new offer:
 		offers.add(skOffer);
+		offersVersion++;
 	}
 
 	@Override
@@ -167,7 +177,7 @@ public class SKRegularAdminShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._addOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffers(List<? extends @NonNull TradeOffer> offers) {
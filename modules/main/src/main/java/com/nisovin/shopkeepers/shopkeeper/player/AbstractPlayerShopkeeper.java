@@ -35,6 +35,7 @@ import com.nisovin.shopkeepers.container.ShopContainers;
 import com.nisovin.shopkeepers.container.protection.ProtectedContainers;
 import com.nisovin.shopkeepers.currency.Currencies;
 import com.nisovin.shopkeepers.currency.Currency;
+import com.nisovin.shopkeepers.debug.Debug;
 import com.nisovin.shopkeepers.debug.DebugOptions;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.naming.ShopkeeperNaming;
@@ -64,6 +65,7 @@ import com.nisovin.shopkeepers.util.data.serialization.java.StringSerializers;
 import com.nisovin.shopkeepers.util.data.serialization.java.UUIDSerializers;
 import com.nisovin.shopkeepers.util.inventory.InventoryUtils;
 import com.nisovin.shopkeepers.util.inventory.ItemMigration;
+import com.nisovin.shopkeepers.util.inventory.ItemStockIndex;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
 import com.nisovin.shopkeepers.util.java.CyclicCounter;
 import com.nisovin.shopkeepers.util.java.RateLimiter;
@@ -312,8 +314,17 @@ public abstract class AbstractPlayerShopkeeper
 
 	private void _setOwner(User owner) {
 		Validate.notNull(owner, "owner is null");
+		User oldOwner = this.owner;
 		this.owner = owner;
 
+		// Inform the shopkeeper registry, so that it can update its owner index:
+		if (this.isValid()) {
+			SKShopkeepersPlugin.getInstance().getShopkeeperRegistry().onPlayerShopOwnerChanged(
+					this,
+					oldOwner.getUniqueId()
+			);
+		}
+
 		// Inform the shop object:
 		this.getShopObject().onShopOwnerChanged();
 	}
@@ -607,19 +618,46 @@ public abstract class AbstractPlayerShopkeeper
 		}
 	}
 
+	/**
+	 * Checks if the container contains at least the amount of items that are similar to the given
+	 * item.
+	 * <p>
+	 * The stock is looked up in the given {@link ItemStockIndex} of the container contents. If the
+	 * {@link DebugOptions#containerStockIndex} debug option is enabled, the result is verified
+	 * against a full scan of the container contents.
+	 * 
+	 * @param containerContents
+	 *            the container contents, not <code>null</code>
+	 * @param containerStock
+	 *            the stock index of the container contents, not <code>null</code>
+	 * @param itemStack
+	 *            the item to check for, not <code>null</code>
+	 * @return <code>true</code> if the item is in stock
+	 */
+	protected final boolean isInStock(
+			@Nullable ItemStack[] containerContents,
+			ItemStockIndex containerStock,
+			UnmodifiableItemStack itemStack
+	) {
+		int amount = itemStack.getAmount();
+		boolean inStock = containerStock.containsAtLeast(itemStack, amount);
+		if (Debug.isDebugging(DebugOptions.containerStockIndex)) {
+			boolean expected = InventoryUtils.containsAtLeast(containerContents, itemStack, amount);
+			if (inStock != expected) {
+				Log.warning(this.getLogPrefix() + "Container stock index mismatch for item "
+						+ itemStack + ": Index reports " + containerStock.getAmount(itemStack)
+						+ " items (in stock: " + inStock + "), full scan reports in stock: "
+						+ expected);
+			}
+		}
+		return inStock;
+	}
+
 	@Override
 	public int getCurrencyInContainer() {
-		int totalCurrency = 0;
 		// Empty if the container is not found:
 		@Nullable ItemStack[] contents = this.getContainerContents();
-		for (ItemStack itemStack : contents) {
-			if (itemStack == null) continue;
-			Currency currency = Currencies.match(itemStack);
-			if (currency != null) {
-				totalCurrency += (itemStack.getAmount() * currency.getValue());
-			}
-		}
-		return totalCurrency;
+		return ContainerLedger.of(contents).getCurrencyValue();
 	}
 
 	// Returns null (and logs a warning) if the price cannot be represented correctly by currency
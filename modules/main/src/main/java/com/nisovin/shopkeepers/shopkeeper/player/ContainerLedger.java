@@ -0,0 +1,358 @@
+package com.nisovin.shopkeepers.shopkeeper.player;
+
+import java.util.Arrays;
+
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.currency.Currencies;
+import com.nisovin.shopkeepers.currency.Currency;
+import com.nisovin.shopkeepers.util.annotations.ReadOnly;
+import com.nisovin.shopkeepers.util.annotations.ReadWrite;
+import com.nisovin.shopkeepers.util.inventory.InventoryUtils;
+import com.nisovin.shopkeepers.util.inventory.ItemUtils;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * Keeps track of the currency items inside the contents of a shop container.
+ * <p>
+ * Each slot of the contents is classified only once as either empty, as one of the
+ * {@link Currencies}, or as other items (i.e. the shop's stock). The currency amounts and the
+ * currency operations of this ledger are then based on these classifications, instead of matching
+ * every slot against the currency items again for each operation. The classifications are kept
+ * up-to-date when this ledger adds or removes items.
+ * <p>
+ * Like the operations of {@link InventoryUtils}, this ledger modifies the given contents array, but
+ * does not modify the item stacks inside of it: If it has to modify an item stack, it replaces it
+ * with a modified copy. Slots whose item stack is replaced by other code are reclassified during
+ * the next operation of this ledger.
+ * <p>
+ * Similar to {@link Currencies#match(ItemStack)}, a slot is classified as the first currency whose
+ * item data it matches.
+ */
+public final class ContainerLedger {
+
+	private static final int EMPTY = -1;
+	private static final int OTHER = -2;
+
+	/**
+	 * Creates a new {@link ContainerLedger} for the given container contents.
+	 * 
+	 * @param contents
+	 *            the container contents, not <code>null</code>
+	 * @return the ledger
+	 */
+	public static ContainerLedger of(@ReadOnly @Nullable ItemStack @ReadWrite [] contents) {
+		return new ContainerLedger(contents);
+	}
+
+	private final @Nullable ItemStack[] contents;
+	private final @NonNull Currency[] currencies;
+	// The item stacks that the current slot classifications are based on:
+	private final @Nullable ItemStack[] classifiedContents;
+	// The index of the currency in each slot, or EMPTY or OTHER:
+	private final int[] slotTypes;
+	// The amount of currency items in each slot:
+	private final int[] slotCurrencyAmounts;
+	// The total amount of items of each currency:
+	private final int[] currencyAmounts;
+
+	private ContainerLedger(@ReadOnly @Nullable ItemStack @ReadWrite [] contents) {
+		Validate.notNull(contents, "contents is null");
+		this.contents = contents;
+		this.currencies = Currencies.getAll().toArray(new @NonNull Currency[0]);
+		int size = contents.length;
+		this.classifiedContents = new @Nullable ItemStack[size];
+		this.slotTypes = new int[size];
+		this.slotCurrencyAmounts = new int[size];
+		this.currencyAmounts = new int[currencies.length];
+		Arrays.fill(slotTypes, EMPTY);
+		for (int slot = 0; slot < size; slot++) {
+			this.classify(slot);
+		}
+	}
+
+	/**
+	 * Gets the container contents that this ledger operates on.
+	 * 
+	 * @return the container contents, not <code>null</code>
+	 */
+	public @Nullable ItemStack[] getContents() {
+		return contents;
+	}
+
+	private void classify(int slot) {
+		ItemStack itemStack = contents[slot];
+		int slotType;
+		if (ItemUtils.isEmpty(itemStack)) {
+			slotType = EMPTY;
+		} else {
+			slotType = OTHER;
+			for (int i = 0; i < currencies.length; i++) {
+				if (currencies[i].getItemData().matches(itemStack)) {
+					slotType = i;
+					break;
+				}
+			}
+		}
+		this.setSlot(slot, itemStack, slotType);
+	}
+
+	// Updates the slot and its classification:
+	private void setSlot(int slot, @ReadOnly @Nullable ItemStack itemStack, int slotType) {
+		int previousSlotType = slotTypes[slot];
+		if (previousSlotType >= 0) {
+			currencyAmounts[previousSlotType] -= slotCurrencyAmounts[slot];
+		}
+
+		contents[slot] = itemStack;
+		classifiedContents[slot] = itemStack;
+		slotTypes[slot] = slotType;
+		if (slotType >= 0) {
+			int amount = Unsafe.assertNonNull(itemStack).getAmount();
+			slotCurrencyAmounts[slot] = amount;
+			currencyAmounts[slotType] += amount;
+		} else {
+			slotCurrencyAmounts[slot] = 0;
+		}
+	}
+
+	// Reclassifies the slots whose item stacks have been replaced by other code:
+	private void refresh() {
+		for (int slot = 0; slot < contents.length; slot++) {
+			if (contents[slot] != classifiedContents[slot]) {
+				this.classify(slot);
+			}
+		}
+	}
+
+	private int getCurrencyIndex(Currency currency) {
+		Validate.notNull(currency, "currency is null");
+		for (int i = 0; i < currencies.length; i++) {
+			if (currencies[i].equals(currency)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the amount of items of the specified currency.
+	 * 
+	 * @param currency
+	 *            the currency, not <code>null</code>
+	 * @return the amount of currency items
+	 */
+	public int getCurrencyAmount(Currency currency) {
+		int currencyIndex = this.getCurrencyIndex(currency);
+		if (currencyIndex < 0) return 0;
+		this.refresh();
+		return currencyAmounts[currencyIndex];
+	}
+
+	/**
+	 * Gets the total value of all currency items.
+	 * 
+	 * @return the total currency value
+	 */
+	public int getCurrencyValue() {
+		this.refresh();
+		int totalValue = 0;
+		for (int i = 0; i < currencies.length; i++) {
+			totalValue += currencyAmounts[i] * currencies[i].getValue();
+		}
+		return totalValue;
+	}
+
+	/**
+	 * Adds the specified amount of items of the given currency.
+	 * <p>
+	 * This behaves like {@link InventoryUtils#addItems(ItemStack[], UnmodifiableItemStack, int)}
+	 * for the currency item, but only compares the slots that contain items of this currency
+	 * with the currency item.
+	 * 
+	 * @param currency
+	 *            the currency, not <code>null</code>
+	 * @param amount
+	 *            the amount of currency items to add
+	 * @return the amount of currency items that could not be added, <code>0</code> on complete
+	 *         success
+	 */
+	public int addCurrency(Currency currency, int amount) {
+		int currencyIndex = this.getCurrencyIndex(currency);
+		Validate.isTrue(currencyIndex >= 0, () -> "Unknown currency: " + currency);
+		Validate.isTrue(amount >= 0, "amount is negative");
+		if (amount == 0) return 0;
+		this.refresh();
+
+		UnmodifiableItemStack currencyItem = currency.getItemData().asUnmodifiableItemStack();
+		int maxStackSize = currencyItem.getMaxStackSize();
+		int remaining = amount;
+
+		// Search for partially fitting item stacks:
+		// Items that are similar to the currency item are always classified as this currency.
+		for (int slot = 0; slot < contents.length; slot++) {
+			if (slotTypes[slot] != currencyIndex) continue;
+			ItemStack slotItem = Unsafe.assertNonNull(contents[slot]);
+
+			// Slot already full?
+			int slotAmount = slotItem.getAmount();
+			if (slotAmount >= maxStackSize) continue;
+
+			if (currencyItem.isSimilar(slotItem)) {
+				// Copy ItemStack, so we don't modify the original ItemStack:
+				slotItem = slotItem.clone();
+				int newAmount = slotAmount + remaining;
+				if (newAmount <= maxStackSize) {
+					// Remaining amount did fully fit into this stack:
+					slotItem.setAmount(newAmount);
+					this.setSlot(slot, slotItem, currencyIndex);
+					return 0;
+				} else {
+					// Did not fully fit:
+					slotItem.setAmount(maxStackSize);
+					this.setSlot(slot, slotItem, currencyIndex);
+					remaining -= (maxStackSize - slotAmount);
+					assert remaining != 0;
+				}
+			}
+		}
+
+		// Search for empty slots:
+		for (int slot = 0; slot < contents.length; slot++) {
+			if (slotTypes[slot] != EMPTY) continue;
+
+			int stackSize = Math.min(remaining, maxStackSize);
+			ItemStack stack = currencyItem.copy();
+			stack.setAmount(stackSize);
+			this.setSlot(slot, stack, currencyIndex);
+			remaining -= stackSize;
+			if (remaining == 0) return 0;
+		}
+
+		// Not all items did fit into the container:
+		return remaining;
+	}
+
+	/**
+	 * Removes currency items of the specified total value.
+	 * <p>
+	 * This first removes base currency items, preferring partial stacks over full stacks. If this
+	 * is not sufficient, it removes high currency items, again preferring partial stacks, and adds
+	 * any resulting change as base currency items to empty slots.
+	 * 
+	 * @param value
+	 *            the currency value to remove
+	 * @return the currency value that could not be removed, <code>0</code> on complete success, or
+	 *         a negative value if too much was removed because there was not enough space for the
+	 *         change
+	 */
+	public int removeCurrency(int value) {
+		Validate.isTrue(value >= 0, "value cannot be negative");
+		if (value == 0) return 0;
+		this.refresh();
+
+		int remaining = this.removeCurrencyItems(0, value);
+		if (remaining == 0) return 0;
+
+		if (currencies.length <= 1) {
+			// We couldn't remove all currency:
+			return remaining;
+		}
+
+		Currency highCurrency = currencies[1];
+		int remainingHigh = (int) Math.ceil((double) remaining / highCurrency.getValue());
+		// We rounded the high currency up, so if this is negative now, it represents the remaining
+		// change which needs to be added back:
+		remaining -= (remainingHigh * highCurrency.getValue());
+		assert remaining <= 0;
+
+		remainingHigh = this.removeCurrencyItems(1, remainingHigh);
+		remaining += (remainingHigh * highCurrency.getValue());
+		if (remaining >= 0) {
+			return remaining;
+		}
+		assert remaining < 0; // We have some change left
+		remaining = -remaining; // The change is now represented as positive value
+
+		// Add the remaining change into empty slots (all partial slots have already been cleared
+		// above):
+		Currency baseCurrency = currencies[0];
+		int maxStackSize = baseCurrency.getMaxStackSize();
+		for (int slot = 0; slot < contents.length; slot++) {
+			if (slotTypes[slot] != EMPTY) continue;
+
+			int stackSize = Math.min(remaining, maxStackSize);
+			this.setSlot(slot, baseCurrency.getItemData().createItemStack(stackSize), 0);
+			remaining -= stackSize;
+			if (remaining == 0) break;
+		}
+		// We removed too much, represent as negative value:
+		return -remaining;
+	}
+
+	// First pass: Remove as many items of the currency as available from partial stacks.
+	// Second pass: Remove as many items of the currency as available from full stacks.
+	// Returns the amount of currency items that could not be removed.
+	private int removeCurrencyItems(int currencyIndex, int amount) {
+		int remaining = amount;
+		for (int k = 0; k < 2; k++) {
+			for (int slot = 0; slot < contents.length; slot++) {
+				if (slotTypes[slot] != currencyIndex) continue;
+				ItemStack itemStack = Unsafe.assertNonNull(contents[slot]);
+
+				// Second pass, or the ItemStack is a partial one:
+				int itemAmount = itemStack.getAmount();
+				if (k == 1 || itemAmount < itemStack.getMaxStackSize()) {
+					int newAmount = (itemAmount - remaining);
+					if (newAmount > 0) {
+						// Copy the item before modifying it:
+						itemStack = itemStack.clone();
+						itemStack.setAmount(newAmount);
+						this.setSlot(slot, itemStack, currencyIndex);
+						return 0;
+					} else {
+						this.setSlot(slot, null, EMPTY);
+						remaining = -newAmount;
+						if (remaining == 0) return 0;
+					}
+				}
+			}
+		}
+		return remaining;
+	}
+
+	/**
+	 * Adds the given item stack.
+	 * <p>
+	 * See {@link InventoryUtils#addItems(ItemStack[], ItemStack)}.
+	 * 
+	 * @param itemStack
+	 *            the item stack to add, not <code>null</code>
+	 * @return the amount of items that could not be added, <code>0</code> on complete success
+	 */
+	public int addItems(@ReadOnly ItemStack itemStack) {
+		int remaining = InventoryUtils.addItems(contents, itemStack);
+		this.refresh();
+		return remaining;
+	}
+
+	/**
+	 * Removes the given item stack.
+	 * <p>
+	 * See {@link InventoryUtils#removeItems(ItemStack[], UnmodifiableItemStack)}.
+	 * 
+	 * @param itemStack
+	 *            the item stack to remove, not <code>null</code>
+	 * @return the amount of items that could not be removed, or <code>0</code> if all items were
+	 *         removed
+	 */
+	public int removeItems(UnmodifiableItemStack itemStack) {
+		int remaining = InventoryUtils.removeItems(contents, itemStack);
+		this.refresh();
+		return remaining;
+	}
+}
@@ -16,12 +16,17 @@ import com.nisovin.shopkeepers.ui.trading.TradingContext;
 import com.nisovin.shopkeepers.ui.trading.TradingHandler;
 import com.nisovin.shopkeepers.util.bukkit.PermissionUtils;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.inventory.InventoryUtils;
 
 public abstract class PlayerShopTradingHandler extends TradingHandler {
 
 	// State related to the currently handled trade:
 	protected @Nullable Inventory containerInventory = null;
+	// The container contents at the start of the trade, to only apply the changed slots afterwards:
+	private @Nullable ItemStack @Nullable [] oldContainerContents = null;
 	protected @Nullable ItemStack @Nullable [] newContainerContents = null;
+	// Lazily created:
+	private @Nullable ContainerLedger containerLedger = null;
 
 	protected PlayerShopTradingHandler(AbstractPlayerShopkeeper shopkeeper) {
 		super(SKDefaultUITypes.TRADING(), shopkeeper);
@@ -102,7 +107,9 @@ public abstract class PlayerShopTradingHandler extends TradingHandler {
 
 		// Setup common state information for handling this trade:
 		this.containerInventory = containerInventory;
-		this.newContainerContents = Unsafe.cast(containerInventory.getContents());
+		@Nullable ItemStack[] oldContainerContents = Unsafe.cast(containerInventory.getContents());
+		this.oldContainerContents = oldContainerContents;
+		this.newContainerContents = oldContainerContents.clone();
 
 		return true;
 	}
@@ -113,7 +120,12 @@ public abstract class PlayerShopTradingHandler extends TradingHandler {
 
 		// Apply container content changes:
 		if (containerInventory != null && newContainerContents != null) {
-			containerInventory.setContents(Unsafe.castNonNull(newContainerContents));
+			assert oldContainerContents != null;
+			InventoryUtils.setChangedContents(
+					containerInventory,
+					Unsafe.assertNonNull(oldContainerContents),
+					Unsafe.assertNonNull(newContainerContents)
+			);
 		}
 
 		// Reset trade related state information:
@@ -126,8 +138,27 @@ public abstract class PlayerShopTradingHandler extends TradingHandler {
 		this.resetTradeState();
 	}
 
+	/**
+	 * Gets the {@link ContainerLedger} for the {@link #newContainerContents} of the currently
+	 * handled trade.
+	 * <p>
+	 * The ledger is created on first use and then reused for the remainder of the trade.
+	 * 
+	 * @return the container ledger
+	 */
+	protected final ContainerLedger getContainerLedger() {
+		ContainerLedger containerLedger = this.containerLedger;
+		if (containerLedger == null) {
+			containerLedger = ContainerLedger.of(Unsafe.assertNonNull(newContainerContents));
+			this.containerLedger = containerLedger;
+		}
+		return containerLedger;
+	}
+
 	protected void resetTradeState() {
 		containerInventory = null;
+		oldContainerContents = null;
 		newContainerContents = null;
+		containerLedger = null;
 	}
 }
@@ -16,6 +16,7 @@ import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.currency.Currencies;
 import com.nisovin.shopkeepers.currency.Currency;
 import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.shopkeeper.player.ContainerLedger;
 import com.nisovin.shopkeepers.shopkeeper.player.PlayerShopTradingHandler;
 import com.nisovin.shopkeepers.ui.trading.Trade;
 import com.nisovin.shopkeepers.util.annotations.ReadOnly;
@@ -95,19 +96,21 @@ public class BookPlayerShopTradingHandler extends PlayerShopTradingHandler {
 		// Add earnings to container contents:
 		int amountAfterTaxes = this.getAmountAfterTaxes(offer.getPrice());
 		if (amountAfterTaxes > 0) {
+			ContainerLedger containerLedger = this.getContainerLedger();
 			int remaining = amountAfterTaxes;
 			if (Currencies.isHighCurrencyEnabled() && remaining > Settings.highCurrencyMinCost) {
 				Currency highCurrency = Currencies.getHigh();
 				int highCurrencyAmount = (remaining / highCurrency.getValue());
 				if (highCurrencyAmount > 0) {
-					ItemStack currencyItems = Currencies.getHigh().getItemData().createItemStack(highCurrencyAmount);
-					int remainingHighCurrency = InventoryUtils.addItems(newContainerContents, currencyItems);
+					int remainingHighCurrency = containerLedger.addCurrency(
+							highCurrency,
+							highCurrencyAmount
+					);
 					remaining -= ((highCurrencyAmount - remainingHighCurrency) * highCurrency.getValue());
 				}
 			}
 			if (remaining > 0) {
-				ItemStack currencyItems = Currencies.getBase().getItemData().createItemStack(remaining);
-				if (InventoryUtils.addItems(newContainerContents, currencyItems) != 0) {
+				if (containerLedger.addCurrency(Currencies.getBase(), remaining) != 0) {
 					TextUtils.sendMessage(tradingPlayer, Messages.cannotTradeInsufficientStorageSpace);
 					this.debugPreventedTrade(
 							tradingPlayer,
@@ -75,7 +75,7 @@ public class SKBookPlayerShopkeeper
 	@Override
 	public void saveDynamicState(ShopkeeperData shopkeeperData, boolean saveAll) {
 		super.saveDynamicState(shopkeeperData, saveAll);
-		this.saveOffers(shopkeeperData);
+		this.saveOffers(shopkeeperData, saveAll);
 	}
 
 	@Override
@@ -232,9 +232,9 @@ public class SKBookPlayerShopkeeper
 		this._setOffers(shopkeeperData.get(OFFERS));
 	}
 
-	private void saveOffers(ShopkeeperData shopkeeperData) {
+	private void saveOffers(ShopkeeperData shopkeeperData, boolean saveAll) {
 		assert shopkeeperData != null;
-		shopkeeperData.set(OFFERS, this.getOffers());
+		this.saveCachedProperty(shopkeeperData, OFFERS, this.getOffers(), saveAll);
 	}
 
 	@Override
@@ -274,7 +274,7 @@ public class SKBookPlayerShopkeeper
 		while (iterator.hasNext()) {
 			if (iterator.next().getBookTitle().equals(bookTitle)) {
 				iterator.remove();
-				this.markDirty();
+				this.markDirty(OFFERS);
 				break;
 			}
 		}
@@ -283,7 +283,7 @@ public class SKBookPlayerShopkeeper
 	@Override
 	public void clearOffers() {
 		this._clearOffers();
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _clearOffers() {
@@ -295,7 +295,7 @@ public class SKBookPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._setOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _setOffers(@ReadOnly List<? extends @NonNull BookOffer> offers) {
@@ -308,7 +308,7 @@ public class SKBookPlayerShopkeeper
 	public void addOffer(BookOffer offer) {
 		Validate.notNull(offer, "offer is null");
 		this._addOffer(offer);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffer(BookOffer offer) {
@@ -329,7 +329,7 @@ public class SKBookPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._addOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffers(@ReadOnly List<? extends @NonNull BookOffer> offers) {
@@ -2,22 +2,16 @@ package com.nisovin.shopkeepers.shopkeeper.player.buy;
 
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.checkerframework.checker.nullness.qual.Nullable;
 
-import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.shopkeeper.TradingRecipe;
 import com.nisovin.shopkeepers.api.shopkeeper.offers.PriceOffer;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
-import com.nisovin.shopkeepers.currency.Currencies;
-import com.nisovin.shopkeepers.currency.Currency;
 import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.shopkeeper.player.ContainerLedger;
 import com.nisovin.shopkeepers.shopkeeper.player.PlayerShopTradingHandler;
 import com.nisovin.shopkeepers.ui.trading.Trade;
-import com.nisovin.shopkeepers.util.annotations.ReadOnly;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
-import com.nisovin.shopkeepers.util.inventory.InventoryUtils;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
-import com.nisovin.shopkeepers.util.java.Validate;
 
 public class BuyingPlayerShopTradingHandler extends PlayerShopTradingHandler {
 
@@ -62,10 +56,10 @@ public class BuyingPlayerShopTradingHandler extends PlayerShopTradingHandler {
 			return false;
 		}
 
-		@Nullable ItemStack[] newContainerContents = Unsafe.assertNonNull(this.newContainerContents);
+		ContainerLedger containerLedger = this.getContainerLedger();
 
 		// Remove currency items from container contents:
-		int remaining = this.removeCurrency(newContainerContents, offer.getPrice());
+		int remaining = containerLedger.removeCurrency(offer.getPrice());
 		if (remaining > 0) {
 			TextUtils.sendMessage(tradingPlayer, Messages.cannotTradeInsufficientCurrency);
 			this.debugPreventedTrade(
@@ -88,7 +82,7 @@ public class BuyingPlayerShopTradingHandler extends PlayerShopTradingHandler {
 			// The item the trading player gave might slightly differ from the required item,
 			// but is still accepted, depending on the used item comparison logic and settings.
 			ItemStack receivedItem = ItemUtils.copyWithAmount(trade.getOfferedItem1(), amountAfterTaxes);
-			if (InventoryUtils.addItems(newContainerContents, receivedItem) != 0) {
+			if (containerLedger.addItems(receivedItem) != 0) {
 				TextUtils.sendMessage(tradingPlayer, Messages.cannotTradeInsufficientStorageSpace);
 				this.debugPreventedTrade(
 						tradingPlayer,
@@ -99,115 +93,4 @@ public class BuyingPlayerShopTradingHandler extends PlayerShopTradingHandler {
 		}
 		return true;
 	}
-
-	// TODO Simplify this? Maybe by separating into different, general utility functions.
-	// TODO Support iterating in reverse order, for nicer looking container contents?
-	// Returns the amount of currency that couldn't be removed, 0 on full success, negative if too
-	// much was removed.
-	protected int removeCurrency(@ReadOnly @Nullable ItemStack[] contents, int amount) {
-		Validate.notNull(contents, "contents is null");
-		Validate.isTrue(amount >= 0, "amount cannot be negative");
-		if (amount == 0) return 0;
-		int remaining = amount;
-
-		// First pass: Remove as much low currency as available from partial stacks.
-		// Second pass: Remove as much low currency as available from full stacks.
-		Currency baseCurrency = Currencies.getBase();
-		for (int k = 0; k < 2; k++) {
-			for (int slot = 0; slot < contents.length; slot++) {
-				ItemStack itemStack = contents[slot];
-				if (!baseCurrency.getItemData().matches(itemStack)) continue;
-				itemStack = Unsafe.assertNonNull(itemStack);
-
-				// Second pass, or the ItemStack is a partial one:
-				int itemAmount = itemStack.getAmount();
-				if (k == 1 || itemAmount < itemStack.getMaxStackSize()) {
-					int newAmount = (itemAmount - remaining);
-					if (newAmount > 0) {
-						// Copy the item before modifying it:
-						itemStack = itemStack.clone();
-						contents[slot] = itemStack;
-						itemStack.setAmount(newAmount);
-						remaining = 0;
-						break;
-					} else {
-						contents[slot] = null;
-						remaining = -newAmount;
-						if (newAmount == 0) {
-							break;
-						}
-					}
-				}
-			}
-			if (remaining == 0) break;
-		}
-		if (remaining == 0) return 0;
-
-		if (!Currencies.isHighCurrencyEnabled()) {
-			// We couldn't remove all currency:
-			return remaining;
-		}
-
-		Currency highCurrency = Currencies.getHigh();
-		int remainingHigh = (int) Math.ceil((double) remaining / highCurrency.getValue());
-		// We rounded the high currency up, so if this is negative now, it represents the remaining
-		// change which needs to be added back:
-		remaining -= (remainingHigh * highCurrency.getValue());
-		assert remaining <= 0;
-
-		// First pass: Remove high currency from partial stacks.
-		// Second pass: Remove high currency from full stacks.
-		for (int k = 0; k < 2; k++) {
-			for (int slot = 0; slot < contents.length; slot++) {
-				ItemStack itemStack = contents[slot];
-				if (!highCurrency.getItemData().matches(itemStack)) continue;
-				itemStack = Unsafe.assertNonNull(itemStack);
-
-				// Second pass, or the ItemStack is a partial one:
-				int itemAmount = itemStack.getAmount();
-				if (k == 1 || itemAmount < itemStack.getMaxStackSize()) {
-					int newAmount = (itemAmount - remainingHigh);
-					if (newAmount > 0) {
-						// Copy the item before modifying it:
-						itemStack = itemStack.clone();
-						contents[slot] = itemStack;
-						itemStack.setAmount(newAmount);
-						remainingHigh = 0;
-						break;
-					} else {
-						contents[slot] = null;
-						remainingHigh = -newAmount;
-						if (newAmount == 0) {
-							break;
-						}
-					}
-				}
-			}
-			if (remainingHigh == 0) break;
-		}
-
-		remaining += (remainingHigh * highCurrency.getValue());
-		if (remaining >= 0) {
-			return remaining;
-		}
-		assert remaining < 0; // We have some change left
-		remaining = -remaining; // The change is now represented as positive value
-
-		// Add the remaining change into empty slots (all partial slots have already been cleared
-		// above):
-		// TODO This could probably be replaced with Utils.addItems
-		int maxStackSize = baseCurrency.getMaxStackSize();
-		for (int slot = 0; slot < contents.length; slot++) {
-			ItemStack itemStack = contents[slot];
-			if (!ItemUtils.isEmpty(itemStack)) continue;
-
-			int stackSize = Math.min(remaining, maxStackSize);
-			contents[slot] = baseCurrency.getItemData().createItemStack(stackSize);
-			remaining -= stackSize;
-			if (remaining == 0) break;
-		}
-		// We removed too much, represent as negative value:
-		remaining = -remaining;
-		return remaining;
-	}
 }
@@ -65,7 +65,7 @@ public class SKBuyingPlayerShopkeeper
 	@Override
 	public void saveDynamicState(ShopkeeperData shopkeeperData, boolean saveAll) {
 		super.saveDynamicState(shopkeeperData, saveAll);
-		this.saveOffers(shopkeeperData);
+		this.saveOffers(shopkeeperData, saveAll);
 	}
 
 	@Override
@@ -133,9 +133,9 @@ public class SKBuyingPlayerShopkeeper
 		this._setOffers(shopkeeperData.get(OFFERS));
 	}
 
-	private void saveOffers(ShopkeeperData shopkeeperData) {
+	private void saveOffers(ShopkeeperData shopkeeperData, boolean saveAll) {
 		assert shopkeeperData != null;
-		shopkeeperData.set(OFFERS, this.getOffers());
+		this.saveCachedProperty(shopkeeperData, OFFERS, this.getOffers(), saveAll);
 	}
 
 	@Override
@@ -168,7 +168,7 @@ public class SKBuyingPlayerShopkeeper
 			PriceOffer offer = iterator.next();
 			if (offer.getItem().isSimilar(tradedItem)) {
 				iterator.remove();
-				this.markDirty();
+				this.markDirty(OFFERS);
 				break;
 			}
 		}
@@ -183,7 +183,7 @@ public class SKBuyingPlayerShopkeeper
 	@Override
 	public void clearOffers() {
 		this._clearOffers();
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _clearOffers() {
@@ -195,7 +195,7 @@ public class SKBuyingPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._setOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _setOffers(@ReadOnly List<? extends @NonNull PriceOffer> offers) {
@@ -208,7 +208,7 @@ public class SKBuyingPlayerShopkeeper
 	public void addOffer(PriceOffer offer) {
 		Validate.notNull(offer, "offer is null");
 		this._addOffer(offer);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffer(PriceOffer offer) {
@@ -228,7 +228,7 @@ public class SKBuyingPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._addOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffers(@ReadOnly List<? extends @NonNull PriceOffer> offers) {
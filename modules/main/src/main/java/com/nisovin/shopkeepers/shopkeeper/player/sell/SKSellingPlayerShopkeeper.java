@@ -27,7 +27,7 @@ import com.nisovin.shopkeepers.util.annotations.ReadOnly;
 import com.nisovin.shopkeepers.util.data.property.BasicProperty;
 import com.nisovin.shopkeepers.util.data.property.Property;
 import com.nisovin.shopkeepers.util.data.serialization.InvalidDataException;
-import com.nisovin.shopkeepers.util.inventory.InventoryUtils;
+import com.nisovin.shopkeepers.util.inventory.ItemStockIndex;
 import com.nisovin.shopkeepers.util.java.CollectionUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 
@@ -66,7 +66,7 @@ public class SKSellingPlayerShopkeeper
 	@Override
 	public void saveDynamicState(ShopkeeperData shopkeeperData, boolean saveAll) {
 		super.saveDynamicState(shopkeeperData, saveAll);
-		this.saveOffers(shopkeeperData);
+		this.saveOffers(shopkeeperData, saveAll);
 	}
 
 	@Override
@@ -83,17 +83,15 @@ public class SKSellingPlayerShopkeeper
 	public List<? extends @NonNull TradingRecipe> getTradingRecipes(@Nullable Player player) {
 		// Empty if the container is not found:
 		@Nullable ItemStack[] containerContents = this.getContainerContents();
+		// Looks up the stock of all offers with a single pass over the container contents:
+		ItemStockIndex containerStock = ItemStockIndex.of(containerContents);
 		List<? extends @NonNull PriceOffer> offers = this.getOffers();
 		List<@NonNull TradingRecipe> recipes = new ArrayList<>(offers.size());
 		offers.forEach(offer -> {
 			// Both the offer's and the trading recipe's items are immutable. So there is no need to
 			// copy the item.
 			UnmodifiableItemStack tradedItem = offer.getItem();
-			boolean outOfStock = !InventoryUtils.containsAtLeast(
-					containerContents,
-					tradedItem,
-					tradedItem.getAmount()
-			);
+			boolean outOfStock = !this.isInStock(containerContents, containerStock, tradedItem);
 			TradingRecipe recipe = this.createSellingRecipe(
 					tradedItem,
 					offer.getPrice(),
@@ -139,9 +137,9 @@ public class SKSellingPlayerShopkeeper
 		this._setOffers(shopkeeperData.get(OFFERS));
 	}
 
-	private void saveOffers(ShopkeeperData shopkeeperData) {
+	private void saveOffers(ShopkeeperData shopkeeperData, boolean saveAll) {
 		assert shopkeeperData != null;
-		shopkeeperData.set(OFFERS, this.getOffers());
+		this.saveCachedProperty(shopkeeperData, OFFERS, this.getOffers(), saveAll);
 	}
 
 	@Override
@@ -174,7 +172,7 @@ public class SKSellingPlayerShopkeeper
 			PriceOffer offer = iterator.next();
 			if (offer.getItem().isSimilar(tradedItem)) {
 				iterator.remove();
-				this.markDirty();
+				this.markDirty(OFFERS);
 				break;
 			}
 		}
@@ -189,7 +187,7 @@ public class SKSellingPlayerShopkeeper
 	@Override
 	public void clearOffers() {
 		this._clearOffers();
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _clearOffers() {
@@ -201,7 +199,7 @@ public class SKSellingPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._setOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _setOffers(@ReadOnly List<? extends @NonNull PriceOffer> offers) {
@@ -214,7 +212,7 @@ public class SKSellingPlayerShopkeeper
 	public void addOffer(PriceOffer offer) {
 		Validate.notNull(offer, "offer is null");
 		this._addOffer(offer);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffer(PriceOffer offer) {
@@ -234,7 +232,7 @@ public class SKSellingPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._addOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffers(@ReadOnly List<? extends @NonNull PriceOffer> offers) {
@@ -1,10 +1,7 @@
 package com.nisovin.shopkeepers.shopkeeper.player.sell;
 
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
-import org.checkerframework.checker.nullness.qual.Nullable;
 
-import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.shopkeeper.TradingRecipe;
 import com.nisovin.shopkeepers.api.shopkeeper.offers.PriceOffer;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
@@ -12,10 +9,10 @@ import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.currency.Currencies;
 import com.nisovin.shopkeepers.currency.Currency;
 import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.shopkeeper.player.ContainerLedger;
 import com.nisovin.shopkeepers.shopkeeper.player.PlayerShopTradingHandler;
 import com.nisovin.shopkeepers.ui.trading.Trade;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
-import com.nisovin.shopkeepers.util.inventory.InventoryUtils;
 
 public class SellingPlayerShopTradingHandler extends PlayerShopTradingHandler {
 
@@ -60,10 +57,10 @@ public class SellingPlayerShopTradingHandler extends PlayerShopTradingHandler {
 			return false;
 		}
 
-		@Nullable ItemStack[] newContainerContents = Unsafe.assertNonNull(this.newContainerContents);
+		ContainerLedger containerLedger = this.getContainerLedger();
 
 		// Remove result items from container contents:
-		if (InventoryUtils.removeItems(newContainerContents, soldItem) != 0) {
+		if (containerLedger.removeItems(soldItem) != 0) {
 			TextUtils.sendMessage(tradingPlayer, Messages.cannotTradeInsufficientStock);
 			this.debugPreventedTrade(
 					tradingPlayer,
@@ -84,14 +81,15 @@ public class SellingPlayerShopTradingHandler extends PlayerShopTradingHandler {
 				Currency highCurrency = Currencies.getHigh();
 				int highCurrencyAmount = (remaining / highCurrency.getValue());
 				if (highCurrencyAmount > 0) {
-					ItemStack currencyItems = highCurrency.getItemData().createItemStack(highCurrencyAmount);
-					int remainingHighCurrency = InventoryUtils.addItems(newContainerContents, currencyItems);
+					int remainingHighCurrency = containerLedger.addCurrency(
+							highCurrency,
+							highCurrencyAmount
+					);
 					remaining -= (highCurrencyAmount - remainingHighCurrency) * highCurrency.getValue();
 				}
 			}
 			if (remaining > 0) {
-				ItemStack currencyItems = Currencies.getBase().getItemData().createItemStack(remaining);
-				if (InventoryUtils.addItems(newContainerContents, currencyItems) != 0) {
+				if (containerLedger.addCurrency(Currencies.getBase(), remaining) != 0) {
 					TextUtils.sendMessage(tradingPlayer, Messages.cannotTradeInsufficientStorageSpace);
 					this.debugPreventedTrade(
 							tradingPlayer,
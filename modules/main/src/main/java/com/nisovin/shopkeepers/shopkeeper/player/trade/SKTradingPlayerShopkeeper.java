@@ -25,7 +25,7 @@ import com.nisovin.shopkeepers.shopkeeper.player.AbstractPlayerShopkeeper;
 import com.nisovin.shopkeepers.util.data.property.BasicProperty;
 import com.nisovin.shopkeepers.util.data.property.Property;
 import com.nisovin.shopkeepers.util.data.serialization.InvalidDataException;
-import com.nisovin.shopkeepers.util.inventory.InventoryUtils;
+import com.nisovin.shopkeepers.util.inventory.ItemStockIndex;
 import com.nisovin.shopkeepers.util.java.CollectionUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 
@@ -64,7 +64,7 @@ public class SKTradingPlayerShopkeeper
 	@Override
 	public void saveDynamicState(ShopkeeperData shopkeeperData, boolean saveAll) {
 		super.saveDynamicState(shopkeeperData, saveAll);
-		this.saveOffers(shopkeeperData);
+		this.saveOffers(shopkeeperData, saveAll);
 	}
 
 	@Override
@@ -81,15 +81,13 @@ public class SKTradingPlayerShopkeeper
 	public List<? extends @NonNull TradingRecipe> getTradingRecipes(@Nullable Player player) {
 		// Empty if the container is not found
 		@Nullable ItemStack[] containerContents = this.getContainerContents();
+		// Looks up the stock of all offers with a single pass over the container contents:
+		ItemStockIndex containerStock = ItemStockIndex.of(containerContents);
 		List<? extends @NonNull TradeOffer> offers = this.getOffers();
 		List<@NonNull TradingRecipe> recipes = new ArrayList<>(offers.size());
 		offers.forEach(offer -> {
 			UnmodifiableItemStack resultItem = offer.getResultItem();
-			boolean outOfStock = !InventoryUtils.containsAtLeast(
-					containerContents,
-					resultItem,
-					resultItem.getAmount()
-			);
+			boolean outOfStock = !this.isInStock(containerContents, containerStock, resultItem);
 			TradingRecipe recipe = SKTradeOffer.toTradingRecipe(offer, outOfStock);
 			recipes.add(recipe);
 		});
@@ -129,9 +127,9 @@ public class SKTradingPlayerShopkeeper
 		this._setOffers(shopkeeperData.get(OFFERS));
 	}
 
-	private void saveOffers(ShopkeeperData shopkeeperData) {
+	private void saveOffers(ShopkeeperData shopkeeperData, boolean saveAll) {
 		assert shopkeeperData != null;
-		shopkeeperData.set(OFFERS, this.getOffers());
+		this.saveCachedProperty(shopkeeperData, OFFERS, this.getOffers(), saveAll);
 	}
 
 	@Override
@@ -161,7 +159,7 @@ public class SKTradingPlayerShopkeeper
 	@Override
 	public void clearOffers() {
 		this._clearOffers();
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _clearOffers() {
@@ -173,7 +171,7 @@ public class SKTradingPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._setOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _setOffers(List<? extends @NonNull TradeOffer> offers) {
@@ -186,7 +184,7 @@ public class SKTradingPlayerShopkeeper
 	public void addOffer(TradeOffer offer) {
 		Validate.notNull(offer, "offer is null");
 		this._addOffer(offer);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffer(TradeOffer offer) {
@@ -203,7 +201,7 @@ public class SKTradingPlayerShopkeeper
 		Validate.notNull(offers, "offers is null");
 		Validate.noNullElements(offers, "offers contains null");
 		this._addOffers(offers);
-		this.markDirty();
+		this.markDirty(OFFERS);
 	}
 
 	private void _addOffers(List<? extends @NonNull TradeOffer> offers) {
@@ -46,7 +46,6 @@ import com.nisovin.shopkeepers.shopobjects.block.BlockShopObjectIds;
 import com.nisovin.shopkeepers.shopobjects.entity.EntityShopObjectIds;
 import com.nisovin.shopkeepers.storage.SKShopkeeperStorage;
 import com.nisovin.shopkeepers.util.bukkit.LocationUtils;
-import com.nisovin.shopkeepers.util.bukkit.TextUtils;
 import com.nisovin.shopkeepers.util.data.serialization.InvalidDataException;
 import com.nisovin.shopkeepers.util.java.StringUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
@@ -61,8 +60,9 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	private final Collection<? extends @NonNull AbstractShopkeeper> allShopkeepersView = Collections.unmodifiableCollection(shopkeepersByUUID.values());
 	private final Map<@NonNull Integer, @NonNull AbstractShopkeeper> shopkeepersById = new HashMap<>();
 
-	// TODO Shopkeepers by name TreeMap to speedup name lookups and prefix matching?
-	// TODO TreeMaps for shopkeeper owners by name and uuid to speedup prefix matching?
+	// Shopkeepers by normalized name:
+	private final ShopkeeperNameIndex nameIndex = new ShopkeeperNameIndex();
+	// TODO TreeMaps for shopkeeper owners by name to speedup prefix matching?
 
 	// Virtual shopkeepers:
 	// Set: Allows for fast removal.
@@ -113,6 +113,9 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 
 	// Player shopkeepers:
 	private int playerShopCount = 0;
+	// Player shopkeepers by owner:
+	// Owners without any player shopkeepers are removed.
+	private final Map<@NonNull UUID, @NonNull Set<@NonNull AbstractPlayerShopkeeper>> playerShopkeepersByOwner = new HashMap<>();
 	// Note: Already unmodifiable.
 	private final Set<? extends @NonNull AbstractPlayerShopkeeper> allPlayerShopkeepersView = new AbstractSet<@NonNull AbstractPlayerShopkeeper>() {
 		@Override
@@ -175,12 +178,15 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 
 	private void ensureEmpty() {
 		if (!shopkeepersByUUID.isEmpty() || !shopkeepersById.isEmpty()
-				|| !virtualShopkeepers.isEmpty() || playerShopCount != 0) {
+				|| !virtualShopkeepers.isEmpty() || playerShopCount != 0
+				|| !playerShopkeepersByOwner.isEmpty() || !nameIndex.isEmpty()) {
 			Log.warning("Some shopkeepers were not properly unregistered!");
 			shopkeepersByUUID.clear();
 			shopkeepersById.clear();
 			virtualShopkeepers.clear();
 			playerShopCount = 0;
+			playerShopkeepersByOwner.clear();
+			nameIndex.clear();
 		}
 		chunkMap.ensureEmpty();
 	}
@@ -290,6 +296,9 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		shopkeepersByUUID.put(shopkeeperUniqueId, shopkeeper);
 		shopkeepersById.put(shopkeeperId, shopkeeper);
 
+		// Index by name:
+		nameIndex.addShopkeeper(shopkeeper);
+
 		// Inform the storage about the used up id:
 		SKShopkeeperStorage shopkeeperStorage = this.getShopkeeperStorage();
 		shopkeeperStorage.onShopkeeperIdUsed(shopkeeperId);
@@ -301,9 +310,11 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 			chunkMap.addShopkeeper(shopkeeper);
 		}
 
-		// Update player shop count:
+		// Update player shop count and owner index:
 		if (shopkeeper instanceof PlayerShopkeeper) {
 			playerShopCount++;
+			AbstractPlayerShopkeeper playerShop = (AbstractPlayerShopkeeper) shopkeeper;
+			this.addToOwnerIndex(playerShop, playerShop.getOwnerUUID());
 		}
 
 		// Log a warning if either the shop type or the shop object type is disabled. The shopkeeper
@@ -377,6 +388,7 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		UUID shopkeeperUniqueId = shopkeeper.getUniqueId();
 		shopkeepersByUUID.remove(shopkeeperUniqueId);
 		shopkeepersById.remove(shopkeeper.getId());
+		nameIndex.removeShopkeeper(shopkeeper);
 
 		// Remove shopkeeper from chunk-based storage:
 		if (shopkeeper.isVirtual()) {
@@ -385,9 +397,11 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 			chunkMap.removeShopkeeper(shopkeeper);
 		}
 
-		// Update player shop count:
+		// Update player shop count and owner index:
 		if (shopkeeper instanceof PlayerShopkeeper) {
 			playerShopCount--;
+			AbstractPlayerShopkeeper playerShop = (AbstractPlayerShopkeeper) shopkeeper;
+			this.removeFromOwnerIndex(playerShop, playerShop.getOwnerUUID());
 		}
 
 		if (cause == ShopkeeperRemoveEvent.Cause.DELETE) {
@@ -414,6 +428,40 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		chunkActivator.onShopkeeperMoved(shopkeeper, oldChunk);
 	}
 
+	// This is not expected to be called for invalid shopkeepers.
+	public void onShopkeeperRenamed(AbstractShopkeeper shopkeeper) {
+		Validate.notNull(shopkeeper, "shopkeeper is null");
+		Validate.isTrue(shopkeeper.isValid(), "shopkeeper is not valid");
+		nameIndex.onShopkeeperRenamed(shopkeeper);
+	}
+
+	// This is not expected to be called for invalid shopkeepers.
+	public void onPlayerShopOwnerChanged(AbstractPlayerShopkeeper shopkeeper, UUID oldOwnerUUID) {
+		Validate.notNull(shopkeeper, "shopkeeper is null");
+		Validate.notNull(oldOwnerUUID, "oldOwnerUUID is null");
+		Validate.isTrue(shopkeeper.isValid(), "shopkeeper is not valid");
+
+		UUID newOwnerUUID = shopkeeper.getOwnerUUID();
+		if (newOwnerUUID.equals(oldOwnerUUID)) return; // The owner did not change
+
+		this.removeFromOwnerIndex(shopkeeper, oldOwnerUUID);
+		this.addToOwnerIndex(shopkeeper, newOwnerUUID);
+	}
+
+	private void addToOwnerIndex(AbstractPlayerShopkeeper shopkeeper, UUID ownerUUID) {
+		playerShopkeepersByOwner.computeIfAbsent(ownerUUID, uuid -> new LinkedHashSet<>())
+				.add(shopkeeper);
+	}
+
+	private void removeFromOwnerIndex(AbstractPlayerShopkeeper shopkeeper, UUID ownerUUID) {
+		Set<@NonNull AbstractPlayerShopkeeper> ownerShopkeepers = playerShopkeepersByOwner.get(ownerUUID);
+		if (ownerShopkeepers == null) return;
+		ownerShopkeepers.remove(shopkeeper);
+		if (ownerShopkeepers.isEmpty()) {
+			playerShopkeepersByOwner.remove(ownerUUID);
+		}
+	}
+
 	private void unloadShopkeeper(AbstractShopkeeper shopkeeper) {
 		assert shopkeeper != null && shopkeeper.isValid();
 		this.removeShopkeeper(shopkeeper, ShopkeeperRemoveEvent.Cause.UNLOAD);
@@ -454,12 +502,24 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 
 	@Override
 	public @Nullable AbstractShopkeeper getShopkeeperByUniqueId(UUID shopkeeperUniqueId) {
-		return shopkeepersByUUID.get(shopkeeperUniqueId);
+		AbstractShopkeeper shopkeeper = shopkeepersByUUID.get(shopkeeperUniqueId);
+		if (shopkeeper == null) {
+			// Load the shopkeeper if it is located in a world that is not loaded:
+			plugin.getShopkeeperStorage().loadDeferredShopkeeper(shopkeeperUniqueId);
+			shopkeeper = shopkeepersByUUID.get(shopkeeperUniqueId);
+		}
+		return shopkeeper;
 	}
 
 	@Override
 	public @Nullable AbstractShopkeeper getShopkeeperById(int shopkeeperId) {
-		return shopkeepersById.get(shopkeeperId);
+		AbstractShopkeeper shopkeeper = shopkeepersById.get(shopkeeperId);
+		if (shopkeeper == null) {
+			// Load the shopkeeper if it is located in a world that is not loaded:
+			plugin.getShopkeeperStorage().loadDeferredShopkeeper(shopkeeperId);
+			shopkeeper = shopkeepersById.get(shopkeeperId);
+		}
+		return shopkeeper;
 	}
 
 	// PLAYER SHOPS
@@ -474,70 +534,59 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 			UUID ownerUUID
 	) {
 		Validate.notNull(ownerUUID, "ownerUUID is null");
-		// TODO Improve? Maybe keep an index of player shops? Or even index by owner?
+		// Load the owner's shopkeepers that are located in worlds that are not loaded:
+		plugin.getShopkeeperStorage().loadDeferredShopkeepersOfOwner(ownerUUID);
+
 		// Note: Already unmodifiable.
+		// This view looks up the owner's shopkeepers lazily, since the index entry of the owner is
+		// replaced when the owner's last shopkeeper is removed and a new shopkeeper is added.
 		return new AbstractSet<@NonNull AbstractPlayerShopkeeper>() {
-			private Stream<? extends @NonNull AbstractPlayerShopkeeper> createStream() {
-				return allPlayerShopkeepersView.stream()
-						.filter(shopkeeper -> shopkeeper.getOwnerUUID().equals(ownerUUID));
-			}
-
 			@Override
 			public Iterator<AbstractPlayerShopkeeper> iterator() {
-				if (allPlayerShopkeepersView.isEmpty()) {
-					// There are no player shops at all:
+				Set<@NonNull AbstractPlayerShopkeeper> ownerShopkeepers = playerShopkeepersByOwner.get(ownerUUID);
+				if (ownerShopkeepers == null) {
+					// The player owns no shops:
 					return Collections.emptyIterator();
 				}
-				return Unsafe.cast(this.createStream().iterator());
+				return Collections.unmodifiableSet(ownerShopkeepers).iterator();
 			}
 
 			@Override
 			public int size() {
-				if (allPlayerShopkeepersView.isEmpty()) {
-					// There are no player shops at all:
-					return 0;
-				}
-				return this.createStream().mapToInt(shopkeeper -> 1).sum();
+				Set<@NonNull AbstractPlayerShopkeeper> ownerShopkeepers = playerShopkeepersByOwner.get(ownerUUID);
+				return (ownerShopkeepers != null) ? ownerShopkeepers.size() : 0;
+			}
+
+			@Override
+			public boolean contains(@Nullable Object object) {
+				Set<@NonNull AbstractPlayerShopkeeper> ownerShopkeepers = playerShopkeepersByOwner.get(ownerUUID);
+				return (ownerShopkeepers != null) && ownerShopkeepers.contains(object);
 			}
 		};
 	}
 
 	// BY NAME
 
+	public ShopkeeperNameIndex getNameIndex() {
+		return nameIndex;
+	}
+
 	@Override
 	public Stream<? extends @NonNull AbstractShopkeeper> getShopkeepersByName(String shopName) {
-		String normalizedShopName = StringUtils.normalize(TextUtils.stripColor(shopName));
+		String normalizedShopName = ShopkeeperNameIndex.normalize(shopName);
 		if (StringUtils.isEmpty(normalizedShopName)) return Stream.empty();
 
-		// TODO Improve via (Tree)Map?
-		return this.getAllShopkeepers().stream().filter(shopkeeper -> {
-			String shopkeeperName = shopkeeper.getName(); // Can be empty
-			if (shopkeeperName.isEmpty()) return false; // Has no name, filter
-
-			shopkeeperName = TextUtils.stripColor(shopkeeperName);
-			shopkeeperName = StringUtils.normalize(shopkeeperName);
-			// Include shopkeeper if name matches:
-			return (shopkeeperName.equals(normalizedShopName));
-		});
+		return nameIndex.getShopkeepersByNormalizedName(normalizedShopName).stream();
 	}
 
 	@Override
 	public Stream<? extends @NonNull AbstractShopkeeper> getShopkeepersByNamePrefix(
 			String shopNamePrefix
 	) {
-		String normalizedShopNamePrefix = StringUtils.normalize(TextUtils.stripColor(shopNamePrefix));
+		String normalizedShopNamePrefix = ShopkeeperNameIndex.normalize(shopNamePrefix);
 		if (StringUtils.isEmpty(normalizedShopNamePrefix)) return Stream.empty();
 
-		// TODO Improve via TreeMap?
-		return this.getAllShopkeepers().stream().filter(shopkeeper -> {
-			String shopkeeperName = shopkeeper.getName(); // Can be empty
-			if (shopkeeperName.isEmpty()) return false; // Has no name, filter
-
-			shopkeeperName = TextUtils.stripColor(shopkeeperName);
-			shopkeeperName = StringUtils.normalize(shopkeeperName);
-			// Include shopkeeper if name matches:
-			return shopkeeperName.startsWith(normalizedShopNamePrefix);
-		});
+		return nameIndex.getShopkeepersByNormalizedNamePrefix(normalizedShopNamePrefix);
 	}
 
 	// BY WORLD
@@ -623,8 +672,16 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		int z = location.getBlockZ();
 
 		List<@NonNull AbstractShopkeeper> shopkeepers = new ArrayList<>();
-		ChunkCoords chunkCoords = ChunkCoords.fromBlock(worldName, x, z);
-		this.getShopkeepersInChunk(chunkCoords).forEach(shopkeeper -> {
+		WorldShopkeepers worldShopkeepers = chunkMap.getWorldShopkeepers(worldName);
+		if (worldShopkeepers == null) return shopkeepers; // There are no shopkeepers in this world
+
+		ChunkShopkeepers chunkShopkeepers = worldShopkeepers.getChunkShopkeepers(
+				ChunkCoords.fromBlock(x),
+				ChunkCoords.fromBlock(z)
+		);
+		if (chunkShopkeepers == null) return shopkeepers; // There are no shopkeepers in this chunk
+
+		chunkShopkeepers.getShopkeepers().forEach(shopkeeper -> {
 			assert worldName.equals(shopkeeper.getWorldName());
 			if (shopkeeper.getX() == x && shopkeeper.getY() == y && shopkeeper.getZ() == z) {
 				shopkeepers.add(shopkeeper);
@@ -0,0 +1,149 @@
+package com.nisovin.shopkeepers.shopkeeper.registry;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.java.StringUtils;
+
+/**
+ * Indexes shopkeepers by their normalized names.
+ * <p>
+ * The names are normalized via {@link #normalize(String)}. Shopkeepers without name are not
+ * indexed. The index is sorted by the normalized names, which allows exact and prefix lookups
+ * without iterating all shopkeepers.
+ */
+public final class ShopkeeperNameIndex {
+
+	/**
+	 * Normalizes the given shopkeeper name for lookups in the index.
+	 * <p>
+	 * This strips colors, normalizes whitespace, and converts the name to lower case.
+	 * 
+	 * @param name
+	 *            the name, not <code>null</code>
+	 * @return the normalized name, not <code>null</code>, can be empty
+	 */
+	public static String normalize(String name) {
+		return StringUtils.normalize(TextUtils.stripColor(name));
+	}
+
+	// Gets the smallest String that is greater than all Strings that start with the given
+	// non-empty prefix, or null if there is no such String.
+	private static @Nullable String getPrefixUpperBound(String prefix) {
+		assert !prefix.isEmpty();
+		for (int i = prefix.length() - 1; i >= 0; i--) {
+			char c = prefix.charAt(i);
+			if (c != Character.MAX_VALUE) {
+				return prefix.substring(0, i) + (char) (c + 1);
+			}
+		}
+		return null;
+	}
+
+	private final NavigableMap<@NonNull String, @NonNull Set<@NonNull AbstractShopkeeper>> shopkeepersByName = new TreeMap<>();
+	// The normalized names under which the shopkeepers are currently indexed:
+	private final Map<@NonNull AbstractShopkeeper, @NonNull String> indexedNames = new HashMap<>();
+
+	ShopkeeperNameIndex() {
+	}
+
+	void addShopkeeper(AbstractShopkeeper shopkeeper) {
+		assert shopkeeper != null;
+		assert !indexedNames.containsKey(shopkeeper);
+		String normalizedName = normalize(shopkeeper.getName());
+		if (normalizedName.isEmpty()) return; // Not indexed
+
+		indexedNames.put(shopkeeper, normalizedName);
+		shopkeepersByName.computeIfAbsent(normalizedName, name -> new LinkedHashSet<>())
+				.add(shopkeeper);
+	}
+
+	void removeShopkeeper(AbstractShopkeeper shopkeeper) {
+		assert shopkeeper != null;
+		String normalizedName = indexedNames.remove(shopkeeper);
+		if (normalizedName == null) return; // Not indexed
+
+		Set<@NonNull AbstractShopkeeper> shopkeepers = shopkeepersByName.get(normalizedName);
+		assert shopkeepers != null;
+		shopkeepers.remove(shopkeeper);
+		if (shopkeepers.isEmpty()) {
+			shopkeepersByName.remove(normalizedName);
+		}
+	}
+
+	void onShopkeeperRenamed(AbstractShopkeeper shopkeeper) {
+		assert shopkeeper != null;
+		String oldNormalizedName = indexedNames.get(shopkeeper);
+		String newNormalizedName = normalize(shopkeeper.getName());
+		if (newNormalizedName.equals(oldNormalizedName)) return; // Index is up-to-date
+
+		this.removeShopkeeper(shopkeeper);
+		this.addShopkeeper(shopkeeper);
+	}
+
+	void clear() {
+		shopkeepersByName.clear();
+		indexedNames.clear();
+	}
+
+	boolean isEmpty() {
+		return indexedNames.isEmpty();
+	}
+
+	// QUERIES
+
+	/**
+	 * Gets the shopkeepers whose normalized name matches the given normalized name.
+	 * 
+	 * @param normalizedName
+	 *            the {@link #normalize(String) normalized} name, not <code>null</code>
+	 * @return an unmodifiable view on the matching shopkeepers, not <code>null</code>
+	 */
+	public Set<? extends @NonNull AbstractShopkeeper> getShopkeepersByNormalizedName(
+			String normalizedName
+	) {
+		Set<@NonNull AbstractShopkeeper> shopkeepers = shopkeepersByName.get(normalizedName);
+		if (shopkeepers == null) return Collections.emptySet();
+		return Collections.unmodifiableSet(shopkeepers);
+	}
+
+	/**
+	 * Gets the shopkeepers whose normalized name starts with the given normalized prefix.
+	 * <p>
+	 * The shopkeepers are lazily looked up while the returned stream is consumed, sorted by their
+	 * normalized names. If the given prefix is empty, this returns all shopkeepers that have a
+	 * name.
+	 * 
+	 * @param normalizedPrefix
+	 *            the {@link #normalize(String) normalized} name prefix, not <code>null</code>
+	 * @return a stream over the matching shopkeepers, not <code>null</code>
+	 */
+	public Stream<? extends @NonNull AbstractShopkeeper> getShopkeepersByNormalizedNamePrefix(
+			String normalizedPrefix
+	) {
+		NavigableMap<@NonNull String, @NonNull Set<@NonNull AbstractShopkeeper>> matches;
+		if (normalizedPrefix.isEmpty()) {
+			matches = shopkeepersByName;
+		} else {
+			String upperBound = getPrefixUpperBound(normalizedPrefix);
+			if (upperBound != null) {
+				matches = shopkeepersByName.subMap(normalizedPrefix, true, upperBound, false);
+			} else {
+				matches = shopkeepersByName.tailMap(normalizedPrefix, true);
+			}
+		}
+		if (matches.isEmpty()) return Stream.empty();
+		return matches.values().stream().flatMap(Set::stream);
+	}
+}
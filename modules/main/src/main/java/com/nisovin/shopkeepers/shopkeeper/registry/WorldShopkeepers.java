@@ -3,7 +3,6 @@ package com.nisovin.shopkeepers.shopkeeper.registry;
 import java.util.AbstractSet;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -16,12 +15,15 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.util.ChunkCoords;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.util.bukkit.ChunkKeys;
+import com.nisovin.shopkeepers.util.java.LongHashMap;
 import com.nisovin.shopkeepers.util.java.Validate;
 
 final class WorldShopkeepers {
 
 	private final String worldName;
-	private final Map<@NonNull ChunkCoords, @NonNull ChunkShopkeepers> shopkeepersByChunk = new HashMap<>();
+	// Keyed by the packed chunk coordinates, so that chunk lookups do not allocate:
+	private final LongHashMap<@NonNull ChunkShopkeepers> shopkeepersByChunk = new LongHashMap<>();
 	// Unmodifiable entries:
 	private final Map<@NonNull ChunkCoords, @NonNull List<? extends @NonNull AbstractShopkeeper>> shopkeeperViewsByChunk = new LinkedHashMap<>();
 	// Unmodifiable map with unmodifiable entries:
@@ -55,12 +57,22 @@ final class WorldShopkeepers {
 		return worldName;
 	}
 
+	private static long getChunkKey(ChunkCoords chunkCoords) {
+		return ChunkKeys.of(chunkCoords.getChunkX(), chunkCoords.getChunkZ());
+	}
+
 	// Returns null if there are no shopkeepers in the specified chunk:
 	@Nullable
 	ChunkShopkeepers getChunkShopkeepers(ChunkCoords chunkCoords) {
 		assert chunkCoords != null;
 		assert chunkCoords.getWorldName().equals(this.getWorldName());
-		return shopkeepersByChunk.get(chunkCoords);
+		return this.getChunkShopkeepers(chunkCoords.getChunkX(), chunkCoords.getChunkZ());
+	}
+
+	// Returns null if there are no shopkeepers in the specified chunk:
+	@Nullable
+	ChunkShopkeepers getChunkShopkeepers(int chunkX, int chunkZ) {
+		return shopkeepersByChunk.get(ChunkKeys.of(chunkX, chunkZ));
 	}
 
 	ChunkShopkeepers addShopkeeper(AbstractShopkeeper shopkeeper) {
@@ -69,14 +81,13 @@ final class WorldShopkeepers {
 		ChunkCoords chunkCoords = Unsafe.assertNonNull(shopkeeper.getChunkCoords());
 		assert chunkCoords.getWorldName().equals(this.getWorldName());
 		ChunkShopkeepers chunkShopkeepers = shopkeepersByChunk.computeIfAbsent(
-				chunkCoords,
-				chkCoords -> {
-					ChunkShopkeepers newChunkShopkeepers = new ChunkShopkeepers(chkCoords);
-					shopkeeperViewsByChunk.put(chkCoords, newChunkShopkeepers.getShopkeepers());
+				getChunkKey(chunkCoords),
+				chunkKey -> {
+					ChunkShopkeepers newChunkShopkeepers = new ChunkShopkeepers(chunkCoords);
+					shopkeeperViewsByChunk.put(chunkCoords, newChunkShopkeepers.getShopkeepers());
 					return newChunkShopkeepers;
 				}
 		);
-		assert chunkShopkeepers != null;
 		assert !chunkShopkeepers.getShopkeepers().contains(shopkeeper);
 		chunkShopkeepers.addShopkeeper(shopkeeper);
 		shopkeeperCount += 1;
@@ -87,12 +98,13 @@ final class WorldShopkeepers {
 		assert shopkeeper != null;
 		ChunkCoords chunkCoords = Unsafe.assertNonNull(shopkeeper.getLastChunkCoords());
 		assert chunkCoords.getWorldName().equals(this.getWorldName());
-		ChunkShopkeepers chunkShopkeepers = Unsafe.assertNonNull(shopkeepersByChunk.get(chunkCoords));
+		long chunkKey = getChunkKey(chunkCoords);
+		ChunkShopkeepers chunkShopkeepers = Unsafe.assertNonNull(shopkeepersByChunk.get(chunkKey));
 		assert chunkShopkeepers.getShopkeepers().contains(shopkeeper);
 		chunkShopkeepers.removeShopkeeper(shopkeeper);
 		shopkeeperCount -= 1;
 		if (chunkShopkeepers.getShopkeepers().isEmpty()) {
-			shopkeepersByChunk.remove(chunkCoords);
+			shopkeepersByChunk.remove(chunkKey);
 			shopkeeperViewsByChunk.remove(chunkCoords);
 		}
 		return chunkShopkeepers;
@@ -24,17 +24,31 @@ import com.nisovin.shopkeepers.util.taskqueue.TaskQueue;
  */
 public class ShopkeeperSpawnQueue extends TaskQueue<@NonNull AbstractShopkeeper> {
 
-	// With this configuration we can spawn around 40 shopkeepers per second.
-	// A more frequently running task has a higher general overhead.
+	// With the minimum number of spawns per execution we can spawn around 40 shopkeepers per
+	// second. A more frequently running task has a higher general overhead.
 	private static final int SPAWN_TASK_PERIOD_TICKS = 3;
 	// On my test setup, and without any GC taking place, the spawning of a shopkeeper seems to take
 	// between 0.05-0.25ms, with an average of around 0.1ms.
-	private static final int SPAWNS_PER_EXECUTION = 6;
+	private static final double EXPECTED_SPAWN_MILLIS = 0.1D;
+	private static final int MIN_SPAWNS_PER_EXECUTION = 6;
+	// If the server has spare capacity, we spawn as many shopkeepers as fit into this time budget.
+	// This allows us to quickly spawn the shopkeepers of chunks with large numbers of shopkeepers
+	// (e.g. after server restarts, or when players enter shopping malls).
+	private static final double SPAWN_TIME_BUDGET_MILLIS = 2.0D;
+	// Limits the impact of outliers in the measured spawning durations:
+	private static final int MAX_SPAWNS_PER_EXECUTION = 60;
 
 	private final Consumer<? super @NonNull AbstractShopkeeper> spawner;
 
 	ShopkeeperSpawnQueue(Plugin plugin, Consumer<? super @NonNull AbstractShopkeeper> spawner) {
-		super(plugin, SPAWN_TASK_PERIOD_TICKS, SPAWNS_PER_EXECUTION);
+		super(
+				plugin,
+				SPAWN_TASK_PERIOD_TICKS,
+				MIN_SPAWNS_PER_EXECUTION,
+				MAX_SPAWNS_PER_EXECUTION,
+				SPAWN_TIME_BUDGET_MILLIS,
+				EXPECTED_SPAWN_MILLIS
+		);
 		Validate.notNull(spawner, "spawner is null");
 		this.spawner = spawner;
 	}
@@ -7,17 +7,33 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.util.ChunkCoords;
 import com.nisovin.shopkeepers.debug.DebugOptions;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.util.bukkit.RegionScheduler;
 import com.nisovin.shopkeepers.util.java.CyclicCounter;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.logging.Log;
 
+/**
+ * Periodically ticks the active shopkeepers.
+ * <p>
+ * On servers with regionized multithreading, the shopkeepers are partitioned by their region
+ * sections (see {@link RegionScheduler}), and each partition is ticked by the thread that owns the
+ * region section. The partitions are only created, modified, and removed by the thread that owns
+ * their region section: Ticking state changes that are triggered by other threads are forwarded to
+ * the owning thread.
+ */
 public class ShopkeeperTicker {
 
 	/**
@@ -41,10 +57,11 @@ public class ShopkeeperTicker {
 	 * {@code 5} ticks.
 	 */
 	public static final int TICKING_GROUPS = 4;
-	private static final CyclicCounter tickingGroupCounter = new CyclicCounter(TICKING_GROUPS);
+	// Shopkeepers can be created concurrently by different threads on regionized servers:
+	private static final AtomicInteger tickingGroupCounter = new AtomicInteger();
 
 	public static int nextTickingGroup() {
-		return tickingGroupCounter.getAndIncrement();
+		return tickingGroupCounter.getAndUpdate(value -> (value + 1) % TICKING_GROUPS);
 	}
 
 	private static final class TickingGroup {
@@ -73,31 +90,236 @@ public class ShopkeeperTicker {
 		}
 	}
 
-	private final SKShopkeepersPlugin plugin;
+	/**
+	 * A set of ticking shopkeepers that are ticked by the same task.
+	 * <p>
+	 * On servers without regionized multithreading, there is only a single, global ticking
+	 * partition. Otherwise, each region section with ticking shopkeepers has its own ticking
+	 * partition that is ticked by the thread that owns the region section. The state of a ticking
+	 * partition is only accessed by the thread that ticks it.
+	 */
+	private final class TickingPartition implements Runnable {
+
+		private static final int PERIOD = TICKING_PERIOD_TICKS / TICKING_GROUPS;
 
-	private final List<? extends @NonNull TickingGroup> tickingGroups;
-	{
-		List<@NonNull TickingGroup> tickingGroups = new ArrayList<>(TICKING_GROUPS);
-		for (int i = 0; i < TICKING_GROUPS; i++) {
-			tickingGroups.add(new TickingGroup());
+		// Null for the global ticking partition:
+		private final @Nullable ChunkCoords regionSection;
+		private final List<? extends @NonNull TickingGroup> tickingGroups;
+		{
+			List<@NonNull TickingGroup> tickingGroups = new ArrayList<>(TICKING_GROUPS);
+			for (int i = 0; i < TICKING_GROUPS; i++) {
+				tickingGroups.add(new TickingGroup());
+			}
+			this.tickingGroups = tickingGroups;
+		}
+
+		private final CyclicCounter activeTickingGroup = new CyclicCounter(TICKING_GROUPS);
+		private boolean currentlyTicking = false;
+		private boolean dirty;
+
+		// True: Ticking started, False: Ticking stopped
+		// Note: The start/stop-ticking callbacks for these pending changes have already been
+		// invoked and only the actual registration change is deferred, because if a shopkeeper
+		// changes its ticking state multiple times during the same tick we would otherwise lose the
+		// callbacks for the intermediate ticking state changes.
+		private final Map<@NonNull AbstractShopkeeper, @NonNull Boolean> pendingTickingChanges = new LinkedHashMap<>();
+
+		private RegionScheduler.@Nullable Task task = null;
+
+		TickingPartition(@Nullable ChunkCoords regionSection) {
+			this.regionSection = regionSection;
+		}
+
+		boolean isStarted() {
+			return (task != null);
+		}
+
+		void start() {
+			assert task == null;
+			ChunkCoords regionSection = this.regionSection;
+			if (regionSection == null) {
+				BukkitTask bukkitTask = Bukkit.getScheduler().runTaskTimer(
+						plugin,
+						this,
+						PERIOD,
+						PERIOD
+				);
+				task = bukkitTask::cancel;
+			} else {
+				task = regionScheduler.runAtFixedRate(
+						plugin,
+						getWorld(regionSection),
+						getChunkX(regionSection),
+						getChunkZ(regionSection),
+						this,
+						PERIOD,
+						PERIOD
+				);
+			}
 		}
-		this.tickingGroups = tickingGroups;
-	}
 
-	private final CyclicCounter activeTickingGroup = new CyclicCounter(TICKING_GROUPS);
-	private boolean currentlyTicking = false;
-	private boolean dirty;
+		void stop() {
+			RegionScheduler.Task task = this.task;
+			if (task != null) {
+				task.cancel();
+				this.task = null;
+			}
+		}
+
+		boolean isEmpty() {
+			return pendingTickingChanges.isEmpty()
+					&& tickingGroups.stream().allMatch(tickingGroup -> tickingGroup.getShopkeepers().isEmpty());
+		}
+
+		void clear() {
+			currentlyTicking = false;
+			dirty = false;
+			tickingGroups.forEach(TickingGroup::clear);
+			pendingTickingChanges.clear();
+		}
+
+		void ensureEmpty() {
+			boolean anyNonEmptyTickingGroup = tickingGroups.stream()
+					.anyMatch(tickingGroup -> !tickingGroup.getShopkeepers().isEmpty());
+			if (anyNonEmptyTickingGroup) {
+				Log.warning("Some ticking shopkeepers were not properly unregistered!");
+				tickingGroups.forEach(TickingGroup::clear);
+			}
+			if (!pendingTickingChanges.isEmpty()) {
+				Log.warning("Unexpected pending shopkeeper ticking changes!");
+				pendingTickingChanges.clear();
+			}
+		}
+
+		private TickingGroup getTickingGroup(int tickingGroupIndex) {
+			assert tickingGroupIndex >= 0 && tickingGroupIndex < tickingGroups.size();
+			TickingGroup tickingGroup = tickingGroups.get(tickingGroupIndex);
+			assert tickingGroup != null;
+			return tickingGroup;
+		}
+
+		private TickingGroup getTickingGroup(AbstractShopkeeper shopkeeper) {
+			assert shopkeeper != null;
+			int tickingGroupIndex = shopkeeper.getTickingGroup();
+			return this.getTickingGroup(tickingGroupIndex);
+		}
 
-	// True: Ticking started, False: Ticking stopped
-	// Note: The start/stop-ticking callbacks for these pending changes have already been invoked
-	// and only the actual registration change is deferred, because if a shopkeeper changes its
-	// ticking state multiple times during the same tick we would otherwise lose the callbacks for
-	// the intermediate ticking state changes.
-	private final Map<@NonNull AbstractShopkeeper, @NonNull Boolean> pendingTickingChanges = new LinkedHashMap<>();
+		boolean isCurrentlyTicking() {
+			return currentlyTicking;
+		}
+
+		void startTicking(AbstractShopkeeper shopkeeper) {
+			assert shopkeeper != null;
+			if (currentlyTicking) {
+				// Defer registration until after ticking:
+				pendingTickingChanges.put(shopkeeper, true); // Replaces any previous value
+			} else {
+				this.addShopkeeper(shopkeeper);
+			}
+		}
+
+		void stopTicking(AbstractShopkeeper shopkeeper) {
+			assert shopkeeper != null;
+			if (currentlyTicking) {
+				// Defer unregistration until after ticking:
+				pendingTickingChanges.put(shopkeeper, false); // Replaces any previous value
+			} else {
+				this.removeShopkeeper(shopkeeper);
+				removeIfEmpty(this);
+			}
+		}
+
+		private void addShopkeeper(AbstractShopkeeper shopkeeper) {
+			assert shopkeeper != null;
+			TickingGroup tickingGroup = this.getTickingGroup(shopkeeper);
+			assert tickingGroup != null;
+			tickingGroup.addShopkeeper(shopkeeper);
+		}
+
+		private void removeShopkeeper(AbstractShopkeeper shopkeeper) {
+			assert shopkeeper != null;
+			TickingGroup tickingGroup = this.getTickingGroup(shopkeeper);
+			assert tickingGroup != null;
+			tickingGroup.removeShopkeeper(shopkeeper);
+		}
+
+		@Override
+		public void run() {
+			this.tickShopkeepers();
+		}
+
+		private void tickShopkeepers() {
+			dirty = false;
+
+			currentlyTicking = true;
+			TickingGroup tickingGroup = this.getTickingGroup(activeTickingGroup.getValue());
+			tickingGroup.getShopkeepers().forEach(this::tickShopkeeper);
+			currentlyTicking = false;
+
+			// Process pending shopkeeper ticking registration changes:
+			pendingTickingChanges.forEach((shopkeeper, isTicking) -> {
+				if (isTicking) {
+					this.addShopkeeper(shopkeeper);
+				} else {
+					this.removeShopkeeper(shopkeeper);
+				}
+			});
+			pendingTickingChanges.clear();
+
+			// Trigger a delayed save if any of the shopkeepers got marked as dirty:
+			if (dirty) {
+				regionScheduler.runGlobal(plugin, () -> plugin.getShopkeeperStorage().saveDelayed());
+			}
+
+			// Update the active ticking group:
+			activeTickingGroup.getAndIncrement();
+
+			removeIfEmpty(this);
+		}
+
+		private void tickShopkeeper(AbstractShopkeeper shopkeeper) {
+			assert shopkeeper != null;
+			// Skip if the shopkeeper is no longer ticking (e.g. if it got removed or deactivated
+			// while it was pending to be ticked):
+			if (!shopkeeper.isTicking()) return;
+			// Skip if the shopkeeper has moved to another region section and is pending to be
+			// removed from this partition:
+			ChunkCoords regionSection = this.regionSection;
+			if (regionSection != null
+					&& !regionSection.equals(shopkeeperRegionSections.get(shopkeeper))) {
+				return;
+			}
+
+			// Tick the shopkeeper:
+			try {
+				shopkeeper.tick();
+			} catch (Throwable e) {
+				Log.severe(shopkeeper.getLogPrefix() + "Error during ticking!", e);
+			}
+
+			if (shopkeeper.isDirty()) {
+				dirty = true;
+			}
+		}
+	}
+
+	private final SKShopkeepersPlugin plugin;
+	private final RegionScheduler regionScheduler;
+
+	// Only used on servers without regionized multithreading:
+	private @Nullable TickingPartition globalPartition = null;
+	// Only used on servers with regionized multithreading. Keyed by region section coordinates:
+	private final Map<@NonNull ChunkCoords, @NonNull TickingPartition> regionPartitions = new ConcurrentHashMap<>();
+	// Only used on servers with regionized multithreading. The region sections of the currently
+	// ticking shopkeepers. The partitions are updated accordingly by the threads that own the
+	// region sections.
+	private final Map<@NonNull AbstractShopkeeper, @NonNull ChunkCoords> shopkeeperRegionSections
+			= new ConcurrentHashMap<>();
 
 	public ShopkeeperTicker(SKShopkeepersPlugin plugin) {
 		Validate.notNull(plugin, "plugin is null");
 		this.plugin = plugin;
+		this.regionScheduler = RegionScheduler.getInstance();
 	}
 
 	public void onEnable() {
@@ -105,11 +327,16 @@ public class ShopkeeperTicker {
 		// across reloads (if there are no changes in the order of the loaded shopkeepers). This
 		// ensures that the particle colors of our tick visualization remain the same across reloads
 		// (avoids possible confusion for users).
-		tickingGroupCounter.reset();
-		activeTickingGroup.setValue(0);
-
-		// Start shopkeeper ticking task:
-		this.startShopkeeperTickTask();
+		tickingGroupCounter.set(0);
+
+		// Start the global shopkeeper ticking task. On regionized servers, the ticking tasks are
+		// started per region section once the first shopkeeper in the region section starts
+		// ticking.
+		if (!regionScheduler.isRegionized()) {
+			TickingPartition globalPartition = new TickingPartition(null);
+			this.globalPartition = globalPartition;
+			globalPartition.start();
+		}
 	}
 
 	public void onDisable() {
@@ -117,41 +344,121 @@ public class ShopkeeperTicker {
 		// since shopkeepers should stop their ticking automatically once they are deactivated.
 		// However, if the plugin is shut down during shopkeeper ticking, we can end up with still
 		// pending registration changes.
-		if (currentlyTicking) {
-			// Reset:
-			currentlyTicking = false;
-			dirty = false;
-			tickingGroups.forEach(TickingGroup::clear);
-			pendingTickingChanges.clear();
-		} else {
-			this.ensureEmpty();
+		TickingPartition globalPartition = this.globalPartition;
+		if (globalPartition != null) {
+			globalPartition.stop();
+			if (globalPartition.isCurrentlyTicking()) {
+				globalPartition.clear();
+			} else {
+				globalPartition.ensureEmpty();
+			}
+			this.globalPartition = null;
 		}
+
+		if (!regionPartitions.isEmpty()) {
+			Log.warning("Some shopkeeper ticking regions were not properly unregistered!");
+			regionPartitions.values().forEach(partition -> {
+				partition.stop();
+				partition.clear();
+			});
+			regionPartitions.clear();
+		}
+		shopkeeperRegionSections.clear();
 	}
 
-	private void ensureEmpty() {
-		boolean anyNonEmptyTickingGroup = tickingGroups.stream()
-				.anyMatch(tickingGroup -> !tickingGroup.getShopkeepers().isEmpty());
-		if (anyNonEmptyTickingGroup) {
-			Log.warning("Some ticking shopkeepers were not properly unregistered!");
-			tickingGroups.forEach(TickingGroup::clear);
+	// REGION SECTIONS
+
+	private static ChunkCoords getRegionSection(AbstractShopkeeper shopkeeper) {
+		assert shopkeeper != null;
+		// Only shopkeepers in loaded chunks are ticked:
+		ChunkCoords chunkCoords = Validate.State.notNull(shopkeeper.getLastChunkCoords(),
+				() -> shopkeeper.getLogPrefix()
+						+ "Cannot tick a shopkeeper without a location on a regionized server!");
+		return new ChunkCoords(
+				chunkCoords.getWorldName(),
+				RegionScheduler.getRegionSectionCoord(chunkCoords.getChunkX()),
+				RegionScheduler.getRegionSectionCoord(chunkCoords.getChunkZ())
+		);
+	}
+
+	private static World getWorld(ChunkCoords regionSection) {
+		return Validate.State.notNull(regionSection.getWorld(), () -> "World is not loaded: "
+				+ regionSection.getWorldName());
+	}
+
+	// The coordinates of the first chunk of the region section:
+
+	private static int getChunkX(ChunkCoords regionSection) {
+		return regionSection.getChunkX() << RegionScheduler.REGION_SECTION_CHUNK_SHIFT;
+	}
+
+	private static int getChunkZ(ChunkCoords regionSection) {
+		return regionSection.getChunkZ() << RegionScheduler.REGION_SECTION_CHUNK_SHIFT;
+	}
+
+	// Runs the given task on the thread that owns the region section, immediately if possible.
+	private void runInRegionSection(ChunkCoords regionSection, Runnable task) {
+		regionScheduler.run(
+				plugin,
+				getWorld(regionSection),
+				getChunkX(regionSection),
+				getChunkZ(regionSection),
+				task
+		);
+	}
+
+	// Only called by the thread that owns the region section.
+	private TickingPartition getOrCreatePartition(ChunkCoords regionSection) {
+		assert regionSection != null;
+		Validate.State.isTrue(regionScheduler.isOwnedByCurrentThread(
+				getWorld(regionSection),
+				getChunkX(regionSection),
+				getChunkZ(regionSection)
+		), () -> "The current thread does not own region section " + regionSection);
+		TickingPartition partition = regionPartitions.computeIfAbsent(
+				regionSection,
+				section -> new TickingPartition(section)
+		);
+		if (!partition.isStarted()) {
+			partition.start();
 		}
-		if (!pendingTickingChanges.isEmpty()) {
-			Log.warning("Unexpected pending shopkeeper ticking changes!");
-			pendingTickingChanges.clear();
+		return partition;
+	}
+
+	// Only called by the thread that owns the region section. Adds the shopkeeper to, or removes it
+	// from, the partition of the given region section, depending on the shopkeeper's current region
+	// section. Since the shopkeeper's ticking state or region section may have changed again since
+	// this update has been requested, this applies the current state instead of a specific change.
+	private void updateRegionPartition(AbstractShopkeeper shopkeeper, ChunkCoords regionSection) {
+		assert shopkeeper != null && regionSection != null;
+		if (regionSection.equals(shopkeeperRegionSections.get(shopkeeper))) {
+			this.getOrCreatePartition(regionSection).startTicking(shopkeeper);
+		} else {
+			@Nullable TickingPartition partition = regionPartitions.get(regionSection);
+			if (partition != null) {
+				partition.stopTicking(shopkeeper);
+			}
 		}
 	}
 
-	private TickingGroup getTickingGroup(int tickingGroupIndex) {
-		assert tickingGroupIndex >= 0 && tickingGroupIndex < tickingGroups.size();
-		TickingGroup tickingGroup = tickingGroups.get(tickingGroupIndex);
-		assert tickingGroup != null;
-		return tickingGroup;
+	private void requestRegionPartitionUpdate(
+			AbstractShopkeeper shopkeeper,
+			ChunkCoords regionSection
+	) {
+		this.runInRegionSection(
+				regionSection,
+				() -> this.updateRegionPartition(shopkeeper, regionSection)
+		);
 	}
 
-	private TickingGroup getTickingGroup(AbstractShopkeeper shopkeeper) {
-		assert shopkeeper != null;
-		int tickingGroupIndex = shopkeeper.getTickingGroup();
-		return this.getTickingGroup(tickingGroupIndex);
+	private void removeIfEmpty(TickingPartition partition) {
+		assert partition != null;
+		ChunkCoords regionSection = partition.regionSection;
+		if (regionSection == null) return; // The global partition is never removed
+		if (partition.isCurrentlyTicking() || !partition.isEmpty()) return;
+
+		partition.stop();
+		regionPartitions.remove(regionSection, partition);
 	}
 
 	// TICKING START / STOP
@@ -161,14 +468,18 @@ public class ShopkeeperTicker {
 		assert shopkeeper != null;
 		if (shopkeeper.isTicking()) return; // Already ticking
 
-		Log.debug(DebugOptions.shopkeeperActivation, () -> shopkeeper.getLogPrefix()
-				+ "Ticking started." + (currentlyTicking ? " (Deferred registration)" : ""));
-
-		if (currentlyTicking) {
-			// Defer registration until after ticking:
-			pendingTickingChanges.put(shopkeeper, true); // Replaces any previous value
+		TickingPartition globalPartition = this.globalPartition;
+		if (globalPartition != null) {
+			Log.debug(DebugOptions.shopkeeperActivation, () -> shopkeeper.getLogPrefix()
+					+ "Ticking started."
+					+ (globalPartition.isCurrentlyTicking() ? " (Deferred registration)" : ""));
+			globalPartition.startTicking(shopkeeper);
 		} else {
-			this.addShopkeeper(shopkeeper);
+			ChunkCoords regionSection = getRegionSection(shopkeeper);
+			Log.debug(DebugOptions.shopkeeperActivation, () -> shopkeeper.getLogPrefix()
+					+ "Ticking started (region section " + regionSection + ").");
+			shopkeeperRegionSections.put(shopkeeper, regionSection);
+			this.requestRegionPartitionUpdate(shopkeeper, regionSection);
 		}
 
 		// Inform the shopkeeper:
@@ -184,14 +495,19 @@ public class ShopkeeperTicker {
 		assert shopkeeper != null;
 		if (!shopkeeper.isTicking()) return; // Already not ticking
 
-		Log.debug(DebugOptions.shopkeeperActivation, () -> shopkeeper.getLogPrefix()
-				+ "Ticking stopped." + (currentlyTicking ? " (Deferred unregistration)" : ""));
-
-		if (currentlyTicking) {
-			// Defer unregistration until after ticking:
-			pendingTickingChanges.put(shopkeeper, false); // Replaces any previous value
+		TickingPartition globalPartition = this.globalPartition;
+		if (globalPartition != null) {
+			Log.debug(DebugOptions.shopkeeperActivation, () -> shopkeeper.getLogPrefix()
+					+ "Ticking stopped."
+					+ (globalPartition.isCurrentlyTicking() ? " (Deferred unregistration)" : ""));
+			globalPartition.stopTicking(shopkeeper);
 		} else {
-			this.removeShopkeeper(shopkeeper);
+			@Nullable ChunkCoords regionSection = shopkeeperRegionSections.remove(shopkeeper);
+			if (regionSection != null) {
+				Log.debug(DebugOptions.shopkeeperActivation, () -> shopkeeper.getLogPrefix()
+						+ "Ticking stopped (region section " + regionSection + ").");
+				this.requestRegionPartitionUpdate(shopkeeper, regionSection);
+			}
 		}
 
 		// Inform the shopkeeper:
@@ -202,82 +518,24 @@ public class ShopkeeperTicker {
 		}
 	}
 
-	private void addShopkeeper(AbstractShopkeeper shopkeeper) {
-		assert shopkeeper != null;
-		TickingGroup tickingGroup = this.getTickingGroup(shopkeeper);
-		assert tickingGroup != null;
-		tickingGroup.addShopkeeper(shopkeeper);
-	}
-
-	private void removeShopkeeper(AbstractShopkeeper shopkeeper) {
+	// Called by the chunk activator when a shopkeeper has been moved to another chunk.
+	public void onShopkeeperMoved(AbstractShopkeeper shopkeeper) {
 		assert shopkeeper != null;
-		TickingGroup tickingGroup = this.getTickingGroup(shopkeeper);
-		assert tickingGroup != null;
-		tickingGroup.removeShopkeeper(shopkeeper);
-	}
-
-	// TICKING
-
-	private void startShopkeeperTickTask() {
-		new ShopkeeperTickTask().start();
-	}
-
-	private final class ShopkeeperTickTask extends BukkitRunnable {
-
-		private static final int PERIOD = TICKING_PERIOD_TICKS / TICKING_GROUPS;
-
-		void start() {
-			this.runTaskTimer(plugin, PERIOD, PERIOD);
-		}
-
-		@Override
-		public void run() {
-			tickShopkeepers();
-		}
-	}
-
-	private void tickShopkeepers() {
-		dirty = false;
-
-		currentlyTicking = true;
-		TickingGroup tickingGroup = this.getTickingGroup(activeTickingGroup.getValue());
-		tickingGroup.getShopkeepers().forEach(this::tickShopkeeper);
-		currentlyTicking = false;
-
-		// Process pending shopkeeper ticking registration changes:
-		pendingTickingChanges.forEach((shopkeeper, isTicking) -> {
-			if (isTicking) {
-				this.addShopkeeper(shopkeeper);
-			} else {
-				this.removeShopkeeper(shopkeeper);
-			}
-		});
-		pendingTickingChanges.clear();
-
-		// Trigger a delayed save if any of the shopkeepers got marked as dirty:
-		if (dirty) {
-			plugin.getShopkeeperStorage().saveDelayed();
-		}
-
-		// Update the active ticking group:
-		activeTickingGroup.getAndIncrement();
-	}
-
-	private void tickShopkeeper(AbstractShopkeeper shopkeeper) {
-		assert shopkeeper != null;
-		// Skip if the shopkeeper is no longer ticking (e.g. if it got removed or deactivated while
-		// it was pending to be ticked):
+		if (globalPartition != null) return; // Not regionized
 		if (!shopkeeper.isTicking()) return;
 
-		// Tick the shopkeeper:
-		try {
-			shopkeeper.tick();
-		} catch (Throwable e) {
-			Log.severe(shopkeeper.getLogPrefix() + "Error during ticking!", e);
-		}
+		ChunkCoords newRegionSection = getRegionSection(shopkeeper);
+		@Nullable ChunkCoords oldRegionSection = shopkeeperRegionSections.put(
+				shopkeeper,
+				newRegionSection
+		);
+		if (newRegionSection.equals(oldRegionSection)) return; // Same region section
 
-		if (shopkeeper.isDirty()) {
-			dirty = true;
+		Log.debug(DebugOptions.shopkeeperActivation, () -> shopkeeper.getLogPrefix()
+				+ "Moved to region section " + newRegionSection + ".");
+		if (oldRegionSection != null) {
+			this.requestRegionPartitionUpdate(shopkeeper, oldRegionSection);
 		}
+		this.requestRegionPartitionUpdate(shopkeeper, newRegionSection);
 	}
 }
@@ -11,6 +11,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.events.ShopkeeperAddedEvent;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopCreationData;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
@@ -18,6 +19,7 @@ import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
 import com.nisovin.shopkeepers.api.shopobjects.ShopObject;
 import com.nisovin.shopkeepers.api.shopobjects.ShopObjectType;
+import com.nisovin.shopkeepers.api.shopobjects.ShopObjectTypesRegistry;
 import com.nisovin.shopkeepers.api.storage.ShopkeeperStorage;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.ShopkeeperData;
@@ -90,13 +92,14 @@ public abstract class AbstractShopObject implements ShopObject {
 						Object data
 				) throws InvalidDataException {
 					String shopObjectTypeId = StringSerializers.STRICT_NON_EMPTY.deserialize(data);
-					SKShopObjectTypesRegistry shopObjectTypeRegistry = SKShopkeepersPlugin.getInstance().getShopObjectTypeRegistry();
-					AbstractShopObjectType<?> shopObjectType = shopObjectTypeRegistry.get(shopObjectTypeId);
+					ShopObjectTypesRegistry<?> shopObjectTypeRegistry
+							= ShopkeepersPlugin.getInstance().getShopObjectTypeRegistry();
+					ShopObjectType<?> shopObjectType = shopObjectTypeRegistry.get(shopObjectTypeId);
 					if (shopObjectType == null) {
 						throw new InvalidDataException("Unknown shop object type: "
 								+ shopObjectTypeId);
 					}
-					return shopObjectType;
+					return (AbstractShopObjectType<?>) shopObjectType;
 				}
 			})
 			.build();
@@ -1,12 +1,14 @@
 package com.nisovin.shopkeepers.shopobjects.living;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -32,10 +34,12 @@ import com.nisovin.shopkeepers.compat.NMSManager;
 import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.util.bukkit.EntityUtils;
 import com.nisovin.shopkeepers.util.bukkit.MutableChunkCoords;
+import com.nisovin.shopkeepers.util.bukkit.RegionScheduler;
 import com.nisovin.shopkeepers.util.bukkit.WorldUtils;
 import com.nisovin.shopkeepers.util.java.CyclicCounter;
 import com.nisovin.shopkeepers.util.java.RateLimiter;
 import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.timer.SynchronizedTimings;
 import com.nisovin.shopkeepers.util.timer.Timer;
 import com.nisovin.shopkeepers.util.timer.Timings;
 
@@ -45,6 +49,10 @@ import com.nisovin.shopkeepers.util.timer.Timings;
  * It is assumed that entities usually don't change their initial chunk: Their gravity and AI
  * activation depend on whether their initial chunk has players nearby, rather than whether their
  * current chunk has players nearby.
+ * <p>
+ * On servers with regionized multithreading, the entities are partitioned by the region sections
+ * (see {@link RegionScheduler}) of their initial chunks, and each partition is processed by the
+ * thread that owns the region section. The statistics of all partitions are aggregated.
  */
 public class LivingEntityAI implements Listener {
 
@@ -97,16 +105,9 @@ public class LivingEntityAI implements Listener {
 	 * The period in ticks in which we check if an entity is supposed to fall.
 	 */
 	private static final int FALLING_CHECK_PERIOD_TICKS = 10;
-	private static final CyclicCounter nextFallingCheckOffset = new CyclicCounter(
-			1,
-			FALLING_CHECK_PERIOD_TICKS + 1
-	);
-
-	// Temporarily re-used objects:
-	private static final Location sharedLocation = new Location(null, 0, 0, 0);
-	private static final MutableChunkCoords sharedChunkCoords = new MutableChunkCoords();
 
 	private final ShopkeepersPlugin plugin;
+	private final RegionScheduler regionScheduler;
 	/**
 	 * The MAX_FALLING_DISTANCE_PER_TICK scaled according to the configured tick rate.
 	 */
@@ -134,16 +135,17 @@ public class LivingEntityAI implements Listener {
 		private final LivingEntity entity;
 		private final ChunkData chunkData;
 		// Initial threshold between [1, FALLING_CHECK_PERIOD_TICKS] for load balancing:
-		public final RateLimiter fallingCheckLimiter = new RateLimiter(
-				FALLING_CHECK_PERIOD_TICKS,
-				nextFallingCheckOffset.getAndIncrement()
-		);
+		public final RateLimiter fallingCheckLimiter;
 		public boolean falling = false;
 		public double distanceToGround = 0.0D;
 
-		public EntityData(LivingEntity entity, ChunkData chunkData) {
+		public EntityData(LivingEntity entity, ChunkData chunkData, int fallingCheckOffset) {
 			this.entity = entity;
 			this.chunkData = chunkData;
+			this.fallingCheckLimiter = new RateLimiter(
+					FALLING_CHECK_PERIOD_TICKS,
+					fallingCheckOffset
+			);
 		}
 
 		public boolean isAffectedByGravity() {
@@ -158,6 +160,7 @@ public class LivingEntityAI implements Listener {
 
 	private static class ChunkData {
 
+		private final AIPartition partition;
 		private final ChunkCoords chunkCoords;
 		// We don't expect there to be many entities within a single chunk, so using a list is okay:
 		private final List<@NonNull EntityData> entities = new ArrayList<>();
@@ -165,26 +168,421 @@ public class LivingEntityAI implements Listener {
 		public boolean activeGravity;
 		public boolean activeAI = true;
 
-		public ChunkData(ChunkCoords chunkCoords, boolean activeGravity) {
+		public ChunkData(AIPartition partition, ChunkCoords chunkCoords, boolean activeGravity) {
+			this.partition = partition;
 			this.chunkCoords = chunkCoords;
 			this.activeGravity = activeGravity;
 		}
 	}
 
-	private final Map<@NonNull ChunkCoords, @NonNull ChunkData> chunks = new LinkedHashMap<>();
-	// Index for fast removal: Entity -> EntityData
-	private final Map<@NonNull LivingEntity, @NonNull EntityData> entities = new HashMap<>();
+	private enum ActivationType {
+		GRAVITY,
+		AI;
+	}
+
+	/**
+	 * A set of entities whose gravity and AI are processed by the same task.
+	 * <p>
+	 * On servers without regionized multithreading, there is only a single, global partition.
+	 * Otherwise, each region section with shop entities has its own partition that is processed by
+	 * the thread that owns the region section. The state of a partition is only modified by the
+	 * thread that processes it. Other threads only read its statistics, which might therefore be
+	 * slightly outdated.
+	 */
+	private final class AIPartition implements Runnable {
 
-	private @Nullable BukkitTask aiTask = null;
-	private boolean currentlyRunning = false;
+		// Null for the global partition:
+		private final @Nullable World world;
+		private final @Nullable ChunkCoords regionSection;
+		private final Map<@NonNull ChunkCoords, @NonNull ChunkData> chunks = new LinkedHashMap<>();
+		private int entityCount = 0;
 
-	// Statistics:
-	private int activeAIChunksCount = 0;
-	private int activeAIEntityCount = 0;
+		private final CyclicCounter nextFallingCheckOffset = new CyclicCounter(
+				1,
+				FALLING_CHECK_PERIOD_TICKS + 1
+		);
+		private final RateLimiter aiActivationLimiter = new RateLimiter(AI_ACTIVATION_TICK_RATE);
+		// Set by other threads in order to request a full activation update during the next run:
+		private volatile boolean activationUpdateRequested = false;
+		private boolean currentlyRunning = false;
+
+		// Temporarily re-used objects:
+		private final Location sharedLocation = new Location(null, 0, 0, 0);
+		private final MutableChunkCoords sharedChunkCoords = new MutableChunkCoords();
+
+		// Statistics:
+		private int activeAIChunksCount = 0;
+		private int activeAIEntityCount = 0;
+
+		private int activeGravityChunksCount = 0;
+		private int activeGravityEntityCount = 0;
+
+		// The gravity and AI durations of the current run:
+		private long gravityNanos;
+		private long aiNanos;
+
+		private RegionScheduler.@Nullable Task task = null;
+
+		AIPartition(@Nullable World world, @Nullable ChunkCoords regionSection) {
+			assert (world == null) == (regionSection == null);
+			this.world = world;
+			this.regionSection = regionSection;
+		}
+
+		void start() {
+			assert task == null;
+			int tickPeriod = Settings.mobBehaviorTickPeriod;
+			World world = this.world;
+			ChunkCoords regionSection = this.regionSection;
+			if (world == null || regionSection == null) {
+				BukkitTask bukkitTask = Bukkit.getScheduler().runTaskTimer(
+						plugin,
+						this,
+						tickPeriod,
+						tickPeriod
+				);
+				task = bukkitTask::cancel;
+			} else {
+				int chunkX = regionSection.getChunkX() << RegionScheduler.REGION_SECTION_CHUNK_SHIFT;
+				int chunkZ = regionSection.getChunkZ() << RegionScheduler.REGION_SECTION_CHUNK_SHIFT;
+				task = regionScheduler.runAtFixedRate(
+						plugin,
+						world,
+						chunkX,
+						chunkZ,
+						this,
+						tickPeriod,
+						tickPeriod
+				);
+			}
+		}
+
+		boolean isStarted() {
+			return task != null;
+		}
+
+		void stop() {
+			RegionScheduler.Task task = this.task;
+			if (task != null) {
+				task.cancel();
+				this.task = null;
+			}
+		}
 
-	private int activeGravityChunksCount = 0;
-	private int activeGravityEntityCount = 0;
+		boolean isEmpty() {
+			return chunks.isEmpty();
+		}
+
+		void clear() {
+			currentlyRunning = false;
+			chunks.clear();
+			entityCount = 0;
+			activeAIChunksCount = 0;
+			activeAIEntityCount = 0;
+			activeGravityChunksCount = 0;
+			activeGravityEntityCount = 0;
+		}
+
+		boolean isCurrentlyRunning() {
+			return currentlyRunning;
+		}
+
+		// Only used for region partitions:
+		boolean isOwnedByCurrentThread() {
+			World world = Unsafe.assertNonNull(this.world);
+			ChunkCoords regionSection = Unsafe.assertNonNull(this.regionSection);
+			return regionScheduler.isOwnedByCurrentThread(
+					world,
+					regionSection.getChunkX() << RegionScheduler.REGION_SECTION_CHUNK_SHIFT,
+					regionSection.getChunkZ() << RegionScheduler.REGION_SECTION_CHUNK_SHIFT
+			);
+		}
+
+		boolean isInWorld(String worldName) {
+			ChunkCoords regionSection = this.regionSection;
+			return regionSection == null || regionSection.getWorldName().equals(worldName);
+		}
+
+		void requestActivationUpdate() {
+			activationUpdateRequested = true;
+		}
+
+		// ENTITIES
+
+		EntityData addEntity(LivingEntity entity, Location entityLocation) {
+			assert entity != null && entityLocation != null;
+			sharedChunkCoords.set(entityLocation);
+
+			// Add chunk entry:
+			ChunkData chunkData = chunks.get(sharedChunkCoords);
+			if (chunkData == null) {
+				ChunkCoords chunkCoords = new ChunkCoords(sharedChunkCoords); // Copy
+				chunkData = new ChunkData(this, chunkCoords, customGravityEnabled);
+				chunks.put(chunkCoords, chunkData);
 
+				// Update chunk statistics:
+				if (chunkData.activeAI) {
+					activeAIChunksCount++;
+				}
+				if (chunkData.activeGravity) {
+					activeGravityChunksCount++;
+				}
+			}
+
+			// Add entity entry:
+			EntityData entityData = new EntityData(
+					entity,
+					chunkData,
+					nextFallingCheckOffset.getAndIncrement()
+			);
+			chunkData.entities.add(entityData);
+			entityCount++;
+
+			// Update entity statistics:
+			if (chunkData.activeAI) {
+				activeAIEntityCount++;
+			}
+			if (chunkData.activeGravity) {
+				activeGravityEntityCount++;
+			}
+			return entityData;
+		}
+
+		void removeEntity(EntityData entityData) {
+			assert entityData != null && entityData.chunkData.partition == this;
+			ChunkData chunkData = entityData.chunkData;
+			chunkData.entities.remove(entityData);
+			entityCount--;
+			if (chunkData.entities.isEmpty()) {
+				chunks.remove(chunkData.chunkCoords);
+
+				// Update chunk statistics:
+				if (chunkData.activeAI) {
+					activeAIChunksCount--;
+				}
+				if (chunkData.activeGravity) {
+					activeGravityChunksCount--;
+				}
+			}
+
+			// Update entity statistics:
+			if (chunkData.activeAI) {
+				activeAIEntityCount--;
+			}
+			if (chunkData.activeGravity) {
+				activeGravityEntityCount--;
+			}
+		}
+
+		// TASK
+
+		@Override
+		public void run() {
+			// Skip if there are no entities with AI currently:
+			// Note: We keep the global task running, because frequently starting and stopping the
+			// task would be associated with a certain overhead as well. Region partitions are
+			// removed once their last entity is removed.
+			if (entityCount == 0) {
+				return;
+			}
+
+			currentlyRunning = true;
+
+			long startNanos = System.nanoTime();
+			long activationNanos = -1L;
+			gravityNanos = 0L;
+			aiNanos = 0L;
+
+			// Freshly determine active chunks/entities (near players) every AI_ACTIVATION_TICK_RATE
+			// ticks, or if requested due to a player join or teleport:
+			boolean updateActivations = aiActivationLimiter.request(Settings.mobBehaviorTickPeriod);
+			if (activationUpdateRequested) {
+				activationUpdateRequested = false;
+				updateActivations = true;
+			}
+			if (updateActivations) {
+				this.updateChunkActivations();
+				activationNanos = System.nanoTime() - startNanos;
+			}
+
+			// Process entities:
+			this.processEntities();
+
+			recordTimings(System.nanoTime() - startNanos, activationNanos, gravityNanos, aiNanos);
+
+			currentlyRunning = false;
+		}
+
+		// CHUNK ACTIVATIONS
+
+		private void updateChunkActivations() {
+			// Deactivate all chunks:
+			chunks.values().forEach(chunkData -> {
+				chunkData.activeAI = false;
+				chunkData.activeGravity = false;
+			});
+			activeAIChunksCount = 0;
+			activeGravityChunksCount = 0;
+
+			// Activate chunks around online players:
+			// Note: On servers with regionized multithreading, the players may be owned by other
+			// threads. Their locations are only read and might be slightly outdated.
+			for (Player player : Bukkit.getOnlinePlayers()) {
+				assert player != null;
+				this.activateNearbyChunks(player);
+			}
+		}
+
+		// Note: This only activates chunks around the player, but does not deactivate any chunks
+		// that have previously been activated by the player. The periodic full activation update
+		// deactivates all chunks that no longer require activation.
+		void activateNearbyChunks(Player player) {
+			World world = player.getWorld();
+			if (!this.isInWorld(world.getName())) return;
+
+			Location location = Unsafe.assertNonNull(player.getLocation(sharedLocation));
+			// Note: On some Paper versions with their async chunk loading, the player's current
+			// chunk may sometimes not be loaded yet. We therefore avoid accessing (and thereby
+			// loading) that chunk here, but instead only use its coordinates. The subsequent
+			// activation of nearby chunks only considers loaded chunks.
+			int chunkX = ChunkCoords.fromBlock(location.getBlockX());
+			int chunkZ = ChunkCoords.fromBlock(location.getBlockZ());
+
+			this.activateNearbyChunks(
+					world,
+					chunkX,
+					chunkZ,
+					AI_ACTIVATION_CHUNK_RANGE,
+					ActivationType.AI
+			);
+			if (customGravityEnabled) {
+				assert Settings.gravityChunkRange >= 0;
+				this.activateNearbyChunks(
+						world,
+						chunkX,
+						chunkZ,
+						Settings.gravityChunkRange,
+						ActivationType.GRAVITY
+				);
+			}
+			sharedLocation.setWorld(null); // Reset
+		}
+
+		private void activateNearbyChunks(
+				World world,
+				int centerChunkX,
+				int centerChunkZ,
+				int chunkRadius,
+				ActivationType activationType
+		) {
+			assert world != null && chunkRadius >= 0 && activationType != null;
+			String worldName = world.getName();
+			int minChunkX = centerChunkX - chunkRadius;
+			int maxChunkX = centerChunkX + chunkRadius;
+			int minChunkZ = centerChunkZ - chunkRadius;
+			int maxChunkZ = centerChunkZ + chunkRadius;
+			for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+				for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+					sharedChunkCoords.set(worldName, chunkX, chunkZ);
+					ChunkData chunkData = chunks.get(sharedChunkCoords);
+					if (chunkData == null) continue;
+
+					switch (activationType) {
+					case GRAVITY:
+						if (!chunkData.activeGravity) {
+							chunkData.activeGravity = true;
+							activeGravityChunksCount++;
+						}
+						break;
+					case AI:
+						if (!chunkData.activeAI) {
+							chunkData.activeAI = true;
+							activeAIChunksCount++;
+						}
+						break;
+					default:
+						throw new IllegalStateException("Unexpected activation type: "
+								+ activationType);
+					}
+				}
+			}
+		}
+
+		// ENTITY PROCESSING
+
+		private void processEntities() {
+			activeAIEntityCount = 0;
+			activeGravityEntityCount = 0;
+
+			if (activeAIChunksCount == 0 && activeGravityChunksCount == 0) {
+				// There is no need to process any entities if there are no chunks with active AI or
+				// gravity:
+				return;
+			}
+
+			chunks.values().forEach(this::processEntities);
+		}
+
+		private void processEntities(ChunkData chunkData) {
+			assert chunkData != null;
+			if (!chunkData.activeGravity && !chunkData.activeAI) {
+				// There is no need to process the chunk's entities:
+				return;
+			}
+
+			chunkData.entities.forEach(this::processEntity);
+		}
+
+		private void processEntity(EntityData entityData) {
+			assert entityData != null;
+			LivingEntity entity = entityData.entity;
+			// Note: Checking entity.isValid() is relatively heavy (compared to other operations)
+			// due to a chunk lookup. The entity's entry is already immediately getting removed as
+			// reaction to its chunk being unloaded. So there should be no need to check for that
+			// here.
+			// TODO Actually, if the entity moved into a different chunk and we did not update its
+			// location in the chunk index yet, it may already have been unloaded but still getting
+			// ticked here. However, this is not the case currently, since all shopkeeper entities
+			// are stationary (unless some other plugin teleports them).
+			if (entity.isDead()) {
+				// Some plugin might have removed the entity. The shop object will remove the
+				// entity's entry once it recognizes that the entity has been removed. Until then,
+				// we simply skip it here.
+				return;
+			}
+
+			ChunkData chunkData = entityData.chunkData;
+
+			// Process gravity:
+			long gravityStartNanos = System.nanoTime();
+			if (chunkData.activeGravity && entityData.isAffectedByGravity()) {
+				activeGravityEntityCount++;
+				processGravity(entityData, sharedLocation);
+			}
+			long aiStartNanos = System.nanoTime();
+			gravityNanos += (aiStartNanos - gravityStartNanos);
+
+			// Process AI:
+			if (chunkData.activeAI) {
+				activeAIEntityCount++;
+				processAI(entityData);
+			}
+			aiNanos += (System.nanoTime() - aiStartNanos);
+		}
+	}
+
+	// Only used on servers without regionized multithreading:
+	private @Nullable AIPartition globalPartition = null;
+	// Only used on servers with regionized multithreading. Keyed by region section coordinates:
+	private final Map<@NonNull ChunkCoords, @NonNull AIPartition> regionPartitions = new ConcurrentHashMap<>();
+	// Index for fast removal: Entity -> EntityData
+	private final Map<@NonNull LivingEntity, @NonNull EntityData> entities = new ConcurrentHashMap<>();
+
+	// Statistics:
+	// The timings of all partitions are aggregated into these timers. On servers with regionized
+	// multithreading, the partitions record their timings concurrently, so the access to these
+	// timers is synchronized.
+	private final Object timingsLock = new Object();
 	private final Timer totalTimings = new Timer();
 	// Note: This only captures the periodic full activation updates, and not the player-specific
 	// activations triggered
@@ -192,9 +590,25 @@ public class LivingEntityAI implements Listener {
 	private final Timer activationTimings = new Timer();
 	private final Timer gravityTimings = new Timer();
 	private final Timer aiTimings = new Timer();
+	// Views that synchronize the access to the timers:
+	private final Timings totalTimingsView = new SynchronizedTimings(totalTimings, timingsLock);
+	private final Timings activationTimingsView = new SynchronizedTimings(
+			activationTimings,
+			timingsLock
+	);
+	private final Timings gravityTimingsView = new SynchronizedTimings(gravityTimings, timingsLock);
+	private final Timings aiTimingsView = new SynchronizedTimings(aiTimings, timingsLock);
 
 	public LivingEntityAI(ShopkeepersPlugin plugin) {
+		this(plugin, RegionScheduler.getInstance());
+	}
+
+	// Also used by tests:
+	LivingEntityAI(ShopkeepersPlugin plugin, RegionScheduler regionScheduler) {
+		Validate.notNull(plugin, "plugin is null");
+		Validate.notNull(regionScheduler, "regionScheduler is null");
 		this.plugin = plugin;
+		this.regionScheduler = regionScheduler;
 	}
 
 	public void onEnable() {
@@ -207,110 +621,142 @@ public class LivingEntityAI implements Listener {
 		// Register listener:
 		Bukkit.getPluginManager().registerEvents(this, plugin);
 
-		// Start task:
-		this.startTask();
+		// Start the global task. On regionized servers, the tasks are started per region section
+		// once the first entity in the region section is added.
+		if (!regionScheduler.isRegionized()) {
+			AIPartition globalPartition = new AIPartition(null, null);
+			this.globalPartition = globalPartition;
+			globalPartition.start();
+		}
 	}
 
 	public void onDisable() {
-		assert !currentlyRunning;
 		HandlerList.unregisterAll(this); // Unregister listener
-		this.stopTask();
-		chunks.clear();
+		AIPartition globalPartition = this.globalPartition;
+		if (globalPartition != null) {
+			assert !globalPartition.isCurrentlyRunning();
+			globalPartition.stop();
+			globalPartition.clear();
+			this.globalPartition = null;
+		}
+		regionPartitions.values().forEach(partition -> {
+			partition.stop();
+			partition.clear();
+		});
+		regionPartitions.clear();
 		entities.clear();
 		this.resetStatistics();
 	}
 
+	private AIPartition getOrCreatePartition(Location entityLocation) {
+		assert entityLocation != null;
+		AIPartition globalPartition = this.globalPartition;
+		if (globalPartition != null) return globalPartition;
+
+		World world = Unsafe.assertNonNull(entityLocation.getWorld());
+		int chunkX = ChunkCoords.fromBlock(entityLocation.getBlockX());
+		int chunkZ = ChunkCoords.fromBlock(entityLocation.getBlockZ());
+		ChunkCoords regionSection = new ChunkCoords(
+				world.getName(),
+				RegionScheduler.getRegionSectionCoord(chunkX),
+				RegionScheduler.getRegionSectionCoord(chunkZ)
+		);
+		// The partition is only modified by the thread that owns its region section:
+		Validate.State.isTrue(regionScheduler.isOwnedByCurrentThread(world, chunkX, chunkZ),
+				"Cannot add entities from a thread that does not own their region!");
+		AIPartition partition = regionPartitions.computeIfAbsent(
+				regionSection,
+				section -> new AIPartition(world, section)
+		);
+		// Other threads only ever create or remove the partitions of other region sections, so
+		// this partition is not concurrently started or removed:
+		if (!partition.isStarted()) {
+			partition.start();
+		}
+		return partition;
+	}
+
+	private void removeIfEmpty(AIPartition partition) {
+		assert partition != null;
+		ChunkCoords regionSection = partition.regionSection;
+		if (regionSection == null) return; // The global partition is never removed
+		if (partition.isCurrentlyRunning() || !partition.isEmpty()) return;
+
+		partition.stop();
+		regionPartitions.remove(regionSection, partition);
+	}
+
+	private Collection<? extends @NonNull AIPartition> getPartitions() {
+		AIPartition globalPartition = this.globalPartition;
+		if (globalPartition != null) return Collections.singletonList(globalPartition);
+		return regionPartitions.values();
+	}
+
 	// ENTITIES
 
 	public void addEntity(LivingEntity entity) {
 		Validate.notNull(entity, "entity is null");
 		Validate.isTrue(entity.isValid(), "entity is invalid");
-		Validate.State.isTrue(!currentlyRunning,
-				"Cannot add entities while the AI task is running!");
 		Validate.isTrue(!entities.containsKey(entity), "entity is already added");
 
 		// Determine entity chunk (asserts that the entity won't move!):
 		// We assert that the chunk is loaded (checked above by isValid call).
-		Location entityLocation = Unsafe.assertNonNull(entity.getLocation(sharedLocation));
-		sharedChunkCoords.set(entityLocation);
-		sharedLocation.setWorld(null); // Reset
-
-		// Add chunk entry:
-		ChunkData chunkData = chunks.get(sharedChunkCoords);
-		if (chunkData == null) {
-			ChunkCoords chunkCoords = new ChunkCoords(sharedChunkCoords); // Copy
-			chunkData = new ChunkData(chunkCoords, customGravityEnabled);
-			chunks.put(chunkCoords, chunkData);
-
-			// Update chunk statistics:
-			if (chunkData.activeAI) {
-				activeAIChunksCount++;
-			}
-			if (chunkData.activeGravity) {
-				activeGravityChunksCount++;
-			}
-		}
+		Location entityLocation = entity.getLocation();
+		AIPartition partition = this.getOrCreatePartition(entityLocation);
+		Validate.State.isTrue(!partition.isCurrentlyRunning(),
+				"Cannot add entities while the AI task is running!");
 
-		// Add entity entry:
-		EntityData entityData = new EntityData(entity, chunkData);
+		EntityData entityData = partition.addEntity(entity, entityLocation);
 		entities.put(entity, entityData);
-		chunkData.entities.add(entityData);
-
-		// Update entity statistics:
-		if (chunkData.activeAI) {
-			activeAIEntityCount++;
-		}
-		if (chunkData.activeGravity) {
-			activeGravityEntityCount++;
-		}
-
-		// Start the AI task, if it isn't already running:
-		this.startTask();
 	}
 
 	public void removeEntity(LivingEntity entity) {
-		Validate.State.isTrue(!currentlyRunning,
-				"Cannot remove entities while the AI task is running!");
-		// Remove entity:
-		EntityData entityData = entities.remove(entity);
+		EntityData entityData = entities.get(entity);
 		if (entityData == null) return; // Entity was not contained
 
-		ChunkData chunkData = entityData.chunkData;
-		chunkData.entities.remove(entityData);
-		if (chunkData.entities.isEmpty()) {
-			chunks.remove(chunkData.chunkCoords);
+		AIPartition partition = entityData.chunkData.partition;
+		Validate.State.isTrue(partition.regionSection == null || partition.isOwnedByCurrentThread(),
+				"Cannot remove entities from a thread that does not own their region!");
+		Validate.State.isTrue(!partition.isCurrentlyRunning(),
+				"Cannot remove entities while the AI task is running!");
+		entities.remove(entity);
+		partition.removeEntity(entityData);
+		this.removeIfEmpty(partition);
+	}
 
-			// Update chunk statistics:
-			if (chunkData.activeAI) {
-				activeAIChunksCount--;
-			}
-			if (chunkData.activeGravity) {
-				activeGravityChunksCount--;
-			}
-		}
+	// STATISTICS
 
-		// Update entity statistics:
-		if (chunkData.activeAI) {
-			activeAIEntityCount--;
-		}
-		if (chunkData.activeGravity) {
-			activeGravityEntityCount--;
+	private void recordTimings(
+			long totalNanos,
+			long activationNanos,
+			long gravityNanos,
+			long aiNanos
+	) {
+		synchronized (timingsLock) {
+			totalTimings.record(totalNanos);
+			if (activationNanos >= 0L) {
+				activationTimings.record(activationNanos);
+			}
+			gravityTimings.record(gravityNanos);
+			aiTimings.record(aiNanos);
 		}
 	}
 
-	// STATISTICS
-
 	private void resetStatistics() {
-		activeAIChunksCount = 0;
-		activeAIEntityCount = 0;
-
-		activeGravityChunksCount = 0;
-		activeGravityEntityCount = 0;
+		synchronized (timingsLock) {
+			totalTimings.reset();
+			activationTimings.reset();
+			gravityTimings.reset();
+			aiTimings.reset();
+		}
+	}
 
-		totalTimings.reset();
-		activationTimings.reset();
-		gravityTimings.reset();
-		aiTimings.reset();
+	private int sumPartitions(ToIntFunction<? super @NonNull AIPartition> statistic) {
+		int sum = 0;
+		for (AIPartition partition : this.getPartitions()) {
+			sum += statistic.applyAsInt(partition);
+		}
+		return sum;
 	}
 
 	public int getEntityCount() {
@@ -318,158 +764,54 @@ public class LivingEntityAI implements Listener {
 	}
 
 	public int getActiveAIChunksCount() {
-		return activeAIChunksCount;
+		return this.sumPartitions(partition -> partition.activeAIChunksCount);
 	}
 
 	public int getActiveAIEntityCount() {
-		return activeAIEntityCount;
+		return this.sumPartitions(partition -> partition.activeAIEntityCount);
 	}
 
 	public int getActiveGravityChunksCount() {
-		return activeGravityChunksCount;
+		return this.sumPartitions(partition -> partition.activeGravityChunksCount);
 	}
 
 	public int getActiveGravityEntityCount() {
-		return activeGravityEntityCount;
+		return this.sumPartitions(partition -> partition.activeGravityEntityCount);
 	}
 
 	public Timings getTotalTimings() {
-		return totalTimings;
+		return totalTimingsView;
 	}
 
 	public Timings getActivationTimings() {
-		return activationTimings;
+		return activationTimingsView;
 	}
 
 	public Timings getGravityTimings() {
-		return gravityTimings;
+		return gravityTimingsView;
 	}
 
 	public Timings getAITimings() {
-		return aiTimings;
-	}
-
-	// TASK
-
-	private void startTask() {
-		if (aiTask != null) return; // Already running
-
-		// Start AI task:
-		int tickPeriod = Settings.mobBehaviorTickPeriod;
-		aiTask = Bukkit.getScheduler().runTaskTimer(
-				plugin,
-				new TickTask(),
-				tickPeriod,
-				tickPeriod
-		);
-	}
-
-	private void stopTask() {
-		if (aiTask != null) {
-			aiTask.cancel();
-			aiTask = null;
-		}
-	}
-
-	private class TickTask implements Runnable {
-
-		private final RateLimiter aiActivationLimiter = new RateLimiter(AI_ACTIVATION_TICK_RATE);
-
-		TickTask() {
-		}
-
-		@Override
-		public void run() {
-			// Skip if there are no entities with AI currently:
-			// Note: We keep the task running, because frequently starting and stopping the task
-			// would be associated with a certain overhead as well.
-			if (entities.isEmpty()) {
-				return;
-			}
-
-			currentlyRunning = true;
-
-			// Start timings:
-			totalTimings.start();
-			gravityTimings.startPaused();
-			aiTimings.startPaused();
-
-			// Freshly determine active chunks/entities (near players) every AI_ACTIVATION_TICK_RATE
-			// ticks:
-			if (aiActivationLimiter.request(Settings.mobBehaviorTickPeriod)) {
-				updateChunkActivations();
-			}
-
-			// Process entities:
-			processEntities();
-
-			// Stop timings:
-			totalTimings.stop();
-			gravityTimings.stop();
-			aiTimings.stop();
-
-			currentlyRunning = false;
-		}
+		return aiTimingsView;
 	}
 
 	// CHUNK ACTIVATIONS
 
-	private void updateChunkActivations() {
-		activationTimings.start();
-
-		// Deactivate all chunks:
-		chunks.values().forEach(chunkData -> {
-			chunkData.activeAI = false;
-			chunkData.activeGravity = false;
-		});
-		activeAIChunksCount = 0;
-		activeGravityChunksCount = 0;
-
-		// Activate chunks around online players:
-		for (Player player : Bukkit.getOnlinePlayers()) {
-			assert player != null;
-			this.activateNearbyChunks(player);
-		}
-
-		activationTimings.stop();
-	}
-
-	// Note: This only activates chunks around the player, but does not deactivate any chunks that
-	// have previously been activated by the player. The periodic full activation update deactivates
-	// all chunks that no longer require activation.
-	private void activateNearbyChunks(Player player) {
-		World world = player.getWorld();
-		Location location = Unsafe.assertNonNull(player.getLocation(sharedLocation));
-		// Note: On some Paper versions with their async chunk loading, the player's current chunk
-		// may sometimes not be loaded yet. We therefore avoid accessing (and thereby loading) that
-		// chunk here, but instead only use its coordinates. The subsequent activation of nearby
-		// chunks only considers loaded chunks.
-		int chunkX = ChunkCoords.fromBlock(location.getBlockX());
-		int chunkZ = ChunkCoords.fromBlock(location.getBlockZ());
-
-		this.activateNearbyChunks(
-				world,
-				chunkX,
-				chunkZ,
-				AI_ACTIVATION_CHUNK_RANGE,
-				ActivationType.AI
-		);
-		if (customGravityEnabled) {
-			assert Settings.gravityChunkRange >= 0;
-			this.activateNearbyChunks(
-					world,
-					chunkX,
-					chunkZ,
-					Settings.gravityChunkRange,
-					ActivationType.GRAVITY
-			);
-		}
-		sharedLocation.setWorld(null); // Reset
-	}
-
 	private void activateNearbyChunksDelayed(Player player) {
 		if (!player.isOnline()) return; // Player is no longer online
-		Bukkit.getScheduler().runTask(plugin, new ActivateNearbyChunksDelayedTask(player));
+		AIPartition globalPartition = this.globalPartition;
+		if (globalPartition != null) {
+			Bukkit.getScheduler().runTask(plugin, new ActivateNearbyChunksDelayedTask(player));
+		} else {
+			// The region partitions are processed by other threads. Instead of activating their
+			// chunks directly, we request a full activation update during their next run:
+			String worldName = player.getWorld().getName();
+			regionPartitions.values().forEach(partition -> {
+				if (partition.isInWorld(worldName)) {
+					partition.requestActivationUpdate();
+				}
+			});
+		}
 	}
 
 	private class ActivateNearbyChunksDelayedTask implements Runnable {
@@ -484,114 +826,10 @@ public class LivingEntityAI implements Listener {
 		@Override
 		public void run() {
 			if (!player.isOnline()) return; // Player is no longer online
-			activateNearbyChunks(player);
-		}
-	}
-
-	private enum ActivationType {
-		GRAVITY,
-		AI;
-	}
-
-	private void activateNearbyChunks(
-			World world,
-			int centerChunkX,
-			int centerChunkZ,
-			int chunkRadius,
-			ActivationType activationType
-	) {
-		assert world != null && chunkRadius >= 0 && activationType != null;
-		String worldName = world.getName();
-		int minChunkX = centerChunkX - chunkRadius;
-		int maxChunkX = centerChunkX + chunkRadius;
-		int minChunkZ = centerChunkZ - chunkRadius;
-		int maxChunkZ = centerChunkZ + chunkRadius;
-		for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
-			for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
-				sharedChunkCoords.set(worldName, chunkX, chunkZ);
-				ChunkData chunkData = chunks.get(sharedChunkCoords);
-				if (chunkData == null) continue;
-
-				switch (activationType) {
-				case GRAVITY:
-					if (!chunkData.activeGravity) {
-						chunkData.activeGravity = true;
-						activeGravityChunksCount++;
-					}
-					break;
-				case AI:
-					if (!chunkData.activeAI) {
-						chunkData.activeAI = true;
-						activeAIChunksCount++;
-					}
-					break;
-				default:
-					throw new IllegalStateException("Unexpected activation type: "
-							+ activationType);
-				}
-			}
-		}
-	}
-
-	// ENTITY PROCESSING
-
-	private void processEntities() {
-		activeAIEntityCount = 0;
-		activeGravityEntityCount = 0;
-
-		if (activeAIChunksCount == 0 && activeGravityChunksCount == 0) {
-			// There is no need to process any entities if there are no chunks with active AI or
-			// gravity:
-			return;
-		}
-
-		chunks.values().forEach(this::processEntities);
-	}
-
-	private void processEntities(ChunkData chunkData) {
-		assert chunkData != null;
-		if (!chunkData.activeGravity && !chunkData.activeAI) {
-			// There is no need to process the chunk's entities:
-			return;
-		}
-
-		chunkData.entities.forEach(this::processEntity);
-	}
-
-	private void processEntity(EntityData entityData) {
-		assert entityData != null;
-		LivingEntity entity = entityData.entity;
-		// Note: Checking entity.isValid() is relatively heavy (compared to other operations) due to
-		// a chunk lookup. The entity's entry is already immediately getting removed as reaction to
-		// its chunk being unloaded. So there should be no need to check for that here.
-		// TODO Actually, if the entity moved into a different chunk and we did not update its
-		// location in the chunk index yet, it may already have been unloaded but still getting
-		// ticked here. However, this is not the case currently, since all shopkeeper entities are
-		// stationary (unless some other plugin teleports them).
-		if (entity.isDead()) {
-			// Some plugin might have removed the entity. The shop object will remove the entity's
-			// entry once it recognizes that the entity has been removed. Until then, we simply skip
-			// it here.
-			return;
-		}
-
-		ChunkData chunkData = entityData.chunkData;
-
-		// Process gravity:
-		gravityTimings.resume();
-		if (chunkData.activeGravity && entityData.isAffectedByGravity()) {
-			activeGravityEntityCount++;
-			this.processGravity(entityData);
-		}
-		gravityTimings.pause();
-
-		// Process AI:
-		aiTimings.resume();
-		if (chunkData.activeAI) {
-			activeAIEntityCount++;
-			this.processAI(entityData);
+			AIPartition globalPartition = LivingEntityAI.this.globalPartition;
+			if (globalPartition == null) return; // Disabled in the meantime
+			globalPartition.activateNearbyChunks(player);
 		}
-		aiTimings.pause();
 	}
 
 	// GRAVITY
@@ -602,7 +840,8 @@ public class LivingEntityAI implements Listener {
 		return !Settings.disableGravity && NMSManager.getProvider().isNoAIDisablingGravity();
 	}
 
-	private void processGravity(EntityData entityData) {
+	// The shared location is a temporarily re-used object of the processing partition.
+	private void processGravity(EntityData entityData, Location sharedLocation) {
 		// Check periodically, or if already falling, if the entity is meant to (continue to) fall:
 		// Note: The falling check limiter is not invoked while the entity is already falling. This
 		// ensures that once the entity stops its current fall the limiter will wait a full cycle
@@ -653,7 +892,7 @@ public class LivingEntityAI implements Listener {
 			if (falling) {
 				// Prevents SPIGOT-3948 / MC-130725
 				NMSManager.getProvider().setOnGround(entity, false);
-				this.tickFalling(entityData);
+				this.tickFalling(entityData, sharedLocation);
 			}
 
 			if (!entityData.falling) {
@@ -664,7 +903,7 @@ public class LivingEntityAI implements Listener {
 	}
 
 	// Gets run every behavior update while falling:
-	private void tickFalling(EntityData entityData) {
+	private void tickFalling(EntityData entityData, Location sharedLocation) {
 		assert entityData.falling && entityData.distanceToGround >= DISTANCE_TO_GROUND_THRESHOLD;
 		LivingEntity entity = entityData.entity;
 		// Determine falling step size:
@@ -681,9 +920,13 @@ public class LivingEntityAI implements Listener {
 		}
 
 		// Teleport the entity to its new location:
+		// Note: On servers with regionized multithreading, the entity is teleported asynchronously.
+		// Until the teleport has completed, the next falling check might still observe the
+		// entity's previous location, in which case the entity is teleported to the same target
+		// location again.
 		Location newLocation = Unsafe.assertNonNull(entity.getLocation(sharedLocation));
 		newLocation.add(0.0D, -fallingStepSize, 0.0D);
-		entity.teleport(newLocation);
+		regionScheduler.teleport(entity, newLocation);
 		sharedLocation.setWorld(null); // Reset
 	}
 
@@ -0,0 +1,65 @@
+package com.nisovin.shopkeepers.spigot.text;
+
+import org.bukkit.command.CommandSender;
+
+import com.nisovin.shopkeepers.text.Text;
+import com.nisovin.shopkeepers.text.TextTemplate;
+import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.text.MessageArguments;
+
+/**
+ * A message that has been rendered from a {@link Text} and can then be sent to any number of
+ * recipients without being rendered again.
+ * <p>
+ * If the Spigot API is available, the message is converted into a text component once, and this
+ * same component is then sent to all recipients. Otherwise, the message is sent as plain text.
+ * <p>
+ * Rendered messages are immutable: They are not affected by subsequent changes to the
+ * {@link Text} they were rendered from, such as changes to its placeholder arguments.
+ * <p>
+ * Use {@link TextUtils#renderMessage(Text)}, or render a {@link TextTemplate} via
+ * {@link TextUtils#renderMessage(TextTemplate, MessageArguments)}, to create rendered messages.
+ */
+public final class RenderedMessage {
+
+	static final RenderedMessage EMPTY = new RenderedMessage("");
+
+	// Either the plain text (String), or the Spigot text component. The type of the component is
+	// not referenced here in order to avoid class loading issues if Spigot is not present.
+	private final Object content;
+
+	RenderedMessage(Object content) {
+		assert content != null;
+		this.content = content;
+	}
+
+	Object getContent() {
+		return content;
+	}
+
+	/**
+	 * Checks if this message is empty.
+	 * <p>
+	 * Empty messages are not sent.
+	 * 
+	 * @return <code>true</code> if this message is empty
+	 */
+	public boolean isEmpty() {
+		return (this == EMPTY);
+	}
+
+	/**
+	 * Sends this message to the given recipient.
+	 * 
+	 * @param recipient
+	 *            the recipient, not <code>null</code>
+	 */
+	public void sendTo(CommandSender recipient) {
+		SpigotText.sendMessage(recipient, this);
+	}
+
+	@Override
+	public String toString() {
+		return "RenderedMessage [content=" + content + "]";
+	}
+}
@@ -32,16 +32,35 @@ public final class SpigotText {
 	public static void sendMessage(CommandSender recipient, Text message) {
 		Validate.notNull(recipient, "recipient is null");
 		Validate.notNull(message, "message is null");
-		// Skip sending if the (plain) message is empty: Allows disabling of messages.
-		if (message.isPlainTextEmpty()) return;
+		sendMessage(recipient, render(message));
+	}
+
+	// Note: This is not intended to be called directly, but only via TextUtils.
+	public static RenderedMessage render(Text message) {
+		Validate.notNull(message, "message is null");
+		// Empty (plain) messages are not sent: Allows disabling of messages.
+		if (message.isPlainTextEmpty()) return RenderedMessage.EMPTY;
 
 		if (SpigotFeatures.isSpigotAvailable()) {
-			// Send message with additional text features:
-			Internal.sendMessage(recipient, message);
+			// Convert the message once, so that it can be sent with additional text features:
+			return new RenderedMessage(Internal.toComponent(message));
 		} else {
 			// Fallback: Send message as plain text.
-			String plainMessage = message.toPlainText();
-			TextUtils.sendMessage(recipient, plainMessage);
+			return new RenderedMessage(message.toPlainText());
+		}
+	}
+
+	// Note: This is not intended to be called directly, but only via TextUtils.
+	public static void sendMessage(CommandSender recipient, RenderedMessage message) {
+		Validate.notNull(recipient, "recipient is null");
+		Validate.notNull(message, "message is null");
+		if (message.isEmpty()) return;
+
+		Object content = message.getContent();
+		if (content instanceof String) {
+			TextUtils.sendMessage(recipient, (String) content);
+		} else {
+			Internal.sendMessage(recipient, content);
 		}
 	}
 
@@ -52,8 +71,8 @@ public final class SpigotText {
 
 		// SENDING
 
-		public static void sendMessage(CommandSender recipient, Text message) {
-			assert recipient != null && message != null;
+		public static Object toComponent(Text message) {
+			assert message != null;
 			BaseComponent component = toSpigot(message);
 			if (debugging) {
 				Log.info("Text: " + message);
@@ -62,7 +81,12 @@ public final class SpigotText {
 				Log.info("Component: " + component);
 				Bukkit.getConsoleSender().spigot().sendMessage(component);
 			}
-			recipient.spigot().sendMessage(component);
+			return component;
+		}
+
+		public static void sendMessage(CommandSender recipient, Object component) {
+			assert recipient != null && component instanceof BaseComponent;
+			recipient.spigot().sendMessage((BaseComponent) component);
 		}
 
 		// CONVERSION
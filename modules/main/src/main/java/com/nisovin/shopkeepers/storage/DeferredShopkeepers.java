@@ -0,0 +1,127 @@
+package com.nisovin.shopkeepers.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Keeps track of shopkeepers whose data has been loaded from the save file, but which have not yet
+ * been loaded, because their world is not loaded.
+ * <p>
+ * The data of these shopkeepers remains in the save data of the storage until they are loaded. This
+ * only indexes the shopkeepers by their id, unique id, world, and owner, so that the shopkeepers
+ * can be loaded once they are needed.
+ */
+final class DeferredShopkeepers {
+
+	/**
+	 * A shopkeeper whose loading has been deferred.
+	 */
+	static final class Entry {
+
+		final int shopkeeperId;
+		final UUID uniqueId;
+		final String worldName;
+		// Null if not a player shopkeeper.
+		final @Nullable UUID ownerUniqueId;
+
+		Entry(int shopkeeperId, UUID uniqueId, String worldName, @Nullable UUID ownerUniqueId) {
+			this.shopkeeperId = shopkeeperId;
+			this.uniqueId = uniqueId;
+			this.worldName = worldName;
+			this.ownerUniqueId = ownerUniqueId;
+		}
+	}
+
+	private final Map<@NonNull Integer, @NonNull Entry> byId = new HashMap<>();
+	private final Map<@NonNull UUID, @NonNull Entry> byUniqueId = new HashMap<>();
+	private final Map<@NonNull String, @NonNull Map<@NonNull Integer, @NonNull Entry>> byWorld = new HashMap<>();
+
+	DeferredShopkeepers() {
+	}
+
+	int size() {
+		return byId.size();
+	}
+
+	boolean isEmpty() {
+		return byId.isEmpty();
+	}
+
+	void add(Entry entry) {
+		assert entry != null;
+		assert !byId.containsKey(entry.shopkeeperId);
+		byId.put(entry.shopkeeperId, entry);
+		byUniqueId.put(entry.uniqueId, entry);
+		byWorld.computeIfAbsent(entry.worldName, worldName -> new LinkedHashMap<>())
+				.put(entry.shopkeeperId, entry);
+	}
+
+	private void remove(Entry entry) {
+		byId.remove(entry.shopkeeperId);
+		byUniqueId.remove(entry.uniqueId);
+		Map<@NonNull Integer, @NonNull Entry> worldEntries = byWorld.get(entry.worldName);
+		if (worldEntries != null) {
+			worldEntries.remove(entry.shopkeeperId);
+			if (worldEntries.isEmpty()) {
+				byWorld.remove(entry.worldName);
+			}
+		}
+	}
+
+	void clear() {
+		byId.clear();
+		byUniqueId.clear();
+		byWorld.clear();
+	}
+
+	// The following methods remove the returned entries, because the caller is expected to load the
+	// corresponding shopkeepers.
+
+	@Nullable Entry removeById(int shopkeeperId) {
+		Entry entry = byId.get(shopkeeperId);
+		if (entry != null) {
+			this.remove(entry);
+		}
+		return entry;
+	}
+
+	@Nullable Entry removeByUniqueId(UUID uniqueId) {
+		Entry entry = byUniqueId.get(uniqueId);
+		if (entry != null) {
+			this.remove(entry);
+		}
+		return entry;
+	}
+
+	List<? extends @NonNull Entry> removeByWorld(String worldName) {
+		Map<@NonNull Integer, @NonNull Entry> worldEntries = byWorld.get(worldName);
+		if (worldEntries == null) return Collections.emptyList();
+
+		List<@NonNull Entry> entries = new ArrayList<>(worldEntries.values());
+		entries.forEach(this::remove);
+		return entries;
+	}
+
+	// Player shopkeepers are not indexed by owner: This is expected to be called rarely, and the
+	// number of deferred shopkeepers is bounded by the number of shopkeepers in the save file.
+	List<? extends @NonNull Entry> removeByOwner(UUID ownerUniqueId) {
+		if (byId.isEmpty()) return Collections.emptyList();
+
+		List<@NonNull Entry> entries = new ArrayList<>();
+		byId.values().forEach(entry -> {
+			if (ownerUniqueId.equals(entry.ownerUniqueId)) {
+				entries.add(entry);
+			}
+		});
+		entries.forEach(this::remove);
+		return entries;
+	}
+}
@@ -1,20 +1,27 @@
 package com.nisovin.shopkeepers.storage;
 
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -30,6 +37,7 @@ import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.config.Settings.DerivedSettings;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.ShopkeeperData;
+import com.nisovin.shopkeepers.shopkeeper.player.AbstractPlayerShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.registry.SKShopkeeperRegistry;
 import com.nisovin.shopkeepers.util.bukkit.PermissionUtils;
 import com.nisovin.shopkeepers.util.bukkit.SchedulerUtils;
@@ -37,6 +45,8 @@ import com.nisovin.shopkeepers.util.bukkit.SingletonTask;
 import com.nisovin.shopkeepers.util.data.container.DataContainer;
 import com.nisovin.shopkeepers.util.data.persistence.DataStore;
 import com.nisovin.shopkeepers.util.data.persistence.InvalidDataFormatException;
+import com.nisovin.shopkeepers.util.data.persistence.binary.BinaryDataFormat;
+import com.nisovin.shopkeepers.util.data.persistence.binary.BinaryDataStore;
 import com.nisovin.shopkeepers.util.data.persistence.bukkit.BukkitConfigDataStore;
 import com.nisovin.shopkeepers.util.data.serialization.InvalidDataException;
 import com.nisovin.shopkeepers.util.java.ConversionUtils;
@@ -47,6 +57,8 @@ import com.nisovin.shopkeepers.util.java.ThrowableUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.java.VoidCallable;
 import com.nisovin.shopkeepers.util.logging.Log;
+import com.nisovin.shopkeepers.util.timer.Timer;
+import com.nisovin.shopkeepers.util.timer.Timings;
 
 /**
  * Storage responsible for persisting and loading the data of shopkeepers.
@@ -64,13 +76,16 @@ import com.nisovin.shopkeepers.util.logging.Log;
  * <li>It is not safe to externally edit the save file while the plugin is running, because the
  * plugin might still store unsaved shopkeeper data in memory or overwrite the save file with new
  * contents at any time.
+ * <li>If the save journal is enabled, saves only append the data of changed shopkeepers to the
+ * {@link ShopkeeperSaveJournal}. The complete save file is only written once the journal has grown
+ * beyond the configured threshold, or when the journal cannot be used (e.g. after the data version
+ * changed, or after a failed save). Loading replays the journal on top of the save file.
  * </ul>
  */
 public class SKShopkeeperStorage implements ShopkeeperStorage {
 
 	private static final String DATA_FOLDER = "data";
-	private static final String SAVE_FILE_NAME = "save.yml";
-	private static final String TEMP_SAVE_FILE_NAME = SAVE_FILE_NAME + ".tmp";
+	private static final String SAVE_JOURNAL_FILE_NAME = "save.journal";
 
 	private static final String DATA_VERSION_KEY = "data-version";
 
@@ -87,8 +102,12 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 
 	private final SKShopkeepersPlugin plugin;
 
-	private final Path saveFile;
-	private final Path tempSaveFile;
+	// The save format and the corresponding files are only changed during reloads, while there are
+	// no saves in progress.
+	private SaveFormat saveFormat = SaveFormat.YAML;
+	private Path saveFile;
+	private Path tempSaveFile;
+	private final ShopkeeperSaveJournal saveJournal;
 
 	/* Data */
 	/*
@@ -101,6 +120,11 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 	private int maxUsedShopkeeperId = 0;
 	private int nextShopkeeperId = 1;
 
+	// Whether the next save needs to write the complete save file, even if the save journal is
+	// enabled. This is the case if there is no save file yet, if the save journal is not consistent
+	// with the save file, or if the data version of the save data has changed.
+	private boolean fullSaveRequired = true;
+
 	/* Unsaved changes */
 	// Whether we got an explicit save request. This triggers a write to the save file, even if
 	// there have been no changes to the shopkeeper data itself.
@@ -126,6 +150,14 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 
 	/* Saving */
 	private final SaveTask saveTask;
+	// The timings of the individual phases of the saves:
+	private final Timer savePreparationTimings = new Timer();
+	private final Timer saveExecutionTimings = new Timer();
+	private final Timer saveTotalTimings = new Timer();
+
+	// Shopkeepers in unloaded worlds whose loading has been deferred:
+	private final DeferredShopkeepers deferredShopkeepers = new DeferredShopkeepers();
+	private final Listener worldLoadListener = new WorldLoadListener();
 	// Flag to (temporarily) turn off saving. This can for example be set if there is an issue with
 	// loading the shopkeeper data, so that the save file doesn't get overwritten by any subsequent
 	// save requests.
@@ -135,8 +167,12 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 	public SKShopkeeperStorage(SKShopkeepersPlugin plugin) {
 		DataVersion.init();
 		this.plugin = plugin;
-		this.saveFile = Unsafe.initialized(this)._getSaveFile();
-		this.tempSaveFile = Unsafe.initialized(this)._getTempSaveFile();
+		this.saveFile = Unsafe.initialized(this).getSaveFile(saveFormat);
+		this.tempSaveFile = Unsafe.initialized(this).getTempSaveFile(saveFormat);
+		this.saveJournal = new ShopkeeperSaveJournal(
+				Unsafe.assertNonNull(Unsafe.initialized(this)._getDataFolder()
+						.resolve(SAVE_JOURNAL_FILE_NAME))
+		);
 		this.saveTask = new SaveTask(plugin);
 	}
 
@@ -148,12 +184,19 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		return Unsafe.assertNonNull(this.getPluginDataFolder().resolve(DATA_FOLDER));
 	}
 
-	private Path _getSaveFile() {
-		return Unsafe.assertNonNull(this._getDataFolder().resolve(SAVE_FILE_NAME));
+	private Path getSaveFile(SaveFormat saveFormat) {
+		return Unsafe.assertNonNull(this._getDataFolder().resolve(saveFormat.getSaveFileName()));
+	}
+
+	private Path getTempSaveFile(SaveFormat saveFormat) {
+		return Unsafe.assertNonNull(this._getDataFolder().resolve(saveFormat.getTempSaveFileName()));
 	}
 
-	private Path _getTempSaveFile() {
-		return Unsafe.assertNonNull(this._getSaveFile().resolveSibling(TEMP_SAVE_FILE_NAME));
+	private void setSaveFormat(SaveFormat saveFormat) {
+		assert saveFormat != null;
+		this.saveFormat = saveFormat;
+		this.saveFile = this.getSaveFile(saveFormat);
+		this.tempSaveFile = this.getTempSaveFile(saveFormat);
 	}
 
 	// Gets the path relative to the plugin data folder.
@@ -162,6 +205,8 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 	}
 
 	public void onEnable() {
+		Bukkit.getPluginManager().registerEvents(worldLoadListener, plugin);
+
 		// Start periodic save task:
 		if (!Settings.saveInstantly) {
 			new PeriodicSaveTask().start();
@@ -191,8 +236,13 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 					+ saveTask.isExecutionPending() + ")!");
 		}
 
+		HandlerList.unregisterAll(worldLoadListener);
+
 		// Reset a few things:
 		saveTask.onDisable();
+		savePreparationTimings.reset();
+		saveExecutionTimings.reset();
+		saveTotalTimings.reset();
 		this.clearSaveData();
 		savingDisabled = false;
 		pendingSaveRequest = false;
@@ -339,8 +389,10 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 	 */
 	private void clearSaveData() {
 		saveData.clear();
+		deferredShopkeepers.clear();
 		maxUsedShopkeeperId = 0;
 		nextShopkeeperId = 1;
+		fullSaveRequired = true;
 	}
 
 	// We previously stored the save file within the plugin's root folder. If no save file exist at
@@ -376,6 +428,9 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		}
 
 		// Move old save file to new location:
+		// The old save file is in the YAML format. If another save format is configured, the
+		// migrated save file is converted to that format with the next save.
+		Path saveFile = this.getSaveFile(SaveFormat.YAML);
 		Log.info("Migrating old save file (" + this.pluginDataRelative(oldSaveFile)
 				+ ") to new location (" + this.pluginDataRelative(saveFile) + ")!");
 		try {
@@ -427,7 +482,23 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		shopkeeperRegistry.unloadAllShopkeepers();
 		this.clearSaveData();
 
+		// Use the save file of the configured save format. If there is no such save file, but one of
+		// another save format, we load that one instead and convert it with the next save.
+		this.setSaveFormat(Settings.saveFormat);
+		SaveFormat loadFormat = saveFormat;
 		Path saveFile = this.saveFile;
+		if (!Files.exists(saveFile) && !Files.exists(tempSaveFile)) {
+			for (SaveFormat otherFormat : SaveFormat.values()) {
+				if (otherFormat == saveFormat) continue;
+				Path otherSaveFile = this.getSaveFile(otherFormat);
+				if (Files.exists(otherSaveFile)) {
+					loadFormat = otherFormat;
+					saveFile = otherSaveFile;
+					break;
+				}
+			}
+		}
+
 		if (!Files.exists(saveFile)) {
 			if (Files.exists(tempSaveFile)) {
 				// Load from temporary save file instead:
@@ -440,7 +511,11 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			} else if (!this.migrateOldSaveFile()) {
 				// Migration of old save file failed:
 				return false; // Disable without save
-			} else if (!Files.exists(saveFile)) {
+			} else if (Files.exists(this.getSaveFile(SaveFormat.YAML))) {
+				// Load the migrated save file:
+				loadFormat = SaveFormat.YAML;
+				saveFile = this.getSaveFile(SaveFormat.YAML);
+			} else {
 				// No save file exists yet (even after checking for it again, after the migration)
 				// -> No shopkeeper data available.
 				// We silently set up the data version and abort:
@@ -450,10 +525,20 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		}
 
 		// Load the save data with the specified encoding:
-		try (Reader reader = Files.newBufferedReader(saveFile, DerivedSettings.fileCharset)) {
-			// Since Bukkit 1.16.5, this automatically clears the save data before loading the new
-			// entries.
-			saveData.load(reader);
+		long saveFileChecksum;
+		try {
+			byte[] saveFileData = Files.readAllBytes(saveFile);
+			saveFileChecksum = checksum(saveFileData);
+			if (loadFormat == SaveFormat.BINARY) {
+				BinaryDataStore binaryData = BinaryDataStore.create();
+				binaryData.loadFromBytes(saveFileData);
+				saveData.clear();
+				saveData.setAll(binaryData.getValues());
+			} else {
+				// Since Bukkit 1.16.5, this automatically clears the save data before loading the
+				// new entries.
+				saveData.loadFromString(new String(saveFileData, DerivedSettings.fileCharset));
+			}
 		} catch (InvalidDataFormatException e) {
 			Log.severe("Failed to load the save file! Note: Server downgrades or manually "
 					+ "editing the save file are not supported!", e);
@@ -463,6 +548,36 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			return false; // Disable without save
 		}
 
+		// Apply the changes from the save journal, if there are any:
+		// The save journal is replayed even if it is currently disabled inside the config. The next
+		// save then writes the complete save file and removes the save journal.
+		boolean saveJournalIntact;
+		try {
+			saveJournalIntact = saveJournal.replay(saveFileChecksum, saveData);
+		} catch (InvalidDataFormatException e) {
+			Log.severe("Failed to load the save journal! Note: Server downgrades or manually "
+					+ "editing the save files are not supported!", e);
+			return false; // Disable without save
+		} catch (Exception e) {
+			Log.severe("Failed to load the save journal!", e);
+			return false; // Disable without save
+		}
+		if (saveJournal.getRecordCount() > 0) {
+			Log.info("Applied " + saveJournal.getRecordCount()
+					+ " shopkeeper data changes from the save journal.");
+		}
+		if (loadFormat != saveFormat) {
+			// Convert the save file to the configured save format with the next save:
+			Log.info("Converting the save file from the " + loadFormat + " to the " + saveFormat
+					+ " save format.");
+			this.requestSave();
+		} else if (saveJournalIntact) {
+			fullSaveRequired = false;
+		} else {
+			// Write the complete save file with the next save, so that the save journal is reset:
+			this.requestSave();
+		}
+
 		// Insert the data version as the first (top) entry:
 		// Explicitly setting the 'missing' data version value here ensures that the data version
 		// will be the first entry in the save file, even if it is missing in the save file
@@ -525,7 +640,10 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		int shopkeepersCount = (keys.size() - 1);
 		if (shopkeepersCount == 0) {
 			// No shopkeeper data exists yet. Silently update the data version and abort:
-			saveData.set(DATA_VERSION_KEY, DataVersion.current().toString());
+			if (!DataVersion.current().equals(dataVersion)) {
+				saveData.set(DATA_VERSION_KEY, DataVersion.current().toString());
+				fullSaveRequired = true;
+			}
 			return true;
 		}
 
@@ -542,6 +660,8 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 					+ (forceSaveAllShopkeepers ? " The saved data of all shopkeepers is updated." : ""));
 			// Update the data version:
 			saveData.set(DATA_VERSION_KEY, DataVersion.current().toString());
+			// The data version is only stored inside the save file:
+			fullSaveRequired = true;
 
 			// Mark the storage as dirty so that the new data version is saved to disk even if none
 			// of the loaded shopkeepers is marked as dirty:
@@ -558,12 +678,13 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			// immediately look into. However, we do not abort the enabling of the plugin if
 			// individual shopkeepers cannot be loaded, because this would disable the protection of
 			// all player shop containers on the server (which is even worse).
-			this.loadShopkeeper(key, forceSaveAllShopkeepers);
+			this.loadShopkeeper(key, forceSaveAllShopkeepers, true);
 		}
 		return true;
 	}
 
-	private @Nullable ShopkeeperData getShopkeeperData(int shopkeeperId) {
+	// Does not modify the given save data.
+	static @Nullable ShopkeeperData getShopkeeperData(DataContainer saveData, int shopkeeperId) {
 		DataContainer shopkeeperDataContainer = saveData.getContainer(String.valueOf(shopkeeperId));
 		if (shopkeeperDataContainer == null) {
 			return null;
@@ -583,7 +704,8 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		return shopkeeperData;
 	}
 
-	private void loadShopkeeper(String key, boolean forceSave) {
+	// If deferrable is false, the shopkeeper is loaded even if its world is not loaded.
+	private void loadShopkeeper(String key, boolean forceSave, boolean deferrable) {
 		Integer idInt = ConversionUtils.parseInt(key);
 		if (idInt == null || idInt <= 0) {
 			this.failedToLoadShopkeeper(key, "Invalid id: " + key);
@@ -595,7 +717,7 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			maxUsedShopkeeperId = shopkeeperId;
 		}
 
-		ShopkeeperData shopkeeperData = this.getShopkeeperData(shopkeeperId);
+		ShopkeeperData shopkeeperData = getShopkeeperData(saveData, shopkeeperId);
 		if (shopkeeperData == null) {
 			this.failedToLoadShopkeeper(key, "Invalid shopkeeper data!");
 			return;
@@ -610,6 +732,14 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			return;
 		}
 
+		// If the shopkeeper data has been migrated or needs to be saved, we load the shopkeeper
+		// right away so that its data is saved. Otherwise, we defer the loading of the shopkeeper
+		// if its world is not loaded:
+		if (deferrable && !migrated && !forceSave
+				&& this.deferLoading(shopkeeperId, shopkeeperData)) {
+			return;
+		}
+
 		// Load the shopkeeper:
 		SKShopkeeperRegistry shopkeeperRegistry = this.getShopkeeperRegistry();
 		AbstractShopkeeper shopkeeper;
@@ -633,6 +763,124 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		}
 	}
 
+	// Returns true if the loading of the shopkeeper has been deferred.
+	private boolean deferLoading(int shopkeeperId, ShopkeeperData shopkeeperData) {
+		if (!Settings.lazyLoadUnloadedWorlds) return false;
+
+		DeferredShopkeepers.Entry entry;
+		try {
+			String worldName = shopkeeperData.get(AbstractShopkeeper.WORLD_NAME);
+			if (worldName == null) return false; // Virtual shopkeeper
+			if (Bukkit.getWorld(worldName) != null) return false; // World is loaded
+
+			UUID uniqueId = shopkeeperData.get(AbstractShopkeeper.UNIQUE_ID);
+			UUID ownerUniqueId = shopkeeperData.getOrNullIfMissing(
+					AbstractPlayerShopkeeper.OWNER_UNIQUE_ID
+			);
+			entry = new DeferredShopkeepers.Entry(
+					shopkeeperId,
+					uniqueId,
+					worldName,
+					ownerUniqueId
+			);
+		} catch (InvalidDataException e) {
+			// The shopkeeper is loaded right away, so that the issue is logged:
+			return false;
+		}
+
+		deferredShopkeepers.add(entry);
+		return true;
+	}
+
+	/**
+	 * Gets the number of shopkeepers whose loading has been deferred, because their world is not
+	 * loaded.
+	 * 
+	 * @return the number of deferred shopkeepers
+	 */
+	public int getDeferredShopkeepersCount() {
+		return deferredShopkeepers.size();
+	}
+
+	/**
+	 * Loads the shopkeeper with the specified id, if its loading has previously been deferred
+	 * because its world is not loaded.
+	 * 
+	 * @param shopkeeperId
+	 *            the shopkeeper id
+	 */
+	public void loadDeferredShopkeeper(int shopkeeperId) {
+		if (deferredShopkeepers.isEmpty()) return;
+		DeferredShopkeepers.Entry entry = deferredShopkeepers.removeById(shopkeeperId);
+		if (entry != null) {
+			this.loadDeferredShopkeeper(entry);
+		}
+	}
+
+	/**
+	 * Loads the shopkeeper with the specified unique id, if its loading has previously been
+	 * deferred because its world is not loaded.
+	 * 
+	 * @param shopkeeperUniqueId
+	 *            the shopkeeper's unique id, not <code>null</code>
+	 */
+	public void loadDeferredShopkeeper(UUID shopkeeperUniqueId) {
+		if (deferredShopkeepers.isEmpty()) return;
+		DeferredShopkeepers.Entry entry = deferredShopkeepers.removeByUniqueId(shopkeeperUniqueId);
+		if (entry != null) {
+			this.loadDeferredShopkeeper(entry);
+		}
+	}
+
+	/**
+	 * Loads the player shopkeepers of the specified owner, if their loading has previously been
+	 * deferred because their worlds are not loaded.
+	 * 
+	 * @param ownerUniqueId
+	 *            the owner's unique id, not <code>null</code>
+	 */
+	public void loadDeferredShopkeepersOfOwner(UUID ownerUniqueId) {
+		if (deferredShopkeepers.isEmpty()) return;
+		deferredShopkeepers.removeByOwner(ownerUniqueId).forEach(this::loadDeferredShopkeeper);
+	}
+
+	private void loadDeferredShopkeepers(String worldName) {
+		if (deferredShopkeepers.isEmpty()) return;
+		List<? extends DeferredShopkeepers.@NonNull Entry> entries = deferredShopkeepers
+				.removeByWorld(worldName);
+		if (entries.isEmpty()) return;
+
+		Log.debug(() -> "Loading " + entries.size() + " shopkeepers in world '" + worldName + "'.");
+		entries.forEach(this::loadDeferredShopkeeper);
+	}
+
+	private void loadDeferredShopkeeper(DeferredShopkeepers.Entry entry) {
+		String key = String.valueOf(entry.shopkeeperId);
+		// The data of deferred shopkeepers is not modified until they are loaded:
+		assert saveData.contains(key);
+		// The shopkeeper is either requested (e.g. by a lookup) or its world has been loaded. In
+		// both cases, its loading is not deferred again, even if its world is still not loaded:
+		this.loadShopkeeper(key, false, false);
+	}
+
+	private class WorldLoadListener implements Listener {
+
+		WorldLoadListener() {
+		}
+
+		// Loads the deferred shopkeepers before they are activated by the chunk activator.
+		@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+		void onWorldLoad(WorldLoadEvent event) {
+			loadDeferredShopkeepers(Unsafe.assertNonNull(event.getWorld().getName()));
+		}
+	}
+
+	private static long checksum(byte[] data) {
+		CRC32 crc = new CRC32();
+		crc.update(data, 0, data.length);
+		return crc.getValue();
+	}
+
 	private void failedToLoadShopkeeper(String idKey, String reason) {
 		this.failedToLoadShopkeeper(idKey, reason, null);
 	}
@@ -753,6 +1001,34 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		// necessary).
 	}
 
+	/**
+	 * Gets the timings of the preparations of the saves, which happen on the main thread.
+	 * 
+	 * @return the save preparation timings
+	 */
+	public Timings getSavePreparationTimings() {
+		return savePreparationTimings;
+	}
+
+	/**
+	 * Gets the timings of the executions of the saves, which usually happen asynchronously.
+	 * 
+	 * @return the save execution timings
+	 */
+	public Timings getSaveExecutionTimings() {
+		return saveExecutionTimings;
+	}
+
+	/**
+	 * Gets the total timings of the saves, from their preparation until the completion of their
+	 * execution.
+	 * 
+	 * @return the total save timings
+	 */
+	public Timings getSaveTotalTimings() {
+		return saveTotalTimings;
+	}
+
 	/**
 	 * Gets the number of shopkeepers that had changes to their data, but whose changes have not yet
 	 * been persisted.
@@ -873,6 +1149,11 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		Set<@NonNull AbstractShopkeeper> savingDirtyShopkeepers = new LinkedHashSet<>();
 		// The shopkeepers that we were not able to save for some reason:
 		private final Set<@NonNull AbstractShopkeeper> failedToSave = new LinkedHashSet<>();
+		// Whether the current save writes the complete save file, or only appends the changed
+		// shopkeeper data to the save journal:
+		private boolean fullSave = false;
+		// The records that the current save appends to the save journal:
+		private final List<ShopkeeperSaveJournal.@NonNull Record> journalRecords = new ArrayList<>();
 
 		/* Last save */
 		// These variables get replaced during the next save.
@@ -935,6 +1216,32 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			// Save the data of dirty shopkeepers:
 			assert failedToSave.isEmpty();
 			savingDirtyShopkeepers.forEach(this::saveShopkeeper);
+
+			// Decide whether to write the complete save file, or to only append the changes to the
+			// save journal:
+			fullSave = !Settings.saveJournal
+					|| fullSaveRequired
+					|| saveJournal.getRecordCount() >= Settings.saveJournalCompactionThreshold;
+			assert journalRecords.isEmpty();
+			if (!fullSave) {
+				this.prepareJournalRecords();
+			}
+		}
+
+		// Collects the data of all shopkeepers whose current data has not yet been persisted:
+		private void prepareJournalRecords() {
+			Set<@NonNull Integer> shopkeeperIds = new LinkedHashSet<>(unsavedShopkeepers);
+			savingDirtyShopkeepers.forEach(shopkeeper -> {
+				if (failedToSave.contains(shopkeeper)) return;
+				shopkeeperIds.add(shopkeeper.getId());
+			});
+			shopkeeperIds.addAll(unsavedDeletedShopkeepers);
+
+			shopkeeperIds.forEach(shopkeeperId -> {
+				// Null if the shopkeeper has been deleted:
+				DataContainer shopkeeperData = saveData.getContainer(String.valueOf(shopkeeperId));
+				journalRecords.add(new ShopkeeperSaveJournal.Record(shopkeeperId, shopkeeperData));
+			});
 		}
 
 		private void saveShopkeeper(AbstractShopkeeper shopkeeper) {
@@ -970,7 +1277,24 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		// Can be run async or sync.
 		@Override
 		protected void execute() {
-			savingSucceeded = this.saveToFile(saveData);
+			if (fullSave) {
+				savingSucceeded = this.saveToFile(saveData);
+			} else {
+				savingSucceeded = this.appendToSaveJournal();
+			}
+		}
+
+		// Returns true if the saving was successful.
+		private boolean appendToSaveJournal() {
+			try {
+				saveJournal.append(journalRecords);
+				return true; // Success
+			} catch (Exception e) {
+				// We do not retry appending to the journal: The journal might end with a partially
+				// written record now. Instead, the next save writes the complete save file.
+				Log.severe("Saving of shopkeepers to the save journal failed!", e);
+				return false;
+			}
 		}
 
 		// Returns true if the saving was successful.
@@ -982,9 +1306,13 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 				// However, this should usually not be an issue if the serialized objects inside the
 				// save data are not accessed externally, and do not rely on external state during
 				// serialization.
-				String data;
+				byte[] data;
 				try {
-					data = saveData.saveToString();
+					if (saveFormat == SaveFormat.BINARY) {
+						data = BinaryDataFormat.encode(saveData.getValues());
+					} else {
+						data = saveData.saveToString().getBytes(Settings.async().fileCharset);
+					}
 				} catch (Exception e) {
 					throw new ShopkeeperStorageSaveException(
 							"Could not serialize shopkeeper data!", e
@@ -1020,6 +1348,9 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 					}
 				});
 
+				// The save file contains all data now. Any previous journal records are outdated:
+				saveJournal.reset(checksum(data));
+				this.deleteOtherFormatSaveFiles();
 				return true; // Success
 			} catch (Exception e) {
 				// Saving failed even after several attempts:
@@ -1028,6 +1359,24 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			}
 		}
 
+		// Removes the save files of other save formats, since they are outdated now. This completes
+		// the conversion of the save file after the save format has been changed.
+		private void deleteOtherFormatSaveFiles() {
+			for (SaveFormat otherFormat : SaveFormat.values()) {
+				if (otherFormat == saveFormat) continue;
+				Path otherSaveFile = getSaveFile(otherFormat);
+				try {
+					if (FileUtils.deleteIfExists(otherSaveFile)) {
+						Log.info("Removed the outdated save file " + pluginDataRelative(otherSaveFile)
+								+ ".");
+					}
+				} catch (IOException e) {
+					Log.warning("Failed to remove the outdated save file "
+							+ pluginDataRelative(otherSaveFile) + "!", e);
+				}
+			}
+		}
+
 		/**
 		 * Writes the given properly formatted shopkeeper data to disk.
 		 * <p>
@@ -1054,7 +1403,7 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		 * @throws ShopkeeperStorageSaveException
 		 *             if something goes wrong
 		 */
-		private void doSaveToFile(String data) throws ShopkeeperStorageSaveException {
+		private void doSaveToFile(byte[] data) throws ShopkeeperStorageSaveException {
 			assert data != null;
 			// Handle already existing temporary save file:
 			this.handleExistingTempSaveFile();
@@ -1073,9 +1422,9 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 				this.wrapException(() -> FileUtils.checkIsDirectoryWritable(saveFileDirectory));
 			}
 
-			// Create new temporary save file and write data to it, using the specified encoding:
-			try (Writer writer = Files.newBufferedWriter(tempSaveFile, DerivedSettings.fileCharset)) {
-				writer.write(data);
+			// Create new temporary save file and write the already encoded data to it:
+			try {
+				Files.write(tempSaveFile, data);
 			} catch (IOException e) {
 				throw new ShopkeeperStorageSaveException(
 						"Could not write the shopkeeper data to the temporary save file ("
@@ -1165,14 +1514,25 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			// Print debug info:
 			printDebugInfo();
 
+			// Update the save timings:
+			savePreparationTimings.record(this.getPreparationDurationNanos());
+			saveExecutionTimings.record(this.getExecutionDurationNanos());
+			saveTotalTimings.record(this.getTotalDurationNanos());
+
 			if (savingSucceeded) {
 				// Saving succeeded:
+				if (fullSave) {
+					fullSaveRequired = false;
+				}
 
 				// Cleanup the unsavedShopkeepers and unsavedDeletedShopkeepers:
 				unsavedShopkeepers.clear();
 				unsavedDeletedShopkeepers.clear();
 			} else {
 				// Saving failed:
+				// The save journal might be inconsistent now. The next save writes the complete
+				// save file.
+				fullSaveRequired = true;
 
 				// Remove any shopkeepers from the unsavedShopkeepers that have been marked as dirty
 				// again in the meantime. This is only required if there are shopkeepers that we
@@ -1213,8 +1573,9 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			// Note: Any shopkeepers that have been deleted in the meantime are removed again from
 			// the dirtyShopkeepers when the shopkeepersToDelete are processed in the following.
 
-			// Cleanup the Set of processed dirty shopkeepers:
+			// Cleanup the Set of processed dirty shopkeepers and the journal records:
 			savingDirtyShopkeepers.clear();
+			journalRecords.clear();
 
 			// Remove the data of shopkeepers that have been deleted in the meantime:
 			shopkeepersToDelete.forEach(SKShopkeeperStorage.this::deleteShopkeeper);
@@ -1267,6 +1628,11 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 					sb.append(", ").append(failedToSave.size()).append(" failed to save");
 				}
 
+				// Save journal:
+				if (!fullSave) {
+					sb.append(", ").append(journalRecords.size()).append(" journaled");
+				}
+
 				// Timing summary:
 				sb.append("): ");
 				sb.append(this.getExecutionTimingString());
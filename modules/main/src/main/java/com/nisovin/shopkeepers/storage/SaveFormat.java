@@ -0,0 +1,43 @@
+package com.nisovin.shopkeepers.storage;
+
+import com.nisovin.shopkeepers.util.data.persistence.binary.BinaryDataFormat;
+
+/**
+ * The available formats of the shopkeepers save file.
+ */
+public enum SaveFormat {
+
+	/**
+	 * Stores the shopkeeper data in a human-readable YAML file.
+	 */
+	YAML("save.yml"),
+	/**
+	 * Stores the shopkeeper data in the compact {@link BinaryDataFormat}, which is faster to load
+	 * and save.
+	 */
+	BINARY("save.dat");
+
+	private final String saveFileName;
+
+	private SaveFormat(String saveFileName) {
+		this.saveFileName = saveFileName;
+	}
+
+	/**
+	 * Gets the name of the save file.
+	 * 
+	 * @return the save file name
+	 */
+	public String getSaveFileName() {
+		return saveFileName;
+	}
+
+	/**
+	 * Gets the name of the temporary save file that is used during saves.
+	 * 
+	 * @return the temporary save file name
+	 */
+	public String getTempSaveFileName() {
+		return saveFileName + ".tmp";
+	}
+}
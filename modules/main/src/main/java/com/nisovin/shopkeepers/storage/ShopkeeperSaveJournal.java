@@ -0,0 +1,286 @@
+package com.nisovin.shopkeepers.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.zip.CRC32;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.util.bukkit.ConfigUtils;
+import com.nisovin.shopkeepers.util.data.container.DataContainer;
+import com.nisovin.shopkeepers.util.data.persistence.DataStore;
+import com.nisovin.shopkeepers.util.data.persistence.InvalidDataFormatException;
+import com.nisovin.shopkeepers.util.data.persistence.bukkit.BukkitConfigDataStore;
+import com.nisovin.shopkeepers.util.java.FileUtils;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * An append-only journal of shopkeeper data changes that have not yet been written to the save
+ * file.
+ * <p>
+ * Each record either stores the complete data of a single shopkeeper, or marks the data of a
+ * shopkeeper as deleted. When loading, the records are replayed in order on top of the data of the
+ * save file.
+ * <p>
+ * The journal header stores the checksum of the save file that the journal is based on. If the save
+ * file has been replaced since then (e.g. if the server stopped after a full save has been written,
+ * but before the journal has been reset), the journal is outdated and its records are ignored.
+ * <p>
+ * Each record is protected by its own checksum. A record that has only been partially written (e.g.
+ * due to a server crash) is ignored, together with any subsequent data.
+ * <p>
+ * This class is not thread-safe. At most one thread is expected to interact with the journal at the
+ * same time.
+ */
+final class ShopkeeperSaveJournal {
+
+	private static final int MAGIC = 0x534B4A31; // "SKJ1"
+
+	private static final byte RECORD_TYPE_DATA = 1;
+	private static final byte RECORD_TYPE_DELETED = 2;
+
+	// The key under which the serialized shopkeeper data is stored inside the record's YAML:
+	private static final String RECORD_DATA_KEY = "data";
+
+	/**
+	 * A single change to the data of a shopkeeper.
+	 */
+	static final class Record {
+
+		final int shopkeeperId;
+		// Null if the shopkeeper has been deleted.
+		final @Nullable DataContainer data;
+
+		Record(int shopkeeperId, @Nullable DataContainer data) {
+			this.shopkeeperId = shopkeeperId;
+			this.data = data;
+		}
+	}
+
+	private final Path journalFile;
+
+	// The checksum of the save file that the journal is based on:
+	private long baseChecksum = 0L;
+	// The number of records in the journal file. If zero, the next append truncates any existing
+	// journal file and writes a new header.
+	private int recordCount = 0;
+
+	ShopkeeperSaveJournal(Path journalFile) {
+		Validate.notNull(journalFile, "journalFile is null");
+		this.journalFile = journalFile;
+	}
+
+	Path getJournalFile() {
+		return journalFile;
+	}
+
+	/**
+	 * Gets the number of records that have been written to the journal since its last
+	 * {@link #reset(long) reset}.
+	 * 
+	 * @return the number of records
+	 */
+	int getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Resets this journal after the save file has been replaced.
+	 * <p>
+	 * This attempts to delete the journal file. If this fails, the next {@link #append(Collection)}
+	 * truncates the journal file instead.
+	 * 
+	 * @param saveFileChecksum
+	 *            the checksum of the new save file
+	 */
+	void reset(long saveFileChecksum) {
+		this.baseChecksum = saveFileChecksum;
+		this.recordCount = 0;
+		try {
+			FileUtils.deleteIfExists(journalFile);
+		} catch (IOException e) {
+			// The journal is outdated now and ignored during the next load. If the journal file is
+			// still present during the next append, it is truncated.
+			Log.warning("Failed to delete the outdated save journal!", e);
+		}
+	}
+
+	/**
+	 * Appends the given records to the journal and then forces them to disk.
+	 * <p>
+	 * The data of the records is serialized during this call, so the given data containers are
+	 * expected to not be modified concurrently.
+	 * 
+	 * @param records
+	 *            the records
+	 * @throws IOException
+	 *             if the records could not be written
+	 */
+	void append(Collection<? extends @NonNull Record> records) throws IOException {
+		if (records.isEmpty()) return;
+
+		FileUtils.createParentDirectories(journalFile);
+		boolean newJournal = (recordCount == 0);
+		CRC32 crc = new CRC32();
+		try (FileOutputStream fileOut = new FileOutputStream(journalFile.toFile(), !newJournal);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+			if (newJournal) {
+				out.writeInt(MAGIC);
+				out.writeLong(baseChecksum);
+			}
+
+			for (Record record : records) {
+				DataContainer data = record.data;
+				byte type = (data != null) ? RECORD_TYPE_DATA : RECORD_TYPE_DELETED;
+				byte[] payload;
+				if (data != null) {
+					String yaml = ConfigUtils.toConfigYaml(RECORD_DATA_KEY, data.serialize());
+					payload = yaml.getBytes(StandardCharsets.UTF_8);
+				} else {
+					payload = new byte[0];
+				}
+
+				long checksum = checksum(crc, record.shopkeeperId, type, payload);
+
+				out.writeInt(record.shopkeeperId);
+				out.writeByte(type);
+				out.writeInt(payload.length);
+				out.write(payload);
+				out.writeInt((int) checksum);
+			}
+
+			out.flush();
+			// Ensure that the records are actually persisted to disk:
+			fileOut.getChannel().force(true);
+		}
+		if (newJournal) {
+			FileUtils.fsyncParentDirectory(journalFile);
+		}
+		recordCount += records.size();
+	}
+
+	/**
+	 * Replays the records of the journal file, if there is one, into the given data store.
+	 * <p>
+	 * The records are ignored if the journal is not based on the save file with the given
+	 * checksum. If the journal file ends with an incomplete record, the replay stops at that
+	 * record.
+	 * 
+	 * @param saveFileChecksum
+	 *            the checksum of the loaded save file
+	 * @param target
+	 *            the data store that contains the data of the loaded save file
+	 * @return <code>true</code> if the journal file is either missing or has been fully replayed,
+	 *         <code>false</code> if the journal has been ignored, or has only been partially
+	 *         replayed
+	 * @throws IOException
+	 *             if the journal file cannot be read
+	 * @throws InvalidDataFormatException
+	 *             if the data of a record cannot be loaded
+	 */
+	boolean replay(
+			long saveFileChecksum,
+			DataStore target
+	) throws IOException, InvalidDataFormatException {
+		this.baseChecksum = saveFileChecksum;
+		this.recordCount = 0;
+		if (!Files.exists(journalFile)) return true;
+
+		try (InputStream fileIn = Files.newInputStream(journalFile);
+				DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn))) {
+			long journalBaseChecksum;
+			try {
+				if (in.readInt() != MAGIC) {
+					throw new InvalidDataFormatException("Unknown save journal format!");
+				}
+				journalBaseChecksum = in.readLong();
+			} catch (EOFException e) {
+				Log.warning("Ignoring the incomplete save journal header.");
+				return false;
+			}
+
+			if (journalBaseChecksum != saveFileChecksum) {
+				Log.warning("Ignoring the outdated save journal: It is not based on the current"
+						+ " save file.");
+				return false;
+			}
+
+			CRC32 crc = new CRC32();
+			while (true) {
+				int shopkeeperId;
+				try {
+					shopkeeperId = in.readInt();
+				} catch (EOFException e) {
+					return true; // Fully replayed
+				}
+
+				byte type;
+				byte[] payload;
+				int checksum;
+				try {
+					type = in.readByte();
+					int payloadLength = in.readInt();
+					if (payloadLength < 0) {
+						Log.warning("Ignoring corrupted save journal record " + (recordCount + 1)
+								+ " and all subsequent records.");
+						return false;
+					}
+					payload = new byte[payloadLength];
+					in.readFully(payload);
+					checksum = in.readInt();
+				} catch (EOFException e) {
+					Log.warning("Ignoring incomplete save journal record " + (recordCount + 1)
+							+ ".");
+					return false;
+				}
+
+				if ((int) checksum(crc, shopkeeperId, type, payload) != checksum) {
+					Log.warning("Ignoring corrupted save journal record " + (recordCount + 1)
+							+ " and all subsequent records.");
+					return false;
+				}
+
+				String key = String.valueOf(shopkeeperId);
+				if (type == RECORD_TYPE_DELETED) {
+					target.remove(key);
+				} else if (type == RECORD_TYPE_DATA) {
+					BukkitConfigDataStore recordData = BukkitConfigDataStore.ofNewYamlConfig();
+					recordData.loadFromString(new String(payload, StandardCharsets.UTF_8));
+					DataContainer shopkeeperData = recordData.getContainer(RECORD_DATA_KEY);
+					if (shopkeeperData == null) {
+						throw new InvalidDataFormatException("Missing shopkeeper data in save"
+								+ " journal record " + (recordCount + 1) + "!");
+					}
+					target.set(key, shopkeeperData.getValuesCopy());
+				} else {
+					throw new InvalidDataFormatException("Unknown save journal record type: "
+							+ type);
+				}
+				recordCount++;
+			}
+		}
+	}
+
+	private static long checksum(CRC32 crc, int shopkeeperId, byte type, byte[] payload) {
+		crc.reset();
+		crc.update(shopkeeperId >>> 24);
+		crc.update(shopkeeperId >>> 16);
+		crc.update(shopkeeperId >>> 8);
+		crc.update(shopkeeperId);
+		crc.update(type);
+		crc.update(payload, 0, payload.length);
+		return crc.getValue();
+	}
+}
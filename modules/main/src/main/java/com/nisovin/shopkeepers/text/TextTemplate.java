@@ -0,0 +1,160 @@
+package com.nisovin.shopkeepers.text;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.text.MessageArguments;
+
+/**
+ * A compiled, reusable template for a {@link Text}.
+ * <p>
+ * The template operates on its own private copy of the source {@link Text}, so the source Text is
+ * not affected by the placeholder arguments that are used to render the template, and the source
+ * Text does not need to be copied for each render. The placeholders of the Text are indexed once
+ * when the template is created: Rendering the template assigns the arguments directly to the
+ * indexed placeholder slots, instead of traversing the whole Text for each argument set.
+ * <p>
+ * The result of {@link #render(MessageArguments, Function)} is meant to be an immutable, finished
+ * representation of the message (e.g. a converted text component) that can then be sent to any
+ * number of recipients without rendering the message again.
+ * <p>
+ * Like {@link Text}s, templates are not thread-safe and are meant to only be used on the server's
+ * main thread.
+ */
+public final class TextTemplate {
+
+	// Compiled templates by source Text (Texts are identified by object identity). The templates
+	// do not reference their source Text, so templates of no longer used Texts (e.g. of messages
+	// that were replaced during a reload) are automatically removed.
+	private static final Map<@NonNull Text, @NonNull TextTemplate> TEMPLATES = new WeakHashMap<>();
+
+	/**
+	 * Gets the {@link TextTemplate} for the given {@link Text}.
+	 * <p>
+	 * The template is compiled on first use and then cached for as long as the given Text instance
+	 * is in use. Any placeholder arguments that are currently assigned to the given Text are not
+	 * part of the template.
+	 * 
+	 * @param text
+	 *            the Text, not <code>null</code>
+	 * @return the template, not <code>null</code>
+	 */
+	public static TextTemplate of(Text text) {
+		Validate.notNull(text, "text is null");
+		return TEMPLATES.computeIfAbsent(text, TextTemplate::new);
+	}
+
+	private final Text text; // Private copy of the source Text
+	private final @NonNull String[] placeholderKeys;
+	// The placeholder slots for each placeholder key:
+	private final @NonNull PlaceholderText[][] placeholderSlots;
+	private boolean rendering = false;
+
+	private TextTemplate(Text sourceText) {
+		assert sourceText != null;
+		this.text = sourceText.copy();
+		text.clearPlaceholderArguments();
+
+		Map<@NonNull String, @NonNull List<@NonNull PlaceholderText>> slotsByKey
+				= new LinkedHashMap<>();
+		collectPlaceholders(text, slotsByKey);
+		this.placeholderKeys = slotsByKey.keySet().toArray(new @NonNull String[0]);
+		this.placeholderSlots = new @NonNull PlaceholderText[placeholderKeys.length][];
+		for (int i = 0; i < placeholderKeys.length; i++) {
+			List<@NonNull PlaceholderText> slots = Unsafe.assertNonNull(
+					slotsByKey.get(placeholderKeys[i])
+			);
+			placeholderSlots[i] = slots.toArray(new @NonNull PlaceholderText[0]);
+		}
+	}
+
+	// Traverses the Text in the same way as Text#setPlaceholderArguments.
+	private static void collectPlaceholders(
+			@Nullable Text text,
+			Map<@NonNull String, @NonNull List<@NonNull PlaceholderText>> slotsByKey
+	) {
+		if (text == null) return;
+		if (text instanceof PlaceholderText) {
+			PlaceholderText placeholder = (PlaceholderText) text;
+			String placeholderKey = placeholder.getPlaceholderKey();
+			slotsByKey.computeIfAbsent(placeholderKey, key -> new ArrayList<>()).add(placeholder);
+		} else if (text instanceof HoverEventText) {
+			collectPlaceholders(((HoverEventText) text).getValue(), slotsByKey);
+		}
+		collectPlaceholders(text.getChild(), slotsByKey);
+		collectPlaceholders(text.getNext(), slotsByKey);
+	}
+
+	/**
+	 * Gets the number of distinct placeholder keys of this template.
+	 * 
+	 * @return the number of placeholder keys
+	 */
+	public int getPlaceholderCount() {
+		return placeholderKeys.length;
+	}
+
+	/**
+	 * Renders this template with the given placeholder arguments.
+	 * <p>
+	 * The placeholder arguments are assigned to the template's Text, the given renderer is invoked
+	 * with the resulting Text, and the placeholder arguments are then cleared again. The Text that
+	 * is passed to the renderer is only valid during the invocation of the renderer: The renderer
+	 * must not keep a reference to it, but produce a result that is independent of the Text (e.g.
+	 * a plain String or a converted text component).
+	 * <p>
+	 * Placeholders for which no argument is provided are rendered as their
+	 * {@link PlaceholderText#getFormattedPlaceholderKey() formatted placeholder key}.
+	 * 
+	 * @param <R>
+	 *            the type of the rendered result
+	 * @param arguments
+	 *            the placeholder arguments, not <code>null</code>
+	 * @param renderer
+	 *            the renderer, not <code>null</code>
+	 * @return the rendered result
+	 */
+	public <R> R render(
+			MessageArguments arguments,
+			Function<? super @NonNull Text, ? extends R> renderer
+	) {
+		Validate.notNull(arguments, "arguments is null");
+		Validate.notNull(renderer, "renderer is null");
+		Validate.State.isTrue(!rendering, "This template is already being rendered!");
+		rendering = true;
+		try {
+			for (int i = 0; i < placeholderKeys.length; i++) {
+				Object argument = arguments.get(placeholderKeys[i]);
+				if (argument == null) continue;
+
+				// Resolve the argument only once, even if the placeholder is used multiple times:
+				Text argumentText = Text.of(argument);
+				for (PlaceholderText placeholder : placeholderSlots[i]) {
+					placeholder.setPlaceholderArgument(argumentText);
+				}
+			}
+			return renderer.apply(text);
+		} finally {
+			for (@NonNull PlaceholderText[] slots : placeholderSlots) {
+				for (PlaceholderText placeholder : slots) {
+					placeholder.setPlaceholderArgument(null);
+				}
+			}
+			rendering = false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TextTemplate [text=" + text.toFormat() + "]";
+	}
+}
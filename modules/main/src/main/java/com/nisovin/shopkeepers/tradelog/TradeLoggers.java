@@ -15,6 +15,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import com.nisovin.shopkeepers.api.events.ShopkeeperTradeEvent;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.tradelog.binary.BinaryTradeLogger;
 import com.nisovin.shopkeepers.tradelog.csv.CsvTradeLogger;
 import com.nisovin.shopkeepers.tradelog.data.TradeRecord;
 import com.nisovin.shopkeepers.util.java.Validate;
@@ -35,6 +36,8 @@ public class TradeLoggers implements Listener {
 	// for this to not be an issue. Also, the order in which the trades took place is still
 	// preserved.
 	private @Nullable TradeMerger tradeMerger;
+	// Null if disabled:
+	private @Nullable BinaryTradeLogger binaryTradeLogger = null;
 	private boolean enabled = false;
 
 	public TradeLoggers(Plugin plugin) {
@@ -59,6 +62,11 @@ public class TradeLoggers implements Listener {
 		if (Settings.logTradesToCsv) {
 			loggers.add(new CsvTradeLogger(plugin));
 		}
+		if (Settings.logTradesToBinary) {
+			BinaryTradeLogger binaryTradeLogger = new BinaryTradeLogger(plugin);
+			this.binaryTradeLogger = binaryTradeLogger;
+			loggers.add(binaryTradeLogger);
+		}
 
 		Bukkit.getPluginManager().registerEvents(this, plugin);
 	}
@@ -76,6 +84,17 @@ public class TradeLoggers implements Listener {
 		// Wait for any pending writes to complete:
 		loggers.forEach(TradeLogger::flush);
 		loggers.clear();
+		binaryTradeLogger = null;
+	}
+
+	/**
+	 * Gets the {@link BinaryTradeLogger}, which can be used to query the logged trades.
+	 * 
+	 * @return the binary trade logger, or <code>null</code> if trades are not logged to the binary
+	 *         trade log
+	 */
+	public @Nullable BinaryTradeLogger getBinaryTradeLogger() {
+		return binaryTradeLogger;
 	}
 
 	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
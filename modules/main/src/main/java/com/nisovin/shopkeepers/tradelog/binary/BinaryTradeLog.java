@@ -0,0 +1,1033 @@
+package com.nisovin.shopkeepers.tradelog.binary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.tradelog.data.PlayerRecord;
+import com.nisovin.shopkeepers.tradelog.data.ShopRecord;
+import com.nisovin.shopkeepers.util.java.FileUtils;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * An append-only binary log of {@link LoggedTrade}s with secondary indexes by shop, by player, and
+ * by time.
+ * <p>
+ * The log is split into segment files of limited size. Only the newest segment is appended to. Once
+ * it has reached the maximum segment size, it is sealed: Its indexes are written to an accompanying
+ * index file, and a new segment is started. The index file contains the positions of the segment's
+ * records, sorted by shop id, by player id, and by timestamp. Queries binary search these sorted
+ * indexes and then only read the matching records, so they never load complete files. The indexes
+ * of the newest segment are kept in memory, and are rebuilt by scanning the segment when the log is
+ * opened.
+ * <p>
+ * Each record is prefixed with its length and a checksum. If the server crashes while records are
+ * written, the incomplete records at the end of the newest segment are discarded when the log is
+ * opened again. Index files that are incomplete or corrupt are rebuilt by scanning the records of
+ * their segment.
+ * <p>
+ * This class is thread-safe: Appends are serialized, and queries can run concurrently to appends.
+ * All operations perform blocking IO, and are therefore meant to be invoked asynchronously.
+ */
+public class BinaryTradeLog {
+
+	/**
+	 * Receives the results of a
+	 * {@link BinaryTradeLog#query(TradeLogQuery, BinaryTradeLog.ResultConsumer) query}.
+	 */
+	@FunctionalInterface
+	public interface ResultConsumer {
+
+		/**
+		 * Consumes the next matching trade.
+		 * 
+		 * @param trade
+		 *            the trade, not <code>null</code>
+		 * @return <code>true</code> to continue the query, <code>false</code> to stop it
+		 */
+		public boolean accept(LoggedTrade trade);
+	}
+
+	/**
+	 * The default maximum size of a segment in bytes.
+	 */
+	public static final long DEFAULT_MAX_SEGMENT_SIZE = 8L * 1024 * 1024; // 8 MiB
+
+	private static final String SEGMENT_FILE_PREFIX = "trades-";
+	private static final String LOG_FILE_SUFFIX = ".log";
+	private static final String INDEX_FILE_SUFFIX = ".idx";
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+	private static final int SEGMENT_MAGIC = 0x534B544C; // "SKTL"
+	private static final int INDEX_MAGIC = 0x534B5449; // "SKTI"
+	private static final int FORMAT_VERSION = 1;
+
+	// Magic, version:
+	private static final int SEGMENT_HEADER_SIZE = 8;
+	// Magic, version, record count, min timestamp, max timestamp:
+	private static final int INDEX_HEADER_SIZE = 28;
+	// Record length, checksum:
+	private static final int RECORD_HEADER_SIZE = 8;
+	private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+	// Id (most and least significant bits), record position:
+	private static final int ID_INDEX_ENTRY_SIZE = 24;
+	// Timestamp, record position:
+	private static final int TIME_INDEX_ENTRY_SIZE = 16;
+	// The number of index entries that are read at once when iterating an index:
+	private static final int INDEX_READ_BATCH_SIZE = 256;
+
+	private static final class IndexEntry {
+
+		final long position;
+		final long timestamp;
+		final UUID shopUniqueId;
+		final UUID playerUniqueId;
+
+		IndexEntry(long position, long timestamp, UUID shopUniqueId, UUID playerUniqueId) {
+			this.position = position;
+			this.timestamp = timestamp;
+			this.shopUniqueId = shopUniqueId;
+			this.playerUniqueId = playerUniqueId;
+		}
+	}
+
+	private static final Comparator<@NonNull IndexEntry> SHOP_ORDER = (entry1, entry2) -> {
+		int comparison = compareIds(entry1.shopUniqueId, entry2.shopUniqueId);
+		if (comparison != 0) return comparison;
+		return Long.compare(entry1.position, entry2.position);
+	};
+	private static final Comparator<@NonNull IndexEntry> PLAYER_ORDER = (entry1, entry2) -> {
+		int comparison = compareIds(entry1.playerUniqueId, entry2.playerUniqueId);
+		if (comparison != 0) return comparison;
+		return Long.compare(entry1.position, entry2.position);
+	};
+	private static final Comparator<@NonNull IndexEntry> TIME_ORDER = (entry1, entry2) -> {
+		int comparison = Long.compare(entry1.timestamp, entry2.timestamp);
+		if (comparison != 0) return comparison;
+		return Long.compare(entry1.position, entry2.position);
+	};
+
+	// The order of the ids inside the index files:
+	private static int compareIds(
+			long mostSigBits1,
+			long leastSigBits1,
+			long mostSigBits2,
+			long leastSigBits2
+	) {
+		int comparison = Long.compare(mostSigBits1, mostSigBits2);
+		if (comparison != 0) return comparison;
+		return Long.compare(leastSigBits1, leastSigBits2);
+	}
+
+	private static int compareIds(UUID id1, UUID id2) {
+		return compareIds(
+				id1.getMostSignificantBits(),
+				id1.getLeastSignificantBits(),
+				id2.getMostSignificantBits(),
+				id2.getLeastSignificantBits()
+		);
+	}
+
+	private static final class SealedSegment {
+
+		final int number;
+		final Path logFile;
+		final Path indexFile;
+		final int recordCount;
+		final long minTimestamp;
+		final long maxTimestamp;
+
+		SealedSegment(
+				int number,
+				Path logFile,
+				Path indexFile,
+				int recordCount,
+				long minTimestamp,
+				long maxTimestamp
+		) {
+			this.number = number;
+			this.logFile = logFile;
+			this.indexFile = indexFile;
+			this.recordCount = recordCount;
+			this.minTimestamp = minTimestamp;
+			this.maxTimestamp = maxTimestamp;
+		}
+	}
+
+	private static final class ActiveSegment {
+
+		final int number;
+		final Path logFile;
+		final FileChannel channel;
+		// The size of the successfully written records:
+		long size = 0L;
+		// In the order of the records:
+		final List<@NonNull IndexEntry> entries = new ArrayList<>();
+
+		ActiveSegment(int number, Path logFile, FileChannel channel) {
+			this.number = number;
+			this.logFile = logFile;
+			this.channel = channel;
+		}
+	}
+
+	private final Path folder;
+	private final long maxSegmentSize;
+	// Oldest first:
+	private final List<@NonNull SealedSegment> sealedSegments = new ArrayList<>();
+	// Null if the log is not open:
+	private @Nullable ActiveSegment activeSegment = null;
+
+	/**
+	 * Creates a new {@link BinaryTradeLog}.
+	 * <p>
+	 * The log is lazily opened when it is first accessed.
+	 * 
+	 * @param folder
+	 *            the folder that contains the log files, not <code>null</code>
+	 * @param maxSegmentSize
+	 *            the size in bytes after which a new segment is started, has to be positive
+	 */
+	public BinaryTradeLog(Path folder, long maxSegmentSize) {
+		Validate.notNull(folder, "folder is null");
+		Validate.isTrue(maxSegmentSize > 0L, "maxSegmentSize has to be positive");
+		this.folder = folder;
+		this.maxSegmentSize = maxSegmentSize;
+	}
+
+	// FILES
+
+	private Path getSegmentFile(int segmentNumber, String suffix) {
+		String fileName = SEGMENT_FILE_PREFIX + String.format("%06d", segmentNumber) + suffix;
+		return Unsafe.assertNonNull(folder.resolve(fileName));
+	}
+
+	private Path getLogFile(int segmentNumber) {
+		return this.getSegmentFile(segmentNumber, LOG_FILE_SUFFIX);
+	}
+
+	private Path getIndexFile(int segmentNumber) {
+		return this.getSegmentFile(segmentNumber, INDEX_FILE_SUFFIX);
+	}
+
+	// Sorted in ascending order.
+	private List<@NonNull Integer> findSegmentNumbers() throws IOException {
+		List<@NonNull Integer> segmentNumbers = new ArrayList<>();
+		String glob = SEGMENT_FILE_PREFIX + "*" + LOG_FILE_SUFFIX;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, glob)) {
+			for (Path file : files) {
+				String fileName = String.valueOf(file.getFileName());
+				String number = fileName.substring(
+						SEGMENT_FILE_PREFIX.length(),
+						fileName.length() - LOG_FILE_SUFFIX.length()
+				);
+				try {
+					segmentNumbers.add(Integer.parseInt(number));
+				} catch (NumberFormatException e) {
+					// Not a segment file. Ignored.
+				}
+			}
+		}
+		Collections.sort(segmentNumbers);
+		return segmentNumbers;
+	}
+
+	private static void readFully(
+			FileChannel channel,
+			ByteBuffer buffer,
+			long position,
+			Path file
+	) throws IOException {
+		long currentPosition = position;
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, currentPosition);
+			if (read < 0) {
+				throw new EOFException("Unexpected end of file '" + file + "' at position "
+						+ currentPosition + "!");
+			}
+			currentPosition += read;
+		}
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long position)
+			throws IOException {
+		long currentPosition = position;
+		while (buffer.hasRemaining()) {
+			currentPosition += channel.write(buffer, currentPosition);
+		}
+	}
+
+	private static int checksum(byte[] data) {
+		CRC32 crc = new CRC32();
+		crc.update(data, 0, data.length);
+		return (int) crc.getValue();
+	}
+
+	// OPEN / CLOSE
+
+	/**
+	 * Opens the log, if it is not already open.
+	 * <p>
+	 * This seals any segments whose sealing has been interrupted, rebuilds any index files that are
+	 * incomplete or invalid, and rebuilds the in-memory indexes of the newest segment.
+	 * 
+	 * @throws IOException
+	 *             if the log cannot be opened
+	 */
+	public synchronized void open() throws IOException {
+		if (activeSegment != null) return; // Already open
+
+		FileUtils.createDirectories(folder);
+		sealedSegments.clear();
+		List<@NonNull Integer> segmentNumbers = this.findSegmentNumbers();
+		int lastSegmentNumber = 0;
+		for (int i = 0; i < segmentNumbers.size(); i++) {
+			int segmentNumber = segmentNumbers.get(i);
+			lastSegmentNumber = segmentNumber;
+			boolean isLast = (i == segmentNumbers.size() - 1);
+			if (Files.exists(this.getIndexFile(segmentNumber))) {
+				sealedSegments.add(this.openSealedSegment(segmentNumber));
+			} else if (isLast) {
+				activeSegment = this.openActiveSegment(segmentNumber);
+			} else {
+				// The sealing of this segment has been interrupted:
+				sealedSegments.add(this.seal(this.openActiveSegment(segmentNumber)));
+			}
+		}
+		if (activeSegment == null) {
+			activeSegment = this.openActiveSegment(lastSegmentNumber + 1);
+		}
+	}
+
+	/**
+	 * Closes the log.
+	 * <p>
+	 * The log is reopened when it is accessed again.
+	 */
+	public synchronized void close() {
+		ActiveSegment activeSegment = this.activeSegment;
+		if (activeSegment == null) return; // Not open
+
+		this.activeSegment = null;
+		sealedSegments.clear();
+		try {
+			activeSegment.channel.close();
+		} catch (IOException e) {
+			// The written records have already been forced to disk.
+			Log.severe("Failed to close the trade log file '" + activeSegment.logFile + "'!", e);
+		}
+	}
+
+	// Rebuilds the index file of the segment if it is incomplete or invalid.
+	private SealedSegment openSealedSegment(int segmentNumber) throws IOException {
+		try {
+			return this.readSealedSegment(segmentNumber);
+		} catch (IOException e) {
+			Log.warning("Rebuilding the trade log index file '" + this.getIndexFile(segmentNumber)
+					+ "': " + e.getMessage());
+			return this.rebuildSealedSegment(segmentNumber);
+		}
+	}
+
+	private static long getIndexFileSize(int recordCount) {
+		return INDEX_HEADER_SIZE
+				+ (long) recordCount * (2 * ID_INDEX_ENTRY_SIZE + TIME_INDEX_ENTRY_SIZE);
+	}
+
+	private SealedSegment readSealedSegment(int segmentNumber) throws IOException {
+		Path indexFile = this.getIndexFile(segmentNumber);
+		long indexFileSize = Files.size(indexFile);
+		try (DataInputStream in = new DataInputStream(Files.newInputStream(indexFile))) {
+			if (in.readInt() != INDEX_MAGIC || in.readInt() != FORMAT_VERSION) {
+				throw new IOException("Invalid trade log index file '" + indexFile + "'!");
+			}
+			int recordCount = in.readInt();
+			long minTimestamp = in.readLong();
+			long maxTimestamp = in.readLong();
+			if (recordCount < 0 || indexFileSize != getIndexFileSize(recordCount)) {
+				throw new IOException("Incomplete trade log index file '" + indexFile + "'!");
+			}
+			return new SealedSegment(
+					segmentNumber,
+					this.getLogFile(segmentNumber),
+					indexFile,
+					recordCount,
+					minTimestamp,
+					maxTimestamp
+			);
+		}
+	}
+
+	private ActiveSegment openActiveSegment(int segmentNumber) throws IOException {
+		Path logFile = this.getLogFile(segmentNumber);
+		boolean isNew = !Files.exists(logFile);
+		FileChannel channel = FileChannel.open(
+				logFile,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.READ,
+				StandardOpenOption.WRITE
+		);
+		try {
+			if (isNew) {
+				// Fsync the parent directory to ensure that the newly created segment has been
+				// persisted:
+				FileUtils.fsyncParentDirectory(logFile);
+			}
+
+			ActiveSegment segment = new ActiveSegment(segmentNumber, logFile, channel);
+			if (channel.size() < SEGMENT_HEADER_SIZE) {
+				// The segment is new, or its creation has been interrupted:
+				channel.truncate(0L);
+				ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+				header.putInt(SEGMENT_MAGIC).putInt(FORMAT_VERSION);
+				header.flip();
+				writeFully(channel, header, 0L);
+				channel.force(false);
+				segment.size = SEGMENT_HEADER_SIZE;
+			} else {
+				this.rebuildIndex(segment);
+			}
+			return segment;
+		} catch (IOException e) {
+			try {
+				channel.close();
+			} catch (IOException closeException) {
+				e.addSuppressed(closeException);
+			}
+			throw e;
+		}
+	}
+
+	// Scans the records of the given segment, and discards any incomplete records at its end.
+	private void rebuildIndex(ActiveSegment segment) throws IOException {
+		Path logFile = segment.logFile;
+		long fileSize = segment.channel.size();
+		long position = scanRecords(logFile, fileSize, segment.entries);
+		if (position < fileSize) {
+			long discarded = fileSize - position;
+			Log.warning("Discarding " + discarded + " bytes of incomplete trade records at the end"
+					+ " of the trade log file '" + logFile + "'.");
+			segment.channel.truncate(position);
+			segment.channel.force(false);
+		}
+		segment.size = position;
+	}
+
+	// Rebuilds the index file of the given sealed segment by scanning its records. Unlike for the
+	// newest segment, any invalid records at the end of the segment are skipped but not discarded.
+	private SealedSegment rebuildSealedSegment(int segmentNumber) throws IOException {
+		Path logFile = this.getLogFile(segmentNumber);
+		long fileSize = Files.size(logFile);
+		List<@NonNull IndexEntry> entries = new ArrayList<>();
+		long position = scanRecords(logFile, fileSize, entries);
+		if (position < fileSize) {
+			long skipped = fileSize - position;
+			Log.warning("Skipping " + skipped + " bytes of invalid trade records at the end of the"
+					+ " trade log file '" + logFile + "'.");
+		}
+		return this.writeIndexFile(segmentNumber, logFile, entries);
+	}
+
+	// Adds the index entries of the valid records of the given log file to the given list, and
+	// returns the position after the last valid record.
+	private static long scanRecords(
+			Path logFile,
+			long fileSize,
+			List<@NonNull IndexEntry> entries
+	) throws IOException {
+		long position = SEGMENT_HEADER_SIZE;
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(logFile))
+		)) {
+			if (fileSize < SEGMENT_HEADER_SIZE
+					|| in.readInt() != SEGMENT_MAGIC || in.readInt() != FORMAT_VERSION) {
+				throw new IOException("Invalid trade log file '" + logFile + "'!");
+			}
+			while (fileSize - position >= RECORD_HEADER_SIZE) {
+				int length = in.readInt();
+				int checksum = in.readInt();
+				if (length <= 0 || length > MAX_RECORD_SIZE
+						|| fileSize - position - RECORD_HEADER_SIZE < length) {
+					break;
+				}
+				byte[] data = new byte[length];
+				in.readFully(data);
+				if (checksum(data) != checksum) break;
+
+				entries.add(readIndexEntry(position, data));
+				position += RECORD_HEADER_SIZE + length;
+			}
+		}
+		return position;
+	}
+
+	// SEALING
+
+	private ActiveSegment roll(ActiveSegment segment) throws IOException {
+		assert segment == activeSegment;
+		sealedSegments.add(this.seal(segment));
+		activeSegment = null;
+		ActiveSegment newSegment = this.openActiveSegment(segment.number + 1);
+		activeSegment = newSegment;
+		return newSegment;
+	}
+
+	// Writes the index file of the given segment, and then closes the segment.
+	private SealedSegment seal(ActiveSegment segment) throws IOException {
+		SealedSegment sealedSegment = this.writeIndexFile(
+				segment.number,
+				segment.logFile,
+				segment.entries
+		);
+
+		try {
+			segment.channel.close();
+		} catch (IOException e) {
+			// The written records have already been forced to disk.
+			Log.severe("Failed to close the trade log file '" + segment.logFile + "'!", e);
+		}
+		return sealedSegment;
+	}
+
+	private SealedSegment writeIndexFile(
+			int segmentNumber,
+			Path logFile,
+			List<? extends @NonNull IndexEntry> segmentEntries
+	) throws IOException {
+		List<@NonNull IndexEntry> entries = new ArrayList<>(segmentEntries);
+		long minTimestamp = Long.MAX_VALUE;
+		long maxTimestamp = Long.MIN_VALUE;
+		for (IndexEntry entry : entries) {
+			minTimestamp = Math.min(minTimestamp, entry.timestamp);
+			maxTimestamp = Math.max(maxTimestamp, entry.timestamp);
+		}
+
+		// We write the index to a temporary file first, so that the index file only exists once it
+		// is complete:
+		Path indexFile = this.getIndexFile(segmentNumber);
+		Path tempIndexFile = Unsafe.assertNonNull(indexFile.resolveSibling(
+				indexFile.getFileName() + TEMP_FILE_SUFFIX
+		));
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(tempIndexFile))
+		)) {
+			out.writeInt(INDEX_MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(entries.size());
+			out.writeLong(minTimestamp);
+			out.writeLong(maxTimestamp);
+
+			entries.sort(SHOP_ORDER);
+			for (IndexEntry entry : entries) {
+				out.writeLong(entry.shopUniqueId.getMostSignificantBits());
+				out.writeLong(entry.shopUniqueId.getLeastSignificantBits());
+				out.writeLong(entry.position);
+			}
+
+			entries.sort(PLAYER_ORDER);
+			for (IndexEntry entry : entries) {
+				out.writeLong(entry.playerUniqueId.getMostSignificantBits());
+				out.writeLong(entry.playerUniqueId.getLeastSignificantBits());
+				out.writeLong(entry.position);
+			}
+
+			entries.sort(TIME_ORDER);
+			for (IndexEntry entry : entries) {
+				out.writeLong(entry.timestamp);
+				out.writeLong(entry.position);
+			}
+		}
+		FileUtils.fsync(tempIndexFile);
+		FileUtils.moveFile(tempIndexFile, indexFile, Log.getLogger());
+		FileUtils.fsyncParentDirectory(indexFile);
+
+		return new SealedSegment(
+				segmentNumber,
+				logFile,
+				indexFile,
+				entries.size(),
+				minTimestamp,
+				maxTimestamp
+		);
+	}
+
+	// APPEND
+
+	/**
+	 * Appends the given trades to the log, and forces them to disk.
+	 * <p>
+	 * The trades are written with a single write. If writing fails, any partially written data is
+	 * discarded again, so that the trades can be appended again without being logged twice.
+	 * 
+	 * @param trades
+	 *            the trades, not <code>null</code>
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public synchronized void append(List<? extends @NonNull LoggedTrade> trades)
+			throws IOException {
+		Validate.notNull(trades, "trades is null");
+		if (trades.isEmpty()) return;
+
+		this.open();
+		ActiveSegment segment = Unsafe.assertNonNull(activeSegment);
+		if (segment.size >= maxSegmentSize) {
+			segment = this.roll(segment);
+		}
+
+		long previousSize = segment.size;
+		ByteArrayOutputStream batch = new ByteArrayOutputStream();
+		DataOutputStream batchOut = new DataOutputStream(batch);
+		ByteArrayOutputStream record = new ByteArrayOutputStream();
+		DataOutputStream recordOut = new DataOutputStream(record);
+		List<@NonNull IndexEntry> newEntries = new ArrayList<>(trades.size());
+		for (LoggedTrade trade : trades) {
+			record.reset();
+			writeTrade(recordOut, trade);
+			byte[] data = record.toByteArray();
+			if (data.length > MAX_RECORD_SIZE) {
+				throw new IOException("Trade record is too large: " + data.length + " bytes");
+			}
+
+			long position = previousSize + batch.size();
+			batchOut.writeInt(data.length);
+			batchOut.writeInt(checksum(data));
+			batchOut.write(data);
+			newEntries.add(new IndexEntry(
+					position,
+					trade.getTimestamp().toEpochMilli(),
+					trade.getShop().getUniqueId(),
+					trade.getPlayer().getUniqueId()
+			));
+		}
+
+		ByteBuffer data = ByteBuffer.wrap(batch.toByteArray());
+		try {
+			writeFully(segment.channel, data, previousSize);
+			segment.channel.force(false);
+		} catch (IOException e) {
+			this.discardPartialWrite(segment, previousSize);
+			throw e;
+		}
+		segment.size = previousSize + data.capacity();
+		segment.entries.addAll(newEntries);
+	}
+
+	private void discardPartialWrite(ActiveSegment segment, long previousSize) {
+		try {
+			if (segment.channel.size() > previousSize) {
+				segment.channel.truncate(previousSize);
+				segment.channel.force(false);
+			}
+		} catch (IOException e) {
+			// Any incomplete records are discarded when the log is opened again. However, if the
+			// records were written completely, they might get logged twice.
+			Log.severe("Failed to discard partially written trade records from the trade log file '"
+					+ segment.logFile + "'!", e);
+		}
+	}
+
+	// QUERY
+
+	/**
+	 * Queries the trades that match the given {@link TradeLogQuery}.
+	 * <p>
+	 * The matching trades are read one after the other and passed to the given consumer, starting
+	 * with the most recently logged trades. The query stops once the consumer returns
+	 * <code>false</code>. Only the parts of the log files that are required to find and read the
+	 * matching trades are read.
+	 * <p>
+	 * If the index file of a segment turns out to be corrupt during the query, the query fails, but
+	 * the index file is rebuilt so that subsequent queries can succeed.
+	 * 
+	 * @param query
+	 *            the query, not <code>null</code>
+	 * @param consumer
+	 *            the consumer of the matching trades, not <code>null</code>
+	 * @throws IOException
+	 *             if reading the log fails
+	 */
+	public void query(TradeLogQuery query, ResultConsumer consumer) throws IOException {
+		Validate.notNull(query, "query is null");
+		Validate.notNull(consumer, "consumer is null");
+
+		// Take a snapshot of the current segments. The sealed segments are immutable, and the
+		// records of the active segment up to its current size are no longer modified.
+		List<@NonNull SealedSegment> sealedSegments;
+		Path activeLogFile;
+		List<@NonNull Long> activePositions = new ArrayList<>();
+		synchronized (this) {
+			this.open();
+			ActiveSegment activeSegment = Unsafe.assertNonNull(this.activeSegment);
+			sealedSegments = new ArrayList<>(this.sealedSegments);
+			activeLogFile = activeSegment.logFile;
+			for (IndexEntry entry : activeSegment.entries) {
+				if (query.matches(entry.timestamp, entry.shopUniqueId, entry.playerUniqueId)) {
+					activePositions.add(entry.position);
+				}
+			}
+		}
+
+		if (!activePositions.isEmpty()) {
+			try (FileChannel channel = FileChannel.open(activeLogFile, StandardOpenOption.READ)) {
+				for (int i = activePositions.size() - 1; i >= 0; i--) {
+					LoggedTrade trade = readTrade(channel, activePositions.get(i), activeLogFile);
+					if (!consumer.accept(trade)) return;
+				}
+			}
+		}
+
+		for (int i = sealedSegments.size() - 1; i >= 0; i--) {
+			SealedSegment segment = sealedSegments.get(i);
+			if (segment.recordCount == 0) continue;
+			if (!query.overlaps(segment.minTimestamp, segment.maxTimestamp)) continue;
+
+			boolean continueQuery;
+			try {
+				continueQuery = this.querySealedSegment(segment, query, consumer);
+			} catch (IOException e) {
+				this.rebuildCorruptIndex(segment, e);
+				throw e;
+			}
+			if (!continueQuery) return;
+		}
+	}
+
+	private synchronized void rebuildCorruptIndex(SealedSegment segment, IOException cause) {
+		// Check if the index has already been rebuilt by a concurrent query:
+		if (activeSegment != null && !sealedSegments.contains(segment)) return;
+
+		Log.warning("Failed to query the trade log file '" + segment.logFile
+				+ "'. Rebuilding its index file.", cause);
+		SealedSegment rebuiltSegment;
+		try {
+			rebuiltSegment = this.rebuildSealedSegment(segment.number);
+		} catch (IOException e) {
+			Log.severe("Failed to rebuild the trade log index file '" + segment.indexFile
+					+ "'!", e);
+			return;
+		}
+
+		int index = sealedSegments.indexOf(segment);
+		if (index != -1) {
+			sealedSegments.set(index, rebuiltSegment);
+		}
+	}
+
+	// Returns false if the query has been stopped by the consumer.
+	private boolean querySealedSegment(
+			SealedSegment segment,
+			TradeLogQuery query,
+			ResultConsumer consumer
+	) throws IOException {
+		Path indexFile = segment.indexFile;
+		Path logFile = segment.logFile;
+		int recordCount = segment.recordCount;
+		try (FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ);
+				FileChannel logChannel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+			// Determine the range [start, end) of matching entries inside the most selective index:
+			long sectionStart;
+			int entrySize;
+			int start;
+			int end;
+			UUID shopUniqueId = query.getShopUniqueId();
+			UUID playerUniqueId = query.getPlayerUniqueId();
+			if (shopUniqueId != null || playerUniqueId != null) {
+				UUID id;
+				if (shopUniqueId != null) {
+					id = shopUniqueId;
+					sectionStart = INDEX_HEADER_SIZE;
+				} else {
+					id = Unsafe.assertNonNull(playerUniqueId);
+					sectionStart = INDEX_HEADER_SIZE + (long) recordCount * ID_INDEX_ENTRY_SIZE;
+				}
+				entrySize = ID_INDEX_ENTRY_SIZE;
+				start = findIdEntry(indexChannel, indexFile, sectionStart, recordCount, id, false);
+				end = findIdEntry(indexChannel, indexFile, sectionStart, recordCount, id, true);
+			} else {
+				sectionStart = INDEX_HEADER_SIZE + 2L * recordCount * ID_INDEX_ENTRY_SIZE;
+				entrySize = TIME_INDEX_ENTRY_SIZE;
+				long sinceMillis = query.getSinceMillis();
+				long untilMillis = query.getUntilMillis();
+				start = findTimeEntry(
+						indexChannel,
+						indexFile,
+						sectionStart,
+						recordCount,
+						sinceMillis
+				);
+				if (untilMillis == Long.MAX_VALUE) {
+					end = recordCount;
+				} else {
+					end = findTimeEntry(
+							indexChannel,
+							indexFile,
+							sectionStart,
+							recordCount,
+							untilMillis + 1
+					);
+				}
+			}
+
+			// Iterate the matching entries in reverse order (most recent first), in batches:
+			ByteBuffer buffer = ByteBuffer.allocate(INDEX_READ_BATCH_SIZE * entrySize);
+			while (end > start) {
+				int batchStart = Math.max(start, end - INDEX_READ_BATCH_SIZE);
+				buffer.clear();
+				buffer.limit((end - batchStart) * entrySize);
+				long batchPosition = sectionStart + (long) batchStart * entrySize;
+				readFully(indexChannel, buffer, batchPosition, indexFile);
+				for (int index = end - 1; index >= batchStart; index--) {
+					// The record position is stored at the end of each entry:
+					long position = buffer.getLong((index - batchStart + 1) * entrySize - 8);
+					LoggedTrade trade = readTrade(logChannel, position, logFile);
+					// Check the remaining criteria:
+					if (!query.matches(trade)) continue;
+					if (!consumer.accept(trade)) return false;
+				}
+				end = batchStart;
+			}
+		}
+		return true;
+	}
+
+	// Returns the index of the first entry whose id is greater than or equal to (or greater than,
+	// if exclusive) the given id.
+	private static int findIdEntry(
+			FileChannel channel,
+			Path file,
+			long sectionStart,
+			int entryCount,
+			UUID id,
+			boolean exclusive
+	) throws IOException {
+		long mostSigBits = id.getMostSignificantBits();
+		long leastSigBits = id.getLeastSignificantBits();
+		ByteBuffer buffer = ByteBuffer.allocate(16);
+		int low = 0;
+		int high = entryCount;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			buffer.clear();
+			readFully(channel, buffer, sectionStart + (long) mid * ID_INDEX_ENTRY_SIZE, file);
+			int comparison = compareIds(
+					buffer.getLong(0),
+					buffer.getLong(8),
+					mostSigBits,
+					leastSigBits
+			);
+			if (comparison < 0 || (exclusive && comparison == 0)) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	// Returns the index of the first entry whose timestamp is greater than or equal to the given
+	// timestamp.
+	private static int findTimeEntry(
+			FileChannel channel,
+			Path file,
+			long sectionStart,
+			int entryCount,
+			long timestamp
+	) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(8);
+		int low = 0;
+		int high = entryCount;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			buffer.clear();
+			readFully(channel, buffer, sectionStart + (long) mid * TIME_INDEX_ENTRY_SIZE, file);
+			if (buffer.getLong(0) < timestamp) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	// SERIALIZATION
+
+	private static void writeTrade(DataOutputStream out, LoggedTrade trade) throws IOException {
+		PlayerRecord player = trade.getPlayer();
+		ShopRecord shop = trade.getShop();
+		// The data that is required to build the indexes comes first:
+		out.writeLong(trade.getTimestamp().toEpochMilli());
+		writeUUID(out, shop.getUniqueId());
+		writeUUID(out, player.getUniqueId());
+
+		writeString(out, player.getName());
+
+		writeString(out, shop.getTypeId());
+		PlayerRecord owner = shop.getOwner();
+		out.writeBoolean(owner != null);
+		if (owner != null) {
+			writeUUID(out, owner.getUniqueId());
+			writeString(out, owner.getName());
+		}
+		writeString(out, shop.getName());
+		String worldName = shop.getWorldName();
+		out.writeBoolean(worldName != null);
+		if (worldName != null) {
+			writeString(out, worldName);
+		}
+		out.writeInt(shop.getX());
+		out.writeInt(shop.getY());
+		out.writeInt(shop.getZ());
+
+		writeItem(out, trade.getResultItem());
+		writeItem(out, trade.getItem1());
+		LoggedItem item2 = trade.getItem2();
+		out.writeBoolean(item2 != null);
+		if (item2 != null) {
+			writeItem(out, item2);
+		}
+		out.writeInt(trade.getTradeCount());
+		out.flush();
+	}
+
+	private static IndexEntry readIndexEntry(long position, byte[] data) {
+		ByteBuffer buffer = ByteBuffer.wrap(data);
+		long timestamp = buffer.getLong();
+		UUID shopUniqueId = new UUID(buffer.getLong(), buffer.getLong());
+		UUID playerUniqueId = new UUID(buffer.getLong(), buffer.getLong());
+		return new IndexEntry(position, timestamp, shopUniqueId, playerUniqueId);
+	}
+
+	private static LoggedTrade readTrade(FileChannel channel, long position, Path file)
+			throws IOException {
+		if (position < SEGMENT_HEADER_SIZE) {
+			throw new IOException("Invalid trade record position " + position + " in file '"
+					+ file + "'!");
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+		readFully(channel, header, position, file);
+		int length = header.getInt(0);
+		int checksum = header.getInt(4);
+		if (length <= 0 || length > MAX_RECORD_SIZE) {
+			throw new IOException("Invalid trade record at position " + position + " of file '"
+					+ file + "'!");
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		readFully(channel, buffer, position + RECORD_HEADER_SIZE, file);
+		byte[] data = buffer.array();
+		if (checksum(data) != checksum) {
+			throw new IOException("Corrupted trade record at position " + position + " of file '"
+					+ file + "'!");
+		}
+
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			return readTrade(in);
+		} catch (IOException | RuntimeException e) {
+			throw new IOException("Invalid trade record at position " + position + " of file '"
+					+ file + "'!", e);
+		}
+	}
+
+	private static LoggedTrade readTrade(DataInputStream in) throws IOException {
+		Instant timestamp = Instant.ofEpochMilli(in.readLong());
+		UUID shopUniqueId = readUUID(in);
+		UUID playerUniqueId = readUUID(in);
+
+		String playerName = readString(in);
+
+		String shopTypeId = readString(in);
+		PlayerRecord owner = null;
+		if (in.readBoolean()) {
+			UUID ownerUniqueId = readUUID(in);
+			owner = PlayerRecord.of(ownerUniqueId, readString(in));
+		}
+		String shopName = readString(in);
+		String worldName = in.readBoolean() ? readString(in) : null;
+		int x = in.readInt();
+		int y = in.readInt();
+		int z = in.readInt();
+
+		LoggedItem resultItem = readItem(in);
+		LoggedItem item1 = readItem(in);
+		LoggedItem item2 = in.readBoolean() ? readItem(in) : null;
+		int tradeCount = in.readInt();
+
+		return new LoggedTrade(
+				timestamp,
+				PlayerRecord.of(playerUniqueId, playerName),
+				new ShopRecord(shopUniqueId, shopTypeId, owner, shopName, worldName, x, y, z),
+				resultItem,
+				item1,
+				item2,
+				tradeCount
+		);
+	}
+
+	private static void writeItem(DataOutputStream out, LoggedItem item) throws IOException {
+		writeString(out, item.getType());
+		out.writeInt(item.getAmount());
+		writeString(out, item.getMetadata());
+	}
+
+	private static LoggedItem readItem(DataInputStream in) throws IOException {
+		String type = readString(in);
+		int amount = in.readInt();
+		String metadata = readString(in);
+		return new LoggedItem(type, amount, metadata);
+	}
+
+	private static void writeUUID(DataOutputStream out, UUID uuid) throws IOException {
+		out.writeLong(uuid.getMostSignificantBits());
+		out.writeLong(uuid.getLeastSignificantBits());
+	}
+
+	private static UUID readUUID(DataInputStream in) throws IOException {
+		long mostSigBits = in.readLong();
+		long leastSigBits = in.readLong();
+		return new UUID(mostSigBits, leastSigBits);
+	}
+
+	// Unlike DataOutputStream#writeUTF, this supports Strings of any length (e.g. large item
+	// metadata).
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0 || length > in.available()) {
+			throw new IOException("Invalid String length: " + length);
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
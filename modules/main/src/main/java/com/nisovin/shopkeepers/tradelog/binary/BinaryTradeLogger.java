@@ -0,0 +1,218 @@
+package com.nisovin.shopkeepers.tradelog.binary;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.tradelog.TradeLogger;
+import com.nisovin.shopkeepers.tradelog.data.TradeRecord;
+import com.nisovin.shopkeepers.util.bukkit.SchedulerUtils;
+import com.nisovin.shopkeepers.util.bukkit.SingletonTask;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * Logs trades to a {@link BinaryTradeLog}, which can then be queried via
+ * {@link #query(TradeLogQuery, BinaryTradeLog.ResultConsumer)}.
+ * <p>
+ * Similar to the {@link com.nisovin.shopkeepers.tradelog.csv.CsvTradeLogger}, the trades are
+ * buffered and then written asynchronously in batches.
+ */
+public class BinaryTradeLogger implements TradeLogger {
+
+	private static final String BINARY_TRADE_LOGS_FOLDER = "trade-logs/binary";
+	private static final int DELAYED_SAVE_TICKS = 100; // 5 seconds
+	private static final long SAVE_ERROR_MSG_THROTTLE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	private final Plugin plugin;
+	private final BinaryTradeLog log;
+	private List<@NonNull TradeRecord> pending = new ArrayList<>();
+	private final SaveTask saveTask;
+	private @Nullable BukkitTask delayedSaveTask = null;
+
+	public BinaryTradeLogger(Plugin plugin) {
+		Validate.notNull(plugin, "plugin is null");
+		this.plugin = plugin;
+		Path folder = Unsafe.assertNonNull(
+				plugin.getDataFolder().toPath().resolve(BINARY_TRADE_LOGS_FOLDER)
+		);
+		this.log = new BinaryTradeLog(folder, BinaryTradeLog.DEFAULT_MAX_SEGMENT_SIZE);
+		this.saveTask = new SaveTask(plugin);
+	}
+
+	@Override
+	public void logTrade(TradeRecord trade) {
+		pending.add(trade);
+
+		// We do not trigger a save right away, because it is likely for there to be more trades to
+		// log in the immediate future:
+		this.savePendingDelayed();
+	}
+
+	@Override
+	public void flush() {
+		this.savePending();
+		saveTask.awaitExecutions();
+		// All trades have been written and forced to disk by now:
+		log.close();
+	}
+
+	/**
+	 * Queries the logged trades.
+	 * <p>
+	 * This performs blocking IO and is therefore meant to be invoked asynchronously. Trades that
+	 * have not yet been written are not included.
+	 * 
+	 * @param query
+	 *            the query, not <code>null</code>
+	 * @param consumer
+	 *            the consumer of the matching trades, not <code>null</code>
+	 * @throws IOException
+	 *             if reading the trade log fails
+	 * @see BinaryTradeLog#query(TradeLogQuery, BinaryTradeLog.ResultConsumer)
+	 */
+	public void query(TradeLogQuery query, BinaryTradeLog.ResultConsumer consumer)
+			throws IOException {
+		log.query(query, consumer);
+	}
+
+	private boolean isDirty() {
+		return !pending.isEmpty();
+	}
+
+	private void savePendingDelayed() {
+		if (!this.isDirty()) {
+			// There are no pending trades to save:
+			return;
+		}
+		if (delayedSaveTask != null) {
+			// There is already a delayed save in progress:
+			return;
+		}
+
+		delayedSaveTask = SchedulerUtils.runTaskLaterOrOmit(
+				plugin,
+				new DelayedSaveTask(),
+				DELAYED_SAVE_TICKS
+		);
+	}
+
+	private class DelayedSaveTask implements Runnable {
+		@Override
+		public void run() {
+			delayedSaveTask = null;
+			savePending();
+		}
+	}
+
+	private void cancelDelayedSave() {
+		if (delayedSaveTask != null) {
+			delayedSaveTask.cancel();
+			delayedSaveTask = null;
+		}
+	}
+
+	private void savePending() {
+		if (!this.isDirty()) {
+			// There are no pending trades to save:
+			return;
+		}
+		saveTask.run(); // Usually async, but may be sync during plugin disable
+	}
+
+	private class SaveTask extends SingletonTask {
+
+		private List<@NonNull TradeRecord> saving = new ArrayList<>();
+		// Captured prior to every save, so that the setting remains constant during the save:
+		private boolean logItemMetadata;
+		private boolean saveSucceeded = false;
+		private long lastSaveErrorMsgMillis = 0L;
+
+		SaveTask(Plugin plugin) {
+			super(plugin);
+		}
+
+		private class InternalAsyncTask extends SingletonTask.InternalAsyncTask {
+		}
+
+		private class InternalSyncCallbackTask extends SingletonTask.InternalSyncCallbackTask {
+		}
+
+		@Override
+		protected InternalAsyncTask createInternalAsyncTask() {
+			return new InternalAsyncTask();
+		}
+
+		@Override
+		protected InternalSyncCallbackTask createInternalSyncCallbackTask() {
+			return new InternalSyncCallbackTask();
+		}
+
+		@Override
+		protected void prepare() {
+			// Stop any active delayed save task:
+			cancelDelayedSave();
+
+			logItemMetadata = Settings.logItemMetadata;
+
+			// Swap the pending and saving lists of trades:
+			assert saving.isEmpty();
+			List<@NonNull TradeRecord> temp = saving;
+			saving = pending;
+			pending = temp;
+		}
+
+		@Override
+		protected void execute() {
+			List<@NonNull LoggedTrade> trades = new ArrayList<>(saving.size());
+			for (TradeRecord trade : saving) {
+				trades.add(LoggedTrade.of(trade, logItemMetadata));
+			}
+
+			try {
+				// Either all or none of the trades are logged:
+				log.append(trades);
+				saveSucceeded = true;
+			} catch (IOException e) {
+				saveSucceeded = false;
+				// Don't spam with stacktraces while the issue persists:
+				long nowMillis = System.currentTimeMillis();
+				if (Math.abs(nowMillis - lastSaveErrorMsgMillis) > SAVE_ERROR_MSG_THROTTLE_MILLIS) {
+					lastSaveErrorMsgMillis = nowMillis;
+					Log.severe("Failed to log trades to the binary trade log!", e);
+				} else {
+					Log.severe("Failed to log trades to the binary trade log: " + e.getMessage());
+				}
+			}
+		}
+
+		@Override
+		protected void syncCallback() {
+			Log.debug(() -> "Logged trades to the binary trade log (" + saving.size()
+					+ " records): " + this.getExecutionTimingString()
+					+ (saveSucceeded ? "" : " -- Logging failed!"));
+
+			if (!saveSucceeded) {
+				// Add the unsaved trades to the front of the pending trades:
+				pending.addAll(0, saving);
+
+				// Attempt the save again after a short delay:
+				// However, during the final save attempt during plugin disable, this is skipped and
+				// data might be lost.
+				savePendingDelayed();
+			}
+
+			// Reset:
+			saving.clear();
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.nisovin.shopkeepers.tradelog.binary;
+
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.yaml.YamlUtils;
+
+/**
+ * An immutable snapshot of an item involved in a trade, as it is stored inside the
+ * {@link BinaryTradeLog}.
+ * <p>
+ * Unlike an item stack, this can be created and read without any server access, which allows the
+ * trade log to be written and queried asynchronously.
+ */
+public class LoggedItem {
+
+	/**
+	 * Creates a {@link LoggedItem} for the given item stack.
+	 * 
+	 * @param itemStack
+	 *            the item stack, not <code>null</code>
+	 * @param includeMetadata
+	 *            <code>true</code> to also store the item's metadata
+	 * @return the logged item
+	 */
+	public static LoggedItem of(UnmodifiableItemStack itemStack, boolean includeMetadata) {
+		Validate.notNull(itemStack, "itemStack is null");
+		String metadata = "";
+		if (includeMetadata) {
+			// Same as for the CSV trade log: We store the item's complete serialized data, but
+			// without its type and amount, since these are stored separately.
+			Map<String, Object> itemData = itemStack.serialize(); // Assert: Modifiable map.
+			itemData.remove("type");
+			itemData.remove("amount");
+			metadata = YamlUtils.toCompactYaml(itemData);
+		}
+		return new LoggedItem(itemStack.getType().name(), itemStack.getAmount(), metadata);
+	}
+
+	private final String type; // Not null or empty
+	private final int amount;
+	private final String metadata; // Not null, can be empty
+
+	/**
+	 * Creates a new {@link LoggedItem}.
+	 * 
+	 * @param type
+	 *            the name of the item type, not <code>null</code> or empty
+	 * @param amount
+	 *            the item amount
+	 * @param metadata
+	 *            the item metadata in compact Yaml format, or an empty String if the item metadata
+	 *            was not logged, not <code>null</code>
+	 */
+	public LoggedItem(String type, int amount, String metadata) {
+		Validate.notEmpty(type, "type is null or empty");
+		Validate.notNull(metadata, "metadata is null");
+		this.type = type;
+		this.amount = amount;
+		this.metadata = metadata;
+	}
+
+	/**
+	 * Gets the name of the item type.
+	 * 
+	 * @return the item type name
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the item amount.
+	 * 
+	 * @return the item amount
+	 */
+	public int getAmount() {
+		return amount;
+	}
+
+	/**
+	 * Gets the item metadata in compact Yaml format.
+	 * 
+	 * @return the item metadata, or an empty String if the item metadata was not logged
+	 */
+	public String getMetadata() {
+		return metadata;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("LoggedItem [type=");
+		builder.append(type);
+		builder.append(", amount=");
+		builder.append(amount);
+		builder.append(", metadata=");
+		builder.append(metadata);
+		builder.append("]");
+		return builder.toString();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + type.hashCode();
+		result = prime * result + amount;
+		result = prime * result + metadata.hashCode();
+		return result;
+	}
+
+	@Override
+	public boolean equals(@Nullable Object obj) {
+		if (this == obj) return true;
+		if (!(obj instanceof LoggedItem)) return false;
+		LoggedItem other = (LoggedItem) obj;
+		if (amount != other.amount) return false;
+		if (!type.equals(other.type)) return false;
+		if (!metadata.equals(other.metadata)) return false;
+		return true;
+	}
+}
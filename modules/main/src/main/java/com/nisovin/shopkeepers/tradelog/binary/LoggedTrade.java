@@ -0,0 +1,208 @@
+package com.nisovin.shopkeepers.tradelog.binary;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.tradelog.data.PlayerRecord;
+import com.nisovin.shopkeepers.tradelog.data.ShopRecord;
+import com.nisovin.shopkeepers.tradelog.data.TradeRecord;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * An immutable snapshot of a {@link TradeRecord}, as it is stored inside the
+ * {@link BinaryTradeLog}.
+ * <p>
+ * The timestamp is stored with millisecond precision, and the items are stored as
+ * {@link LoggedItem}s.
+ */
+public class LoggedTrade {
+
+	/**
+	 * Creates a {@link LoggedTrade} for the given {@link TradeRecord}.
+	 * 
+	 * @param trade
+	 *            the trade record, not <code>null</code>
+	 * @param includeItemMetadata
+	 *            <code>true</code> to also store the metadata of the items
+	 * @return the logged trade
+	 */
+	public static LoggedTrade of(TradeRecord trade, boolean includeItemMetadata) {
+		Validate.notNull(trade, "trade is null");
+		UnmodifiableItemStack item2 = trade.getItem2();
+		return new LoggedTrade(
+				Instant.ofEpochMilli(trade.getTimestamp().toEpochMilli()),
+				trade.getPlayer(),
+				trade.getShop(),
+				LoggedItem.of(trade.getResultItem(), includeItemMetadata),
+				LoggedItem.of(trade.getItem1(), includeItemMetadata),
+				(item2 != null) ? LoggedItem.of(item2, includeItemMetadata) : null,
+				trade.getTradeCount()
+		);
+	}
+
+	private final Instant timestamp; // Not null
+	private final PlayerRecord player; // Not null
+	private final ShopRecord shop; // Not null
+	private final LoggedItem resultItem; // Not null
+	private final LoggedItem item1; // Not null
+	private final @Nullable LoggedItem item2; // Can be null
+	private final int tradeCount; // > 0
+
+	/**
+	 * Creates a new {@link LoggedTrade}.
+	 * 
+	 * @param timestamp
+	 *            the timestamp, not <code>null</code>
+	 * @param player
+	 *            the trading player, not <code>null</code>
+	 * @param shop
+	 *            the involved shop, not <code>null</code>
+	 * @param resultItem
+	 *            the result item, not <code>null</code>
+	 * @param item1
+	 *            the first item provided by the player, not <code>null</code>
+	 * @param item2
+	 *            the second item provided by the player, can be <code>null</code>
+	 * @param tradeCount
+	 *            the number of trades, has to be positive
+	 */
+	public LoggedTrade(
+			Instant timestamp,
+			PlayerRecord player,
+			ShopRecord shop,
+			LoggedItem resultItem,
+			LoggedItem item1,
+			@Nullable LoggedItem item2,
+			int tradeCount
+	) {
+		Validate.notNull(timestamp, "timestamp is null");
+		Validate.notNull(player, "player is null");
+		Validate.notNull(shop, "shop is null");
+		Validate.notNull(resultItem, "resultItem is null");
+		Validate.notNull(item1, "item1 is null");
+		Validate.isTrue(tradeCount > 0, "tradeCount has to be positive");
+		this.timestamp = timestamp;
+		this.player = player;
+		this.shop = shop;
+		this.resultItem = resultItem;
+		this.item1 = item1;
+		this.item2 = item2;
+		this.tradeCount = tradeCount;
+	}
+
+	/**
+	 * Gets the timestamp of the trade.
+	 * 
+	 * @return the timestamp
+	 */
+	public Instant getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Gets the trading player.
+	 * 
+	 * @return the trading player
+	 */
+	public PlayerRecord getPlayer() {
+		return player;
+	}
+
+	/**
+	 * Gets the involved shop.
+	 * 
+	 * @return the shop
+	 */
+	public ShopRecord getShop() {
+		return shop;
+	}
+
+	/**
+	 * Gets the result item.
+	 * 
+	 * @return the result item
+	 */
+	public LoggedItem getResultItem() {
+		return resultItem;
+	}
+
+	/**
+	 * Gets the first item provided by the player.
+	 * 
+	 * @return the first item
+	 */
+	public LoggedItem getItem1() {
+		return item1;
+	}
+
+	/**
+	 * Gets the second item provided by the player.
+	 * 
+	 * @return the second item, can be <code>null</code>
+	 */
+	public @Nullable LoggedItem getItem2() {
+		return item2;
+	}
+
+	/**
+	 * Gets the number of equivalent trades that are represented by this {@link LoggedTrade}.
+	 * 
+	 * @return the number of trades
+	 */
+	public int getTradeCount() {
+		return tradeCount;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("LoggedTrade [timestamp=");
+		builder.append(timestamp);
+		builder.append(", player=");
+		builder.append(player);
+		builder.append(", shop=");
+		builder.append(shop);
+		builder.append(", resultItem=");
+		builder.append(resultItem);
+		builder.append(", item1=");
+		builder.append(item1);
+		builder.append(", item2=");
+		builder.append(item2);
+		builder.append(", tradeCount=");
+		builder.append(tradeCount);
+		builder.append("]");
+		return builder.toString();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + timestamp.hashCode();
+		result = prime * result + player.hashCode();
+		result = prime * result + shop.hashCode();
+		result = prime * result + resultItem.hashCode();
+		result = prime * result + item1.hashCode();
+		result = prime * result + Objects.hashCode(item2);
+		result = prime * result + tradeCount;
+		return result;
+	}
+
+	@Override
+	public boolean equals(@Nullable Object obj) {
+		if (this == obj) return true;
+		if (!(obj instanceof LoggedTrade)) return false;
+		LoggedTrade other = (LoggedTrade) obj;
+		if (!timestamp.equals(other.timestamp)) return false;
+		if (tradeCount != other.tradeCount) return false;
+		if (!player.equals(other.player)) return false;
+		if (!shop.equals(other.shop)) return false;
+		if (!resultItem.equals(other.resultItem)) return false;
+		if (!item1.equals(other.item1)) return false;
+		if (!Objects.equals(item2, other.item2)) return false;
+		return true;
+	}
+}
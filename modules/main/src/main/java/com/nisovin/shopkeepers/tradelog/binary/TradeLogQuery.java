@@ -0,0 +1,184 @@
+package com.nisovin.shopkeepers.tradelog.binary;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * The criteria of a {@link BinaryTradeLog#query(TradeLogQuery, BinaryTradeLog.ResultConsumer)
+ * trade log query}.
+ * <p>
+ * A trade matches the query if it matches all of the specified criteria.
+ */
+public final class TradeLogQuery {
+
+	private static final TradeLogQuery ALL = new TradeLogQuery(null, null, null, null);
+
+	/**
+	 * Gets a {@link TradeLogQuery} that matches all trades.
+	 * 
+	 * @return the query
+	 */
+	public static TradeLogQuery all() {
+		return ALL;
+	}
+
+	/**
+	 * Creates a {@link TradeLogQuery} that matches the trades of the specified shop.
+	 * 
+	 * @param shopUniqueId
+	 *            the shop's unique id, not <code>null</code>
+	 * @return the query
+	 */
+	public static TradeLogQuery shop(UUID shopUniqueId) {
+		Validate.notNull(shopUniqueId, "shopUniqueId is null");
+		return new TradeLogQuery(shopUniqueId, null, null, null);
+	}
+
+	/**
+	 * Creates a {@link TradeLogQuery} that matches the trades of the specified player.
+	 * 
+	 * @param playerUniqueId
+	 *            the player's unique id, not <code>null</code>
+	 * @return the query
+	 */
+	public static TradeLogQuery player(UUID playerUniqueId) {
+		Validate.notNull(playerUniqueId, "playerUniqueId is null");
+		return new TradeLogQuery(null, playerUniqueId, null, null);
+	}
+
+	private final @Nullable UUID shopUniqueId;
+	private final @Nullable UUID playerUniqueId;
+	// In epoch milliseconds, both inclusive:
+	private final long sinceMillis;
+	private final long untilMillis;
+
+	private TradeLogQuery(
+			@Nullable UUID shopUniqueId,
+			@Nullable UUID playerUniqueId,
+			@Nullable Instant since,
+			@Nullable Instant until
+	) {
+		this.shopUniqueId = shopUniqueId;
+		this.playerUniqueId = playerUniqueId;
+		this.sinceMillis = (since != null) ? since.toEpochMilli() : Long.MIN_VALUE;
+		this.untilMillis = (until != null) ? until.toEpochMilli() : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Creates a copy of this query that only matches trades within the specified time range.
+	 * 
+	 * @param since
+	 *            the start of the time range (inclusive), or <code>null</code> for no lower bound
+	 * @param until
+	 *            the end of the time range (inclusive), or <code>null</code> for no upper bound
+	 * @return the new query
+	 */
+	public TradeLogQuery withTimeRange(@Nullable Instant since, @Nullable Instant until) {
+		return new TradeLogQuery(shopUniqueId, playerUniqueId, since, until);
+	}
+
+	/**
+	 * Gets the unique id of the shop whose trades are matched.
+	 * 
+	 * @return the shop's unique id, or <code>null</code> if the trades of all shops are matched
+	 */
+	public @Nullable UUID getShopUniqueId() {
+		return shopUniqueId;
+	}
+
+	/**
+	 * Gets the unique id of the player whose trades are matched.
+	 * 
+	 * @return the player's unique id, or <code>null</code> if the trades of all players are
+	 *         matched
+	 */
+	public @Nullable UUID getPlayerUniqueId() {
+		return playerUniqueId;
+	}
+
+	/**
+	 * Gets the start of the matched time range in epoch milliseconds (inclusive).
+	 * 
+	 * @return the start of the time range, or {@link Long#MIN_VALUE} if there is no lower bound
+	 */
+	public long getSinceMillis() {
+		return sinceMillis;
+	}
+
+	/**
+	 * Gets the end of the matched time range in epoch milliseconds (inclusive).
+	 * 
+	 * @return the end of the time range, or {@link Long#MAX_VALUE} if there is no upper bound
+	 */
+	public long getUntilMillis() {
+		return untilMillis;
+	}
+
+	/**
+	 * Checks if the specified time range overlaps with the time range of this query.
+	 * 
+	 * @param minTimestampMillis
+	 *            the start of the time range in epoch milliseconds (inclusive)
+	 * @param maxTimestampMillis
+	 *            the end of the time range in epoch milliseconds (inclusive)
+	 * @return <code>true</code> if the time ranges overlap
+	 */
+	public boolean overlaps(long minTimestampMillis, long maxTimestampMillis) {
+		return minTimestampMillis <= untilMillis && maxTimestampMillis >= sinceMillis;
+	}
+
+	/**
+	 * Checks if a trade with the given data matches this query.
+	 * 
+	 * @param timestampMillis
+	 *            the trade's timestamp in epoch milliseconds
+	 * @param shopUniqueId
+	 *            the shop's unique id, not <code>null</code>
+	 * @param playerUniqueId
+	 *            the player's unique id, not <code>null</code>
+	 * @return <code>true</code> if the trade matches
+	 */
+	public boolean matches(long timestampMillis, UUID shopUniqueId, UUID playerUniqueId) {
+		if (timestampMillis < sinceMillis || timestampMillis > untilMillis) return false;
+		if (this.shopUniqueId != null && !this.shopUniqueId.equals(shopUniqueId)) return false;
+		if (this.playerUniqueId != null && !this.playerUniqueId.equals(playerUniqueId)) {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the given trade matches this query.
+	 * 
+	 * @param trade
+	 *            the trade, not <code>null</code>
+	 * @return <code>true</code> if the trade matches
+	 */
+	public boolean matches(LoggedTrade trade) {
+		Validate.notNull(trade, "trade is null");
+		return this.matches(
+				trade.getTimestamp().toEpochMilli(),
+				trade.getShop().getUniqueId(),
+				trade.getPlayer().getUniqueId()
+		);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("TradeLogQuery [shopUniqueId=");
+		builder.append(shopUniqueId);
+		builder.append(", playerUniqueId=");
+		builder.append(playerUniqueId);
+		builder.append(", sinceMillis=");
+		builder.append(sinceMillis);
+		builder.append(", untilMillis=");
+		builder.append(untilMillis);
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -2,6 +2,8 @@ package com.nisovin.shopkeepers.tradelog.csv;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
@@ -36,12 +38,14 @@ import com.nisovin.shopkeepers.tradelog.data.TradeRecord;
 import com.nisovin.shopkeepers.util.bukkit.PermissionUtils;
 import com.nisovin.shopkeepers.util.bukkit.SchedulerUtils;
 import com.nisovin.shopkeepers.util.bukkit.SingletonTask;
+import com.nisovin.shopkeepers.util.bukkit.TextUtils;
 import com.nisovin.shopkeepers.util.csv.CsvFormatter;
 import com.nisovin.shopkeepers.util.java.CollectionUtils;
 import com.nisovin.shopkeepers.util.java.FileUtils;
 import com.nisovin.shopkeepers.util.java.Retry;
 import com.nisovin.shopkeepers.util.java.StringUtils;
 import com.nisovin.shopkeepers.util.java.ThrowableUtils;
+import com.nisovin.shopkeepers.util.java.TimeUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.java.VoidCallable;
 import com.nisovin.shopkeepers.util.logging.Log;
@@ -49,6 +53,11 @@ import com.nisovin.shopkeepers.util.yaml.YamlUtils;
 
 /**
  * Logs trades to CSV files.
+ * <p>
+ * By default, each trade is written and persisted to the log file individually. If
+ * {@link Settings#csvTradeLogGroupCommitTicks} is set, the logger instead keeps the current log file
+ * open and writes the pending trades in periodic batches ("group commit"): Each batch is written
+ * with a single write and then forced to disk once.
  */
 public class CsvTradeLogger implements TradeLogger {
 
@@ -92,6 +101,9 @@ public class CsvTradeLogger implements TradeLogger {
 
 	private final Plugin plugin;
 	private final Path tradeLogsFolder;
+	// True if the trades are written in batches to a log file that is kept open:
+	private final boolean groupCommit;
+	private final int saveDelayTicks;
 	// Note: Even though the CSV format allows quoted fields to span across multiple lines, we want
 	// each CSV record to only span a single line. However, even though we do not want fields to
 	// contain unescaped newlines, we do not escape these newlines via the CSV formatter. Instead,
@@ -109,6 +121,11 @@ public class CsvTradeLogger implements TradeLogger {
 	// the trades that are being saved as part of the same batch.
 	private boolean logItemMetadata;
 
+	// Group commit: The currently open log file. Only accessed by the save task, or after all
+	// pending saves have completed.
+	private @Nullable Path openLogFile = null;
+	private @Nullable FileChannel openLogChannel = null;
+
 	public CsvTradeLogger(Plugin plugin) {
 		Validate.notNull(plugin, "plugin is null");
 		this.plugin = plugin;
@@ -116,6 +133,8 @@ public class CsvTradeLogger implements TradeLogger {
 				plugin.getDataFolder().toPath().resolve(TRADE_LOGS_FOLDER)
 		);
 		this.saveTask = new SaveTask(plugin);
+		this.groupCommit = (Settings.csvTradeLogGroupCommitTicks > 0);
+		this.saveDelayTicks = groupCommit ? Settings.csvTradeLogGroupCommitTicks : DELAYED_SAVE_TICKS;
 	}
 
 	@Override
@@ -131,6 +150,8 @@ public class CsvTradeLogger implements TradeLogger {
 	public void flush() {
 		this.savePending();
 		saveTask.awaitExecutions();
+		// All trades have been written and forced to disk by now:
+		this.closeLogChannel();
 	}
 
 	private boolean isDirty() {
@@ -150,7 +171,7 @@ public class CsvTradeLogger implements TradeLogger {
 		delayedSaveTask = SchedulerUtils.runTaskLaterOrOmit(
 				plugin,
 				new DelayedSaveTask(),
-				DELAYED_SAVE_TICKS
+				saveDelayTicks
 		);
 	}
 
@@ -278,6 +299,23 @@ public class CsvTradeLogger implements TradeLogger {
 				// Number of logged trade records:
 				sb.append(saving.size()).append(" records");
 
+				// Batch write and fsync durations:
+				if (groupCommit && saveContext.batchCount > 0) {
+					sb.append(", ").append(saveContext.batchCount).append(" batches: write ")
+							.append(TextUtils.format(TimeUtils.convert(
+									saveContext.writeNanos,
+									TimeUnit.NANOSECONDS,
+									TimeUnit.MILLISECONDS
+							)))
+							.append(" ms, fsync ")
+							.append(TextUtils.format(TimeUtils.convert(
+									saveContext.fsyncNanos,
+									TimeUnit.NANOSECONDS,
+									TimeUnit.MILLISECONDS
+							)))
+							.append(" ms");
+				}
+
 				// Number of trade records that we failed to log:
 				if (saveContext.hasUnsavedTrades()) {
 					sb.append(", ")
@@ -307,6 +345,11 @@ public class CsvTradeLogger implements TradeLogger {
 		private final List<? extends @NonNull TradeRecord> trades;
 		private int nextUnsaved = 0;
 
+		// Group commit statistics:
+		int batchCount = 0;
+		long writeNanos = 0L;
+		long fsyncNanos = 0L;
+
 		SaveContext(List<? extends @NonNull TradeRecord> trades) {
 			assert trades != null && !CollectionUtils.containsNull(trades);
 			this.trades = trades;
@@ -429,7 +472,11 @@ public class CsvTradeLogger implements TradeLogger {
 	public boolean writeTradesToDisk(SaveContext saveContext) {
 		try {
 			Retry.retry((VoidCallable) () -> {
-				this.writeTradesToLogFile(saveContext);
+				if (groupCommit) {
+					this.writeTradeBatchesToLogFile(saveContext);
+				} else {
+					this.writeTradesToLogFile(saveContext);
+				}
 			}, SAVE_MAX_ATTEMPTS, (attemptNumber, exception, retry) -> {
 				// Trade logging failed:
 				assert exception != null;
@@ -631,4 +678,152 @@ public class CsvTradeLogger implements TradeLogger {
 			this.writeTradesToLogFile(saveContext);
 		}
 	}
+
+	/**
+	 * Writes the pending trades to disk in batches.
+	 * <p>
+	 * This is used instead of {@link #writeTradesToLogFile(SaveContext)} if group commits are
+	 * enabled. The log file is kept open across saves and is only closed when the trades need to
+	 * be logged to a different log file (e.g. at date boundaries), or when the logger is flushed.
+	 * <p>
+	 * All consecutive trades that need to be logged to the same log file are written as a single
+	 * batch via a single write and are then forced to disk once. If the write or the fsync fails,
+	 * we truncate the log file to its previous size, so that a retry does not log the trades of the
+	 * failed batch twice.
+	 * <p>
+	 * This may be invoked asynchronously.
+	 * 
+	 * @param saveContext
+	 *            the save context
+	 * @throws IOException
+	 *             if saving fails
+	 */
+	private void writeTradeBatchesToLogFile(SaveContext saveContext) throws IOException {
+		while (saveContext.hasUnsavedTrades()) {
+			List<? extends @NonNull TradeRecord> unsavedTrades = saveContext.getUnsavedTrades();
+			Path logFile = this.getLogFile(unsavedTrades.get(0).getTimestamp());
+
+			// Collect all consecutive trades that need to be logged to the same log file:
+			StringBuilder batch = new StringBuilder();
+			int batchSize = 0;
+			for (TradeRecord trade : unsavedTrades) {
+				if (batchSize > 0 && !logFile.equals(this.getLogFile(trade.getTimestamp()))) {
+					break;
+				}
+				batch.append(this.toCSVRecord(trade));
+				batchSize++;
+			}
+			// TODO Use the file encoding specified inside the config? Or add a separate setting?
+			ByteBuffer data = StandardCharsets.UTF_8.encode(batch.toString());
+
+			FileChannel channel = this.getLogChannel(logFile);
+			long previousSize = channel.size();
+			try {
+				long writeStartNanos = System.nanoTime();
+				while (data.hasRemaining()) {
+					channel.write(data);
+				}
+				long fsyncStartNanos = System.nanoTime();
+				channel.force(false);
+				long endNanos = System.nanoTime();
+
+				saveContext.batchCount++;
+				saveContext.writeNanos += (fsyncStartNanos - writeStartNanos);
+				saveContext.fsyncNanos += (endNanos - fsyncStartNanos);
+			} catch (IOException e) {
+				this.discardPartialBatch(channel, previousSize);
+				throw e;
+			}
+
+			for (int i = 0; i < batchSize; i++) {
+				saveContext.onTradeSuccessfullySaved();
+			}
+		}
+	}
+
+	// Gets the channel of the given log file, opening it if necessary.
+	private FileChannel getLogChannel(Path logFile) throws IOException {
+		FileChannel channel = openLogChannel;
+		if (channel != null) {
+			// Reuse the open channel, unless the trades need to be logged to a different log file,
+			// or the log file has been moved or deleted in the meantime:
+			if (logFile.equals(openLogFile) && Files.exists(logFile)) {
+				return channel;
+			}
+			this.closeLogChannel();
+		}
+
+		FileUtils.createParentDirectories(logFile);
+		Path parent = logFile.getParent();
+		if (parent != null) {
+			FileUtils.checkIsDirectoryWritable(parent);
+		}
+
+		boolean isNew = !Files.exists(logFile);
+		if (!isNew) {
+			FileUtils.checkIsFileWritable(logFile);
+		}
+
+		channel = FileChannel.open(
+				logFile,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND
+		);
+		try {
+			if (isNew) {
+				// Fsync the parent directory to ensure that the newly created log file has been
+				// successfully persisted:
+				FileUtils.fsyncParentDirectory(logFile);
+			}
+
+			// If the file is new or empty, write the CSV header:
+			if (channel.size() == 0L) {
+				ByteBuffer header = StandardCharsets.UTF_8.encode(csv.formatRecord(CSV_HEADER));
+				while (header.hasRemaining()) {
+					channel.write(header);
+				}
+				channel.force(false);
+			}
+		} catch (IOException e) {
+			try {
+				channel.close();
+			} catch (IOException closeException) {
+				e.addSuppressed(closeException);
+			}
+			throw e;
+		}
+
+		openLogFile = logFile;
+		openLogChannel = channel;
+		return channel;
+	}
+
+	private void discardPartialBatch(FileChannel channel, long previousSize) {
+		try {
+			if (channel.size() > previousSize) {
+				channel.truncate(previousSize);
+				channel.force(false);
+			}
+		} catch (IOException e) {
+			Log.severe("Failed to discard a partially logged batch of trades from the CSV trade"
+					+ " log! Some trades might get logged twice.", e);
+		}
+		// Reopen the log file during the next attempt:
+		this.closeLogChannel();
+	}
+
+	private void closeLogChannel() {
+		FileChannel channel = openLogChannel;
+		if (channel == null) return;
+
+		openLogFile = null;
+		openLogChannel = null;
+		try {
+			channel.close();
+		} catch (IOException e) {
+			// The logged trades have already been forced to disk.
+			Log.severe("Failed to close the CSV trade log file!", e);
+		}
+	}
 }
@@ -25,8 +25,10 @@ import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.currency.Currencies;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.spigot.text.RenderedMessage;
 import com.nisovin.shopkeepers.text.ClickEventText.Action;
 import com.nisovin.shopkeepers.text.Text;
+import com.nisovin.shopkeepers.text.TextTemplate;
 import com.nisovin.shopkeepers.util.bukkit.PermissionUtils;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
@@ -239,7 +241,8 @@ public class TradeNotifications implements Listener {
 			shopOwner = ((PlayerShopkeeper) tradeContext.getShopkeeper()).getOwner();
 		}
 
-		Lazy<@NonNull Text> tradeNotification = new Lazy<>(
+		// The notification is only rendered once and then sent to all recipients:
+		Lazy<@NonNull RenderedMessage> tradeNotification = new Lazy<>(
 				() -> this.getTradeNotificationMessage(tradeContext)
 		);
 		for (Player player : Bukkit.getOnlinePlayers()) {
@@ -260,7 +263,7 @@ public class TradeNotifications implements Listener {
 		}
 	}
 
-	private Text getTradeNotificationMessage(TradeContext tradeContext) {
+	private RenderedMessage getTradeNotificationMessage(TradeContext tradeContext) {
 		assert tradeContext != null;
 		Shopkeeper shopkeeper = tradeContext.getShopkeeper();
 
@@ -304,7 +307,7 @@ public class TradeNotifications implements Listener {
 		return this.getTradeNotificationMessage(tradeContext, message, shopText, tradeCountText);
 	}
 
-	private Text getTradeNotificationMessage(
+	private RenderedMessage getTradeNotificationMessage(
 			TradeContext tradeContext,
 			Text message,
 			Text shopText,
@@ -322,9 +325,11 @@ public class TradeNotifications implements Listener {
 		tradeCountText.setPlaceholderArguments("count", tradeContext.getTradeCount());
 		tradeMsgArgs.put("trade_count", tradeCountText);
 
-		message.setPlaceholderArguments(tradeMsgArgs);
-		message.setPlaceholderArguments(shopMsgArgs);
-		return message;
+		// The shop message arguments take precedence over the trade message arguments:
+		MessageArguments messageArgs = shopMsgArgs.combinedWith(
+				MessageArguments.ofMap(tradeMsgArgs)
+		);
+		return TextUtils.renderMessage(TextTemplate.of(message), messageArgs);
 	}
 
 	private void sendOwnerTradeNotifications(TradeContext tradeContext) {
@@ -340,13 +345,13 @@ public class TradeNotifications implements Listener {
 
 		// Note: We also send trade notifications for own trades (i.e. when the trading player
 		// matches the recipient of the notification).
-		Text message = this.getOwnerTradeNotificationMessage(tradeContext);
+		RenderedMessage message = this.getOwnerTradeNotificationMessage(tradeContext);
 		TextUtils.sendMessage(owner, message);
 		Settings.shopOwnerTradeNotificationSound.play(owner);
 		this.sendDisableTradeNotificationsHint(owner);
 	}
 
-	private Text getOwnerTradeNotificationMessage(TradeContext tradeContext) {
+	private RenderedMessage getOwnerTradeNotificationMessage(TradeContext tradeContext) {
 		assert tradeContext != null;
 		Shopkeeper shopkeeper = tradeContext.getShopkeeper();
 
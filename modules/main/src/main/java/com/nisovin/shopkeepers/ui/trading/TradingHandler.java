@@ -3,8 +3,11 @@ package com.nisovin.shopkeepers.ui.trading;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Statistic;
@@ -37,6 +40,7 @@ import com.nisovin.shopkeepers.debug.Debug;
 import com.nisovin.shopkeepers.debug.DebugOptions;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.shopkeeper.SKTradingRecipe;
 import com.nisovin.shopkeepers.ui.AbstractShopkeeperUIHandler;
 import com.nisovin.shopkeepers.ui.AbstractUIType;
 import com.nisovin.shopkeepers.ui.SKDefaultUITypes;
@@ -51,6 +55,9 @@ import com.nisovin.shopkeepers.util.inventory.ItemUtils;
 import com.nisovin.shopkeepers.util.java.Lazy;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.logging.Log;
+import com.nisovin.shopkeepers.util.timer.SynchronizedTimings;
+import com.nisovin.shopkeepers.util.timer.Timer;
+import com.nisovin.shopkeepers.util.timer.Timings;
 
 public class TradingHandler extends AbstractShopkeeperUIHandler {
 
@@ -64,8 +71,53 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 	protected static final int BUY_ITEM_2_SLOT_ID = 1;
 	protected static final int RESULT_ITEM_SLOT_ID = 2;
 
+	// Shared by all trading UIs. On servers with regionized multithreading, trades can be handled
+	// concurrently by different threads, so the access to this timer is synchronized.
+	private static final Object tradeTimingsLock = new Object();
+	private static final Timer tradeTimings = new Timer();
+	private static final Timings tradeTimingsView = new SynchronizedTimings(
+			tradeTimings,
+			tradeTimingsLock
+	);
+
+	/**
+	 * Gets the timings of the handling of clicks that might trigger trades, including the
+	 * application of any triggered trades.
+	 * 
+	 * @return the trade timings
+	 */
+	public static Timings getTradeTimings() {
+		return tradeTimingsView;
+	}
+
 	private final List<@NonNull TradingListener> tradingListeners = new ArrayList<>();
 
+	// The merchant recipes that were last created for versioned trading recipes. Null if there are
+	// none yet.
+	private @Nullable CachedMerchantRecipes cachedMerchantRecipes = null;
+	// The version of the trading recipes for which merchant recipes are currently created, or -1 if
+	// these trading recipes are not versioned. Only set while a trading window is set up or
+	// updated.
+	private long currentRecipesVersion = -1L;
+	// The versions of the trading recipes that are currently shown to the players that have this UI
+	// open. Only contains entries for versioned trading recipes.
+	private final Map<@NonNull UUID, @NonNull Long> openRecipesVersions = new HashMap<>();
+
+	private static final class CachedMerchantRecipes {
+
+		final long version;
+		// Not modified after construction:
+		final List<? extends @NonNull MerchantRecipe> merchantRecipes;
+
+		CachedMerchantRecipes(
+				long version,
+				List<? extends @NonNull MerchantRecipe> merchantRecipes
+		) {
+			this.version = version;
+			this.merchantRecipes = merchantRecipes;
+		}
+	}
+
 	public TradingHandler(AbstractUIType uiType, AbstractShopkeeper shopkeeper) {
 		super(uiType, shopkeeper);
 	}
@@ -138,7 +190,19 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 			Player player
 	) {
 		// Set up merchant:
-		Merchant merchant = this.setupMerchant(title, recipes);
+		long recipesVersion = this.getTradingRecipesVersion(player);
+		Merchant merchant;
+		currentRecipesVersion = recipesVersion;
+		try {
+			merchant = this.setupMerchant(title, recipes);
+		} finally {
+			currentRecipesVersion = -1L;
+		}
+		if (recipesVersion >= 0L) {
+			openRecipesVersions.put(player.getUniqueId(), recipesVersion);
+		} else {
+			openRecipesVersions.remove(player.getUniqueId());
+		}
 
 		// Increment 'talked-to-villager' statistic when opening trading menu:
 		if (Settings.incrementVillagerStatistics) {
@@ -165,8 +229,41 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 		merchant.setRecipes(Unsafe.cast(merchantRecipes));
 	}
 
+	/**
+	 * Creates the merchant recipes for the given trading recipes.
+	 * <p>
+	 * If the trading recipes are {@link #getTradingRecipesVersion(Player) versioned}, the merchant
+	 * recipes are only created once per version. Copies of the previously created merchant recipes
+	 * are returned for subsequent invocations with the same version.
+	 * 
+	 * @param recipes
+	 *            the trading recipes, not <code>null</code>
+	 * @return a new modifiable list with the merchant recipes, not <code>null</code>
+	 */
 	protected List<@NonNull MerchantRecipe> createMerchantRecipes(
 			List<? extends @NonNull TradingRecipe> recipes
+	) {
+		long recipesVersion = currentRecipesVersion;
+		if (recipesVersion < 0L) {
+			return this.createNewMerchantRecipes(recipes);
+		}
+
+		// Sharing the merchant recipes across merchants is safe, because merchants copy the items
+		// of the merchant recipes that they are set up with.
+		CachedMerchantRecipes cached = cachedMerchantRecipes;
+		if (cached == null || cached.version != recipesVersion) {
+			cached = new CachedMerchantRecipes(
+					recipesVersion,
+					this.createNewMerchantRecipes(recipes)
+			);
+			cachedMerchantRecipes = cached;
+		}
+		// Copy the list, since the caller might modify it (e.g. insert dummy recipes):
+		return new ArrayList<>(cached.merchantRecipes);
+	}
+
+	private List<@NonNull MerchantRecipe> createNewMerchantRecipes(
+			List<? extends @NonNull TradingRecipe> recipes
 	) {
 		List<@NonNull MerchantRecipe> merchantRecipes = new ArrayList<>();
 		for (TradingRecipe recipe : recipes) {
@@ -179,6 +276,22 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 		return MerchantUtils.createMerchantRecipe(recipe); // Default
 	}
 
+	/**
+	 * Gets the version of the shopkeeper's trading recipes for the given player.
+	 * <p>
+	 * If the shopkeeper's trading recipes are the same for all players and only change together
+	 * with a version that is tracked by the shopkeeper, this can return that version. The merchant
+	 * recipes are then only created once per version and reused whenever the trading window is
+	 * opened, and trade updates are skipped as long as the version did not change.
+	 * 
+	 * @param player
+	 *            the player, not <code>null</code>
+	 * @return the non-negative version, or <code>-1</code> if the trading recipes are not versioned
+	 */
+	protected long getTradingRecipesVersion(Player player) {
+		return -1L; // Not versioned by default
+	}
+
 	protected String getInventoryTitle() {
 		String title = this.getShopkeeper().getName(); // Can be empty
 		if (title.isEmpty()) {
@@ -195,11 +308,33 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 		assert openInventory.getType() == InventoryType.MERCHANT;
 		MerchantInventory merchantInventory = (MerchantInventory) openInventory.getTopInventory();
 		Merchant merchant = merchantInventory.getMerchant();
-		@NonNull List<@NonNull MerchantRecipe> oldMerchantRecipes = Unsafe.cast(merchant.getRecipes());
-
 		Shopkeeper shopkeeper = this.getShopkeeper();
+		UUID playerId = player.getUniqueId();
+
+		long recipesVersion = this.getTradingRecipesVersion(player);
+		if (recipesVersion >= 0L) {
+			Long openRecipesVersion = openRecipesVersions.get(playerId);
+			if (openRecipesVersion != null && openRecipesVersion == recipesVersion) {
+				Log.debug(() -> shopkeeper.getLogPrefix() + "Trades are still up-to-date for"
+						+ " player " + player.getName() + " (unchanged version)");
+				return; // Recipes did not change
+			}
+		}
+
+		@NonNull List<@NonNull MerchantRecipe> oldMerchantRecipes = Unsafe.cast(merchant.getRecipes());
 		List<? extends @NonNull TradingRecipe> recipes = shopkeeper.getTradingRecipes(player);
-		List<@NonNull MerchantRecipe> newMerchantRecipes = this.createMerchantRecipes(recipes);
+		List<@NonNull MerchantRecipe> newMerchantRecipes;
+		currentRecipesVersion = recipesVersion;
+		try {
+			newMerchantRecipes = this.createMerchantRecipes(recipes);
+		} finally {
+			currentRecipesVersion = -1L;
+		}
+		if (recipesVersion >= 0L) {
+			openRecipesVersions.put(playerId, recipesVersion);
+		} else {
+			openRecipesVersions.remove(playerId);
+		}
 		if (MerchantUtils.MERCHANT_RECIPES_IGNORE_USES_EXCEPT_BLOCKED.equals(
 				oldMerchantRecipes,
 				newMerchantRecipes
@@ -283,7 +418,7 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 
 	@Override
 	protected void onInventoryClose(UISession uiSession, @Nullable InventoryCloseEvent closeEvent) {
-		// Callback for subclasses.
+		openRecipesVersions.remove(uiSession.getPlayer().getUniqueId());
 	}
 
 	// TRADE PROCESSING
@@ -389,6 +524,28 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 		clickEvent.setCancelled(true);
 		InventoryUtils.updateInventoryLater(player);
 
+		// Handle the trade click:
+		long startNanos = System.nanoTime();
+		try {
+			this.handleResultSlotClick(player, clickEvent, action, resultItem, cursor);
+		} finally {
+			long durationNanos = System.nanoTime() - startNanos;
+			synchronized (tradeTimingsLock) {
+				tradeTimings.record(durationNanos);
+			}
+		}
+	}
+
+	// Handles a click on the result slot that might trigger trades.
+	private void handleResultSlotClick(
+			Player player,
+			InventoryClickEvent clickEvent,
+			InventoryAction action,
+			@Nullable UnmodifiableItemStack resultItem,
+			ItemStack cursor
+	) {
+		Shopkeeper shopkeeper = this.getShopkeeper();
+
 		// Set up a new TradingContext:
 		TradingContext tradingContext = new TradingContext(shopkeeper, clickEvent);
 		this.setupTradingContext(tradingContext);
@@ -641,9 +798,9 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 		// a trading recipe matches, so we need to determine the used item order for the currently
 		// active trading recipe:
 		boolean swappedItemOrder = false;
-		if (this.matches(offeredItem1, offeredItem2, requiredItem1, requiredItem2)) {
+		if (this.matches(offeredItem1, offeredItem2, tradingRecipe)) {
 			// Order is as-is.
-		} else if (this.matches(offeredItem1, offeredItem2, requiredItem2, requiredItem1)) {
+		} else if (this.matches(offeredItem2, offeredItem1, tradingRecipe)) {
 			// Swapped order:
 			swappedItemOrder = true;
 			ItemStack temp = offeredItem1;
@@ -725,17 +882,25 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 	private boolean matches(
 			@Nullable ItemStack offeredItem1,
 			@Nullable ItemStack offeredItem2,
-			@Nullable UnmodifiableItemStack requiredItem1,
-			@Nullable UnmodifiableItemStack requiredItem2
+			TradingRecipe tradingRecipe
 	) {
+		UnmodifiableItemStack requiredItem1 = tradingRecipe.getItem1();
+		UnmodifiableItemStack requiredItem2 = tradingRecipe.getItem2();
 		int offeredItem1Amount = ItemUtils.getItemStackAmount(offeredItem1);
 		int offeredItem2Amount = ItemUtils.getItemStackAmount(offeredItem2);
 		int requiredItem1Amount = ItemUtils.getItemStackAmount(requiredItem1);
 		int requiredItem2Amount = ItemUtils.getItemStackAmount(requiredItem2);
-		return (offeredItem1Amount >= requiredItem1Amount
-				&& offeredItem2Amount >= requiredItem2Amount
-				&& NMSManager.getProvider().matches(offeredItem1, requiredItem1)
-				&& NMSManager.getProvider().matches(offeredItem2, requiredItem2));
+		if (offeredItem1Amount < requiredItem1Amount || offeredItem2Amount < requiredItem2Amount) {
+			return false;
+		}
+		if (tradingRecipe instanceof SKTradingRecipe) {
+			// Reuses the data that is derived from the required items across the item checks:
+			SKTradingRecipe skTradingRecipe = (SKTradingRecipe) tradingRecipe;
+			return skTradingRecipe.matchesItem1(offeredItem1)
+					&& skTradingRecipe.matchesItem2(offeredItem2);
+		}
+		return NMSManager.getProvider().matches(offeredItem1, requiredItem1)
+				&& NMSManager.getProvider().matches(offeredItem2, requiredItem2);
 	}
 
 	protected final void debugPreventedTrade(Player player, String reason) {
@@ -1,6 +1,5 @@
 package com.nisovin.shopkeepers.user;
 
-import java.util.Map;
 import java.util.UUID;
 
 import org.bukkit.Bukkit;
@@ -11,18 +10,21 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.user.User;
-import com.nisovin.shopkeepers.util.java.LRUCache;
 import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.java.WeakInternTable;
 
 public final class SKUser implements User {
 
-	private static final Map<@NonNull UUID, @NonNull User> cache = new LRUCache<>(100);
+	// Users are interned for as long as they are still referenced, for example by the player shops
+	// of their owner. This table can be accessed from any thread.
+	private static final WeakInternTable<@NonNull UUID, @NonNull User> users
+			= new WeakInternTable<>();
 
 	/**
 	 * Gets a {@link User} with the specified unique id and last known name.
 	 * <p>
 	 * This method may cache and reuse the returned {@link User} object for future calls of this
-	 * method.
+	 * method. This method can be safely invoked from any thread.
 	 * 
 	 * @param uniqueId
 	 *            the unique id, not <code>null</code>
@@ -31,16 +33,20 @@ public final class SKUser implements User {
 	 * @return the user, not <code>null</code>
 	 */
 	public static User of(UUID uniqueId, String lastKnownName) {
-		User user = cache.compute(uniqueId, (uuid, oldUser) -> {
-			if (oldUser != null && oldUser.getLastKnownName().equals(lastKnownName)) {
-				assert oldUser.getUniqueId().equals(uniqueId);
-				return oldUser;
-			} else {
-				return new SKUser(uniqueId, lastKnownName);
-			}
-		});
-		assert user != null;
-		return user;
+		return users.intern(
+				uniqueId,
+				user -> user.getLastKnownName().equals(lastKnownName),
+				uuid -> new SKUser(uuid, lastKnownName)
+		);
+	}
+
+	/**
+	 * Gets the table of interned {@link User}s, for example to inspect its statistics.
+	 * 
+	 * @return the intern table
+	 */
+	public static WeakInternTable<@NonNull UUID, @NonNull User> getInternTable() {
+		return users;
 	}
 
 	/**
@@ -0,0 +1,62 @@
+package com.nisovin.shopkeepers.util.bukkit;
+
+/**
+ * Utilities to pack chunk coordinates into a single {@code long} key.
+ * <p>
+ * Unlike {@link com.nisovin.shopkeepers.api.util.ChunkCoords}, these keys do not include the world
+ * and require no object allocations. They can for example be used as keys of a
+ * {@link com.nisovin.shopkeepers.util.java.LongHashMap}.
+ */
+public final class ChunkKeys {
+
+	/**
+	 * Gets the key of the specified chunk.
+	 * 
+	 * @param chunkX
+	 *            the chunk's x coordinate
+	 * @param chunkZ
+	 *            the chunk's z coordinate
+	 * @return the chunk key
+	 */
+	public static long of(int chunkX, int chunkZ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Gets the key of the chunk that contains the specified block.
+	 * 
+	 * @param blockX
+	 *            the block's x coordinate
+	 * @param blockZ
+	 *            the block's z coordinate
+	 * @return the chunk key
+	 */
+	public static long fromBlock(int blockX, int blockZ) {
+		return of(blockX >> 4, blockZ >> 4);
+	}
+
+	/**
+	 * Gets the chunk x coordinate of the given chunk key.
+	 * 
+	 * @param chunkKey
+	 *            the chunk key
+	 * @return the chunk's x coordinate
+	 */
+	public static int getChunkX(long chunkKey) {
+		return (int) (chunkKey >> 32);
+	}
+
+	/**
+	 * Gets the chunk z coordinate of the given chunk key.
+	 * 
+	 * @param chunkKey
+	 *            the chunk key
+	 * @return the chunk's z coordinate
+	 */
+	public static int getChunkZ(long chunkKey) {
+		return (int) chunkKey;
+	}
+
+	private ChunkKeys() {
+	}
+}
@@ -0,0 +1,448 @@
+package com.nisovin.shopkeepers.util.bukkit;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Consumer;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * Schedules tasks that operate on the chunks of a specific region of a world.
+ * <p>
+ * On servers with regionized multithreading (Folia), the tasks are run by the thread that owns the
+ * region of the specified chunk. Since Bukkit does not provide an API for this, the corresponding
+ * server API is accessed via reflection. On all other servers, the tasks are run on the server's
+ * main thread.
+ * <p>
+ * Tasks that operate on the chunks of the same {@link #getRegionSectionCoord(int) region section}
+ * are always run by the same thread.
+ */
+public abstract class RegionScheduler {
+
+	/**
+	 * The number of bits by which chunk coordinates are shifted to get the coordinates of their
+	 * region section.
+	 * <p>
+	 * Regionized servers move chunks between threads in units of region sections. This value
+	 * matches the default region section size of Folia (16x16 chunks).
+	 */
+	public static final int REGION_SECTION_CHUNK_SHIFT = 4;
+
+	/**
+	 * Gets the region section coordinate for the given chunk coordinate.
+	 *
+	 * @param chunkCoord
+	 *            the chunk coordinate
+	 * @return the region section coordinate
+	 */
+	public static int getRegionSectionCoord(int chunkCoord) {
+		return chunkCoord >> REGION_SECTION_CHUNK_SHIFT;
+	}
+
+	/**
+	 * A task that has been scheduled via a {@link RegionScheduler}.
+	 */
+	public interface Task {
+
+		/**
+		 * Cancels this task.
+		 */
+		public void cancel();
+	}
+
+	private static @Nullable RegionScheduler instance = null;
+
+	/**
+	 * Gets the {@link RegionScheduler} for the current server.
+	 *
+	 * @return the region scheduler, not <code>null</code>
+	 */
+	public static RegionScheduler getInstance() {
+		RegionScheduler scheduler = instance;
+		if (scheduler == null) {
+			scheduler = FoliaRegionScheduler.create();
+			if (scheduler == null) {
+				scheduler = new BukkitRegionScheduler();
+			}
+			instance = scheduler;
+		}
+		return scheduler;
+	}
+
+	RegionScheduler() {
+	}
+
+	/**
+	 * Checks if the server ticks its regions in parallel on different threads.
+	 *
+	 * @return <code>true</code> if the server uses regionized multithreading
+	 */
+	public abstract boolean isRegionized();
+
+	/**
+	 * Checks if the current thread owns the region of the specified chunk.
+	 * <p>
+	 * On servers without regionized multithreading, this checks if the current thread is the
+	 * server's main thread.
+	 *
+	 * @param world
+	 *            the world, not <code>null</code>
+	 * @param chunkX
+	 *            the chunk x coordinate
+	 * @param chunkZ
+	 *            the chunk z coordinate
+	 * @return <code>true</code> if the current thread owns the chunk's region
+	 */
+	public abstract boolean isOwnedByCurrentThread(World world, int chunkX, int chunkZ);
+
+	/**
+	 * Runs the given task on the thread that owns the region of the specified chunk.
+	 * <p>
+	 * If the current thread already owns the region, the task is run immediately. Otherwise, the
+	 * task is run during the next tick of the region. The task is omitted if the plugin is not
+	 * enabled.
+	 *
+	 * @param plugin
+	 *            the plugin, not <code>null</code>
+	 * @param world
+	 *            the world, not <code>null</code>
+	 * @param chunkX
+	 *            the chunk x coordinate
+	 * @param chunkZ
+	 *            the chunk z coordinate
+	 * @param task
+	 *            the task, not <code>null</code>
+	 */
+	public abstract void run(Plugin plugin, World world, int chunkX, int chunkZ, Runnable task);
+
+	/**
+	 * Periodically runs the given task on the thread that owns the region of the specified chunk.
+	 *
+	 * @param plugin
+	 *            the plugin, not <code>null</code>
+	 * @param world
+	 *            the world, not <code>null</code>
+	 * @param chunkX
+	 *            the chunk x coordinate
+	 * @param chunkZ
+	 *            the chunk z coordinate
+	 * @param task
+	 *            the task, not <code>null</code>
+	 * @param delayTicks
+	 *            the delay in ticks before the first execution, at least <code>1</code>
+	 * @param periodTicks
+	 *            the period in ticks, at least <code>1</code>
+	 * @return the scheduled task, not <code>null</code>
+	 */
+	public abstract Task runAtFixedRate(
+			Plugin plugin,
+			World world,
+			int chunkX,
+			int chunkZ,
+			Runnable task,
+			long delayTicks,
+			long periodTicks
+	);
+
+	/**
+	 * Runs the given task on the thread that is responsible for global server state.
+	 * <p>
+	 * On servers without regionized multithreading, this is the server's main thread. If the
+	 * current thread is already the server's main thread, the task is run immediately.
+	 *
+	 * @param plugin
+	 *            the plugin, not <code>null</code>
+	 * @param task
+	 *            the task, not <code>null</code>
+	 */
+	public abstract void runGlobal(Plugin plugin, Runnable task);
+
+	/**
+	 * Teleports the given entity, which is expected to be owned by the current thread.
+	 * <p>
+	 * On servers with regionized multithreading, entities cannot be teleported synchronously. The
+	 * entity is therefore teleported asynchronously instead, and the teleport might not have been
+	 * completed yet once this method returns. The given location is copied and can therefore be
+	 * reused afterwards.
+	 *
+	 * @param entity
+	 *            the entity, not <code>null</code>
+	 * @param location
+	 *            the target location, not <code>null</code>
+	 */
+	public abstract void teleport(Entity entity, Location location);
+
+	private static final class BukkitRegionScheduler extends RegionScheduler {
+
+		BukkitRegionScheduler() {
+		}
+
+		@Override
+		public boolean isRegionized() {
+			return false;
+		}
+
+		@Override
+		public boolean isOwnedByCurrentThread(World world, int chunkX, int chunkZ) {
+			return SchedulerUtils.isMainThread();
+		}
+
+		@Override
+		public void run(Plugin plugin, World world, int chunkX, int chunkZ, Runnable task) {
+			SchedulerUtils.runOnMainThreadOrOmit(plugin, task);
+		}
+
+		@Override
+		public Task runAtFixedRate(
+				Plugin plugin,
+				World world,
+				int chunkX,
+				int chunkZ,
+				Runnable task,
+				long delayTicks,
+				long periodTicks
+		) {
+			Validate.notNull(plugin, "plugin is null");
+			Validate.notNull(task, "task is null");
+			BukkitTask bukkitTask = Bukkit.getScheduler().runTaskTimer(
+					plugin,
+					task,
+					delayTicks,
+					periodTicks
+			);
+			return bukkitTask::cancel;
+		}
+
+		@Override
+		public void runGlobal(Plugin plugin, Runnable task) {
+			SchedulerUtils.runOnMainThreadOrOmit(plugin, task);
+		}
+
+		@Override
+		public void teleport(Entity entity, Location location) {
+			Validate.notNull(entity, "entity is null");
+			Validate.notNull(location, "location is null");
+			entity.teleport(location);
+		}
+	}
+
+	private static final class FoliaRegionScheduler extends RegionScheduler {
+
+		private static final String REGIONIZED_SERVER_CLASS = "io.papermc.paper.threadedregions.RegionizedServer";
+
+		// Returns null if the server does not support regionized multithreading.
+		static @Nullable FoliaRegionScheduler create() {
+			try {
+				Class.forName(REGIONIZED_SERVER_CLASS);
+			} catch (ClassNotFoundException e) {
+				return null; // Not a regionized server
+			}
+
+			try {
+				Server server = Bukkit.getServer();
+				Method isOwnedByCurrentRegion = Server.class.getMethod(
+						"isOwnedByCurrentRegion",
+						World.class,
+						int.class,
+						int.class
+				);
+				Object regionScheduler = Unsafe.assertNonNull(
+						Server.class.getMethod("getRegionScheduler").invoke(server)
+				);
+				Method regionExecute = regionScheduler.getClass().getMethod(
+						"execute",
+						Plugin.class,
+						World.class,
+						int.class,
+						int.class,
+						Runnable.class
+				);
+				Method runAtFixedRate = regionScheduler.getClass().getMethod(
+						"runAtFixedRate",
+						Plugin.class,
+						World.class,
+						int.class,
+						int.class,
+						Consumer.class,
+						long.class,
+						long.class
+				);
+				Object globalScheduler = Unsafe.assertNonNull(
+						Server.class.getMethod("getGlobalRegionScheduler").invoke(server)
+				);
+				Method execute = globalScheduler.getClass().getMethod(
+						"execute",
+						Plugin.class,
+						Runnable.class
+				);
+				Class<?> scheduledTaskClass = Class.forName(
+						"io.papermc.paper.threadedregions.scheduler.ScheduledTask"
+				);
+				Method cancel = scheduledTaskClass.getMethod("cancel");
+				Method teleportAsync = Entity.class.getMethod("teleportAsync", Location.class);
+				return new FoliaRegionScheduler(
+						server,
+						isOwnedByCurrentRegion,
+						regionScheduler,
+						regionExecute,
+						runAtFixedRate,
+						globalScheduler,
+						execute,
+						cancel,
+						teleportAsync
+				);
+			} catch (Exception e) {
+				Log.warning("Failed to set up the region scheduler of this regionized server!", e);
+				return null;
+			}
+		}
+
+		private final Server server;
+		private final Method isOwnedByCurrentRegion;
+		private final Object regionScheduler;
+		private final Method regionExecute;
+		private final Method runAtFixedRate;
+		private final Object globalScheduler;
+		private final Method execute;
+		private final Method cancel;
+		private final Method teleportAsync;
+
+		private FoliaRegionScheduler(
+				Server server,
+				Method isOwnedByCurrentRegion,
+				Object regionScheduler,
+				Method regionExecute,
+				Method runAtFixedRate,
+				Object globalScheduler,
+				Method execute,
+				Method cancel,
+				Method teleportAsync
+		) {
+			this.server = server;
+			this.isOwnedByCurrentRegion = isOwnedByCurrentRegion;
+			this.regionScheduler = regionScheduler;
+			this.regionExecute = regionExecute;
+			this.runAtFixedRate = runAtFixedRate;
+			this.globalScheduler = globalScheduler;
+			this.execute = execute;
+			this.cancel = cancel;
+			this.teleportAsync = teleportAsync;
+		}
+
+		private static RuntimeException wrap(Exception e) {
+			Throwable cause = e;
+			if (e instanceof InvocationTargetException && e.getCause() != null) {
+				cause = e.getCause();
+			}
+			if (cause instanceof RuntimeException) {
+				return (RuntimeException) cause;
+			}
+			return new IllegalStateException("Region scheduler invocation failed!", cause);
+		}
+
+		@Override
+		public boolean isRegionized() {
+			return true;
+		}
+
+		@Override
+		public boolean isOwnedByCurrentThread(World world, int chunkX, int chunkZ) {
+			Validate.notNull(world, "world is null");
+			try {
+				return (Boolean) Unsafe.assertNonNull(
+						isOwnedByCurrentRegion.invoke(server, world, chunkX, chunkZ)
+				);
+			} catch (Exception e) {
+				throw wrap(e);
+			}
+		}
+
+		@Override
+		public void run(Plugin plugin, World world, int chunkX, int chunkZ, Runnable task) {
+			Validate.notNull(plugin, "plugin is null");
+			Validate.notNull(task, "task is null");
+			if (this.isOwnedByCurrentThread(world, chunkX, chunkZ)) {
+				task.run();
+				return;
+			}
+			if (!plugin.isEnabled()) return;
+			try {
+				regionExecute.invoke(regionScheduler, plugin, world, chunkX, chunkZ, task);
+			} catch (Exception e) {
+				throw wrap(e);
+			}
+		}
+
+		@Override
+		public Task runAtFixedRate(
+				Plugin plugin,
+				World world,
+				int chunkX,
+				int chunkZ,
+				Runnable task,
+				long delayTicks,
+				long periodTicks
+		) {
+			Validate.notNull(plugin, "plugin is null");
+			Validate.notNull(world, "world is null");
+			Validate.notNull(task, "task is null");
+			Consumer<Object> taskConsumer = scheduledTask -> task.run();
+			Object scheduledTask;
+			try {
+				scheduledTask = Unsafe.assertNonNull(runAtFixedRate.invoke(
+						regionScheduler,
+						plugin,
+						world,
+						chunkX,
+						chunkZ,
+						taskConsumer,
+						delayTicks,
+						periodTicks
+				));
+			} catch (Exception e) {
+				throw wrap(e);
+			}
+			return () -> {
+				try {
+					cancel.invoke(scheduledTask);
+				} catch (Exception e) {
+					throw wrap(e);
+				}
+			};
+		}
+
+		@Override
+		public void runGlobal(Plugin plugin, Runnable task) {
+			Validate.notNull(plugin, "plugin is null");
+			Validate.notNull(task, "task is null");
+			try {
+				execute.invoke(globalScheduler, plugin, task);
+			} catch (Exception e) {
+				throw wrap(e);
+			}
+		}
+
+		@Override
+		public void teleport(Entity entity, Location location) {
+			Validate.notNull(entity, "entity is null");
+			Validate.notNull(location, "location is null");
+			try {
+				// The teleport is completed later, so we pass a copy of the location:
+				teleportAsync.invoke(entity, location.clone());
+			} catch (Exception e) {
+				throw wrap(e);
+			}
+		}
+	}
+}
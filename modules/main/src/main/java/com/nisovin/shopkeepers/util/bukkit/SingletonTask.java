@@ -84,11 +84,11 @@ public abstract class SingletonTask {
 	private boolean asyncExecution;
 	private long startTimeNanos;
 	private long preparationEndTimeNanos;
-	private long preparationDurationMillis;
+	private long preparationDurationNanos;
 	private long lockAcquireDurationMillis;
 	private long executionDelayMillis;
-	private long executionDurationMillis;
-	private long totalDurationMillis;
+	private long executionDurationNanos;
+	private long totalDurationNanos;
 
 	public SingletonTask(Plugin plugin) {
 		Validate.notNull(plugin, "plugin is null");
@@ -349,9 +349,7 @@ public abstract class SingletonTask {
 		internalSyncCallback = this.createInternalSyncCallbackTask();
 
 		preparationEndTimeNanos = System.nanoTime();
-		preparationDurationMillis = TimeUnit.NANOSECONDS.toMillis(
-				preparationEndTimeNanos - startTimeNanos
-		);
+		preparationDurationNanos = preparationEndTimeNanos - startTimeNanos;
 		state = State.PENDING;
 
 		if (async) {
@@ -514,12 +512,8 @@ public abstract class SingletonTask {
 		Unsafe.assertNonNull(internalCallback).run();
 
 		final long executionEndTimeNanos = System.nanoTime();
-		executionDurationMillis = TimeUnit.NANOSECONDS.toMillis(
-				executionEndTimeNanos - executionStartTimeNanos
-		);
-		totalDurationMillis = TimeUnit.NANOSECONDS.toMillis(
-				executionEndTimeNanos - startTimeNanos
-		);
+		executionDurationNanos = executionEndTimeNanos - executionStartTimeNanos;
+		totalDurationNanos = executionEndTimeNanos - startTimeNanos;
 	}
 
 	// EXECUTION INFORMATION AND STATISTICS
@@ -543,7 +537,17 @@ public abstract class SingletonTask {
 	 * @return the preparation duration in milliseconds
 	 */
 	public final long getPreparationDuration() {
-		return preparationDurationMillis;
+		return TimeUnit.NANOSECONDS.toMillis(preparationDurationNanos);
+	}
+
+	/**
+	 * Gets the preparation duration of the previous execution in nanoseconds.
+	 * 
+	 * @return the preparation duration in nanoseconds
+	 * @see #getPreparationDuration()
+	 */
+	public final long getPreparationDurationNanos() {
+		return preparationDurationNanos;
 	}
 
 	/**
@@ -584,7 +588,17 @@ public abstract class SingletonTask {
 	 * @return the execution duration in milliseconds
 	 */
 	public final long getExecutionDuration() {
-		return executionDurationMillis;
+		return TimeUnit.NANOSECONDS.toMillis(executionDurationNanos);
+	}
+
+	/**
+	 * Gets the duration of the previous execution in nanoseconds.
+	 * 
+	 * @return the execution duration in nanoseconds
+	 * @see #getExecutionDuration()
+	 */
+	public final long getExecutionDurationNanos() {
+		return executionDurationNanos;
 	}
 
 	/**
@@ -596,7 +610,17 @@ public abstract class SingletonTask {
 	 * @return the total execution duration in milliseconds
 	 */
 	public final long getTotalDuration() {
-		return totalDurationMillis;
+		return TimeUnit.NANOSECONDS.toMillis(totalDurationNanos);
+	}
+
+	/**
+	 * Gets the total duration of the previous execution in nanoseconds.
+	 * 
+	 * @return the total execution duration in nanoseconds
+	 * @see #getTotalDuration()
+	 */
+	public final long getTotalDurationNanos() {
+		return totalDurationNanos;
 	}
 
 	/**
@@ -608,7 +632,7 @@ public abstract class SingletonTask {
 	 */
 	public final String getExecutionTimingString() {
 		StringBuilder sb = new StringBuilder();
-		sb.append(totalDurationMillis).append(" ms");
+		sb.append(this.getTotalDuration()).append(" ms");
 		String details = this.getExecutionTimingDetailString();
 		if (!details.isEmpty()) {
 			sb.append(" (").append(details).append(")");
@@ -621,6 +645,7 @@ public abstract class SingletonTask {
 		StringBuilder sb = new StringBuilder();
 		boolean firstEntry = true;
 
+		long preparationDurationMillis = this.getPreparationDuration();
 		if (preparationDurationMillis > 0) {
 			firstEntry = false;
 			sb.append("Preparation: ").append(preparationDurationMillis).append(" ms");
@@ -645,6 +670,7 @@ public abstract class SingletonTask {
 			}
 		}
 
+		long executionDurationMillis = this.getExecutionDuration();
 		if (executionDurationMillis > 0) {
 			if (!firstEntry) {
 				sb.append(", ");
@@ -25,10 +25,12 @@ import com.nisovin.shopkeepers.api.user.User;
 import com.nisovin.shopkeepers.api.util.ChunkCoords;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
 import com.nisovin.shopkeepers.compat.NMSManager;
+import com.nisovin.shopkeepers.spigot.text.RenderedMessage;
 import com.nisovin.shopkeepers.spigot.text.SpigotText;
 import com.nisovin.shopkeepers.text.HoverEventText;
 import com.nisovin.shopkeepers.text.Text;
 import com.nisovin.shopkeepers.text.TextBuilder;
+import com.nisovin.shopkeepers.text.TextTemplate;
 import com.nisovin.shopkeepers.util.annotations.ReadOnly;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
 import com.nisovin.shopkeepers.util.java.StringUtils;
@@ -517,6 +519,37 @@ public final class TextUtils {
 		SpigotText.sendMessage(recipient, message);
 	}
 
+	/**
+	 * Renders the given {@link Text} into a {@link RenderedMessage} that can be sent to any number
+	 * of recipients without being rendered again.
+	 * 
+	 * @param message
+	 *            the message, not <code>null</code>
+	 * @return the rendered message, not <code>null</code>
+	 */
+	public static RenderedMessage renderMessage(Text message) {
+		return SpigotText.render(message);
+	}
+
+	/**
+	 * Renders the given {@link TextTemplate} with the given placeholder arguments into a
+	 * {@link RenderedMessage}.
+	 * 
+	 * @param template
+	 *            the message template, not <code>null</code>
+	 * @param arguments
+	 *            the placeholder arguments, not <code>null</code>
+	 * @return the rendered message, not <code>null</code>
+	 */
+	public static RenderedMessage renderMessage(TextTemplate template, MessageArguments arguments) {
+		Validate.notNull(template, "template is null");
+		return template.render(arguments, SpigotText::render);
+	}
+
+	public static void sendMessage(CommandSender recipient, RenderedMessage message) {
+		SpigotText.sendMessage(recipient, message);
+	}
+
 	public static void sendMessage(
 			CommandSender recipient,
 			Text message,
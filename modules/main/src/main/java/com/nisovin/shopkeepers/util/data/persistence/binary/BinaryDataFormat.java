@@ -0,0 +1,381 @@
+package com.nisovin.shopkeepers.util.data.persistence.binary;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.util.data.container.DataContainer;
+import com.nisovin.shopkeepers.util.data.persistence.InvalidDataFormatException;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * A compact binary encoding of the data of a {@link DataContainer}.
+ * <p>
+ * The encoding supports the same kinds of values as Bukkit's YAML configurations: Maps with String
+ * keys (including {@link DataContainer}s and {@link ConfigurationSection}s), lists, Strings,
+ * booleans, numbers, and {@link ConfigurationSerializable}s. Numbers retain their type, except that
+ * bytes and shorts are decoded as integers, similar to how they are loaded from YAML.
+ * {@link ConfigurationSerializable}s are encoded as Maps that contain their type alias under the
+ * key {@link ConfigurationSerialization#SERIALIZED_TYPE_KEY}, and are deserialized again when
+ * decoded.
+ * <p>
+ * All values are length-prefixed. Strings, which includes Map keys, are interned: The first
+ * occurrence of each String is encoded in full and added to a String table, and subsequent
+ * occurrences only refer to their index inside that table.
+ */
+public final class BinaryDataFormat {
+
+	private static final int MAGIC = 0x534B4244; // "SKBD"
+	private static final int FORMAT_VERSION = 1;
+
+	private static final byte TAG_NULL = 0;
+	private static final byte TAG_TRUE = 1;
+	private static final byte TAG_FALSE = 2;
+	private static final byte TAG_INT = 3;
+	private static final byte TAG_LONG = 4;
+	private static final byte TAG_FLOAT = 5;
+	private static final byte TAG_DOUBLE = 6;
+	private static final byte TAG_STRING = 7;
+	private static final byte TAG_LIST = 8;
+	private static final byte TAG_MAP = 9;
+
+	/**
+	 * Checks if the given data starts with the header of this binary format.
+	 * 
+	 * @param data
+	 *            the data, not <code>null</code>
+	 * @return <code>true</code> if the data is likely in this binary format
+	 */
+	public static boolean isBinaryData(byte[] data) {
+		Validate.notNull(data, "data is null");
+		if (data.length < 4) return false;
+		int magic = ((data[0] & 0xFF) << 24)
+				| ((data[1] & 0xFF) << 16)
+				| ((data[2] & 0xFF) << 8)
+				| (data[3] & 0xFF);
+		return magic == MAGIC;
+	}
+
+	/**
+	 * Encodes the given data.
+	 * 
+	 * @param data
+	 *            the data, not <code>null</code>
+	 * @return the encoded data, not <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the data contains values that are not supported
+	 */
+	public static byte[] encode(Map<?, ?> data) {
+		Validate.notNull(data, "data is null");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			new Encoder(out).writeMap(data);
+		} catch (IOException e) {
+			// Not expected to occur when writing to a byte array:
+			throw new IllegalStateException("Failed to encode the data!", e);
+		}
+		return Unsafe.assertNonNull(bytes.toByteArray());
+	}
+
+	/**
+	 * Decodes the given data.
+	 * 
+	 * @param data
+	 *            the encoded data, not <code>null</code>
+	 * @return the decoded data, not <code>null</code>
+	 * @throws InvalidDataFormatException
+	 *             if the data is not in the expected format, or if it contains
+	 *             {@link ConfigurationSerializable}s that cannot be deserialized
+	 */
+	public static Map<@NonNull String, @NonNull Object> decode(
+			byte[] data
+	) throws InvalidDataFormatException {
+		Validate.notNull(data, "data is null");
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			if (in.readInt() != MAGIC) {
+				throw new InvalidDataFormatException("Unknown binary data format!");
+			}
+			int formatVersion = in.readInt();
+			if (formatVersion != FORMAT_VERSION) {
+				throw new InvalidDataFormatException("Unsupported binary data format version: "
+						+ formatVersion);
+			}
+			Decoder decoder = new Decoder(in);
+			Map<@NonNull String, @NonNull Object> map = decoder.readMapContents();
+			if (in.read() != -1) {
+				throw new InvalidDataFormatException("Unexpected data after the end of the"
+						+ " encoded data!");
+			}
+			return map;
+		} catch (EOFException e) {
+			throw new InvalidDataFormatException("Unexpected end of the binary data!", e);
+		} catch (IOException e) {
+			// Not expected to occur when reading from a byte array:
+			throw new InvalidDataFormatException("Failed to decode the binary data!", e);
+		}
+	}
+
+	private static final class Encoder {
+
+		private final DataOutputStream out;
+		private final Map<@NonNull String, @NonNull Integer> stringTable = new HashMap<>();
+
+		Encoder(DataOutputStream out) {
+			this.out = out;
+		}
+
+		// Index 0 indicates a new String, followed by the encoded String. Otherwise, the value is
+		// the index of the String inside the String table, plus one.
+		void writeString(String string) throws IOException {
+			Integer index = stringTable.get(string);
+			if (index != null) {
+				writeVarInt(out, index + 1);
+				return;
+			}
+
+			writeVarInt(out, 0);
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(out, bytes.length);
+			out.write(bytes);
+			stringTable.put(string, stringTable.size());
+		}
+
+		void writeMap(Map<?, ?> map) throws IOException {
+			writeVarInt(out, map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				this.writeString(String.valueOf(entry.getKey()));
+				this.writeValue(entry.getValue());
+			}
+		}
+
+		void writeValue(@Nullable Object value) throws IOException {
+			if (value == null) {
+				out.writeByte(TAG_NULL);
+			} else if (value instanceof Boolean) {
+				out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+			} else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+				out.writeByte(TAG_INT);
+				writeVarLong(out, ((Number) value).intValue());
+			} else if (value instanceof Long) {
+				out.writeByte(TAG_LONG);
+				writeVarLong(out, (Long) value);
+			} else if (value instanceof Float) {
+				out.writeByte(TAG_FLOAT);
+				out.writeFloat((Float) value);
+			} else if (value instanceof Double) {
+				out.writeByte(TAG_DOUBLE);
+				out.writeDouble((Double) value);
+			} else if (value instanceof String || value instanceof Character) {
+				out.writeByte(TAG_STRING);
+				this.writeString(value.toString());
+			} else if (value instanceof List) {
+				List<?> list = (List<?>) value;
+				out.writeByte(TAG_LIST);
+				writeVarInt(out, list.size());
+				for (Object element : list) {
+					this.writeValue(element);
+				}
+			} else if (value instanceof Map) {
+				out.writeByte(TAG_MAP);
+				this.writeMap((Map<?, ?>) value);
+			} else if (value instanceof DataContainer) {
+				out.writeByte(TAG_MAP);
+				this.writeMap(((DataContainer) value).getValues());
+			} else if (value instanceof ConfigurationSection) {
+				out.writeByte(TAG_MAP);
+				this.writeMap(((ConfigurationSection) value).getValues(false));
+			} else if (value instanceof ConfigurationSerializable) {
+				ConfigurationSerializable serializable = (ConfigurationSerializable) value;
+				Map<@NonNull String, @NonNull Object> serialized = new LinkedHashMap<>();
+				serialized.put(
+						ConfigurationSerialization.SERIALIZED_TYPE_KEY,
+						ConfigurationSerialization.getAlias(serializable.getClass())
+				);
+				serialized.putAll(serializable.serialize());
+				out.writeByte(TAG_MAP);
+				this.writeMap(serialized);
+			} else {
+				throw new IllegalArgumentException("Unsupported value type: "
+						+ value.getClass().getName());
+			}
+		}
+	}
+
+	private static final class Decoder {
+
+		private final DataInputStream in;
+		private final List<@NonNull String> stringTable = new ArrayList<>();
+
+		Decoder(DataInputStream in) {
+			this.in = in;
+		}
+
+		String readString() throws IOException, InvalidDataFormatException {
+			int reference = readVarInt(in);
+			if (reference != 0) {
+				int index = reference - 1;
+				if (index < 0 || index >= stringTable.size()) {
+					throw new InvalidDataFormatException("Invalid String reference: " + reference);
+				}
+				return stringTable.get(index);
+			}
+
+			int length = readVarInt(in);
+			if (length < 0 || length > in.available()) {
+				throw new InvalidDataFormatException("Invalid String length: " + length);
+			}
+			byte[] bytes = new byte[length];
+			in.readFully(bytes);
+			String string = new String(bytes, StandardCharsets.UTF_8);
+			stringTable.add(string);
+			return string;
+		}
+
+		Map<@NonNull String, @NonNull Object> readMapContents()
+				throws IOException, InvalidDataFormatException {
+			int size = readVarInt(in);
+			if (size < 0 || size > in.available()) {
+				throw new InvalidDataFormatException("Invalid Map size: " + size);
+			}
+			Map<@NonNull String, @NonNull Object> map = new LinkedHashMap<>(size * 4 / 3 + 1);
+			for (int i = 0; i < size; i++) {
+				String key = this.readString();
+				Object value = this.readValue();
+				// Similar to configurations, Maps do not store null values:
+				if (value != null) {
+					map.put(key, value);
+				}
+			}
+			return map;
+		}
+
+		@Nullable Object readValue() throws IOException, InvalidDataFormatException {
+			byte tag = in.readByte();
+			switch (tag) {
+			case TAG_NULL:
+				return null;
+			case TAG_TRUE:
+				return Boolean.TRUE;
+			case TAG_FALSE:
+				return Boolean.FALSE;
+			case TAG_INT:
+				return (int) readVarLong(in);
+			case TAG_LONG:
+				return readVarLong(in);
+			case TAG_FLOAT:
+				return in.readFloat();
+			case TAG_DOUBLE:
+				return in.readDouble();
+			case TAG_STRING:
+				return this.readString();
+			case TAG_LIST:
+				int size = readVarInt(in);
+				if (size < 0 || size > in.available()) {
+					throw new InvalidDataFormatException("Invalid List size: " + size);
+				}
+				List<@Nullable Object> list = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					list.add(this.readValue());
+				}
+				return list;
+			case TAG_MAP:
+				return this.deserializeIfSerializable(this.readMapContents());
+			default:
+				throw new InvalidDataFormatException("Unknown value tag: " + tag);
+			}
+		}
+
+		// Similar to Bukkit's YAML configurations, Maps that specify a serialized type are
+		// deserialized into the corresponding ConfigurationSerializable. Since nested values are
+		// decoded first, the deserialization happens bottom-up.
+		private Object deserializeIfSerializable(
+				Map<@NonNull String, @NonNull Object> map
+		) throws InvalidDataFormatException {
+			Object type = map.get(ConfigurationSerialization.SERIALIZED_TYPE_KEY);
+			if (type == null) return map;
+
+			ConfigurationSerializable deserialized;
+			try {
+				// Note: Bukkit logs (instead of throws) most deserialization errors and then
+				// returns null.
+				deserialized = ConfigurationSerialization.deserializeObject(map);
+			} catch (Exception e) {
+				throw new InvalidDataFormatException("Failed to deserialize object of type '"
+						+ type + "'!", e);
+			}
+			if (deserialized == null) {
+				throw new InvalidDataFormatException("Failed to deserialize object of type '"
+						+ type + "'!");
+			}
+			return deserialized;
+		}
+	}
+
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		assert value >= 0;
+		int remaining = value;
+		while ((remaining & ~0x7F) != 0) {
+			out.writeByte((remaining & 0x7F) | 0x80);
+			remaining >>>= 7;
+		}
+		out.writeByte(remaining);
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException, InvalidDataFormatException {
+		long value = readUnsignedVarLong(in);
+		if (value > Integer.MAX_VALUE) {
+			throw new InvalidDataFormatException("Invalid length or index: " + value);
+		}
+		return (int) value;
+	}
+
+	// Zig-zag encoding: Small negative numbers are encoded compactly as well.
+	private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+		long remaining = (value << 1) ^ (value >> 63);
+		while ((remaining & ~0x7FL) != 0L) {
+			out.writeByte((int) ((remaining & 0x7F) | 0x80));
+			remaining >>>= 7;
+		}
+		out.writeByte((int) remaining);
+	}
+
+	private static long readVarLong(DataInputStream in) throws IOException, InvalidDataFormatException {
+		long encoded = readUnsignedVarLong(in);
+		return (encoded >>> 1) ^ -(encoded & 1L);
+	}
+
+	private static long readUnsignedVarLong(
+			DataInputStream in
+	) throws IOException, InvalidDataFormatException {
+		long value = 0L;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new InvalidDataFormatException("Malformed variable-length number!");
+	}
+
+	private BinaryDataFormat() {
+	}
+}
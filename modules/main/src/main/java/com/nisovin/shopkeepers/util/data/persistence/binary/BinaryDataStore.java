@@ -0,0 +1,100 @@
+package com.nisovin.shopkeepers.util.data.persistence.binary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.util.data.container.MapBasedDataContainer;
+import com.nisovin.shopkeepers.util.data.persistence.DataStore;
+import com.nisovin.shopkeepers.util.data.persistence.DataStoreBase;
+import com.nisovin.shopkeepers.util.data.persistence.InvalidDataFormatException;
+import com.nisovin.shopkeepers.util.java.FileUtils;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * A {@link DataStore} that saves and loads its data in the {@link BinaryDataFormat}.
+ * <p>
+ * Files are read and written as raw bytes. The String based methods, such as
+ * {@link #loadFromString(String)} and {@link #saveToString()}, use the Base64 encoding of the
+ * binary data.
+ */
+public class BinaryDataStore extends MapBasedDataContainer implements DataStoreBase {
+
+	/**
+	 * Creates a new empty {@link BinaryDataStore}.
+	 * 
+	 * @return the data store, not <code>null</code>
+	 */
+	public static BinaryDataStore create() {
+		return new BinaryDataStore();
+	}
+
+	/////
+
+	/**
+	 * Creates a new {@link BinaryDataStore}.
+	 */
+	protected BinaryDataStore() {
+	}
+
+	/**
+	 * Loads the contents of this data container from the given binary data.
+	 * <p>
+	 * All currently stored values of this data container are removed and subsequently replaced with
+	 * the newly loaded values.
+	 * 
+	 * @param data
+	 *            the binary data, not <code>null</code>
+	 * @throws InvalidDataFormatException
+	 *             if the data is not in the {@link BinaryDataFormat}
+	 */
+	public void loadFromBytes(byte[] data) throws InvalidDataFormatException {
+		Map<@NonNull String, @NonNull Object> values = BinaryDataFormat.decode(data);
+		this.clear();
+		this.setAll(values);
+	}
+
+	/**
+	 * Saves the contents of this data container in the {@link BinaryDataFormat}.
+	 * 
+	 * @return the binary data, not <code>null</code>
+	 */
+	public byte[] saveToBytes() {
+		return BinaryDataFormat.encode(this.getValues());
+	}
+
+	@Override
+	public void load(Path path) throws IOException, InvalidDataFormatException {
+		Validate.notNull(path, "path is null");
+		this.loadFromBytes(Unsafe.assertNonNull(Files.readAllBytes(path)));
+	}
+
+	@Override
+	public void loadFromString(String data) throws InvalidDataFormatException {
+		Validate.notNull(data, "data is null");
+		byte[] bytes;
+		try {
+			bytes = Base64.getMimeDecoder().decode(data.trim());
+		} catch (IllegalArgumentException e) {
+			throw new InvalidDataFormatException("Data is not Base64 encoded!", e);
+		}
+		this.loadFromBytes(Unsafe.assertNonNull(bytes));
+	}
+
+	@Override
+	public void save(Path path) throws IOException {
+		Validate.notNull(path, "path is null");
+		FileUtils.createParentDirectories(path);
+		Files.write(path, this.saveToBytes());
+	}
+
+	@Override
+	public String saveToString() {
+		return Unsafe.assertNonNull(Base64.getEncoder().encodeToString(this.saveToBytes()));
+	}
+}
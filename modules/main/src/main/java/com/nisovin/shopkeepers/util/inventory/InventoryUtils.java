@@ -616,6 +616,41 @@ public final class InventoryUtils {
 		}
 	}
 
+	/**
+	 * Applies the slots of the given new contents that differ from the given old contents to the
+	 * given inventory.
+	 * <p>
+	 * Slots whose item stack in the new contents is the same instance as in the old contents are
+	 * assumed to be unchanged and are skipped without comparing them to the inventory's current
+	 * items. This matches the operations of this class, which replace item stacks with modified
+	 * copies instead of modifying them.
+	 * 
+	 * @param inventory
+	 *            the inventory, not <code>null</code>
+	 * @param oldContents
+	 *            the contents that were previously retrieved from the inventory, not
+	 *            <code>null</code>
+	 * @param newContents
+	 *            the new contents, not <code>null</code>, with the same length as the old contents
+	 */
+	public static void setChangedContents(
+			Inventory inventory,
+			@ReadOnly @Nullable ItemStack @ReadOnly [] oldContents,
+			@ReadOnly @Nullable ItemStack @ReadOnly [] newContents
+	) {
+		Validate.notNull(inventory, "inventory is null");
+		Validate.notNull(oldContents, "oldContents is null");
+		Validate.notNull(newContents, "newContents is null");
+		Validate.isTrue(oldContents.length == newContents.length,
+				"oldContents and newContents have different lengths");
+		final int length = newContents.length;
+		for (int slot = 0; slot < length; ++slot) {
+			ItemStack newItem = newContents[slot];
+			if (newItem == oldContents[slot]) continue;
+			inventory.setItem(slot, newItem); // This copies the item internally
+		}
+	}
+
 	public static void updateInventoryLater(Inventory inventory) {
 		Validate.notNull(inventory, "inventory is null");
 		// If the inventory belongs to a player, always update it for that player:
@@ -332,6 +332,9 @@ public final class ItemData {
 	// Cache serialized item metadata, to avoid serializing it again for every comparison:
 	// Gets lazily initialized when needed.
 	private @ReadOnly @Nullable Map<? extends @NonNull String, @ReadOnly @NonNull ?> serializedMetaData = null;
+	// Compiled from the serialized item metadata, to speed up the matching of items:
+	// Gets lazily initialized when needed.
+	private @Nullable ItemDataMatcher matcher = null;
 
 	public ItemData(Material type) {
 		// Unmodifiable wrapper: Avoids creating another item copy during construction.
@@ -413,6 +416,20 @@ public final class ItemData {
 		return serializedMetaData;
 	}
 
+	// Not null.
+	private ItemDataMatcher getMatcher() {
+		// Lazily compile the matcher:
+		if (matcher == null) {
+			matcher = ItemDataMatcher.compile(
+					this.getType(),
+					dataItem.getItemMeta(),
+					this.getSerializedMetaData()
+			);
+		}
+		assert matcher != null;
+		return matcher;
+	}
+
 	public boolean hasItemMeta() {
 		return !this.getSerializedMetaData().isEmpty(); // Equivalent to dataItem.hasItemMeta()
 	}
@@ -453,12 +470,7 @@ public final class ItemData {
 
 	public boolean matches(@ReadOnly @Nullable ItemStack item, boolean matchPartialLists) {
 		// Same type and matching data:
-		return ItemUtils.matchesData(
-				item,
-				this.getType(),
-				this.getSerializedMetaData(),
-				matchPartialLists
-		);
+		return this.getMatcher().matches(item, matchPartialLists);
 	}
 
 	public boolean matches(@Nullable UnmodifiableItemStack item, boolean matchPartialLists) {
@@ -473,9 +485,8 @@ public final class ItemData {
 	public boolean matches(@Nullable ItemData itemData, boolean matchPartialLists) {
 		if (itemData == null) return false;
 		if (itemData.getType() != this.getType()) return false;
-		return ItemUtils.matchesData(
+		return this.getMatcher().matchesMetaData(
 				itemData.getSerializedMetaData(),
-				this.getSerializedMetaData(),
 				matchPartialLists
 		);
 	}
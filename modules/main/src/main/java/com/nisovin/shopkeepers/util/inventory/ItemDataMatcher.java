@@ -0,0 +1,348 @@
+package com.nisovin.shopkeepers.util.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.Repairable;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.util.annotations.ReadOnly;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * Checks if items match the item type and metadata of an {@link ItemData}.
+ * <p>
+ * This is equivalent to {@link ItemUtils#matchesData(ItemStack, Material, Map, boolean)}, but the
+ * serialized metadata of the {@link ItemData} is compiled only once into a tree of matching nodes.
+ * Additionally, before the metadata of a candidate item is serialized, the candidate is compared
+ * via cheap {@link ItemMeta} getters that are known to be consistent with the serialized data.
+ * Most items that do not match the {@link ItemData} are therefore rejected without having to
+ * serialize their metadata.
+ */
+final class ItemDataMatcher {
+
+	// Keys of the serialized item metadata that we compare via ItemMeta getters:
+	private static final String DISPLAY_NAME_KEY = "display-name";
+	private static final String LOC_NAME_KEY = "loc-name";
+	private static final String LORE_KEY = "lore";
+	private static final String CUSTOM_MODEL_DATA_KEY = "custom-model-data";
+	private static final String ENCHANTS_KEY = "enchants";
+	private static final String REPAIR_COST_KEY = "repair-cost";
+	private static final String UNBREAKABLE_KEY = "Unbreakable";
+	private static final String DAMAGE_KEY = "Damage";
+
+	/**
+	 * Compiles an {@link ItemDataMatcher}.
+	 * 
+	 * @param type
+	 *            the item type, not <code>null</code>
+	 * @param itemMeta
+	 *            the item meta of the data item, or <code>null</code>
+	 * @param serializedMetaData
+	 *            the serialized metadata of the data item, not <code>null</code>, can be empty
+	 * @return the matcher
+	 */
+	static ItemDataMatcher compile(
+			Material type,
+			@ReadOnly @Nullable ItemMeta itemMeta,
+			@ReadOnly Map<? extends @NonNull String, @ReadOnly @NonNull ?> serializedMetaData
+	) {
+		Validate.notNull(type, "type is null");
+		Validate.notNull(serializedMetaData, "serializedMetaData is null");
+		if (serializedMetaData.isEmpty()) {
+			return new ItemDataMatcher(type, null, new @NonNull MetaCheck[0]);
+		}
+		// Not null if there is serialized metadata:
+		Unsafe.assertNonNull(itemMeta);
+		assert itemMeta != null;
+
+		Node metaDataNode = compileNode(serializedMetaData);
+		List<@NonNull MetaCheck> metaChecks = new ArrayList<>();
+		// The serialized data contains these keys only if the corresponding getters return
+		// non-empty values. The serialized values are derived from the same data as the values
+		// returned by the getters. Items whose getters return different values can therefore not
+		// match the serialized data.
+		if (serializedMetaData.containsKey(DISPLAY_NAME_KEY)) {
+			String displayName = itemMeta.getDisplayName();
+			metaChecks.add((meta, matchPartialLists) -> {
+				return meta.hasDisplayName() && displayName.equals(meta.getDisplayName());
+			});
+		}
+		if (serializedMetaData.containsKey(LOC_NAME_KEY)) {
+			String localizedName = itemMeta.getLocalizedName();
+			metaChecks.add((meta, matchPartialLists) -> {
+				return meta.hasLocalizedName() && localizedName.equals(meta.getLocalizedName());
+			});
+		}
+		if (serializedMetaData.containsKey(LORE_KEY)) {
+			List<? extends @NonNull String> lore = Unsafe.assertNonNull(itemMeta.getLore());
+			metaChecks.add((meta, matchPartialLists) -> {
+				if (!meta.hasLore()) return false;
+				List<? extends @NonNull String> otherLore = Unsafe.assertNonNull(meta.getLore());
+				if (matchPartialLists) {
+					return otherLore.containsAll(lore);
+				} else {
+					return lore.equals(otherLore);
+				}
+			});
+		}
+		if (serializedMetaData.containsKey(CUSTOM_MODEL_DATA_KEY)) {
+			int customModelData = itemMeta.getCustomModelData();
+			metaChecks.add((meta, matchPartialLists) -> {
+				return meta.hasCustomModelData() && meta.getCustomModelData() == customModelData;
+			});
+		}
+		if (serializedMetaData.containsKey(ENCHANTS_KEY)) {
+			Map<@NonNull Enchantment, @NonNull Integer> enchants = itemMeta.getEnchants();
+			int enchantsCount = enchants.size();
+			@NonNull Enchantment[] enchantments = new @NonNull Enchantment[enchantsCount];
+			int[] levels = new int[enchantsCount];
+			int index = 0;
+			for (Entry<@NonNull Enchantment, @NonNull Integer> enchant : enchants.entrySet()) {
+				enchantments[index] = enchant.getKey();
+				levels[index] = enchant.getValue();
+				index++;
+			}
+			metaChecks.add((meta, matchPartialLists) -> {
+				if (!meta.hasEnchants()) return false;
+				for (int i = 0; i < enchantsCount; i++) {
+					if (meta.getEnchantLevel(enchantments[i]) != levels[i]) return false;
+				}
+				return true;
+			});
+		}
+		if (serializedMetaData.containsKey(UNBREAKABLE_KEY)) {
+			metaChecks.add((meta, matchPartialLists) -> meta.isUnbreakable());
+		}
+		if (serializedMetaData.containsKey(DAMAGE_KEY) && itemMeta instanceof Damageable) {
+			int damage = ((Damageable) itemMeta).getDamage();
+			metaChecks.add((meta, matchPartialLists) -> {
+				return meta instanceof Damageable && ((Damageable) meta).getDamage() == damage;
+			});
+		}
+		if (serializedMetaData.containsKey(REPAIR_COST_KEY) && itemMeta instanceof Repairable) {
+			int repairCost = ((Repairable) itemMeta).getRepairCost();
+			metaChecks.add((meta, matchPartialLists) -> {
+				if (!(meta instanceof Repairable)) return false;
+				return ((Repairable) meta).getRepairCost() == repairCost;
+			});
+		}
+		return new ItemDataMatcher(
+				type,
+				metaDataNode,
+				metaChecks.toArray(new @NonNull MetaCheck[metaChecks.size()])
+		);
+	}
+
+	private static Node compileNode(@ReadOnly Object data) {
+		if (data instanceof Map) {
+			Map<?, ?> dataMap = (Map<?, ?>) data;
+			int size = dataMap.size();
+			@NonNull Object[] keys = new @NonNull Object[size];
+			@NonNull Node[] values = new @NonNull Node[size];
+			int index = 0;
+			for (Entry<?, ?> entry : dataMap.entrySet()) {
+				keys[index] = Unsafe.assertNonNull(entry.getKey());
+				Object value = entry.getValue();
+				values[index] = (value != null) ? compileNode(value) : AnyNode.INSTANCE;
+				index++;
+			}
+			return new MapNode(keys, values);
+		} else if (data instanceof List) {
+			List<?> dataList = (List<?>) data;
+			@NonNull Node[] elements = new @NonNull Node[dataList.size()];
+			int index = 0;
+			for (Object element : dataList) {
+				elements[index++] = (element != null) ? compileNode(element) : AnyNode.INSTANCE;
+			}
+			return new ListNode(dataList, elements);
+		} else {
+			return new ValueNode(data);
+		}
+	}
+
+	@FunctionalInterface
+	private interface MetaCheck {
+
+		/**
+		 * Checks if the given item meta can match the data.
+		 * 
+		 * @param itemMeta
+		 *            the item meta, not <code>null</code>
+		 * @param matchPartialLists
+		 *            <code>true</code> to match partial lists
+		 * @return <code>false</code> if the item meta cannot match the data
+		 */
+		public boolean test(@ReadOnly ItemMeta itemMeta, boolean matchPartialLists);
+	}
+
+	/**
+	 * A node of the compiled data tree.
+	 * <p>
+	 * Each node checks if a target object contains the data of the node, in the same way as
+	 * {@link ItemUtils#matchesData(Map, Map, boolean)}.
+	 */
+	private static abstract class Node {
+
+		abstract boolean matches(@ReadOnly @Nullable Object target, boolean matchPartialLists);
+	}
+
+	// Used for null values, which are matched by any target.
+	private static final class AnyNode extends Node {
+
+		static final AnyNode INSTANCE = new AnyNode();
+
+		@Override
+		boolean matches(@ReadOnly @Nullable Object target, boolean matchPartialLists) {
+			return true;
+		}
+	}
+
+	private static final class ValueNode extends Node {
+
+		private final Object value;
+
+		ValueNode(Object value) {
+			this.value = value;
+		}
+
+		@Override
+		boolean matches(@ReadOnly @Nullable Object target, boolean matchPartialLists) {
+			if (target == null) return false;
+			return value.equals(target);
+		}
+	}
+
+	private static final class MapNode extends Node {
+
+		private final @NonNull Object[] keys;
+		private final @NonNull Node[] values;
+
+		MapNode(@NonNull Object[] keys, @NonNull Node[] values) {
+			assert keys.length == values.length;
+			this.keys = keys;
+			this.values = values;
+		}
+
+		@Override
+		boolean matches(@ReadOnly @Nullable Object target, boolean matchPartialLists) {
+			if (!(target instanceof Map)) return false;
+			Map<?, ?> targetMap = (Map<?, ?>) target;
+			for (int i = 0; i < keys.length; i++) {
+				Object targetValue = targetMap.get(keys[i]);
+				if (!values[i].matches(targetValue, matchPartialLists)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static final class ListNode extends Node {
+
+		private final List<?> list;
+		private final @NonNull Node[] elements;
+
+		ListNode(List<?> list, @NonNull Node[] elements) {
+			this.list = list;
+			this.elements = elements;
+		}
+
+		@Override
+		boolean matches(@ReadOnly @Nullable Object target, boolean matchPartialLists) {
+			if (!matchPartialLists) {
+				if (target == null) return false;
+				return list.equals(target);
+			}
+
+			if (!(target instanceof List)) return false;
+			List<?> targetList = (List<?>) target;
+			// Avoid loop (TODO: only works if the list doesn't contain duplicate entries):
+			if (elements.length > targetList.size()) {
+				return false;
+			}
+			for (Node element : elements) {
+				boolean dataContained = false;
+				for (Object targetEntry : targetList) {
+					if (element.matches(targetEntry, matchPartialLists)) {
+						dataContained = true;
+						break;
+					}
+				}
+				if (!dataContained) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/////
+
+	private final Material type;
+	// Null if the data contains no metadata:
+	private final @Nullable Node metaDataNode;
+	private final @NonNull MetaCheck[] metaChecks;
+
+	private ItemDataMatcher(
+			Material type,
+			@Nullable Node metaDataNode,
+			@NonNull MetaCheck[] metaChecks
+	) {
+		this.type = type;
+		this.metaDataNode = metaDataNode;
+		this.metaChecks = metaChecks;
+	}
+
+	/**
+	 * Checks if the given item matches the data.
+	 * 
+	 * @param item
+	 *            the item, can be <code>null</code>
+	 * @param matchPartialLists
+	 *            <code>true</code> to match partial lists
+	 * @return <code>true</code> if the item matches
+	 */
+	boolean matches(@ReadOnly @Nullable ItemStack item, boolean matchPartialLists) {
+		if (item == null) return false;
+		if (item.getType() != type) return false;
+		Node metaDataNode = this.metaDataNode;
+		if (metaDataNode == null) return true;
+
+		ItemMeta itemMeta = item.getItemMeta();
+		if (itemMeta == null) return false;
+		for (MetaCheck metaCheck : metaChecks) {
+			if (!metaCheck.test(itemMeta, matchPartialLists)) return false;
+		}
+
+		// Compare the remaining data:
+		return metaDataNode.matches(itemMeta.serialize(), matchPartialLists);
+	}
+
+	/**
+	 * Checks if the given serialized metadata of an item of the same type matches the data.
+	 * 
+	 * @param serializedMetaData
+	 *            the serialized metadata, not <code>null</code>
+	 * @param matchPartialLists
+	 *            <code>true</code> to match partial lists
+	 * @return <code>true</code> if the metadata matches
+	 */
+	boolean matchesMetaData(
+			@ReadOnly Map<? extends @NonNull String, @ReadOnly @NonNull ?> serializedMetaData,
+			boolean matchPartialLists
+	) {
+		Node metaDataNode = this.metaDataNode;
+		if (metaDataNode == null) return true;
+		return metaDataNode.matches(serializedMetaData, matchPartialLists);
+	}
+}
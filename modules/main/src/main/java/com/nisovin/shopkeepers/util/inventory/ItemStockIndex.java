@@ -0,0 +1,117 @@
+package com.nisovin.shopkeepers.util.inventory;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.util.annotations.ReadOnly;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * An index of the total amounts of the {@link ItemStack#isSimilar(ItemStack) similar} items inside
+ * some inventory contents.
+ * <p>
+ * The index is built with a single pass over the contents: Each item is grouped with the first
+ * encountered similar item of the same type. Looking up the amount of items that are similar to a
+ * given item then only compares the given item with the distinct items of its type, instead of
+ * with all items of the contents. This is useful when the amounts of many different items need to
+ * be checked for the same contents, such as when the trading recipes of a player shop are created.
+ * <p>
+ * The index is a snapshot: It does not reflect subsequent changes of the contents.
+ */
+public final class ItemStockIndex {
+
+	private static final class Stock {
+
+		// The first encountered item of this group of similar items:
+		final ItemStack item;
+		int amount;
+
+		Stock(ItemStack item, int amount) {
+			this.item = item;
+			this.amount = amount;
+		}
+	}
+
+	/**
+	 * Creates a new {@link ItemStockIndex} for the given contents.
+	 * 
+	 * @param contents
+	 *            the contents, not <code>null</code>
+	 * @return the item stock index
+	 */
+	public static ItemStockIndex of(@ReadOnly @Nullable ItemStack @ReadOnly [] contents) {
+		Validate.notNull(contents, "contents is null");
+		ItemStockIndex index = new ItemStockIndex();
+		for (ItemStack itemStack : contents) {
+			if (itemStack == null) continue;
+			if (ItemUtils.isEmpty(itemStack)) continue;
+			index.add(itemStack);
+		}
+		return index;
+	}
+
+	private final Map<@NonNull Material, @NonNull List<@NonNull Stock>> stocksByType = new EnumMap<>(Material.class);
+
+	private ItemStockIndex() {
+	}
+
+	private void add(ItemStack itemStack) {
+		List<@NonNull Stock> stocks = stocksByType.computeIfAbsent(
+				itemStack.getType(),
+				type -> new ArrayList<>(1)
+		);
+		for (Stock stock : stocks) {
+			if (stock.item.isSimilar(itemStack)) {
+				stock.amount += itemStack.getAmount();
+				return;
+			}
+		}
+		// The index does not outlive the contents it is built from, so there is no need to copy
+		// the item:
+		stocks.add(new Stock(itemStack, itemStack.getAmount()));
+	}
+
+	/**
+	 * Gets the total amount of items that are {@link UnmodifiableItemStack#isSimilar(ItemStack)
+	 * similar} to the given item.
+	 * 
+	 * @param itemStack
+	 *            the item, not <code>null</code>
+	 * @return the total amount of similar items
+	 */
+	public int getAmount(UnmodifiableItemStack itemStack) {
+		Validate.notNull(itemStack, "itemStack is null");
+		List<@NonNull Stock> stocks = stocksByType.get(itemStack.getType());
+		if (stocks == null) return 0;
+		for (Stock stock : stocks) {
+			if (itemStack.isSimilar(stock.item)) {
+				return stock.amount;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Checks if the indexed contents contain at least the specified amount of items that are
+	 * {@link UnmodifiableItemStack#isSimilar(ItemStack) similar} to the given item.
+	 * 
+	 * @param itemStack
+	 *            the item, not <code>null</code>
+	 * @param amount
+	 *            the amount of items to check for
+	 * @return <code>true</code> if at least the specified amount of items was found
+	 * @see InventoryUtils#containsAtLeast(ItemStack[], UnmodifiableItemStack, int)
+	 */
+	public boolean containsAtLeast(UnmodifiableItemStack itemStack, int amount) {
+		if (amount <= 0) return true;
+		return this.getAmount(itemStack) >= amount;
+	}
+}
@@ -0,0 +1,286 @@
+package com.nisovin.shopkeepers.util.java;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+
+/**
+ * A hash map with primitive {@code long} keys and non-<code>null</code> values.
+ * <p>
+ * Unlike a {@link java.util.HashMap} with {@link Long} keys, this map does not box its keys and
+ * does not allocate entry objects: The keys and values are stored in two parallel arrays that are
+ * probed linearly (open addressing). This is useful for frequently queried maps, such as maps
+ * keyed by packed chunk coordinates.
+ * <p>
+ * This map is not thread-safe.
+ * 
+ * @param <V>
+ *            the type of values
+ */
+public final class LongHashMap<V> {
+
+	/**
+	 * A consumer of the entries of a {@link LongHashMap}.
+	 * 
+	 * @param <V>
+	 *            the type of values
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer<V> {
+
+		/**
+		 * Consumes the given entry.
+		 * 
+		 * @param key
+		 *            the key
+		 * @param value
+		 *            the value, not <code>null</code>
+		 */
+		public void accept(long key, V value);
+	}
+
+	private static final int DEFAULT_CAPACITY = 16;
+	// The map is resized once it is more than half full. This keeps the probe sequences short.
+	private static final int MAX_LOAD_FACTOR_SHIFT = 1;
+
+	private static int mix(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	private static int getCapacity(int expectedSize) {
+		int capacity = DEFAULT_CAPACITY;
+		while ((capacity >> MAX_LOAD_FACTOR_SHIFT) < expectedSize) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	private long[] keys;
+	// A null value marks an empty slot.
+	private @Nullable Object[] values;
+	private int mask;
+	private int size = 0;
+
+	/**
+	 * Creates a new empty {@link LongHashMap}.
+	 */
+	public LongHashMap() {
+		this(DEFAULT_CAPACITY >> MAX_LOAD_FACTOR_SHIFT);
+	}
+
+	/**
+	 * Creates a new empty {@link LongHashMap} that can hold the specified number of entries
+	 * without being resized.
+	 * 
+	 * @param expectedSize
+	 *            the expected number of entries
+	 */
+	public LongHashMap(int expectedSize) {
+		Validate.isTrue(expectedSize >= 0, "expectedSize cannot be negative");
+		int capacity = getCapacity(expectedSize);
+		this.keys = new long[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Gets the number of entries in this map.
+	 * 
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if this map is empty.
+	 * 
+	 * @return <code>true</code> if this map is empty
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+
+	// Returns the slot of the given key, or -1 if the key is not contained.
+	private int findSlot(long key) {
+		int slot = mix(key) & mask;
+		while (values[slot] != null) {
+			if (keys[slot] == key) return slot;
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the value that is mapped to the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the value, or <code>null</code> if there is no mapping for the key
+	 */
+	public @Nullable V get(long key) {
+		int slot = this.findSlot(key);
+		if (slot < 0) return null;
+		return Unsafe.cast(values[slot]);
+	}
+
+	/**
+	 * Checks if this map contains a mapping for the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return <code>true</code> if there is a mapping for the key
+	 */
+	public boolean containsKey(long key) {
+		return this.findSlot(key) >= 0;
+	}
+
+	/**
+	 * Maps the given value to the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value, not <code>null</code>
+	 * @return the previous value, or <code>null</code> if there was no mapping for the key
+	 */
+	public @Nullable V put(long key, V value) {
+		Validate.notNull(value, "value is null");
+		int slot = mix(key) & mask;
+		while (true) {
+			Object existingValue = values[slot];
+			if (existingValue == null) break;
+			if (keys[slot] == key) {
+				values[slot] = value;
+				return Unsafe.cast(existingValue);
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		keys[slot] = key;
+		values[slot] = value;
+		size++;
+		if ((size << MAX_LOAD_FACTOR_SHIFT) > values.length) {
+			this.resize(values.length << 1);
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the value that is mapped to the given key, or computes and inserts a new value if there
+	 * is no mapping for the key yet.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param mappingFunction
+	 *            the function that computes the new value, not <code>null</code>, and is expected
+	 *            to not return <code>null</code>
+	 * @return the existing or the newly inserted value, not <code>null</code>
+	 */
+	public V computeIfAbsent(long key, LongFunction<? extends @NonNull V> mappingFunction) {
+		V value = this.get(key);
+		if (value == null) {
+			value = Validate.State.notNull(
+					mappingFunction.apply(key),
+					() -> "mappingFunction returned null"
+			);
+			this.put(key, value);
+		}
+		return value;
+	}
+
+	/**
+	 * Removes the mapping for the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the removed value, or <code>null</code> if there was no mapping for the key
+	 */
+	public @Nullable V remove(long key) {
+		int slot = this.findSlot(key);
+		if (slot < 0) return null;
+
+		V value = Unsafe.cast(values[slot]);
+		this.removeSlot(slot);
+		return value;
+	}
+
+	// Removes the entry at the given slot, and then shifts subsequent entries of the same probe
+	// sequence back so that no gaps remain that would interrupt lookups.
+	private void removeSlot(int slot) {
+		size--;
+		int emptySlot = slot;
+		int currentSlot = slot;
+		while (true) {
+			currentSlot = (currentSlot + 1) & mask;
+			Object currentValue = values[currentSlot];
+			if (currentValue == null) break;
+
+			int idealSlot = mix(keys[currentSlot]) & mask;
+			// Check if the ideal slot of the current entry is cyclically outside the range
+			// (emptySlot, currentSlot]. If so, the entry can be moved into the empty slot:
+			boolean canMove;
+			if (emptySlot <= currentSlot) {
+				canMove = (idealSlot <= emptySlot || idealSlot > currentSlot);
+			} else {
+				canMove = (idealSlot <= emptySlot && idealSlot > currentSlot);
+			}
+			if (canMove) {
+				keys[emptySlot] = keys[currentSlot];
+				values[emptySlot] = currentValue;
+				emptySlot = currentSlot;
+			}
+		}
+		values[emptySlot] = null;
+	}
+
+	private void resize(int newCapacity) {
+		long[] oldKeys = keys;
+		@Nullable Object[] oldValues = values;
+		keys = new long[newCapacity];
+		values = new Object[newCapacity];
+		mask = newCapacity - 1;
+		for (int i = 0; i < oldValues.length; i++) {
+			Object value = oldValues[i];
+			if (value == null) continue;
+
+			int slot = mix(oldKeys[i]) & mask;
+			while (values[slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = oldKeys[i];
+			values[slot] = value;
+		}
+	}
+
+	/**
+	 * Removes all entries from this map.
+	 */
+	public void clear() {
+		if (size == 0) return;
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	/**
+	 * Passes all entries of this map to the given consumer.
+	 * <p>
+	 * The consumer is expected to not modify this map.
+	 * 
+	 * @param consumer
+	 *            the consumer, not <code>null</code>
+	 */
+	public void forEach(EntryConsumer<? super @NonNull V> consumer) {
+		Validate.notNull(consumer, "consumer is null");
+		for (int i = 0; i < values.length; i++) {
+			Object value = values[i];
+			if (value == null) continue;
+			consumer.accept(keys[i], Unsafe.cast(value));
+		}
+	}
+}
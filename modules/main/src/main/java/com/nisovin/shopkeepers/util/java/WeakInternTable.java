@@ -0,0 +1,179 @@
+package com.nisovin.shopkeepers.util.java;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+
+/**
+ * A thread-safe table of interned values that are only weakly referenced.
+ * <p>
+ * Callers that request a value for the same key receive the same value instance, for as long as
+ * that value is strongly referenced somewhere else and is still considered
+ * {@link #intern(Object, Predicate, Function) reusable}. Once a value is no longer strongly
+ * referenced, it can be garbage collected and its entry is removed from the table during a
+ * subsequent access.
+ * <p>
+ * Lookups of already interned values do not need to lock or modify the table.
+ * 
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ */
+public final class WeakInternTable<K, V> {
+
+	private static final class ValueReference<K, V> extends WeakReference<V> {
+
+		private final K key;
+
+		ValueReference(K key, V value, ReferenceQueue<? super V> queue) {
+			super(value, queue);
+			this.key = key;
+		}
+	}
+
+	private final Map<@NonNull K, @NonNull ValueReference<K, V>> table = new ConcurrentHashMap<>();
+	private final ReferenceQueue<V> referenceQueue = new ReferenceQueue<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public WeakInternTable() {
+	}
+
+	/**
+	 * Gets the interned value for the given key, or creates and interns a new value if there is no
+	 * interned value yet, if the previously interned value has already been garbage collected, or
+	 * if the interned value is not reusable.
+	 * <p>
+	 * This can be safely invoked from any thread. The given predicate and factory may be invoked
+	 * while holding a lock on the table entry, so they should be fast and must not access this
+	 * table.
+	 * 
+	 * @param key
+	 *            the key, not <code>null</code>
+	 * @param reusable
+	 *            checks if an already interned value can be returned for the given key, not
+	 *            <code>null</code>
+	 * @param factory
+	 *            creates a new value for the given key, not <code>null</code>, and not returning
+	 *            <code>null</code>
+	 * @return the interned value, not <code>null</code>
+	 */
+	public V intern(
+			K key,
+			Predicate<? super @NonNull V> reusable,
+			Function<? super @NonNull K, ? extends @NonNull V> factory
+	) {
+		Validate.notNull(key, "key is null");
+		this.expungeStaleEntries();
+
+		// Fast path, without locking:
+		ValueReference<K, V> reference = table.get(key);
+		V value = (reference != null) ? reference.get() : null;
+		if (value != null && reusable.test(value)) {
+			hits.increment();
+			return value;
+		}
+
+		// Slow path: Atomically check again and replace the entry if necessary.
+		Box<V> result = new Box<>();
+		table.compute(key, (k, oldReference) -> {
+			V oldValue = (oldReference != null) ? oldReference.get() : null;
+			if (oldValue != null && reusable.test(oldValue)) {
+				hits.increment();
+				result.setValue(oldValue);
+				return oldReference;
+			}
+
+			misses.increment();
+			V newValue = factory.apply(k);
+			Validate.State.notNull(newValue, "factory returned null");
+			result.setValue(newValue);
+			return new ValueReference<>(k, newValue, referenceQueue);
+		});
+		return Unsafe.assertNonNull(result.getValue());
+	}
+
+	/**
+	 * Removes the entries whose values have been garbage collected.
+	 * <p>
+	 * This is automatically invoked whenever a value is interned.
+	 */
+	public void expungeStaleEntries() {
+		Reference<? extends V> reference;
+		while ((reference = referenceQueue.poll()) != null) {
+			ValueReference<K, V> valueReference = Unsafe.cast(reference);
+			// Only removes the entry if it was not already replaced in the meantime:
+			if (table.remove(valueReference.key, valueReference)) {
+				evictions.increment();
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of entries in this table.
+	 * <p>
+	 * This may include entries whose values have already been garbage collected but that have not
+	 * yet been removed.
+	 * 
+	 * @return the number of entries
+	 */
+	public int size() {
+		return table.size();
+	}
+
+	/**
+	 * Gets the number of lookups that returned an already interned value.
+	 * 
+	 * @return the number of hits
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the number of lookups that created a new value.
+	 * 
+	 * @return the number of misses
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Gets the number of entries that have been removed because their values have been garbage
+	 * collected.
+	 * 
+	 * @return the number of evictions
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("WeakInternTable [size=");
+		builder.append(this.size());
+		builder.append(", hits=");
+		builder.append(this.getHitCount());
+		builder.append(", misses=");
+		builder.append(this.getMissCount());
+		builder.append(", evictions=");
+		builder.append(this.getEvictionCount());
+		builder.append("]");
+		return builder.toString();
+	}
+}
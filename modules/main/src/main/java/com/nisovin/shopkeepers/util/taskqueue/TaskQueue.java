@@ -2,6 +2,7 @@ package com.nisovin.shopkeepers.util.taskqueue;
 
 import java.util.ArrayDeque;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
@@ -10,7 +11,10 @@ import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import com.nisovin.shopkeepers.util.java.MathUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.timer.Timer;
+import com.nisovin.shopkeepers.util.timer.Timings;
 
 /**
  * A {@link BukkitScheduler} task that processes a queue of work units.
@@ -35,6 +39,12 @@ import com.nisovin.shopkeepers.util.java.Validate;
  * which new work units are typically produced, without causing disruptions due to other components
  * or users having to wait for these work units to be processed.
  * </ul>
+ * <p>
+ * Optionally, a {@link TaskQueue} can adapt the number of work units it processes per execution to
+ * a given time budget: It measures the average time it takes to process a work unit and then
+ * processes as many work units as fit into the time budget. Additionally, it measures the duration
+ * of the server ticks between its executions. If the server is not able to keep up with its
+ * target tick rate, the time budget is reduced accordingly.
  *
  * @param <T>
  *            the type of work units
@@ -64,13 +74,29 @@ public abstract class TaskQueue<@NonNull T> implements TaskQueueStatistics {
 	// - We expect actual removals to occur relatively infrequently (whereas checking if the queue
 	// contains an element that needs to be removed may occur comparatively more often).
 
+	// The duration of a server tick if the server is able to keep up with its target tick rate:
+	private static final double TARGET_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50L);
+	// The weight of new samples in the exponential moving averages of the adaptive mode:
+	private static final double SAMPLE_WEIGHT = 0.2D;
+
 	private final Plugin plugin;
 	private final int taskPeriodTicks;
-	private final int workUnitsPerExecution;
+	private final int minWorkUnitsPerExecution;
+	private final int maxWorkUnitsPerExecution;
+	// Zero if the adaptive mode is disabled:
+	private final long timeBudgetNanos;
 	private final Queue<@NonNull T> pending = new ArrayDeque<>();
 	private int maxPending = 0;
 	private @Nullable BukkitTask task = null;
 
+	// The number of work units to process during the next execution:
+	private int workUnitsPerExecution;
+	// Adaptive mode:
+	private double averageWorkUnitNanos;
+	private double averageTickNanos = TARGET_TICK_NANOS;
+	private long lastExecutionNanos = 0L; // Zero if there was no previous execution
+	private final Timer executionTimings = new Timer();
+
 	/**
 	 * Creates a new {@link TaskQueue}.
 	 * 
@@ -82,12 +108,62 @@ public abstract class TaskQueue<@NonNull T> implements TaskQueueStatistics {
 	 *            the number of work units that are processed per task execution
 	 */
 	public TaskQueue(Plugin plugin, int taskPeriodTicks, int workUnitsPerExecution) {
+		this(plugin, taskPeriodTicks, workUnitsPerExecution, workUnitsPerExecution, 0.0D, 0.0D);
+	}
+
+	/**
+	 * Creates a new {@link TaskQueue} that adapts the number of work units it processes per
+	 * execution to the given time budget.
+	 * <p>
+	 * If the given time budget is zero, the adaptive mode is disabled and the queue always
+	 * processes the minimum number of work units per execution.
+	 * 
+	 * @param plugin
+	 *            the plugin, not <code>null</code>
+	 * @param taskPeriodTicks
+	 *            the period ticks of the task processing work units
+	 * @param minWorkUnitsPerExecution
+	 *            the minimum number of work units that are processed per task execution
+	 * @param maxWorkUnitsPerExecution
+	 *            the maximum number of work units that are processed per task execution
+	 * @param timeBudgetMillis
+	 *            the time in milliseconds that the task may spend on processing work units per
+	 *            execution, or <code>0</code> to disable the adaptive mode
+	 * @param initialWorkUnitMillis
+	 *            the initially expected time in milliseconds that it takes to process a work unit
+	 */
+	public TaskQueue(
+			Plugin plugin,
+			int taskPeriodTicks,
+			int minWorkUnitsPerExecution,
+			int maxWorkUnitsPerExecution,
+			double timeBudgetMillis,
+			double initialWorkUnitMillis
+	) {
 		Validate.notNull(plugin, "plugin is null");
 		Validate.isTrue(taskPeriodTicks > 0, "taskPeriodTicks has to be positive");
-		Validate.isTrue(workUnitsPerExecution > 0, "workUnitsPerExecution has to be positive");
+		Validate.isTrue(minWorkUnitsPerExecution > 0, "minWorkUnitsPerExecution has to be positive");
+		Validate.isTrue(maxWorkUnitsPerExecution >= minWorkUnitsPerExecution,
+				"maxWorkUnitsPerExecution cannot be less than minWorkUnitsPerExecution");
+		Validate.isTrue(timeBudgetMillis >= 0.0D, "timeBudgetMillis cannot be negative");
+		Validate.isTrue(initialWorkUnitMillis >= 0.0D, "initialWorkUnitMillis cannot be negative");
 		this.plugin = plugin;
 		this.taskPeriodTicks = taskPeriodTicks;
-		this.workUnitsPerExecution = workUnitsPerExecution;
+		this.minWorkUnitsPerExecution = minWorkUnitsPerExecution;
+		this.maxWorkUnitsPerExecution = maxWorkUnitsPerExecution;
+		this.timeBudgetNanos = (long) (timeBudgetMillis * 1000000.0D);
+		this.workUnitsPerExecution = minWorkUnitsPerExecution;
+		this.averageWorkUnitNanos = initialWorkUnitMillis * 1000000.0D;
+	}
+
+	/**
+	 * Checks whether this queue adapts the number of work units it processes per execution to a
+	 * time budget.
+	 * 
+	 * @return <code>true</code> if the adaptive mode is enabled
+	 */
+	public final boolean isAdaptive() {
+		return (timeBudgetNanos > 0L);
 	}
 
 	/**
@@ -110,6 +186,10 @@ public abstract class TaskQueue<@NonNull T> implements TaskQueueStatistics {
 		pending.clear();
 		this.stopTask();
 		maxPending = 0;
+		workUnitsPerExecution = minWorkUnitsPerExecution;
+		averageTickNanos = TARGET_TICK_NANOS;
+		lastExecutionNanos = 0L;
+		executionTimings.reset();
 	}
 
 	// WORK UNITS
@@ -179,6 +259,21 @@ public abstract class TaskQueue<@NonNull T> implements TaskQueueStatistics {
 		return maxPending;
 	}
 
+	@Override
+	public int getWorkUnitsPerExecution() {
+		return workUnitsPerExecution;
+	}
+
+	@Override
+	public double getAverageWorkUnitTimeMillis() {
+		return averageWorkUnitNanos / 1000000.0D;
+	}
+
+	@Override
+	public Timings getExecutionTimings() {
+		return executionTimings;
+	}
+
 	// TASK
 
 	private void startTask() {
@@ -212,6 +307,13 @@ public abstract class TaskQueue<@NonNull T> implements TaskQueueStatistics {
 	}
 
 	private void execute() {
+		boolean adaptive = this.isAdaptive();
+		long startNanos = 0L;
+		if (adaptive) {
+			startNanos = System.nanoTime();
+			this.updateAverageTickDuration(startNanos);
+		}
+
 		// Skip the whole loop if there are no pending work units:
 		Queue<@NonNull T> queue = pending;
 		if (queue.isEmpty()) {
@@ -219,16 +321,60 @@ public abstract class TaskQueue<@NonNull T> implements TaskQueueStatistics {
 		}
 
 		int localWorkUnitsPerExecution = workUnitsPerExecution;
-		for (int i = 0; i < localWorkUnitsPerExecution; ++i) {
-			@Nullable T workUnit = queue.poll();
-			if (workUnit == null) {
-				// The queue is empty:
-				return;
+		int processed = 0;
+		executionTimings.start();
+		try {
+			while (processed < localWorkUnitsPerExecution) {
+				@Nullable T workUnit = queue.poll();
+				if (workUnit == null) {
+					// The queue is empty:
+					break;
+				}
+
+				// Process the work unit:
+				this.process(workUnit);
+				processed++;
 			}
+		} finally {
+			executionTimings.stop();
+		}
+
+		if (adaptive && processed > 0) {
+			long durationNanos = System.nanoTime() - startNanos;
+			this.updateWorkUnitsPerExecution(durationNanos, processed);
+		}
+	}
+
+	private void updateAverageTickDuration(long nowNanos) {
+		if (lastExecutionNanos != 0L) {
+			// Since the task runs every few ticks, the average duration of the ticks in between
+			// indicates whether the server is able to keep up with its target tick rate:
+			double tickNanos = (double) (nowNanos - lastExecutionNanos) / taskPeriodTicks;
+			averageTickNanos += SAMPLE_WEIGHT * (tickNanos - averageTickNanos);
+		}
+		lastExecutionNanos = nowNanos;
+	}
+
+	private void updateWorkUnitsPerExecution(long durationNanos, int processed) {
+		assert processed > 0;
+		double workUnitNanos = (double) durationNanos / processed;
+		averageWorkUnitNanos += SAMPLE_WEIGHT * (workUnitNanos - averageWorkUnitNanos);
 
-			// Process the work unit:
-			this.process(workUnit);
+		// If the server is lagging behind, we reduce the time budget more than proportionally to
+		// give the server a chance to catch up:
+		double tickLoad = Math.min(1.0D, TARGET_TICK_NANOS / averageTickNanos);
+		double budgetNanos = timeBudgetNanos * tickLoad * tickLoad;
+		int budgetedWorkUnits;
+		if (averageWorkUnitNanos <= 0.0D) {
+			budgetedWorkUnits = maxWorkUnitsPerExecution;
+		} else {
+			budgetedWorkUnits = (int) Math.min(Integer.MAX_VALUE, budgetNanos / averageWorkUnitNanos);
 		}
+		workUnitsPerExecution = MathUtils.trim(
+				budgetedWorkUnits,
+				minWorkUnitsPerExecution,
+				maxWorkUnitsPerExecution
+		);
 	}
 
 	/**
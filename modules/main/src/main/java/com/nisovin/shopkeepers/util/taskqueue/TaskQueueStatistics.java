@@ -1,5 +1,7 @@
 package com.nisovin.shopkeepers.util.taskqueue;
 
+import com.nisovin.shopkeepers.util.timer.Timings;
+
 /**
  * Provides statistics on a {@link TaskQueue}.
  */
@@ -18,4 +20,31 @@ public interface TaskQueueStatistics {
 	 * @return the maximum number of pending work units
 	 */
 	public int getMaxPendingCount();
+
+	/**
+	 * Gets the number of work units that are processed during the next execution of the task.
+	 * <p>
+	 * If the task queue adapts the number of work units to a time budget, this value changes over
+	 * time.
+	 * 
+	 * @return the number of work units per execution
+	 */
+	public int getWorkUnitsPerExecution();
+
+	/**
+	 * Gets the average time it takes to process a single work unit.
+	 * <p>
+	 * This is only measured if the task queue adapts the number of processed work units to a time
+	 * budget. Otherwise, this returns <code>0</code> or the initially expected time per work unit.
+	 * 
+	 * @return the average time per work unit in milliseconds
+	 */
+	public double getAverageWorkUnitTimeMillis();
+
+	/**
+	 * Gets the timings of the executions of the task that processed pending work units.
+	 * 
+	 * @return the execution timings
+	 */
+	public Timings getExecutionTimings();
 }
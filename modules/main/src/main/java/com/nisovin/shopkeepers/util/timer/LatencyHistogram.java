@@ -0,0 +1,180 @@
+package com.nisovin.shopkeepers.util.timer;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * A fixed-memory histogram of recorded durations over a sliding time window.
+ * <p>
+ * The durations are recorded into log-linear buckets: Each power-of-two range of durations is
+ * split into 16 equally sized buckets. The percentiles that are derived from this histogram
+ * therefore have a relative error of at most 1/16. Durations above roughly 18 minutes are recorded
+ * into the last bucket.
+ * <p>
+ * The sliding window of {@link #WINDOW_SECONDS} seconds consists of several slots that each cover
+ * a fixed part of the window. Each slot stores its own bucket counts, and is cleared once it is
+ * reused for a newer part of the window. Recording a duration does not allocate any objects.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+	// Durations of 2^40 nanoseconds (roughly 18 minutes) and above are recorded into the last
+	// bucket:
+	private static final int MAX_EXPONENT = 39;
+	private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+	private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+	private static final int SLOT_COUNT = 6;
+	private static final int SLOT_DURATION_SECONDS = 10;
+	private static final long SLOT_DURATION_NANOS = TimeUnit.SECONDS.toNanos(SLOT_DURATION_SECONDS);
+
+	/**
+	 * The duration of the sliding time window in seconds.
+	 */
+	public static final int WINDOW_SECONDS = SLOT_COUNT * SLOT_DURATION_SECONDS;
+
+	// Also used by tests:
+	static int getBucketIndex(long valueNanos) {
+		long value = Math.min(Math.max(valueNanos, 0L), MAX_VALUE);
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & SUB_BUCKET_MASK;
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	// The largest value that is recorded into the specified bucket. Also used by tests.
+	static long getBucketMaxValue(int bucketIndex) {
+		if (bucketIndex < SUB_BUCKET_COUNT) {
+			return bucketIndex;
+		}
+		int exponent = bucketIndex / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+		int subBucket = bucketIndex & SUB_BUCKET_MASK;
+		int shift = exponent - SUB_BUCKET_BITS;
+		long minValue = (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+		return minValue + (1L << shift) - 1;
+	}
+
+	private static long getTimeSlot(long nowNanos) {
+		return Math.floorDiv(nowNanos, SLOT_DURATION_NANOS);
+	}
+
+	// Provides the current time in nanoseconds:
+	private final LongSupplier nanoTime;
+	private final int[][] slotBuckets = new int[SLOT_COUNT][BUCKET_COUNT];
+	private final long[] slotCounts = new long[SLOT_COUNT];
+	// The time slots that are currently stored in the slots:
+	private final long[] slotTimes = new long[SLOT_COUNT];
+
+	/**
+	 * Creates a new empty {@link LatencyHistogram}.
+	 */
+	public LatencyHistogram() {
+		this(System::nanoTime);
+	}
+
+	// Also used by tests:
+	LatencyHistogram(LongSupplier nanoTime) {
+		Validate.notNull(nanoTime, "nanoTime is null");
+		this.nanoTime = nanoTime;
+		Arrays.fill(slotTimes, Long.MIN_VALUE);
+	}
+
+	/**
+	 * Removes all recorded durations.
+	 */
+	public void reset() {
+		for (int slot = 0; slot < SLOT_COUNT; slot++) {
+			Arrays.fill(slotBuckets[slot], 0);
+			slotCounts[slot] = 0L;
+			slotTimes[slot] = Long.MIN_VALUE;
+		}
+	}
+
+	/**
+	 * Records the given duration.
+	 * 
+	 * @param durationNanos
+	 *            the duration in nanoseconds
+	 */
+	public void record(long durationNanos) {
+		long timeSlot = getTimeSlot(nanoTime.getAsLong());
+		int slot = (int) Math.floorMod(timeSlot, (long) SLOT_COUNT);
+		if (slotTimes[slot] != timeSlot) {
+			// Reuse the slot of an expired time slot:
+			Arrays.fill(slotBuckets[slot], 0);
+			slotCounts[slot] = 0L;
+			slotTimes[slot] = timeSlot;
+		}
+		slotBuckets[slot][getBucketIndex(durationNanos)]++;
+		slotCounts[slot]++;
+	}
+
+	private boolean isSlotInWindow(int slot, long currentTimeSlot) {
+		long slotTime = slotTimes[slot];
+		return slotTime <= currentTimeSlot && slotTime > currentTimeSlot - SLOT_COUNT;
+	}
+
+	/**
+	 * Gets the number of durations that were recorded within the sliding time window.
+	 * 
+	 * @return the number of recorded durations
+	 */
+	public long getCount() {
+		long currentTimeSlot = getTimeSlot(nanoTime.getAsLong());
+		long count = 0L;
+		for (int slot = 0; slot < SLOT_COUNT; slot++) {
+			if (this.isSlotInWindow(slot, currentTimeSlot)) {
+				count += slotCounts[slot];
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the specified percentile of the durations that were recorded within the sliding time
+	 * window.
+	 * 
+	 * @param percentile
+	 *            the percentile, between <code>0</code> and <code>100</code>
+	 * @return the percentile duration in nanoseconds, or <code>0</code> if no durations were
+	 *         recorded within the sliding time window
+	 */
+	public long getPercentileNanos(double percentile) {
+		Validate.isTrue(percentile >= 0.0D && percentile <= 100.0D,
+				"percentile has to be between 0 and 100");
+		long currentTimeSlot = getTimeSlot(nanoTime.getAsLong());
+		boolean[] inWindow = new boolean[SLOT_COUNT];
+		long count = 0L;
+		for (int slot = 0; slot < SLOT_COUNT; slot++) {
+			if (this.isSlotInWindow(slot, currentTimeSlot)) {
+				inWindow[slot] = true;
+				count += slotCounts[slot];
+			}
+		}
+		if (count == 0L) return 0L;
+
+		long targetCount = Math.max(1L, (long) Math.ceil(percentile / 100.0D * count));
+		long cumulativeCount = 0L;
+		for (int bucketIndex = 0; bucketIndex < BUCKET_COUNT; bucketIndex++) {
+			for (int slot = 0; slot < SLOT_COUNT; slot++) {
+				if (inWindow[slot]) {
+					cumulativeCount += slotBuckets[slot][bucketIndex];
+				}
+			}
+			if (cumulativeCount >= targetCount) {
+				return getBucketMaxValue(bucketIndex);
+			}
+		}
+		// Not expected to be reached:
+		return MAX_VALUE;
+	}
+}
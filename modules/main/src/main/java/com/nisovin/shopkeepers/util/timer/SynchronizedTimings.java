@@ -0,0 +1,72 @@
+package com.nisovin.shopkeepers.util.timer;
+
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * A {@link Timings} view that synchronizes all access to the underlying timings on a given lock.
+ * <p>
+ * This can be used to safely read timings that are recorded concurrently by several threads, as
+ * long as these threads also synchronize on the same lock while they record their timings.
+ */
+public final class SynchronizedTimings implements Timings {
+
+	private final Timings timings;
+	private final Object lock;
+
+	/**
+	 * Creates a new {@link SynchronizedTimings}.
+	 * 
+	 * @param timings
+	 *            the underlying timings, not <code>null</code>
+	 * @param lock
+	 *            the lock to synchronize on, not <code>null</code>
+	 */
+	public SynchronizedTimings(Timings timings, Object lock) {
+		Validate.notNull(timings, "timings is null");
+		Validate.notNull(lock, "lock is null");
+		this.timings = timings;
+		this.lock = lock;
+	}
+
+	@Override
+	public void reset() {
+		synchronized (lock) {
+			timings.reset();
+		}
+	}
+
+	@Override
+	public long getCounter() {
+		synchronized (lock) {
+			return timings.getCounter();
+		}
+	}
+
+	@Override
+	public double getAverageTimeMillis() {
+		synchronized (lock) {
+			return timings.getAverageTimeMillis();
+		}
+	}
+
+	@Override
+	public double getMaxTimeMillis() {
+		synchronized (lock) {
+			return timings.getMaxTimeMillis();
+		}
+	}
+
+	@Override
+	public long getRecentCounter() {
+		synchronized (lock) {
+			return timings.getRecentCounter();
+		}
+	}
+
+	@Override
+	public double getPercentileTimeMillis(double percentile) {
+		synchronized (lock) {
+			return timings.getPercentileTimeMillis(percentile);
+		}
+	}
+}
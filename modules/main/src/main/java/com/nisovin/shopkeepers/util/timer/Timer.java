@@ -17,6 +17,7 @@ public class Timer implements Timings {
 	private long counter = 0L;
 	private long totalTimeNanos = 0L;
 	private long maxTimeNanos = 0L;
+	private final LatencyHistogram histogram = new LatencyHistogram();
 
 	// Current timing:
 	private boolean started = false;
@@ -80,13 +81,27 @@ public class Timer implements Timings {
 		paused = false;
 
 		// Update the timings:
+		this.record(elapsedTimeNanos);
+	}
+
+	/**
+	 * Records a timing that has been measured separately, e.g. on another thread.
+	 * <p>
+	 * This does not affect any current timing of this timer.
+	 * 
+	 * @param durationNanos
+	 *            the duration in nanoseconds
+	 */
+	public void record(long durationNanos) {
 		counter++;
-		totalTimeNanos += elapsedTimeNanos;
+		totalTimeNanos += durationNanos;
 
 		// Update the max timing:
-		if (elapsedTimeNanos > maxTimeNanos) {
-			maxTimeNanos = elapsedTimeNanos;
+		if (durationNanos > maxTimeNanos) {
+			maxTimeNanos = durationNanos;
 		}
+
+		histogram.record(durationNanos);
 	}
 
 	// TIMINGS
@@ -96,6 +111,7 @@ public class Timer implements Timings {
 		counter = 0L;
 		totalTimeNanos = 0L;
 		maxTimeNanos = 0L;
+		histogram.reset();
 	}
 
 	@Override
@@ -113,4 +129,15 @@ public class Timer implements Timings {
 	public double getMaxTimeMillis() {
 		return TimeUtils.convert(maxTimeNanos, TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS);
 	}
+
+	@Override
+	public long getRecentCounter() {
+		return histogram.getCount();
+	}
+
+	@Override
+	public double getPercentileTimeMillis(double percentile) {
+		long percentileTimeNanos = histogram.getPercentileNanos(percentile);
+		return TimeUtils.convert(percentileTimeNanos, TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS);
+	}
 }
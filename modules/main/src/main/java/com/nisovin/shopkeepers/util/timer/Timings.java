@@ -31,4 +31,26 @@ public interface Timings {
 	 * @return the maximum processing time in milliseconds
 	 */
 	public double getMaxTimeMillis();
+
+	/**
+	 * Gets the number of times the task was executed within the recent sliding time window of
+	 * {@link LatencyHistogram#WINDOW_SECONDS} seconds.
+	 * 
+	 * @return the number of recent executions
+	 */
+	public long getRecentCounter();
+
+	/**
+	 * Gets the specified percentile of the task's processing times within the recent sliding time
+	 * window of {@link LatencyHistogram#WINDOW_SECONDS} seconds.
+	 * <p>
+	 * Unlike the average and maximum processing times, the percentiles only take recent executions
+	 * into account and reveal how often the task takes considerably longer than usual.
+	 * 
+	 * @param percentile
+	 *            the percentile, between <code>0</code> and <code>100</code>
+	 * @return the percentile processing time in milliseconds, or <code>0</code> if there were no
+	 *         recent executions
+	 */
+	public double getPercentileTimeMillis(double percentile);
 }
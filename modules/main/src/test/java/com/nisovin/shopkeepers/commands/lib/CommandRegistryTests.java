@@ -0,0 +1,74 @@
+package com.nisovin.shopkeepers.commands.lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.util.java.Pair;
+
+public class CommandRegistryTests extends AbstractBukkitTest {
+
+	private static Command newCommand(String name, @NonNull String... aliases) {
+		return new Command(name, Arrays.asList(aliases)) {
+		};
+	}
+
+	private static List<@NonNull String> getAliasCompletions(
+			CommandRegistry registry,
+			String prefix
+	) {
+		List<@NonNull String> aliases = new ArrayList<>();
+		for (Pair<@NonNull String, @NonNull Command> completion
+				: registry.getAliasCompletions(prefix)) {
+			aliases.add(completion.getFirst());
+		}
+		return aliases;
+	}
+
+	@Test
+	public void testAliasCompletions() {
+		Command parent = newCommand("parent");
+		CommandRegistry registry = parent.getChildCommands();
+		Command remove = newCommand("remove", "delete", "del");
+		Command rename = newCommand("rename", "setName");
+		Command list = newCommand("list", "ls", "rem");
+		registry.register(remove);
+		registry.register(rename);
+		registry.register(list);
+
+		Assert.assertEquals(
+				Arrays.asList("remove", "rename", "list"),
+				getAliasCompletions(registry, "")
+		);
+		// At most one alias per command, in registration order:
+		Assert.assertEquals(
+				Arrays.asList("remove", "rename", "rem"),
+				getAliasCompletions(registry, "re")
+		);
+		Assert.assertEquals(
+				Arrays.asList("remove", "rem"),
+				getAliasCompletions(registry, "REM")
+		);
+		Assert.assertEquals(
+				Arrays.asList("delete"),
+				getAliasCompletions(registry, "de")
+		);
+		Assert.assertEquals(
+				Arrays.asList("setname"),
+				getAliasCompletions(registry, "set")
+		);
+		Assert.assertEquals(Arrays.asList(), getAliasCompletions(registry, "x"));
+
+		// The completions reflect changes to the registered commands:
+		registry.unregister(rename);
+		Assert.assertEquals(
+				Arrays.asList("remove", "rem"),
+				getAliasCompletions(registry, "re")
+		);
+	}
+}
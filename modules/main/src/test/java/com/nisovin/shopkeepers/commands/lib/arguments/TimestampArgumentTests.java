@@ -0,0 +1,54 @@
+package com.nisovin.shopkeepers.commands.lib.arguments;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimestampArgumentTests {
+
+	private static final Instant NOW = Instant.parse("2023-03-20T12:00:00Z");
+	private static final ZoneId ZONE = ZoneOffset.ofHours(2);
+
+	private static Instant parse(String input) {
+		Instant timestamp = TimestampArgument.parseTimestamp(input, NOW, ZONE);
+		Assert.assertNotNull("Failed to parse '" + input + "'!", timestamp);
+		assert timestamp != null;
+		return timestamp;
+	}
+
+	@Test
+	public void testRelativeTimes() {
+		Assert.assertEquals(NOW.minusSeconds(30L), parse("30s"));
+		Assert.assertEquals(NOW.minus(Duration.ofMinutes(15L)), parse("15m"));
+		Assert.assertEquals(NOW.minus(Duration.ofHours(12L)), parse("12h"));
+		Assert.assertEquals(NOW.minus(Duration.ofDays(7L)), parse("7d"));
+		Assert.assertEquals(NOW.minus(Duration.ofDays(14L)), parse("2W"));
+		Assert.assertEquals(NOW, parse("0d"));
+	}
+
+	@Test
+	public void testDates() {
+		// Dates refer to the start of the day in the given time zone:
+		Assert.assertEquals(Instant.parse("2023-03-19T22:00:00Z"), parse("2023-03-20"));
+		Assert.assertEquals(Instant.parse("2023-03-20T16:30:00Z"), parse("2023-03-20T18:30"));
+		Assert.assertEquals(Instant.parse("2023-03-20T16:30:00Z"), parse("2023-03-20t18:30"));
+	}
+
+	@Test
+	public void testInvalidInputs() {
+		String[] invalidInputs = {
+				"", " ", "d", "7", "-7d", "7x", "7.5h", "2023-13-01", "2023-03-20T25:00",
+				"99999999999999999w", "all"
+		};
+		for (String input : invalidInputs) {
+			Assert.assertNull(
+					"Parsed invalid input '" + input + "'!",
+					TimestampArgument.parseTimestamp(input, NOW, ZONE)
+			);
+		}
+	}
+}
@@ -0,0 +1,270 @@
+package com.nisovin.shopkeepers.shopkeeper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperCreateException;
+import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperSnapshot;
+import com.nisovin.shopkeepers.api.shopkeeper.admin.AdminShopCreationData;
+import com.nisovin.shopkeepers.api.shopkeeper.offers.TradeOffer;
+import com.nisovin.shopkeepers.shopkeeper.admin.regular.RegularAdminShopType;
+import com.nisovin.shopkeepers.shopkeeper.admin.regular.SKRegularAdminShopkeeper;
+import com.nisovin.shopkeepers.shopkeeper.offers.SKTradeOffer;
+import com.nisovin.shopkeepers.shopobjects.SKShopObjectTypesRegistry;
+import com.nisovin.shopkeepers.shopobjects.virtual.SKVirtualShopObjectType;
+import com.nisovin.shopkeepers.shopobjects.virtual.VirtualShops;
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.util.data.container.DataContainer;
+
+public class SavedShopkeeperDataTests extends AbstractBukkitTest {
+
+	// The data keys of the offers and snapshots:
+	private static final String OFFERS_KEY = "recipes";
+	private static final String SNAPSHOTS_KEY = "snapshots";
+
+	private static final RegularAdminShopType SHOP_TYPE = new RegularAdminShopType();
+	private static final SKVirtualShopObjectType SHOP_OBJECT_TYPE = new VirtualShops(
+			Unsafe.uncheckedNull()
+	).getSignShopObjectType();
+
+	private static final TradeOffer OFFER_1 = createOffer(Material.STONE, Material.DIRT);
+	private static final TradeOffer OFFER_2 = createOffer(Material.GLASS, Material.SAND);
+	private static final TradeOffer OFFER_3 = createOffer(Material.BOOK, Material.PAPER);
+
+	private static TradeOffer createOffer(Material resultType, Material itemType) {
+		return new SKTradeOffer(new ItemStack(resultType), new ItemStack(itemType, 2), null);
+	}
+
+	@BeforeClass
+	public static void setup() {
+		// The shopkeeper data refers to these types when it is loaded:
+		((SKShopTypesRegistry) ShopkeepersPlugin.getInstance().getShopTypeRegistry())
+				.register(SHOP_TYPE);
+		((SKShopObjectTypesRegistry) ShopkeepersPlugin.getInstance().getShopObjectTypeRegistry())
+				.register(SHOP_OBJECT_TYPE);
+	}
+
+	private static class TestShopkeeper extends SKRegularAdminShopkeeper {
+
+		TestShopkeeper() {
+		}
+
+		// Skips the setup of the UI handlers, which require the plugin.
+		void init() throws ShopkeeperCreateException {
+			this.loadFromCreationData(1, AdminShopCreationData.create(
+					null,
+					SHOP_TYPE,
+					SHOP_OBJECT_TYPE,
+					null,
+					null
+			));
+		}
+
+		@Override
+		public RegularAdminShopType getType() {
+			return SHOP_TYPE;
+		}
+	}
+
+	private static TestShopkeeper createShopkeeper() throws ShopkeeperCreateException {
+		TestShopkeeper shopkeeper = new TestShopkeeper();
+		shopkeeper.init();
+		shopkeeper.setOffers(Arrays.asList(OFFER_1));
+		return shopkeeper;
+	}
+
+	private static ShopkeeperData save(AbstractShopkeeper shopkeeper, boolean saveAll) {
+		ShopkeeperData shopkeeperData = ShopkeeperData.ofNonNull(DataContainer.create());
+		shopkeeper.save(shopkeeperData, saveAll);
+		return shopkeeperData;
+	}
+
+	private static ShopkeeperData save(AbstractShopkeeper shopkeeper) {
+		return save(shopkeeper, false);
+	}
+
+	private static @Nullable Object getOffersData(DataContainer shopkeeperData) {
+		return shopkeeperData.get(OFFERS_KEY);
+	}
+
+	private static @Nullable Object getSnapshotsData(DataContainer shopkeeperData) {
+		return shopkeeperData.get(SNAPSHOTS_KEY);
+	}
+
+	// Saves the shopkeeper again after a change of its offers:
+	private static ShopkeeperData assertOffersSaved(
+			TestShopkeeper shopkeeper,
+			ShopkeeperData previousData,
+			List<? extends @NonNull TradeOffer> expectedOffers
+	) throws Exception {
+		Assert.assertEquals(expectedOffers, shopkeeper.getOffers());
+		ShopkeeperData shopkeeperData = save(shopkeeper);
+		Assert.assertNotSame(getOffersData(previousData), getOffersData(shopkeeperData));
+		Assert.assertEquals(expectedOffers, shopkeeperData.get(SKRegularAdminShopkeeper.OFFERS));
+		return shopkeeperData;
+	}
+
+	// Saves the shopkeeper again after a change of its snapshots:
+	private static ShopkeeperData assertSnapshotsSaved(
+			TestShopkeeper shopkeeper,
+			ShopkeeperData previousData,
+			List<? extends @NonNull String> expectedSnapshotNames
+	) throws Exception {
+		ShopkeeperData shopkeeperData = save(shopkeeper);
+		Assert.assertNotSame(getSnapshotsData(previousData), getSnapshotsData(shopkeeperData));
+		List<? extends @NonNull ShopkeeperSnapshot> snapshots = shopkeeperData.get(
+				AbstractShopkeeper.SNAPSHOTS
+		);
+		Assert.assertEquals(expectedSnapshotNames.size(), snapshots.size());
+		for (int i = 0; i < snapshots.size(); i++) {
+			Assert.assertEquals(expectedSnapshotNames.get(i), snapshots.get(i).getName());
+		}
+		return shopkeeperData;
+	}
+
+	@Test
+	public void testUnchangedDataIsReused() throws Exception {
+		TestShopkeeper shopkeeper = createShopkeeper();
+		shopkeeper.addSnapshot(shopkeeper.createSnapshot("snapshot"));
+
+		ShopkeeperData shopkeeperData = save(shopkeeper);
+		Assert.assertEquals(
+				Arrays.asList(OFFER_1),
+				shopkeeperData.get(SKRegularAdminShopkeeper.OFFERS)
+		);
+		Assert.assertNotNull(getOffersData(shopkeeperData));
+		Assert.assertNotNull(getSnapshotsData(shopkeeperData));
+
+		// Each save creates new shopkeeper data, but reuses the data of unchanged offers and
+		// snapshots:
+		ShopkeeperData nextShopkeeperData = save(shopkeeper);
+		Assert.assertNotSame(shopkeeperData, nextShopkeeperData);
+		Assert.assertSame(getOffersData(shopkeeperData), getOffersData(nextShopkeeperData));
+		Assert.assertSame(getSnapshotsData(shopkeeperData), getSnapshotsData(nextShopkeeperData));
+
+		// Other changes do not affect the data of the offers and snapshots:
+		shopkeeper.setName("name");
+		shopkeeper.setTradePermission("some.permission");
+		nextShopkeeperData = save(shopkeeper);
+		Assert.assertEquals("name", nextShopkeeperData.get(AbstractShopkeeper.NAME));
+		Assert.assertSame(getOffersData(shopkeeperData), getOffersData(nextShopkeeperData));
+		Assert.assertSame(getSnapshotsData(shopkeeperData), getSnapshotsData(nextShopkeeperData));
+	}
+
+	@Test
+	public void testOfferMutators() throws Exception {
+		TestShopkeeper shopkeeper = createShopkeeper();
+		ShopkeeperData shopkeeperData = save(shopkeeper);
+
+		shopkeeper.addOffer(OFFER_2);
+		shopkeeperData = assertOffersSaved(
+				shopkeeper,
+				shopkeeperData,
+				Arrays.asList(OFFER_1, OFFER_2)
+		);
+
+		shopkeeper.addOffers(Arrays.asList(OFFER_3));
+		shopkeeperData = assertOffersSaved(
+				shopkeeper,
+				shopkeeperData,
+				Arrays.asList(OFFER_1, OFFER_2, OFFER_3)
+		);
+
+		shopkeeper.setOffers(Arrays.asList(OFFER_3, OFFER_1));
+		shopkeeperData = assertOffersSaved(
+				shopkeeper,
+				shopkeeperData,
+				Arrays.asList(OFFER_3, OFFER_1)
+		);
+
+		shopkeeper.clearOffers();
+		shopkeeperData = assertOffersSaved(shopkeeper, shopkeeperData, Collections.emptyList());
+
+		// The data of previous saves is not affected by subsequent changes:
+		ShopkeeperData previousShopkeeperData = shopkeeperData;
+		shopkeeper.addOffer(OFFER_2);
+		assertOffersSaved(shopkeeper, shopkeeperData, Arrays.asList(OFFER_2));
+		Assert.assertEquals(
+				Collections.emptyList(),
+				previousShopkeeperData.get(SKRegularAdminShopkeeper.OFFERS)
+		);
+	}
+
+	@Test
+	public void testSnapshotMutators() throws Exception {
+		TestShopkeeper shopkeeper = createShopkeeper();
+		ShopkeeperData shopkeeperData = save(shopkeeper);
+
+		shopkeeper.addSnapshot(shopkeeper.createSnapshot("first"));
+		shopkeeperData = assertSnapshotsSaved(shopkeeper, shopkeeperData, Arrays.asList("first"));
+
+		shopkeeper.addSnapshot(shopkeeper.createSnapshot("second"));
+		shopkeeperData = assertSnapshotsSaved(
+				shopkeeper,
+				shopkeeperData,
+				Arrays.asList("first", "second")
+		);
+
+		shopkeeper.removeSnapshot(0);
+		shopkeeperData = assertSnapshotsSaved(shopkeeper, shopkeeperData, Arrays.asList("second"));
+
+		shopkeeper.removeAllSnapshots();
+		assertSnapshotsSaved(shopkeeper, shopkeeperData, Collections.emptyList());
+	}
+
+	@Test
+	public void testApplySnapshot() throws Exception {
+		TestShopkeeper shopkeeper = createShopkeeper();
+		ShopkeeperSnapshot snapshot = shopkeeper.createSnapshot("snapshot");
+
+		shopkeeper.setOffers(Arrays.asList(OFFER_2, OFFER_3));
+		ShopkeeperData shopkeeperData = save(shopkeeper);
+		Assert.assertEquals(
+				Arrays.asList(OFFER_2, OFFER_3),
+				shopkeeperData.get(SKRegularAdminShopkeeper.OFFERS)
+		);
+
+		// Applying the snapshot discards the previously saved data:
+		shopkeeper.applySnapshot(snapshot);
+		assertOffersSaved(shopkeeper, shopkeeperData, Arrays.asList(OFFER_1));
+	}
+
+	@Test
+	public void testSaveAllDoesNotShareData() throws Exception {
+		TestShopkeeper shopkeeper = createShopkeeper();
+		shopkeeper.addSnapshot(shopkeeper.createSnapshot("snapshot"));
+		ShopkeeperData shopkeeperData = save(shopkeeper);
+
+		// Snapshots do not share data with the saved shopkeeper data:
+		ShopkeeperSnapshot snapshot = shopkeeper.createSnapshot("other");
+		DataContainer snapshotData = ((SKShopkeeperSnapshot) snapshot).getShopkeeperData();
+		Assert.assertNotNull(getOffersData(snapshotData));
+		Assert.assertNotSame(getOffersData(shopkeeperData), getOffersData(snapshotData));
+		Assert.assertEquals(
+				Arrays.asList(OFFER_1),
+				snapshotData.get(SKRegularAdminShopkeeper.OFFERS)
+		);
+
+		ShopkeeperData saveAllData = save(shopkeeper, true);
+		Assert.assertNotNull(getOffersData(saveAllData));
+		Assert.assertNotNull(getSnapshotsData(saveAllData));
+		Assert.assertNotSame(getOffersData(shopkeeperData), getOffersData(saveAllData));
+		Assert.assertNotSame(getSnapshotsData(shopkeeperData), getSnapshotsData(saveAllData));
+
+		// Subsequent regular saves still reuse the previously saved data:
+		ShopkeeperData nextShopkeeperData = save(shopkeeper);
+		Assert.assertSame(getOffersData(shopkeeperData), getOffersData(nextShopkeeperData));
+		Assert.assertSame(getSnapshotsData(shopkeeperData), getSnapshotsData(nextShopkeeperData));
+	}
+}
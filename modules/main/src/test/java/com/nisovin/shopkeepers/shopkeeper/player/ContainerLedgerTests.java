@@ -0,0 +1,116 @@
+package com.nisovin.shopkeepers.shopkeeper.player;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.currency.Currencies;
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+
+// Uses the default currencies: Emeralds (value 1) and emerald blocks (value 9).
+public class ContainerLedgerTests extends AbstractBukkitTest {
+
+	private static ItemStack emeralds(int amount) {
+		return new ItemStack(Material.EMERALD, amount);
+	}
+
+	private static ItemStack emeraldBlocks(int amount) {
+		return new ItemStack(Material.EMERALD_BLOCK, amount);
+	}
+
+	private static void assertItem(@Nullable ItemStack expected, @Nullable ItemStack actual) {
+		Assert.assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testCurrencyValue() {
+		@Nullable ItemStack[] contents = new @Nullable ItemStack[] {
+				emeralds(10),
+				new ItemStack(Material.STONE, 5),
+				null,
+				emeraldBlocks(2)
+		};
+		ContainerLedger ledger = ContainerLedger.of(contents);
+		Assert.assertEquals(28, ledger.getCurrencyValue());
+		Assert.assertEquals(10, ledger.getCurrencyAmount(Currencies.getBase()));
+		Assert.assertEquals(2, ledger.getCurrencyAmount(Currencies.getHigh()));
+
+		// Slots that are replaced externally are reclassified:
+		contents[1] = emeralds(3);
+		contents[3] = null;
+		Assert.assertEquals(13, ledger.getCurrencyValue());
+	}
+
+	@Test
+	public void testRemoveCurrency() {
+		ItemStack originalEmeralds = emeralds(10);
+		@Nullable ItemStack[] contents = new @Nullable ItemStack[] {
+				originalEmeralds,
+				new ItemStack(Material.STONE, 5),
+				emeraldBlocks(2),
+				null
+		};
+		ContainerLedger ledger = ContainerLedger.of(contents);
+		Assert.assertEquals(0, ledger.removeCurrency(4));
+		assertItem(emeralds(6), contents[0]);
+		// The original item stack is not modified:
+		Assert.assertEquals(10, originalEmeralds.getAmount());
+
+		// Requires the removal of an emerald block and adding back the change:
+		Assert.assertEquals(0, ledger.removeCurrency(11));
+		assertItem(emeralds(4), contents[0]);
+		assertItem(new ItemStack(Material.STONE, 5), contents[1]);
+		assertItem(emeraldBlocks(1), contents[2]);
+		Assert.assertNull(contents[3]);
+		Assert.assertEquals(13, ledger.getCurrencyValue());
+
+		// Not enough currency:
+		Assert.assertEquals(7, ledger.removeCurrency(20));
+		Assert.assertEquals(0, ledger.getCurrencyValue());
+	}
+
+	@Test
+	public void testAddCurrency() {
+		@Nullable ItemStack[] contents = new @Nullable ItemStack[] {
+				new ItemStack(Material.STONE, 64),
+				emeralds(60),
+				null,
+				null
+		};
+		ContainerLedger ledger = ContainerLedger.of(contents);
+		Assert.assertEquals(0, ledger.addCurrency(Currencies.getBase(), 10));
+		assertItem(emeralds(64), contents[1]);
+		assertItem(emeralds(6), contents[2]);
+		Assert.assertEquals(0, ledger.addCurrency(Currencies.getHigh(), 2));
+		assertItem(emeraldBlocks(2), contents[3]);
+		Assert.assertEquals(88, ledger.getCurrencyValue());
+
+		// Not enough space:
+		Assert.assertEquals(5, ledger.addCurrency(Currencies.getBase(), 63));
+		Assert.assertEquals(146, ledger.getCurrencyValue());
+	}
+
+	@Test
+	public void testStockItems() {
+		@Nullable ItemStack[] contents = new @Nullable ItemStack[] {
+				new ItemStack(Material.STONE, 5),
+				emeralds(2),
+				null
+		};
+		ContainerLedger ledger = ContainerLedger.of(contents);
+		ItemStack stone = new ItemStack(Material.STONE, 5);
+		Assert.assertEquals(0, ledger.removeItems(UnmodifiableItemStack.ofNonNull(stone)));
+		Assert.assertNull(contents[0]);
+
+		// The emptied slot is used for the added currency:
+		Assert.assertEquals(0, ledger.addCurrency(Currencies.getHigh(), 1));
+		assertItem(emeraldBlocks(1), contents[0]);
+
+		Assert.assertEquals(0, ledger.addItems(emeralds(1)));
+		assertItem(emeralds(3), contents[1]);
+		Assert.assertEquals(12, ledger.getCurrencyValue());
+	}
+}
@@ -0,0 +1,181 @@
+package com.nisovin.shopkeepers.shopobjects.living;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.LivingEntity;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.util.bukkit.TestRegionScheduler;
+
+public class LivingEntityAITests extends AbstractBukkitTest {
+
+	private static final World WORLD = createWorld("world");
+
+	private static World createWorld(String worldName) {
+		return createProxy(World.class, (proxy, methodName, args) -> {
+			switch (methodName) {
+			case "getName":
+				return worldName;
+			default:
+				return null;
+			}
+		});
+	}
+
+	private static LivingEntity createEntity(int blockX, int blockZ) {
+		return createProxy(LivingEntity.class, (proxy, methodName, args) -> {
+			switch (methodName) {
+			case "isValid":
+				return true;
+			case "isDead":
+				return false;
+			case "getWorld":
+				return WORLD;
+			case "getLocation":
+				if (args != null && args.length == 1) {
+					Location location = Unsafe.castNonNull(args[0]);
+					location.setWorld(WORLD);
+					location.setX(blockX);
+					location.setY(64.0D);
+					location.setZ(blockZ);
+					return location;
+				}
+				return new Location(WORLD, blockX, 64.0D, blockZ);
+			default:
+				return null;
+			}
+		});
+	}
+
+	@FunctionalInterface
+	private interface ProxyMethodHandler {
+		@Nullable
+		Object handle(Object proxy, String methodName, @Nullable Object @Nullable [] args);
+	}
+
+	private static <T> @NonNull T createProxy(Class<T> type, ProxyMethodHandler handler) {
+		return Unsafe.castNonNull(Proxy.newProxyInstance(
+				type.getClassLoader(),
+				new Class<?>[] { type },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return (args != null && proxy == args[0]);
+					case "toString":
+						return type.getSimpleName() + "@" + System.identityHashCode(proxy);
+					default:
+						return handler.handle(proxy, method.getName(), args);
+					}
+				}
+		));
+	}
+
+	private static LivingEntityAI createLivingEntityAI(TestRegionScheduler regionScheduler) {
+		return new LivingEntityAI(ShopkeepersPlugin.getInstance(), regionScheduler);
+	}
+
+	@Test
+	public void testRegionPartitions() {
+		TestRegionScheduler regionScheduler = new TestRegionScheduler();
+		LivingEntityAI livingEntityAI = createLivingEntityAI(regionScheduler);
+
+		// Two entities in the same region section, and one in another region section:
+		LivingEntity entity1 = createEntity(10, 10);
+		LivingEntity entity2 = createEntity(200, 30);
+		LivingEntity entity3 = createEntity(-10, 10);
+		livingEntityAI.addEntity(entity1);
+		livingEntityAI.addEntity(entity2);
+		livingEntityAI.addEntity(entity3);
+		Assert.assertEquals(3, livingEntityAI.getEntityCount());
+
+		// Each region section is processed by its own task, which is run in the region of the first
+		// chunk of the region section:
+		List<? extends TestRegionScheduler.@NonNull ScheduledTask> tasks = regionScheduler
+				.getTasks();
+		Assert.assertEquals(2, tasks.size());
+		Assert.assertEquals(0, tasks.get(0).chunkX);
+		Assert.assertEquals(0, tasks.get(0).chunkZ);
+		Assert.assertEquals(-16, tasks.get(1).chunkX);
+		Assert.assertEquals(0, tasks.get(1).chunkZ);
+		Assert.assertSame(WORLD, tasks.get(0).world);
+
+		// The chunks of new entities are active by default:
+		Assert.assertEquals(3, livingEntityAI.getActiveAIChunksCount());
+
+		// The first run updates the chunk activations. Since there are no players online, all
+		// chunks are deactivated:
+		regionScheduler.runTasks();
+		Assert.assertEquals(0, livingEntityAI.getActiveAIChunksCount());
+		Assert.assertEquals(0, livingEntityAI.getActiveAIEntityCount());
+		// The timings of both partitions are aggregated:
+		Assert.assertEquals(2L, livingEntityAI.getTotalTimings().getCounter());
+		Assert.assertEquals(2L, livingEntityAI.getActivationTimings().getCounter());
+		Assert.assertEquals(2L, livingEntityAI.getAITimings().getRecentCounter());
+
+		// The partition is removed and its task is cancelled once its last entity is removed:
+		livingEntityAI.removeEntity(entity1);
+		Assert.assertEquals(2, regionScheduler.getTasks().size());
+		livingEntityAI.removeEntity(entity2);
+		Assert.assertEquals(1, regionScheduler.getTasks().size());
+		Assert.assertTrue(tasks.get(0).isCancelled());
+		Assert.assertFalse(tasks.get(1).isCancelled());
+
+		// Adding an entity to the region section again creates a new partition:
+		livingEntityAI.addEntity(entity1);
+		Assert.assertEquals(2, regionScheduler.getTasks().size());
+		Assert.assertEquals(2, livingEntityAI.getEntityCount());
+
+		livingEntityAI.onDisable();
+		Assert.assertTrue(regionScheduler.getTasks().isEmpty());
+		Assert.assertEquals(0, livingEntityAI.getEntityCount());
+		Assert.assertEquals(0L, livingEntityAI.getTotalTimings().getCounter());
+	}
+
+	@Test
+	public void testRegionOwnership() {
+		TestRegionScheduler regionScheduler = new TestRegionScheduler();
+		LivingEntityAI livingEntityAI = createLivingEntityAI(regionScheduler);
+		LivingEntity entity = createEntity(10, 10);
+
+		// Entities can only be added by the thread that owns their region:
+		regionScheduler.setOwnedByCurrentThread(false);
+		try {
+			livingEntityAI.addEntity(entity);
+			Assert.fail("Expected an IllegalStateException!");
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+		Assert.assertEquals(0, livingEntityAI.getEntityCount());
+		Assert.assertTrue(regionScheduler.getTasks().isEmpty());
+
+		regionScheduler.setOwnedByCurrentThread(true);
+		livingEntityAI.addEntity(entity);
+		Assert.assertEquals(1, regionScheduler.getTasks().size());
+
+		// Entities can only be removed by the thread that owns their region:
+		regionScheduler.setOwnedByCurrentThread(false);
+		try {
+			livingEntityAI.removeEntity(entity);
+			Assert.fail("Expected an IllegalStateException!");
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+		Assert.assertEquals(1, livingEntityAI.getEntityCount());
+
+		regionScheduler.setOwnedByCurrentThread(true);
+		livingEntityAI.removeEntity(entity);
+		Assert.assertEquals(0, livingEntityAI.getEntityCount());
+		Assert.assertTrue(regionScheduler.getTasks().isEmpty());
+	}
+}
@@ -0,0 +1,137 @@
+package com.nisovin.shopkeepers.storage;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+
+public class DeferredShopkeepersTests {
+
+	private static final UUID OWNER_A = new UUID(1L, 1L);
+	private static final UUID OWNER_B = new UUID(1L, 2L);
+
+	private static final String WORLD_1 = "world1";
+	private static final String WORLD_2 = "world2";
+
+	private static UUID uniqueId(int shopkeeperId) {
+		return new UUID(2L, shopkeeperId);
+	}
+
+	private static DeferredShopkeepers.Entry entry(
+			int shopkeeperId,
+			String worldName,
+			@Nullable UUID ownerUniqueId
+	) {
+		return new DeferredShopkeepers.Entry(
+				shopkeeperId,
+				uniqueId(shopkeeperId),
+				worldName,
+				ownerUniqueId
+		);
+	}
+
+	private static DeferredShopkeepers createDeferredShopkeepers() {
+		DeferredShopkeepers deferredShopkeepers = new DeferredShopkeepers();
+		deferredShopkeepers.add(entry(1, WORLD_1, OWNER_A));
+		deferredShopkeepers.add(entry(2, WORLD_2, OWNER_A));
+		deferredShopkeepers.add(entry(3, WORLD_1, null)); // Admin shopkeeper
+		deferredShopkeepers.add(entry(4, WORLD_1, OWNER_B));
+		deferredShopkeepers.add(entry(5, WORLD_2, OWNER_A));
+		return deferredShopkeepers;
+	}
+
+	// Sorted by id:
+	private static List<@NonNull Integer> getIds(
+			List<? extends DeferredShopkeepers.@NonNull Entry> entries
+	) {
+		return entries.stream()
+				.map(entry -> entry.shopkeeperId)
+				.sorted()
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void testLookupById() {
+		DeferredShopkeepers deferredShopkeepers = createDeferredShopkeepers();
+		Assert.assertEquals(5, deferredShopkeepers.size());
+
+		DeferredShopkeepers.Entry entry = Unsafe.assertNonNull(deferredShopkeepers.removeById(3));
+		Assert.assertEquals(3, entry.shopkeeperId);
+		Assert.assertEquals(uniqueId(3), entry.uniqueId);
+		Assert.assertNull(entry.ownerUniqueId);
+		Assert.assertEquals(4, deferredShopkeepers.size());
+
+		// The shopkeeper is expected to be loaded now, so subsequent lookups no longer find it:
+		Assert.assertNull(deferredShopkeepers.removeById(3));
+		Assert.assertNull(deferredShopkeepers.removeByUniqueId(uniqueId(3)));
+		Assert.assertNull(deferredShopkeepers.removeById(99));
+	}
+
+	@Test
+	public void testLookupByUniqueId() {
+		DeferredShopkeepers deferredShopkeepers = createDeferredShopkeepers();
+		DeferredShopkeepers.@Nullable Entry entry = deferredShopkeepers
+				.removeByUniqueId(uniqueId(4));
+		Assert.assertNotNull(entry);
+		assert entry != null;
+		Assert.assertEquals(4, entry.shopkeeperId);
+		Assert.assertEquals(OWNER_B, entry.ownerUniqueId);
+		Assert.assertEquals(4, deferredShopkeepers.size());
+
+		Assert.assertNull(deferredShopkeepers.removeById(4));
+		Assert.assertNull(deferredShopkeepers.removeByUniqueId(uniqueId(4)));
+		// The shopkeeper is also removed from the index of its world:
+		List<? extends DeferredShopkeepers.@NonNull Entry> worldEntries = deferredShopkeepers
+				.removeByWorld(WORLD_1);
+		Assert.assertEquals(Arrays.asList(1, 3), getIds(worldEntries));
+	}
+
+	@Test
+	public void testLookupByOwner() {
+		DeferredShopkeepers deferredShopkeepers = createDeferredShopkeepers();
+
+		// All shopkeepers of the owner are returned, regardless of their world, so that they are
+		// all taken into account when the owner's shopkeepers are counted:
+		List<? extends DeferredShopkeepers.@NonNull Entry> ownerEntries = deferredShopkeepers
+				.removeByOwner(OWNER_A);
+		Assert.assertEquals(Arrays.asList(1, 2, 5), getIds(ownerEntries));
+		Assert.assertEquals(2, deferredShopkeepers.size());
+		Assert.assertTrue(deferredShopkeepers.removeByOwner(OWNER_A).isEmpty());
+
+		// The shopkeepers of other owners remain deferred:
+		Assert.assertNull(deferredShopkeepers.removeById(1));
+		Assert.assertTrue(deferredShopkeepers.removeByWorld(WORLD_2).isEmpty());
+		Assert.assertEquals(Arrays.asList(4), getIds(deferredShopkeepers.removeByOwner(OWNER_B)));
+		Assert.assertEquals(1, deferredShopkeepers.size());
+	}
+
+	@Test
+	public void testLookupByWorld() {
+		DeferredShopkeepers deferredShopkeepers = createDeferredShopkeepers();
+		List<? extends DeferredShopkeepers.@NonNull Entry> worldEntries = deferredShopkeepers
+				.removeByWorld(WORLD_1);
+		Assert.assertEquals(Arrays.asList(1, 3, 4), getIds(worldEntries));
+		Assert.assertTrue(deferredShopkeepers.removeByWorld(WORLD_1).isEmpty());
+
+		List<? extends DeferredShopkeepers.@NonNull Entry> ownerEntries = deferredShopkeepers
+				.removeByOwner(OWNER_A);
+		Assert.assertEquals(Arrays.asList(2, 5), getIds(ownerEntries));
+		Assert.assertTrue(deferredShopkeepers.isEmpty());
+	}
+
+	@Test
+	public void testClear() {
+		DeferredShopkeepers deferredShopkeepers = createDeferredShopkeepers();
+		deferredShopkeepers.clear();
+		Assert.assertTrue(deferredShopkeepers.isEmpty());
+		Assert.assertNull(deferredShopkeepers.removeByUniqueId(uniqueId(1)));
+		Assert.assertTrue(deferredShopkeepers.removeByWorld(WORLD_2).isEmpty());
+	}
+}
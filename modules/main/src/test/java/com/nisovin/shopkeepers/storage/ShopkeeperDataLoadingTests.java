@@ -0,0 +1,64 @@
+package com.nisovin.shopkeepers.storage;
+
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.shopkeeper.ShopkeeperData;
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.util.data.container.DataContainer;
+
+public class ShopkeeperDataLoadingTests extends AbstractBukkitTest {
+
+	private static final int SHOPKEEPERS_COUNT = 10;
+
+	private static DataContainer createSaveData() {
+		DataContainer saveData = DataContainer.create();
+		for (int id = 1; id <= SHOPKEEPERS_COUNT; id++) {
+			DataContainer shopkeeperData = saveData.createContainer(String.valueOf(id));
+			shopkeeperData.set("name", "shop" + id);
+		}
+		return saveData;
+	}
+
+	@Test
+	public void testShopkeeperIdIsReinserted() {
+		DataContainer saveData = createSaveData();
+		for (int id = 1; id <= SHOPKEEPERS_COUNT; id++) {
+			ShopkeeperData shopkeeperData = Unsafe.assertNonNull(
+					SKShopkeeperStorage.getShopkeeperData(saveData, id)
+			);
+			Assert.assertEquals(id, shopkeeperData.getInt(AbstractShopkeeper.ID.getName()));
+			Assert.assertEquals("shop" + id, shopkeeperData.getString("name"));
+		}
+	}
+
+	@Test
+	public void testSaveDataIsNotModified() {
+		DataContainer saveData = createSaveData();
+		Map<@NonNull String, @NonNull Object> savedValues = saveData.getValuesCopy();
+		for (int id = 1; id <= SHOPKEEPERS_COUNT; id++) {
+			ShopkeeperData shopkeeperData = Unsafe.assertNonNull(
+					SKShopkeeperStorage.getShopkeeperData(saveData, id)
+			);
+			shopkeeperData.set("name", "changed");
+
+			DataContainer storedData = Unsafe.assertNonNull(
+					saveData.getContainer(String.valueOf(id))
+			);
+			Assert.assertFalse(storedData.contains(AbstractShopkeeper.ID.getName()));
+			Assert.assertEquals("shop" + id, storedData.getString("name"));
+		}
+		Assert.assertEquals(savedValues.keySet(), saveData.getKeys());
+	}
+
+	@Test
+	public void testMissingShopkeeperData() {
+		DataContainer saveData = createSaveData();
+		Assert.assertNull(SKShopkeeperStorage.getShopkeeperData(saveData, SHOPKEEPERS_COUNT + 1));
+	}
+}
@@ -0,0 +1,217 @@
+package com.nisovin.shopkeepers.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.util.data.container.DataContainer;
+import com.nisovin.shopkeepers.util.data.persistence.InvalidDataFormatException;
+import com.nisovin.shopkeepers.util.data.persistence.bukkit.BukkitConfigDataStore;
+import com.nisovin.shopkeepers.util.logging.Log;
+import com.nisovin.shopkeepers.util.logging.NullLogger;
+
+public class ShopkeeperSaveJournalTests {
+
+	private static final long BASE_CHECKSUM = 123456789L;
+
+	@BeforeClass
+	public static void setup() {
+		Log.setLogger(NullLogger.getInstance());
+	}
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path journalFile() {
+		return temporaryFolder.getRoot().toPath().resolve("data").resolve("save.journal");
+	}
+
+	private static ShopkeeperSaveJournal.Record data(int shopkeeperId, String name) {
+		DataContainer data = DataContainer.create();
+		data.set("name", name);
+		data.set("offers", Arrays.asList("a", "b"));
+		return new ShopkeeperSaveJournal.Record(shopkeeperId, data);
+	}
+
+	private static ShopkeeperSaveJournal.Record deleted(int shopkeeperId) {
+		return new ShopkeeperSaveJournal.Record(shopkeeperId, null);
+	}
+
+	// The save file data that the journal records are replayed on:
+	private static BukkitConfigDataStore createSaveData() {
+		BukkitConfigDataStore saveData = BukkitConfigDataStore.ofNewYamlConfig();
+		saveData.set("1", Collections.singletonMap("name", "base1"));
+		saveData.set("3", Collections.singletonMap("name", "base3"));
+		return saveData;
+	}
+
+	private static @Nullable String getName(BukkitConfigDataStore saveData, int shopkeeperId) {
+		@Nullable DataContainer data = saveData.getContainer(String.valueOf(shopkeeperId));
+		return (data != null) ? data.getString("name") : null;
+	}
+
+	private ShopkeeperSaveJournal writeJournal() throws IOException {
+		ShopkeeperSaveJournal journal = new ShopkeeperSaveJournal(this.journalFile());
+		journal.reset(BASE_CHECKSUM);
+		journal.append(Arrays.asList(data(1, "first1"), data(2, "first2")));
+		journal.append(Arrays.asList(deleted(3), data(2, "second2")));
+		return journal;
+	}
+
+	// Replays the journal file with a new journal instance:
+	private boolean replay(
+			long saveFileChecksum,
+			BukkitConfigDataStore saveData
+	) throws IOException, InvalidDataFormatException {
+		return new ShopkeeperSaveJournal(this.journalFile()).replay(saveFileChecksum, saveData);
+	}
+
+	private static long getFileSize(Path file) throws IOException {
+		return Files.size(file);
+	}
+
+	private static void truncate(Path file, long size) throws IOException {
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, (int) size));
+	}
+
+	@Test
+	public void testAppendAndReplay() throws IOException, InvalidDataFormatException {
+		ShopkeeperSaveJournal journal = this.writeJournal();
+		Assert.assertEquals(4, journal.getRecordCount());
+
+		BukkitConfigDataStore saveData = createSaveData();
+		ShopkeeperSaveJournal replayJournal = new ShopkeeperSaveJournal(this.journalFile());
+		Assert.assertTrue(replayJournal.replay(BASE_CHECKSUM, saveData));
+		Assert.assertEquals(4, replayJournal.getRecordCount());
+
+		Assert.assertEquals("first1", getName(saveData, 1));
+		Assert.assertEquals("second2", getName(saveData, 2));
+		Assert.assertNull(saveData.getContainer("3"));
+		DataContainer data1 = Unsafe.assertNonNull(saveData.getContainer("1"));
+		Assert.assertEquals(Arrays.asList("a", "b"), data1.getList("offers"));
+
+		// Appending after the replay continues the replayed journal:
+		replayJournal.append(Collections.singletonList(data(3, "third3")));
+		BukkitConfigDataStore saveData2 = createSaveData();
+		Assert.assertTrue(this.replay(BASE_CHECKSUM, saveData2));
+		Assert.assertEquals("third3", getName(saveData2, 3));
+		Assert.assertEquals("second2", getName(saveData2, 2));
+	}
+
+	@Test
+	public void testMissingJournal() throws IOException, InvalidDataFormatException {
+		BukkitConfigDataStore saveData = createSaveData();
+		ShopkeeperSaveJournal journal = new ShopkeeperSaveJournal(this.journalFile());
+		Assert.assertTrue(journal.replay(BASE_CHECKSUM, saveData));
+		Assert.assertEquals("base1", getName(saveData, 1));
+		Assert.assertEquals(0, journal.getRecordCount());
+	}
+
+	@Test
+	public void testReset() throws IOException {
+		ShopkeeperSaveJournal journal = this.writeJournal();
+		Assert.assertTrue(Files.exists(this.journalFile()));
+		journal.reset(BASE_CHECKSUM + 1);
+		Assert.assertFalse(Files.exists(this.journalFile()));
+		Assert.assertEquals(0, journal.getRecordCount());
+	}
+
+	@Test
+	public void testTruncatedRecord() throws IOException, InvalidDataFormatException {
+		ShopkeeperSaveJournal journal = new ShopkeeperSaveJournal(this.journalFile());
+		journal.reset(BASE_CHECKSUM);
+		journal.append(Arrays.asList(data(1, "first1"), data(2, "first2")));
+		long firstAppendSize = getFileSize(this.journalFile());
+		journal.append(Arrays.asList(deleted(3), data(2, "second2")));
+		long fullSize = getFileSize(this.journalFile());
+
+		// Cut off the checksum of the last record:
+		truncate(this.journalFile(), fullSize - 2);
+		BukkitConfigDataStore saveData = createSaveData();
+		Assert.assertFalse(this.replay(BASE_CHECKSUM, saveData));
+		Assert.assertEquals("first1", getName(saveData, 1));
+		Assert.assertEquals("first2", getName(saveData, 2));
+		Assert.assertNull(getName(saveData, 3));
+
+		// Cut off in the middle of the header of the third record:
+		truncate(this.journalFile(), firstAppendSize + 2);
+		saveData = createSaveData();
+		Assert.assertFalse(this.replay(BASE_CHECKSUM, saveData));
+		Assert.assertEquals("first2", getName(saveData, 2));
+		Assert.assertEquals("base3", getName(saveData, 3));
+
+		// Incomplete journal header:
+		truncate(this.journalFile(), 6);
+		saveData = createSaveData();
+		Assert.assertFalse(this.replay(BASE_CHECKSUM, saveData));
+		Assert.assertEquals("base1", getName(saveData, 1));
+		Assert.assertNull(getName(saveData, 2));
+	}
+
+	@Test
+	public void testCorruptedRecord() throws IOException, InvalidDataFormatException {
+		this.writeJournal();
+		Path journalFile = this.journalFile();
+		byte[] bytes = Files.readAllBytes(journalFile);
+		// Flip a bit in the payload of the last record, right before its checksum:
+		bytes[bytes.length - 5] ^= 0x01;
+		Files.write(journalFile, bytes);
+
+		BukkitConfigDataStore saveData = createSaveData();
+		Assert.assertFalse(this.replay(BASE_CHECKSUM, saveData));
+		Assert.assertEquals("first1", getName(saveData, 1));
+		Assert.assertEquals("first2", getName(saveData, 2));
+		// The deletion before the corrupted record has been replayed:
+		Assert.assertNull(getName(saveData, 3));
+
+		// Corrupted checksum of the first record: Nothing is replayed.
+		bytes = Files.readAllBytes(journalFile);
+		int firstRecordChecksumOffset = 12 + 4 + 1 + 4 + getPayloadLength(bytes, 12);
+		bytes[firstRecordChecksumOffset] ^= 0x01;
+		Files.write(journalFile, bytes);
+		saveData = createSaveData();
+		Assert.assertFalse(this.replay(BASE_CHECKSUM, saveData));
+		Assert.assertEquals("base1", getName(saveData, 1));
+		Assert.assertNull(getName(saveData, 2));
+	}
+
+	// Reads the payload length of the record at the given offset:
+	private static int getPayloadLength(byte[] bytes, int recordOffset) {
+		int offset = recordOffset + 4 + 1;
+		return ((bytes[offset] & 0xFF) << 24)
+				| ((bytes[offset + 1] & 0xFF) << 16)
+				| ((bytes[offset + 2] & 0xFF) << 8)
+				| (bytes[offset + 3] & 0xFF);
+	}
+
+	@Test
+	public void testBaseChecksumMismatch() throws IOException, InvalidDataFormatException {
+		this.writeJournal();
+
+		BukkitConfigDataStore saveData = createSaveData();
+		ShopkeeperSaveJournal journal = new ShopkeeperSaveJournal(this.journalFile());
+		Assert.assertFalse(journal.replay(BASE_CHECKSUM + 1, saveData));
+		Assert.assertEquals(0, journal.getRecordCount());
+		Assert.assertEquals("base1", getName(saveData, 1));
+		Assert.assertNull(getName(saveData, 2));
+		Assert.assertEquals("base3", getName(saveData, 3));
+
+		// The next append replaces the outdated journal:
+		journal.append(Collections.singletonList(data(2, "new2")));
+		saveData = createSaveData();
+		Assert.assertTrue(this.replay(BASE_CHECKSUM + 1, saveData));
+		Assert.assertEquals("new2", getName(saveData, 2));
+		Assert.assertEquals("base1", getName(saveData, 1));
+	}
+}
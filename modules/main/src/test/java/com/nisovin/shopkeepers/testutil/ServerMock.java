@@ -1,15 +1,19 @@
 package com.nisovin.shopkeepers.testutil;
 
+import java.util.Collections;
 import java.util.logging.Logger;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.Server;
 import org.bukkit.craftbukkit.v1_16_R3.block.data.CraftBlockData;
+import org.bukkit.craftbukkit.v1_16_R3.inventory.CraftInventoryCustom;
 import org.bukkit.craftbukkit.v1_16_R3.inventory.CraftItemFactory;
 import org.bukkit.craftbukkit.v1_16_R3.util.CraftMagicNumbers;
 import org.bukkit.craftbukkit.v1_16_R3.util.Versioning;
+import org.bukkit.inventory.InventoryHolder;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.util.java.Validate;
@@ -60,6 +64,10 @@ class ServerMock extends ProxyHandler<@NonNull Server> {
 			return logger;
 		});
 
+		this.addHandler(Server.class.getMethod("getOnlinePlayers"), (proxy, args) -> {
+			return Collections.emptyList();
+		});
+
 		this.addHandler(Server.class.getMethod("getUnsafe"), (proxy, args) -> {
 			return CraftMagicNumbers.INSTANCE;
 		});
@@ -73,5 +81,16 @@ class ServerMock extends ProxyHandler<@NonNull Server> {
 					return CraftBlockData.newData(material, Unsafe.uncheckedNull());
 				}
 		);
+
+		this.addHandler(
+				Server.class.getMethod("createInventory", InventoryHolder.class, int.class),
+				(proxy, args) -> {
+					Validate.notNull(args, "args is null");
+					assert args != null;
+					@Nullable InventoryHolder holder = (@Nullable InventoryHolder) args[0];
+					int size = Unsafe.castNonNull(args[1]);
+					return new CraftInventoryCustom(holder, size);
+				}
+		);
 	}
 }
@@ -8,7 +8,12 @@ import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.internal.ApiInternals;
 import com.nisovin.shopkeepers.api.internal.InternalShopkeepersAPI;
 import com.nisovin.shopkeepers.api.internal.InternalShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.api.ui.UIRegistry;
 import com.nisovin.shopkeepers.internals.SKApiInternals;
+import com.nisovin.shopkeepers.shopkeeper.SKShopTypesRegistry;
+import com.nisovin.shopkeepers.shopobjects.SKShopObjectTypesRegistry;
 import com.nisovin.shopkeepers.util.logging.Log;
 
 /**
@@ -43,5 +48,47 @@ class ShopkeepersPluginMock extends ProxyHandler<@NonNull InternalShopkeepersPlu
 					return apiInternals;
 				}
 		);
+
+		// Initially empty: Tests register the types they use.
+		SKShopTypesRegistry shopTypeRegistry = new SKShopTypesRegistry();
+		this.addHandler(
+				InternalShopkeepersPlugin.class.getMethod("getShopTypeRegistry"),
+				(proxy, args) -> {
+					return shopTypeRegistry;
+				}
+		);
+		SKShopObjectTypesRegistry shopObjectTypeRegistry = new SKShopObjectTypesRegistry();
+		this.addHandler(
+				InternalShopkeepersPlugin.class.getMethod("getShopObjectTypeRegistry"),
+				(proxy, args) -> {
+					return shopObjectTypeRegistry;
+				}
+		);
+
+		UIRegistry<?> uiRegistry = new UIRegistryMock().newProxy();
+		this.addHandler(
+				InternalShopkeepersPlugin.class.getMethod("getUIRegistry"),
+				(proxy, args) -> {
+					return uiRegistry;
+				}
+		);
+	}
+
+	// There are no UI sessions during tests.
+	private static class UIRegistryMock extends ProxyHandler<@NonNull UIRegistry<?>> {
+
+		UIRegistryMock() {
+			super(Unsafe.cast(UIRegistry.class));
+		}
+
+		@Override
+		protected void setupMethodHandlers() throws Exception {
+			this.addHandler(
+					UIRegistry.class.getMethod("abortUISessions", Shopkeeper.class),
+					(proxy, args) -> {
+						return null;
+					}
+			);
+		}
 	}
 }
@@ -0,0 +1,258 @@
+package com.nisovin.shopkeepers.tradelog.binary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.nisovin.shopkeepers.tradelog.data.PlayerRecord;
+import com.nisovin.shopkeepers.tradelog.data.ShopRecord;
+import com.nisovin.shopkeepers.util.logging.Log;
+import com.nisovin.shopkeepers.util.logging.NullLogger;
+
+public class BinaryTradeLogTests {
+
+	private static final int SHOP_COUNT = 5;
+	private static final int PLAYER_COUNT = 3;
+	// Small enough to result in multiple segments:
+	private static final long MAX_SEGMENT_SIZE = 2048L;
+
+	@BeforeClass
+	public static void setup() {
+		Log.setLogger(NullLogger.getInstance());
+	}
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static UUID shopId(int index) {
+		return new UUID(-index, index);
+	}
+
+	private static UUID playerId(int index) {
+		return new UUID(index, -index);
+	}
+
+	private static LoggedTrade createTrade(int index) {
+		int shopIndex = index % SHOP_COUNT;
+		int playerIndex = index % PLAYER_COUNT;
+		PlayerRecord owner = (shopIndex % 2 == 0) ? PlayerRecord.of(playerId(99), "owner") : null;
+		ShopRecord shop = new ShopRecord(
+				shopId(shopIndex),
+				"sell",
+				owner,
+				"shop" + shopIndex,
+				(shopIndex == 0) ? null : "world",
+				shopIndex,
+				64,
+				-shopIndex
+		);
+		return new LoggedTrade(
+				Instant.ofEpochMilli(1000L * index),
+				PlayerRecord.of(playerId(playerIndex), "player" + playerIndex),
+				shop,
+				new LoggedItem("DIAMOND", 1 + index % 64, ""),
+				new LoggedItem("EMERALD", 2, "display-name: \"\u00C4\""),
+				(index % 3 == 0) ? new LoggedItem("STONE", 3, "") : null,
+				1 + index % 4
+		);
+	}
+
+	private static List<@NonNull LoggedTrade> query(BinaryTradeLog log, TradeLogQuery query)
+			throws IOException {
+		List<@NonNull LoggedTrade> results = new ArrayList<>();
+		log.query(query, trade -> {
+			results.add(trade);
+			return true;
+		});
+		return results;
+	}
+
+	// Newest first:
+	private static List<@NonNull LoggedTrade> expected(
+			List<? extends @NonNull LoggedTrade> trades,
+			TradeLogQuery query
+	) {
+		List<@NonNull LoggedTrade> expected = trades.stream()
+				.filter(query::matches)
+				.collect(Collectors.toList());
+		Collections.reverse(expected);
+		return expected;
+	}
+
+	private static void assertQueries(
+			BinaryTradeLog log,
+			List<? extends @NonNull LoggedTrade> trades
+	) throws IOException {
+		List<@NonNull TradeLogQuery> queries = new ArrayList<>();
+		queries.add(TradeLogQuery.all());
+		queries.add(TradeLogQuery.all().withTimeRange(
+				Instant.ofEpochMilli(10500L),
+				Instant.ofEpochMilli(42000L)
+		));
+		for (int i = 0; i < SHOP_COUNT + 1; i++) {
+			queries.add(TradeLogQuery.shop(shopId(i)));
+			queries.add(TradeLogQuery.shop(shopId(i))
+					.withTimeRange(Instant.ofEpochMilli(20000L), null));
+		}
+		for (int i = 0; i < PLAYER_COUNT + 1; i++) {
+			queries.add(TradeLogQuery.player(playerId(i)));
+			queries.add(TradeLogQuery.player(playerId(i))
+					.withTimeRange(null, Instant.ofEpochMilli(30000L)));
+		}
+		for (TradeLogQuery query : queries) {
+			Assert.assertEquals(query.toString(), expected(trades, query), query(log, query));
+		}
+	}
+
+	private static long countFiles(Path folder, String suffix) throws IOException {
+		try (Stream<Path> files = Files.list(folder)) {
+			return files.filter(file -> file.toString().endsWith(suffix)).count();
+		}
+	}
+
+	@Test
+	public void testAppendAndQuery() throws IOException {
+		Path folder = temporaryFolder.getRoot().toPath();
+		BinaryTradeLog log = new BinaryTradeLog(folder, MAX_SEGMENT_SIZE);
+		List<@NonNull LoggedTrade> trades = new ArrayList<>();
+		for (int batch = 0; batch < 20; batch++) {
+			List<@NonNull LoggedTrade> batchTrades = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				batchTrades.add(createTrade(trades.size() + batchTrades.size()));
+			}
+			log.append(batchTrades);
+			trades.addAll(batchTrades);
+		}
+
+		Assert.assertTrue(countFiles(folder, ".idx") > 1);
+		assertQueries(log, trades);
+
+		// The query stops once the consumer returns false:
+		List<@NonNull LoggedTrade> firstTwo = new ArrayList<>();
+		log.query(TradeLogQuery.all(), trade -> {
+			firstTwo.add(trade);
+			return firstTwo.size() < 2;
+		});
+		Assert.assertEquals(expected(trades, TradeLogQuery.all()).subList(0, 2), firstTwo);
+
+		// Reopen:
+		log.close();
+		log = new BinaryTradeLog(folder, MAX_SEGMENT_SIZE);
+		assertQueries(log, trades);
+
+		// Append after reopening:
+		trades.add(createTrade(trades.size()));
+		log.append(trades.subList(trades.size() - 1, trades.size()));
+		assertQueries(log, trades);
+		log.close();
+	}
+
+	@Test
+	public void testIncompleteRecordsAreDiscarded() throws IOException {
+		Path folder = temporaryFolder.getRoot().toPath();
+		BinaryTradeLog log = new BinaryTradeLog(folder, MAX_SEGMENT_SIZE);
+		List<@NonNull LoggedTrade> trades = new ArrayList<>();
+		trades.add(createTrade(0));
+		trades.add(createTrade(1));
+		log.append(trades);
+		log.close();
+
+		// Simulate an interrupted write at the end of the active segment:
+		Path logFile = folder.resolve("trades-000001.log");
+		try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+			ByteBuffer partialRecord = ByteBuffer.allocate(20);
+			partialRecord.putInt(100).putInt(12345).putLong(42L);
+			partialRecord.flip();
+			channel.write(partialRecord, channel.size());
+		}
+		long corruptedSize = Files.size(logFile);
+
+		log = new BinaryTradeLog(folder, MAX_SEGMENT_SIZE);
+		assertQueries(log, trades);
+		Assert.assertTrue(Files.size(logFile) < corruptedSize);
+
+		trades.add(createTrade(2));
+		log.append(trades.subList(2, 3));
+		assertQueries(log, trades);
+		log.close();
+	}
+
+	private static List<@NonNull LoggedTrade> appendTrades(BinaryTradeLog log, int count)
+			throws IOException {
+		List<@NonNull LoggedTrade> trades = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			trades.add(createTrade(i));
+		}
+		for (int i = 0; i < count; i += 3) {
+			log.append(trades.subList(i, Math.min(count, i + 3)));
+		}
+		return trades;
+	}
+
+	@Test
+	public void testIncompleteIndexIsRebuilt() throws IOException {
+		Path folder = temporaryFolder.getRoot().toPath();
+		BinaryTradeLog log = new BinaryTradeLog(folder, MAX_SEGMENT_SIZE);
+		List<@NonNull LoggedTrade> trades = appendTrades(log, 60);
+		log.close();
+
+		Path indexFile = folder.resolve("trades-000001.idx");
+		long indexFileSize = Files.size(indexFile);
+		try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.WRITE)) {
+			channel.truncate(indexFileSize / 2);
+		}
+
+		log = new BinaryTradeLog(folder, MAX_SEGMENT_SIZE);
+		assertQueries(log, trades);
+		Assert.assertEquals(indexFileSize, Files.size(indexFile));
+		log.close();
+	}
+
+	@Test
+	public void testCorruptIndexIsRebuilt() throws IOException {
+		Path folder = temporaryFolder.getRoot().toPath();
+		BinaryTradeLog log = new BinaryTradeLog(folder, MAX_SEGMENT_SIZE);
+		List<@NonNull LoggedTrade> trades = appendTrades(log, 60);
+
+		// Overwrite the index entries, but keep the index header and the size of the index file:
+		Path indexFile = folder.resolve("trades-000001.idx");
+		long indexFileSize = Files.size(indexFile);
+		try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.WRITE)) {
+			ByteBuffer zeros = ByteBuffer.allocate((int) indexFileSize - 28);
+			channel.write(zeros, 28L);
+		}
+
+		// The query that encounters the corrupt index fails:
+		try {
+			query(log, TradeLogQuery.all());
+			Assert.fail("Expected an IOException!");
+		} catch (IOException e) {
+			// Expected.
+		}
+
+		// The index has been rebuilt, and subsequent queries succeed:
+		assertQueries(log, trades);
+
+		// Queries also succeed after the log has been closed and reopened:
+		log.close();
+		assertQueries(log, trades);
+		log.close();
+	}
+}
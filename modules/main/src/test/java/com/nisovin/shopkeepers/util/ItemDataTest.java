@@ -1,17 +1,26 @@
 package com.nisovin.shopkeepers.util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import org.bukkit.Material;
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.enchantments.Enchantment;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.util.data.serialization.InvalidDataException;
 import com.nisovin.shopkeepers.util.inventory.ItemData;
+import com.nisovin.shopkeepers.util.inventory.ItemSerialization;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
 import com.nisovin.shopkeepers.util.yaml.YamlUtils;
 
@@ -314,4 +323,75 @@ public class ItemDataTest extends AbstractItemStackSerializationTest<@Nullable S
 				itemData.matches(new ItemData(differentItemData))
 		);
 	}
+
+	@Test
+	public void testItemDataMatchesPartialData() {
+		ItemStack completeItem = TestItemStacks.createItemStackComplete();
+		ItemData displayNameItemData = new ItemData(TestItemStacks.createItemStackDisplayName());
+		ItemData basicToolItemData = new ItemData(TestItemStacks.createItemStackBasicTool());
+		Assert.assertTrue(
+				"ItemData#matches(item with additional data)",
+				displayNameItemData.matches(completeItem)
+		);
+		Assert.assertTrue(
+				"ItemData#matches(item with additional data)",
+				basicToolItemData.matches(completeItem)
+		);
+
+		ItemData completeItemData = new ItemData(completeItem);
+		ItemStack additionalLore = completeItem.clone();
+		ItemMeta additionalLoreMeta = Unsafe.assertNonNull(additionalLore.getItemMeta());
+		List<@NonNull String> lore = new ArrayList<>(
+				Unsafe.assertNonNull(additionalLoreMeta.getLore())
+		);
+		lore.add("lore3");
+		additionalLoreMeta.setLore(lore);
+		additionalLore.setItemMeta(additionalLoreMeta);
+		Assert.assertFalse(
+				"!ItemData#matches(item with additional lore)",
+				completeItemData.matches(additionalLore)
+		);
+		Assert.assertTrue(
+				"ItemData#matches(item with additional lore, matching partial lists)",
+				completeItemData.matches(additionalLore, true)
+		);
+
+		ItemStack missingEnchantment = completeItem.clone();
+		missingEnchantment.removeEnchantment(Unsafe.assertNonNull(Enchantment.DAMAGE_ALL));
+		Assert.assertFalse(
+				"!ItemData#matches(item with missing enchantment)",
+				completeItemData.matches(missingEnchantment)
+		);
+	}
+
+	// The compiled matchers of ItemData are supposed to behave like the matching of the serialized
+	// item data.
+	@Test
+	public void testItemDataMatchesLikeSerializedData() {
+		List<? extends @Nullable ItemStack> itemStacks = TestItemStacks.createAllItemStacks();
+		for (ItemStack dataItem : itemStacks) {
+			if (ItemUtils.isEmpty(dataItem)) continue;
+			assert dataItem != null;
+			ItemData itemData = new ItemData(dataItem);
+			Map<? extends @NonNull String, @NonNull ?> serializedMetaData = ItemSerialization.serializeItemMetaOrEmpty(
+					dataItem.getItemMeta()
+			);
+			for (ItemStack item : itemStacks) {
+				for (boolean matchPartialLists : new boolean[] { false, true }) {
+					boolean expected = ItemUtils.matchesData(
+							item,
+							dataItem.getType(),
+							serializedMetaData,
+							matchPartialLists
+					);
+					Assert.assertEquals(
+							"ItemData#matches: data=" + dataItem + ", item=" + item
+									+ ", matchPartialLists=" + matchPartialLists,
+							expected,
+							itemData.matches(item, matchPartialLists)
+					);
+				}
+			}
+		}
+	}
 }
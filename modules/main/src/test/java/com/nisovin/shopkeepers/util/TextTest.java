@@ -7,6 +7,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
 
@@ -19,9 +22,12 @@ import org.junit.Test;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.text.HoverEventText;
 import com.nisovin.shopkeepers.text.Text;
+import com.nisovin.shopkeepers.text.TextTemplate;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
 import com.nisovin.shopkeepers.util.java.ClassUtils;
+import com.nisovin.shopkeepers.util.text.MessageArguments;
 
 public class TextTest extends AbstractBukkitTest {
 
@@ -127,4 +133,45 @@ public class TextTest extends AbstractBukkitTest {
 				+ " (total config entries)");
 		assertTrue("The test didn't actually test anything!", tested > 0);
 	}
+
+	@Test
+	public void testTextTemplate() {
+		Text text = Text.parse("&a{first} and {second}, again {first}: {missing}");
+		text = Text.hoverEvent(Text.parse("&7{second}")).child(text).getRoot();
+		String sourcePlainText = text.toPlainText();
+
+		TextTemplate template = TextTemplate.of(text);
+		assertSame("Template is not cached", template, TextTemplate.of(text));
+		assertEquals(3, template.getPlaceholderCount());
+
+		Map<@NonNull String, @NonNull Object> argumentsMap = new HashMap<>();
+		argumentsMap.put("first", 1);
+		argumentsMap.put("second", Text.parse("&6two"));
+		MessageArguments arguments = MessageArguments.ofMap(argumentsMap);
+		Text expected = text.copy().setPlaceholderArguments(arguments);
+		assertEquals(
+				"Rendered template does not match Text with assigned arguments",
+				expected.toFormat(), template.render(arguments, Text::toFormat)
+		);
+		assertEquals(
+				"Rendered template does not match Text with assigned arguments",
+				expected.toPlainText(), template.render(arguments, Text::toPlainText)
+		);
+		assertEquals(
+				"Rendered hover text does not match Text with assigned arguments",
+				((HoverEventText) expected).getValue().toPlainText(),
+				template.render(arguments, t -> ((HoverEventText) t).getValue().toPlainText())
+		);
+		assertEquals(
+				"Rendering the template modified the source Text",
+				sourcePlainText, text.toPlainText()
+		);
+
+		// The arguments are cleared after rendering:
+		MessageArguments noArguments = MessageArguments.ofMap(Collections.emptyMap());
+		assertEquals(
+				"Rendered template without arguments does not match the source Text",
+				sourcePlainText, template.render(noArguments, Text::toPlainText)
+		);
+	}
 }
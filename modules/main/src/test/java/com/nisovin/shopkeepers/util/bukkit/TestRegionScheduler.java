@@ -0,0 +1,113 @@
+package com.nisovin.shopkeepers.util.bukkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * A {@link RegionScheduler} for tests that simulates a server with regionized multithreading.
+ * <p>
+ * Periodic tasks are not run automatically, but only when the test runs them via
+ * {@link #runTasks()}. Whether the current thread owns the regions can be toggled via
+ * {@link #setOwnedByCurrentThread(boolean)}.
+ */
+public class TestRegionScheduler extends RegionScheduler {
+
+	public static final class ScheduledTask implements Task {
+
+		public final World world;
+		public final int chunkX;
+		public final int chunkZ;
+		private final Runnable task;
+		private boolean cancelled = false;
+
+		private ScheduledTask(World world, int chunkX, int chunkZ, Runnable task) {
+			this.world = world;
+			this.chunkX = chunkX;
+			this.chunkZ = chunkZ;
+			this.task = task;
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+
+		public boolean isCancelled() {
+			return cancelled;
+		}
+	}
+
+	private final List<@NonNull ScheduledTask> tasks = new ArrayList<>();
+	private boolean ownedByCurrentThread = true;
+
+	public TestRegionScheduler() {
+	}
+
+	public void setOwnedByCurrentThread(boolean ownedByCurrentThread) {
+		this.ownedByCurrentThread = ownedByCurrentThread;
+	}
+
+	// Only returns the tasks that have not been cancelled:
+	public List<? extends @NonNull ScheduledTask> getTasks() {
+		return tasks.stream().filter(task -> !task.cancelled).collect(Collectors.toList());
+	}
+
+	// Runs the tasks that have not been cancelled once:
+	public void runTasks() {
+		this.getTasks().forEach(task -> task.task.run());
+	}
+
+	@Override
+	public boolean isRegionized() {
+		return true;
+	}
+
+	@Override
+	public boolean isOwnedByCurrentThread(World world, int chunkX, int chunkZ) {
+		Validate.notNull(world, "world is null");
+		return ownedByCurrentThread;
+	}
+
+	@Override
+	public void run(Plugin plugin, World world, int chunkX, int chunkZ, Runnable task) {
+		Validate.notNull(task, "task is null");
+		task.run();
+	}
+
+	@Override
+	public Task runAtFixedRate(
+			Plugin plugin,
+			World world,
+			int chunkX,
+			int chunkZ,
+			Runnable task,
+			long delayTicks,
+			long periodTicks
+	) {
+		Validate.notNull(world, "world is null");
+		Validate.notNull(task, "task is null");
+		ScheduledTask scheduledTask = new ScheduledTask(world, chunkX, chunkZ, task);
+		tasks.add(scheduledTask);
+		return scheduledTask;
+	}
+
+	@Override
+	public void runGlobal(Plugin plugin, Runnable task) {
+		Validate.notNull(task, "task is null");
+		task.run();
+	}
+
+	@Override
+	public void teleport(Entity entity, Location location) {
+		throw new UnsupportedOperationException("Teleports are not supported by this scheduler!");
+	}
+}
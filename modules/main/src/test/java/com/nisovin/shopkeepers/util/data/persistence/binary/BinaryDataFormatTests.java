@@ -0,0 +1,324 @@
+package com.nisovin.shopkeepers.util.data.persistence.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.util.TestItemStacks;
+import com.nisovin.shopkeepers.util.bukkit.ConfigUtils;
+import com.nisovin.shopkeepers.util.data.container.DataContainer;
+import com.nisovin.shopkeepers.util.data.persistence.InvalidDataFormatException;
+import com.nisovin.shopkeepers.util.data.persistence.bukkit.BukkitConfigDataStore;
+
+public class BinaryDataFormatTests extends AbstractBukkitTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static Map<@NonNull String, @NonNull Object> roundTrip(Map<?, ?> data) {
+		try {
+			return BinaryDataFormat.decode(BinaryDataFormat.encode(data));
+		} catch (InvalidDataFormatException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private static Object roundTripValue(Object value) {
+		Object decoded = roundTrip(Collections.singletonMap("value", value)).get("value");
+		Assert.assertNotNull(decoded);
+		assert decoded != null;
+		return decoded;
+	}
+
+	private static Map<@NonNull String, @NonNull Object> createNestedData() {
+		Map<@NonNull String, @NonNull Object> inner = new LinkedHashMap<>();
+		inner.put("name", "inner");
+		inner.put("list", Arrays.asList(
+				1, "two", Arrays.asList(3L, 4.5D), Collections.emptyList()
+		));
+		inner.put("empty", Collections.emptyMap());
+
+		Map<@NonNull String, @NonNull Object> data = new LinkedHashMap<>();
+		data.put("string", "text");
+		data.put("true", true);
+		data.put("false", false);
+		data.put("inner", inner);
+		data.put("maps", Arrays.asList(inner, Collections.singletonMap("key", "value")));
+		return data;
+	}
+
+	@Test
+	public void testNestedMapsAndLists() {
+		Map<@NonNull String, @NonNull Object> data = createNestedData();
+		Map<@NonNull String, @NonNull Object> decoded = roundTrip(data);
+		Assert.assertEquals(data, decoded);
+		// The entry order is preserved:
+		Assert.assertEquals(new ArrayList<>(data.keySet()), new ArrayList<>(decoded.keySet()));
+	}
+
+	@Test
+	public void testNullValues() {
+		Map<@NonNull String, @Nullable Object> data = new LinkedHashMap<>();
+		data.put("a", null);
+		data.put("b", Arrays.asList("x", null, "y"));
+		Map<@NonNull String, @NonNull Object> decoded = roundTrip(data);
+		// Maps omit null values, lists retain them:
+		Assert.assertFalse(decoded.containsKey("a"));
+		Assert.assertEquals(Arrays.asList("x", null, "y"), decoded.get("b"));
+	}
+
+	@Test
+	public void testDataContainers() {
+		DataContainer container = DataContainer.create();
+		container.set("key", "value");
+		container.set("number", 5);
+		Object decoded = roundTripValue(container);
+		Assert.assertEquals(container.getValues(), decoded);
+	}
+
+	@Test
+	public void testNumbers() {
+		// Integers:
+		for (int value : new int[] {
+				0, 1, -1, 63, -64, 64, 127, 128, Integer.MAX_VALUE, Integer.MIN_VALUE
+		}) {
+			Assert.assertEquals(value, roundTripValue(value));
+		}
+		// Longs retain their type, even if they are small:
+		for (long value : new long[] { 0L, -1L, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE }) {
+			Assert.assertEquals(value, roundTripValue(value));
+		}
+		// Bytes and shorts are decoded as integers:
+		Assert.assertEquals(-5, roundTripValue((byte) -5));
+		Assert.assertEquals((int) Short.MAX_VALUE, roundTripValue(Short.MAX_VALUE));
+		Assert.assertEquals((int) Short.MIN_VALUE, roundTripValue(Short.MIN_VALUE));
+		// Floats and doubles:
+		for (float value : new float[] {
+				0.0F, -1.5F, Float.MAX_VALUE, Float.MIN_VALUE, Float.NaN
+		}) {
+			Assert.assertEquals(value, roundTripValue(value));
+		}
+		for (double value : new double[] {
+				0.0D, -0.0D, 1.0E-300D, Double.MAX_VALUE, Double.NEGATIVE_INFINITY, Double.NaN
+		}) {
+			Assert.assertEquals(value, roundTripValue(value));
+		}
+	}
+
+	@Test
+	public void testStrings() {
+		Assert.assertEquals("", roundTripValue(""));
+		Assert.assertEquals("Äöß §aColored 😀", roundTripValue("Äöß §aColored 😀"));
+		// Characters are decoded as Strings:
+		Assert.assertEquals("c", roundTripValue('c'));
+	}
+
+	@Test
+	public void testStringTable() {
+		String repeated = "a rather long String that is repeated many times";
+		Map<@NonNull String, @NonNull Object> repeatedData = new LinkedHashMap<>();
+		Map<@NonNull String, @NonNull Object> distinctData = new LinkedHashMap<>();
+		for (int i = 0; i < 100; i++) {
+			// Keys and values share the same String table:
+			repeatedData.put(String.valueOf(i), Arrays.asList(repeated, String.valueOf(i)));
+			distinctData.put(String.valueOf(i), Arrays.asList(repeated + i, String.valueOf(i)));
+		}
+
+		byte[] repeatedEncoded = BinaryDataFormat.encode(repeatedData);
+		byte[] distinctEncoded = BinaryDataFormat.encode(distinctData);
+		Assert.assertEquals(repeatedData, roundTrip(repeatedData));
+		Assert.assertEquals(distinctData, roundTrip(distinctData));
+
+		// Apart from its first occurrence, the repeated String only requires a single byte for
+		// its String table reference:
+		int repeatedLength = repeated.getBytes(StandardCharsets.UTF_8).length;
+		Assert.assertTrue(repeatedEncoded.length < distinctEncoded.length - 99 * repeatedLength);
+	}
+
+	@Test
+	public void testItemStacks() {
+		List<@Nullable ItemStack> items = new ArrayList<>(TestItemStacks.createAllItemStacks());
+		Map<@NonNull String, @NonNull Object> data = new LinkedHashMap<>();
+		data.put("items", items);
+		data.put("item", TestItemStacks.createItemStackComplete());
+		Assert.assertEquals(data, roundTrip(data));
+	}
+
+	private static void assertInvalid(byte[] data) {
+		try {
+			BinaryDataFormat.decode(data);
+			Assert.fail("Expected an InvalidDataFormatException!");
+		} catch (InvalidDataFormatException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testTruncatedData() {
+		Map<@NonNull String, @NonNull Object> data = createNestedData();
+		data.put("item", TestItemStacks.createItemStackComplete());
+		byte[] encoded = BinaryDataFormat.encode(data);
+		for (int length = 0; length < encoded.length; length++) {
+			assertInvalid(Arrays.copyOf(encoded, length));
+		}
+	}
+
+	// The header and the entry count of a Map with a single entry:
+	private static ByteArrayOutputStream createSingleEntryHeader() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] encoded = BinaryDataFormat.encode(Collections.emptyMap());
+		// Header (magic and version), without the zero entry count:
+		out.write(encoded, 0, encoded.length - 1);
+		out.write(1); // Entry count
+		return out;
+	}
+
+	private static void writeNewString(ByteArrayOutputStream out, String string) {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.write(0); // New String
+		out.write(bytes.length);
+		out.write(bytes, 0, bytes.length);
+	}
+
+	@Test
+	public void testCorruptedData() throws IOException {
+		byte[] valid = BinaryDataFormat.encode(createNestedData());
+		Assert.assertTrue(BinaryDataFormat.isBinaryData(valid));
+
+		// Unknown magic:
+		byte[] corrupted = valid.clone();
+		corrupted[0] ^= 0x01;
+		Assert.assertFalse(BinaryDataFormat.isBinaryData(corrupted));
+		assertInvalid(corrupted);
+
+		// Unsupported format version:
+		corrupted = valid.clone();
+		corrupted[7] = 99;
+		assertInvalid(corrupted);
+
+		// Trailing data:
+		assertInvalid(Arrays.copyOf(valid, valid.length + 1));
+
+		// Unknown value tag:
+		ByteArrayOutputStream out = createSingleEntryHeader();
+		writeNewString(out, "key");
+		out.write(99);
+		assertInvalid(out.toByteArray());
+
+		// Invalid String table reference:
+		out = createSingleEntryHeader();
+		out.write(5);
+		out.write(0); // Null value
+		assertInvalid(out.toByteArray());
+
+		// String length that exceeds the data:
+		out = createSingleEntryHeader();
+		out.write(0); // New String
+		out.write(100);
+		out.write('a');
+		out.write(0);
+		assertInvalid(out.toByteArray());
+
+		// Huge List size:
+		out = createSingleEntryHeader();
+		writeNewString(out, "key");
+		out.write(8); // List tag
+		out.write(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 });
+		assertInvalid(out.toByteArray());
+
+		// Malformed variable-length number:
+		out = createSingleEntryHeader();
+		writeNewString(out, "key");
+		out.write(4); // Long tag
+		byte[] malformed = new byte[11];
+		Arrays.fill(malformed, (byte) 0xFF);
+		out.write(malformed);
+		assertInvalid(out.toByteArray());
+
+		// Unknown serialized type:
+		Map<@NonNull String, @NonNull Object> unknownType = new LinkedHashMap<>();
+		unknownType.put("==", "UnknownType");
+		unknownType.put("value", 1);
+		assertInvalid(BinaryDataFormat.encode(Collections.singletonMap("object", unknownType)));
+	}
+
+	@Test
+	public void testDataStore() throws IOException, InvalidDataFormatException {
+		BinaryDataStore dataStore = BinaryDataStore.create();
+		dataStore.setAll(createNestedData());
+		dataStore.set("item", TestItemStacks.createItemStackComplete());
+
+		BinaryDataStore loaded = BinaryDataStore.create();
+		loaded.set("outdated", "value");
+		loaded.loadFromString(dataStore.saveToString());
+		Assert.assertEquals(dataStore.getValues(), loaded.getValues());
+
+		Path file = temporaryFolder.getRoot().toPath().resolve("data").resolve("save.dat");
+		dataStore.save(file);
+		BinaryDataStore loadedFromFile = BinaryDataStore.create();
+		loadedFromFile.load(file);
+		Assert.assertEquals(dataStore.getValues(), loadedFromFile.getValues());
+
+		try {
+			loaded.loadFromString("not Base64!");
+			Assert.fail("Expected an InvalidDataFormatException!");
+		} catch (InvalidDataFormatException e) {
+			// Expected
+		}
+	}
+
+	// Loaded configurations contain configuration sections instead of Maps:
+	private static Map<@NonNull String, @NonNull Object> getValues(
+			BukkitConfigDataStore dataStore
+	) {
+		Map<@NonNull String, @NonNull Object> values = dataStore.getValuesCopy();
+		ConfigUtils.convertSectionsToMaps(values);
+		return values;
+	}
+
+	@Test
+	public void testYamlConversion() throws InvalidDataFormatException {
+		BukkitConfigDataStore source = BukkitConfigDataStore.ofNewYamlConfig();
+		source.set("data-version", 3);
+		source.set("1", createNestedData());
+		source.set("2", Collections.singletonMap("offers", Collections.singletonMap("1",
+				Collections.singletonMap("item", TestItemStacks.createItemStackComplete()))));
+		source.set("big-number", 1234567890123L);
+		source.set("decimal", 0.25D);
+		String yaml = source.saveToString();
+
+		// Load from YAML, the same way the storage does:
+		BukkitConfigDataStore yamlData = BukkitConfigDataStore.ofNewYamlConfig();
+		yamlData.loadFromString(yaml);
+
+		// YAML -> BINARY:
+		BinaryDataStore binaryData = BinaryDataStore.create();
+		binaryData.loadFromBytes(BinaryDataFormat.encode(yamlData.getValues()));
+		Assert.assertEquals(getValues(yamlData), binaryData.getValues());
+
+		// BINARY -> YAML:
+		BukkitConfigDataStore convertedYamlData = BukkitConfigDataStore.ofNewYamlConfig();
+		convertedYamlData.setAll(binaryData.getValues());
+		Assert.assertEquals(yaml, convertedYamlData.saveToString());
+
+		BukkitConfigDataStore reloadedYamlData = BukkitConfigDataStore.ofNewYamlConfig();
+		reloadedYamlData.loadFromString(convertedYamlData.saveToString());
+		Assert.assertEquals(getValues(yamlData), getValues(reloadedYamlData));
+	}
+}
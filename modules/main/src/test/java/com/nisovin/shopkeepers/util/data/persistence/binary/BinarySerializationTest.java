@@ -0,0 +1,29 @@
+package com.nisovin.shopkeepers.util.data.persistence.binary;
+
+import java.util.Collections;
+
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.util.AbstractItemStackSerializationTest;
+import com.nisovin.shopkeepers.util.data.persistence.InvalidDataFormatException;
+
+public class BinarySerializationTest extends AbstractItemStackSerializationTest<byte @Nullable []> {
+
+	private static final String KEY = "item";
+
+	@Override
+	protected byte @Nullable [] serialize(@Nullable ItemStack itemStack) {
+		return BinaryDataFormat.encode(Collections.singletonMap(KEY, itemStack));
+	}
+
+	@Override
+	protected @Nullable ItemStack deserialize(byte @Nullable [] serialized) {
+		if (serialized == null) return null;
+		try {
+			return (ItemStack) BinaryDataFormat.decode(serialized).get(KEY);
+		} catch (InvalidDataFormatException e) {
+			throw new AssertionError(e);
+		}
+	}
+}
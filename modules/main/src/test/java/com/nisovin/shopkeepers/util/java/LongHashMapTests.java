@@ -0,0 +1,58 @@
+package com.nisovin.shopkeepers.util.java;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LongHashMapTests {
+
+	@Test
+	public void testBasicOperations() {
+		LongHashMap<@NonNull String> map = new LongHashMap<>();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertNull(map.put(0L, "a"));
+		Assert.assertNull(map.put(-1L, "b"));
+		Assert.assertEquals("a", map.put(0L, "c"));
+		Assert.assertEquals(2, map.size());
+		Assert.assertEquals("c", map.get(0L));
+		Assert.assertEquals("b", map.get(-1L));
+		Assert.assertNull(map.get(1L));
+		Assert.assertTrue(map.containsKey(-1L));
+		Assert.assertEquals("b", map.remove(-1L));
+		Assert.assertNull(map.remove(-1L));
+		Assert.assertFalse(map.containsKey(-1L));
+		Assert.assertEquals(1, map.size());
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertNull(map.get(0L));
+	}
+
+	@Test
+	public void testRandomOperations() {
+		Random random = new Random(1L);
+		LongHashMap<@NonNull Long> map = new LongHashMap<>();
+		Map<@NonNull Long, @NonNull Long> expected = new HashMap<>();
+		for (int i = 0; i < 100000; i++) {
+			// A small key range, so that keys are frequently replaced and removed again:
+			long key = random.nextInt(2000) - 1000;
+			if (random.nextBoolean()) {
+				Long value = random.nextLong();
+				Assert.assertEquals(expected.put(key, value), map.put(key, value));
+			} else {
+				Assert.assertEquals(expected.remove(key), map.remove(key));
+			}
+			Assert.assertEquals(expected.size(), map.size());
+		}
+
+		for (long key = -1000; key < 1000; key++) {
+			Assert.assertEquals(expected.get(key), map.get(key));
+		}
+		Map<@NonNull Long, @NonNull Long> actual = new HashMap<>();
+		map.forEach(actual::put);
+		Assert.assertEquals(expected, actual);
+	}
+}
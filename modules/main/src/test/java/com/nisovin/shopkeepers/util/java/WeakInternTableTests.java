@@ -0,0 +1,76 @@
+package com.nisovin.shopkeepers.util.java;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WeakInternTableTests {
+
+	private static String intern(
+			WeakInternTable<@NonNull Integer, @NonNull String> table,
+			int key
+	) {
+		return table.intern(key, value -> true, k -> new String("value" + k));
+	}
+
+	@Test
+	public void testInterning() {
+		WeakInternTable<@NonNull Integer, @NonNull String> table = new WeakInternTable<>();
+		String value1 = intern(table, 1);
+		String value2 = intern(table, 2);
+		Assert.assertSame(value1, intern(table, 1));
+		Assert.assertSame(value2, intern(table, 2));
+		Assert.assertEquals(2, table.size());
+		Assert.assertEquals(2, table.getHitCount());
+		Assert.assertEquals(2, table.getMissCount());
+
+		// Values that are not reusable are replaced:
+		String replaced = table.intern(1, value -> false, k -> new String("other" + k));
+		Assert.assertEquals("other1", replaced);
+		Assert.assertSame(replaced, intern(table, 1));
+		Assert.assertEquals(2, table.size());
+		Assert.assertEquals(3, table.getMissCount());
+	}
+
+	@Test
+	public void testConcurrentInterning() throws InterruptedException {
+		WeakInternTable<@NonNull Integer, @NonNull String> table = new WeakInternTable<>();
+		int threadCount = 8;
+		int keyCount = 100;
+		String[][] results = new String[threadCount][keyCount];
+		CountDownLatch start = new CountDownLatch(1);
+		List<@NonNull Thread> threads = new ArrayList<>();
+		for (int t = 0; t < threadCount; t++) {
+			String[] threadResults = results[t];
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int key = 0; key < keyCount; key++) {
+					threadResults[key] = intern(table, key);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		// The results are strongly referenced, so all threads received the same instances:
+		for (int key = 0; key < keyCount; key++) {
+			for (int t = 1; t < threadCount; t++) {
+				Assert.assertSame(results[0][key], results[t][key]);
+			}
+		}
+		Assert.assertEquals(keyCount, table.getMissCount());
+		Assert.assertEquals((threadCount - 1) * keyCount, table.getHitCount());
+	}
+}
@@ -0,0 +1,147 @@
+package com.nisovin.shopkeepers.util.timer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyHistogramTests {
+
+	private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1L);
+
+	// A manually advanced clock:
+	private static class TestClock {
+
+		long nanos;
+
+		TestClock(long nanos) {
+			this.nanos = nanos;
+		}
+
+		void advanceSeconds(long seconds) {
+			nanos += seconds * SECOND_NANOS;
+		}
+	}
+
+	@Test
+	public void testBucketIndex() {
+		// Small values are recorded exactly:
+		for (int value = 0; value < 16; value++) {
+			Assert.assertEquals(value, LatencyHistogram.getBucketIndex(value));
+			Assert.assertEquals(value, LatencyHistogram.getBucketMaxValue(value));
+		}
+		Assert.assertEquals(16, LatencyHistogram.getBucketIndex(16L));
+		Assert.assertEquals(31, LatencyHistogram.getBucketIndex(31L));
+		// Each power-of-two range is split into 16 buckets:
+		Assert.assertEquals(32, LatencyHistogram.getBucketIndex(32L));
+		Assert.assertEquals(32, LatencyHistogram.getBucketIndex(33L));
+		Assert.assertEquals(33, LatencyHistogram.getBucketIndex(34L));
+		Assert.assertEquals(33L, LatencyHistogram.getBucketMaxValue(32));
+
+		// Negative values are recorded as zero:
+		Assert.assertEquals(0, LatencyHistogram.getBucketIndex(-5L));
+
+		// Very large values are recorded into the last bucket:
+		int lastBucket = LatencyHistogram.getBucketIndex(Long.MAX_VALUE);
+		Assert.assertEquals(lastBucket, LatencyHistogram.getBucketIndex(1L << 40));
+		Assert.assertEquals(lastBucket, LatencyHistogram.getBucketIndex((1L << 40) - 1));
+		Assert.assertEquals((1L << 40) - 1, LatencyHistogram.getBucketMaxValue(lastBucket));
+
+		// The bucket indices are increasing, and each value is at most the max value of its bucket,
+		// with a relative error of at most 1/16:
+		int previousIndex = -1;
+		for (long value = 0L; value < (1L << 40); value = value * 9 / 8 + 1) {
+			int index = LatencyHistogram.getBucketIndex(value);
+			Assert.assertTrue(index >= previousIndex);
+			long maxValue = LatencyHistogram.getBucketMaxValue(index);
+			Assert.assertTrue(value <= maxValue);
+			Assert.assertTrue(maxValue - value <= value / 16);
+			// The next bucket starts after the max value of this bucket:
+			if (index < lastBucket) {
+				Assert.assertEquals(index + 1, LatencyHistogram.getBucketIndex(maxValue + 1));
+			}
+			previousIndex = index;
+		}
+	}
+
+	@Test
+	public void testEmpty() {
+		LatencyHistogram histogram = new LatencyHistogram(() -> 0L);
+		Assert.assertEquals(0L, histogram.getCount());
+		Assert.assertEquals(0L, histogram.getPercentileNanos(50.0D));
+		Assert.assertEquals(0L, histogram.getPercentileNanos(100.0D));
+	}
+
+	@Test
+	public void testPercentiles() {
+		TestClock clock = new TestClock(0L);
+		LatencyHistogram histogram = new LatencyHistogram(() -> clock.nanos);
+		for (long value = 1L; value <= 100L; value++) {
+			histogram.record(value);
+		}
+		Assert.assertEquals(100L, histogram.getCount());
+
+		// The percentiles are rounded up to the max value of their bucket:
+		Assert.assertEquals(1L, histogram.getPercentileNanos(0.0D));
+		Assert.assertEquals(1L, histogram.getPercentileNanos(1.0D));
+		Assert.assertEquals(15L, histogram.getPercentileNanos(15.0D));
+		Assert.assertEquals(51L, histogram.getPercentileNanos(50.0D));
+		Assert.assertEquals(99L, histogram.getPercentileNanos(99.0D));
+		Assert.assertEquals(103L, histogram.getPercentileNanos(100.0D));
+
+		// The percentiles take the durations of all slots within the window into account:
+		clock.advanceSeconds(10L);
+		for (int i = 0; i < 100; i++) {
+			histogram.record(TimeUnit.MILLISECONDS.toNanos(50L));
+		}
+		Assert.assertEquals(200L, histogram.getCount());
+		Assert.assertEquals(51L, histogram.getPercentileNanos(25.0D));
+		long p75 = histogram.getPercentileNanos(75.0D);
+		Assert.assertTrue(p75 >= TimeUnit.MILLISECONDS.toNanos(50L));
+		Assert.assertTrue(p75 <= TimeUnit.MILLISECONDS.toNanos(50L) * 17 / 16);
+
+		histogram.reset();
+		Assert.assertEquals(0L, histogram.getCount());
+		Assert.assertEquals(0L, histogram.getPercentileNanos(50.0D));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPercentile() {
+		new LatencyHistogram(() -> 0L).getPercentileNanos(100.1D);
+	}
+
+	@Test
+	public void testSlidingWindowExpiry() {
+		this.testSlidingWindowExpiry(0L);
+		// System.nanoTime() may also return negative values:
+		this.testSlidingWindowExpiry(-1234L * SECOND_NANOS - 5L);
+	}
+
+	private void testSlidingWindowExpiry(long startNanos) {
+		TestClock clock = new TestClock(startNanos);
+		LatencyHistogram histogram = new LatencyHistogram(() -> clock.nanos);
+		histogram.record(100L);
+		clock.advanceSeconds(30L);
+		histogram.record(200L);
+		histogram.record(200L);
+		Assert.assertEquals(3L, histogram.getCount());
+
+		// The first duration expires once the window has moved past its slot:
+		clock.advanceSeconds(LatencyHistogram.WINDOW_SECONDS - 30L + 10L);
+		Assert.assertEquals(2L, histogram.getCount());
+		Assert.assertEquals(207L, histogram.getPercentileNanos(0.0D));
+
+		// Recording a new duration reuses an expired slot:
+		histogram.record(300L);
+		Assert.assertEquals(3L, histogram.getCount());
+
+		clock.advanceSeconds(LatencyHistogram.WINDOW_SECONDS);
+		Assert.assertEquals(0L, histogram.getCount());
+		Assert.assertEquals(0L, histogram.getPercentileNanos(99.0D));
+
+		// Slots that were last used a full window cycle ago are not mistaken for current slots:
+		histogram.record(400L);
+		Assert.assertEquals(1L, histogram.getCount());
+		Assert.assertEquals(415L, histogram.getPercentileNanos(50.0D));
+	}
+}
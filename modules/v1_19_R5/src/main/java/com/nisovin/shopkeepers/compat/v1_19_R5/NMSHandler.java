@@ -174,8 +174,24 @@ public final class NMSHandler implements NMSCallProvider {
 		return CraftItemStack.asNMSCopy(itemStack);
 	}
 
+	@Override
+	public @Nullable Object createMatchData(ItemStack required) {
+		if (ItemUtils.isEmpty(required)) return null;
+		// Copied, since the data is reused for subsequent matches:
+		return CraftItemStack.asNMSCopy(required);
+	}
+
 	@Override
 	public boolean matches(@Nullable ItemStack provided, @Nullable ItemStack required) {
+		return this.matches(provided, required, null);
+	}
+
+	@Override
+	public boolean matches(
+			@Nullable ItemStack provided,
+			@Nullable ItemStack required,
+			@Nullable Object requiredMatchData
+	) {
 		if (provided == required) return true;
 		// If the required item is empty, then the provided item has to be empty as well:
 		if (ItemUtils.isEmpty(required)) return ItemUtils.isEmpty(provided);
@@ -185,7 +201,12 @@ public final class NMSHandler implements NMSCallProvider {
 		Unsafe.assertNonNull(provided);
 		if (provided.getType() != required.getType()) return false;
 		net.minecraft.world.item.ItemStack nmsProvided = asNMSItemStack(provided);
-		net.minecraft.world.item.ItemStack nmsRequired = asNMSItemStack(required);
+		net.minecraft.world.item.ItemStack nmsRequired;
+		if (requiredMatchData instanceof net.minecraft.world.item.ItemStack) {
+			nmsRequired = (net.minecraft.world.item.ItemStack) requiredMatchData;
+		} else {
+			nmsRequired = asNMSItemStack(required);
+		}
 		CompoundTag providedTag = nmsProvided.getTag();
 		CompoundTag requiredTag = nmsRequired.getTag();
 		// Compare the tags according to Minecraft's matching rules (imprecise):